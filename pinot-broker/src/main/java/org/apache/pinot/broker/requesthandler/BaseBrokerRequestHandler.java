@@ -122,6 +122,8 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
   private final int _defaultHllLog2m;
   private final boolean _enableQueryLimitOverride;
   private final boolean _enableDistinctCountBitmapOverride;
+  private final BrokerResultCache _resultCache;
+  private final long _resultCacheRefreshGracePeriodMs;
 
   public BaseBrokerRequestHandler(PinotConfiguration config, BrokerRoutingManager routingManager,
       AccessControlFactory accessControlFactory, QueryQuotaManager queryQuotaManager, TableCache tableCache,
@@ -138,6 +140,13 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
     _enableQueryLimitOverride = _config.getProperty(Broker.CONFIG_OF_ENABLE_QUERY_LIMIT_OVERRIDE, false);
     _enableDistinctCountBitmapOverride =
         _config.getProperty(CommonConstants.Helix.ENABLE_DISTINCT_COUNT_BITMAP_OVERRIDE_KEY, false);
+    long resultCacheMaxSizeBytes = _config.getProperty(Broker.CONFIG_OF_BROKER_RESULT_CACHE_MAX_SIZE_BYTES,
+        Broker.DEFAULT_BROKER_RESULT_CACHE_MAX_SIZE_BYTES);
+    _resultCache = resultCacheMaxSizeBytes > 0 ? new BrokerResultCache(resultCacheMaxSizeBytes,
+        _config.getProperty(Broker.CONFIG_OF_BROKER_RESULT_CACHE_EXPIRE_TIME_MS,
+            Broker.DEFAULT_BROKER_RESULT_CACHE_EXPIRE_TIME_MS)) : null;
+    _resultCacheRefreshGracePeriodMs = _config.getProperty(Broker.CONFIG_OF_BROKER_RESULT_CACHE_REFRESH_GRACE_PERIOD_MS,
+        Broker.DEFAULT_BROKER_RESULT_CACHE_REFRESH_GRACE_PERIOD_MS);
 
     _brokerId = config.getProperty(Broker.CONFIG_OF_BROKER_ID, getDefaultBrokerId());
     _brokerTimeoutMs = config.getProperty(Broker.CONFIG_OF_BROKER_TIMEOUT_MS, Broker.DEFAULT_BROKER_TIMEOUT_MS);
@@ -441,6 +450,13 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
       realtimeBrokerRequest.getPinotQuery().setFilterExpression(null);
     }
 
+    // Result cache is only applied to the queries hitting only the OFFLINE table because the consuming segments in the
+    // REALTIME table keep changing
+    boolean useResultCache =
+        _resultCache != null && offlineBrokerRequest != null && realtimeBrokerRequest == null && !pinotQuery.isExplain()
+            && !Boolean.parseBoolean(pinotQuery.getQueryOptions().get(Broker.Request.TRACE))
+            && _routingManager.isResultCacheEnabled(offlineTableName);
+
     // Calculate routing table for the query
     // TODO: Modify RoutingManager interface to directly take PinotQuery
     long routingStartTimeNs = System.nanoTime();
@@ -494,6 +510,31 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
     long routingEndTimeNs = System.nanoTime();
     _brokerMetrics.addPhaseTiming(rawTableName, BrokerQueryPhase.QUERY_ROUTING, routingEndTimeNs - routingStartTimeNs);
 
+    // Look up the result cache with the CRCs of the queried segments
+    // NOTE: Segment CRCs are not available for the segments just refreshed, where servers might still serve the old
+    //       segments, and the result cache is skipped for such queries.
+    BrokerResultCache.Key resultCacheKey = null;
+    Map<String, Long> segmentCrcMap = null;
+    if (useResultCache && offlineRoutingTable != null && numUnavailableSegments == 0) {
+      segmentCrcMap =
+          _routingManager.getSegmentCrcMap(offlineTableName, offlineRoutingTable, _resultCacheRefreshGracePeriodMs);
+    }
+    if (segmentCrcMap != null) {
+      resultCacheKey = new BrokerResultCache.Key(pinotQuery, offlineBrokerRequest.getPinotQuery(), segmentCrcMap);
+      BrokerResponseNative cachedBrokerResponse = _resultCache.get(resultCacheKey);
+      if (cachedBrokerResponse != null) {
+        _brokerMetrics.addMeteredTableValue(rawTableName, BrokerMeter.RESULT_CACHE_HITS, 1);
+        long totalTimeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - compilationStartTimeNs);
+        cachedBrokerResponse.setTimeUsedMs(totalTimeMs);
+        requestContext.setQueryProcessingTime(totalTimeMs);
+        augmentStatistics(requestContext, cachedBrokerResponse);
+        logBrokerResponse(requestId, query, requestContext, tableName, 0, new ServerStats(), cachedBrokerResponse,
+            totalTimeMs);
+        return cachedBrokerResponse;
+      }
+      _brokerMetrics.addMeteredTableValue(rawTableName, BrokerMeter.RESULT_CACHE_MISSES, 1);
+    }
+
     // Set timeout in the requests
     long timeSpentMs = TimeUnit.NANOSECONDS.toMillis(routingEndTimeNs - compilationStartTimeNs);
     // Remaining time in milliseconds for the server query execution
@@ -539,6 +580,12 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
             realtimeBrokerRequest, realtimeRoutingTable, remainingTimeMs, serverStats, requestContext);
     brokerResponse.setExceptions(exceptions);
     long executionEndTimeNs = System.nanoTime();
+
+    // Only cache the complete responses
+    if (resultCacheKey != null && brokerResponse.getExceptionsSize() == 0
+        && brokerResponse.getNumServersResponded() == brokerResponse.getNumServersQueried()) {
+      _resultCache.put(resultCacheKey, brokerResponse);
+    }
     _brokerMetrics.addPhaseTiming(rawTableName, BrokerQueryPhase.QUERY_EXECUTION,
         executionEndTimeNs - routingEndTimeNs);
 
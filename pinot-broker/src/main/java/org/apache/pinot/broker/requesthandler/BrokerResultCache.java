@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.requesthandler;
+
+import com.google.common.base.Utf8;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.pinot.common.request.PinotQuery;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The {@code BrokerResultCache} caches the broker responses for the identical queries on the same set of segments.
+ * <p>The cache key contains the compiled query, the query sent to the servers, and the segments selected for the query
+ * along with their CRCs from the segment ZK metadata. A refreshed segment gets a new CRC, so stale entries are never
+ * hit again, and will be evicted when the cache is full or expired.
+ * <p>The responses are stored as JSON strings so that each hit gets its own copy of the response, and the cache size
+ * is bounded by the total UTF-8 encoded size of the cached responses.
+ */
+@ThreadSafe
+public class BrokerResultCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(BrokerResultCache.class);
+
+  private final Cache<Key, String> _cache;
+
+  public BrokerResultCache(long maxSizeBytes, long expireTimeMs) {
+    _cache = CacheBuilder.newBuilder().maximumWeight(maxSizeBytes)
+        .weigher((Key key, String response) -> Utf8.encodedLength(response))
+        .expireAfterWrite(expireTimeMs, TimeUnit.MILLISECONDS).build();
+  }
+
+  /**
+   * Returns the cached broker response for the given key, or {@code null} if it does not exist.
+   */
+  @Nullable
+  public BrokerResponseNative get(Key key) {
+    String response = _cache.getIfPresent(key);
+    if (response == null) {
+      return null;
+    }
+    try {
+      return BrokerResponseNative.fromJsonString(response);
+    } catch (Exception e) {
+      LOGGER.warn("Caught exception while deserializing the cached broker response, invalidating it", e);
+      _cache.invalidate(key);
+      return null;
+    }
+  }
+
+  /**
+   * Caches the broker response for the given key.
+   */
+  public void put(Key key, BrokerResponseNative brokerResponse) {
+    try {
+      _cache.put(key, brokerResponse.toJsonString());
+    } catch (Exception e) {
+      LOGGER.warn("Caught exception while serializing the broker response, skipping caching it", e);
+    }
+  }
+
+  public long size() {
+    return _cache.size();
+  }
+
+  /**
+   * Key of the result cache. The queries are copied because they might be modified after the key is created (e.g.
+   * query timeout is set into the query options).
+   */
+  public static final class Key {
+    private final PinotQuery _pinotQuery;
+    private final PinotQuery _serverPinotQuery;
+    private final Map<String, Long> _segmentCrcMap;
+    private final int _hashCode;
+
+    public Key(PinotQuery pinotQuery, PinotQuery serverPinotQuery, Map<String, Long> segmentCrcMap) {
+      _pinotQuery = new PinotQuery(pinotQuery);
+      _serverPinotQuery = new PinotQuery(serverPinotQuery);
+      _segmentCrcMap = new HashMap<>(segmentCrcMap);
+      _hashCode = Objects.hash(_pinotQuery, _serverPinotQuery, _segmentCrcMap);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return _hashCode == that._hashCode && _pinotQuery.equals(that._pinotQuery) && _serverPinotQuery.equals(
+          that._serverPinotQuery) && _segmentCrcMap.equals(that._segmentCrcMap);
+    }
+
+    @Override
+    public int hashCode() {
+      return _hashCode;
+    }
+  }
+}
@@ -41,6 +41,7 @@ import org.apache.helix.store.zk.ZkHelixPropertyStore;
 import org.apache.pinot.broker.broker.helix.ClusterChangeHandler;
 import org.apache.pinot.broker.routing.instanceselector.InstanceSelector;
 import org.apache.pinot.broker.routing.instanceselector.InstanceSelectorFactory;
+import org.apache.pinot.broker.routing.segmentcrc.SegmentCrcManager;
 import org.apache.pinot.broker.routing.segmentpreselector.SegmentPreSelector;
 import org.apache.pinot.broker.routing.segmentpreselector.SegmentPreSelectorFactory;
 import org.apache.pinot.broker.routing.segmentpruner.SegmentPruner;
@@ -79,6 +80,8 @@ import org.slf4j.LoggerFactory;
  *   <li>{@link #getRoutingTable(BrokerRequest)}: Returns the routing table for a query</li>
  *   <li>{@link #getTimeBoundaryInfo(String)}: Returns the time boundary info for a table</li>
  *   <li>{@link #getQueryTimeoutMs(String)}: Returns the table-level query timeout in milliseconds for a table</li>
+ *   <li>{@link #isResultCacheEnabled(String)}: Returns whether the broker result cache is enabled for a table</li>
+ *   <li>{@link #getSegmentCrcMap(String, Map, long)}: Returns the CRC of the queried segments for a table</li>
  * </ul>
  *
  * TODO: Expose RoutingEntry class to get a consistent view in the broker request handler and save the redundant map
@@ -477,11 +480,19 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
 
     QueryConfig queryConfig = tableConfig.getQueryConfig();
     Long queryTimeoutMs = queryConfig != null ? queryConfig.getTimeoutMs() : null;
+    boolean enableResultCache = queryConfig != null && Boolean.TRUE.equals(queryConfig.getEnableResultCache());
+
+    // Track the segment CRCs for the result cache
+    SegmentCrcManager segmentCrcManager = null;
+    if (enableResultCache) {
+      segmentCrcManager = new SegmentCrcManager(tableNameWithType, _propertyStore);
+      segmentCrcManager.init(idealState, externalView, preSelectedOnlineSegments);
+    }
 
     RoutingEntry routingEntry =
         new RoutingEntry(tableNameWithType, idealStatePath, externalViewPath, segmentPreSelector, segmentSelector,
             segmentPruners, instanceSelector, idealStateVersion, externalViewVersion, timeBoundaryManager,
-            queryTimeoutMs);
+            queryTimeoutMs, segmentCrcManager);
     if (_routingEntryMap.put(tableNameWithType, routingEntry) == null) {
       LOGGER.info("Built routing for table: {}", tableNameWithType);
     } else {
@@ -617,6 +628,31 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
     return routingEntry != null ? routingEntry.getQueryTimeoutMs() : null;
   }
 
+  /**
+   * Returns {@code true} if the broker result cache is enabled in the table config for the given table.
+   */
+  public boolean isResultCacheEnabled(String tableNameWithType) {
+    RoutingEntry routingEntry = _routingEntryMap.get(tableNameWithType);
+    return routingEntry != null && routingEntry.isResultCacheEnabled();
+  }
+
+  /**
+   * Returns the map from segment to CRC (from the segment ZK metadata) for the segments in the given routing table, or
+   * {@code null} if the result cache is not enabled for the given table, the CRC is not available for any segment, or
+   * any segment is refreshed within the given refresh grace period (servers might still serve the old segment).
+   */
+  @Nullable
+  public Map<String, Long> getSegmentCrcMap(String tableNameWithType, Map<ServerInstance, List<String>> routingTable,
+      long refreshGracePeriodMs) {
+    RoutingEntry routingEntry = _routingEntryMap.get(tableNameWithType);
+    if (routingEntry == null) {
+      return null;
+    }
+    SegmentCrcManager segmentCrcManager = routingEntry.getSegmentCrcManager();
+    return segmentCrcManager != null ? segmentCrcManager.getSegmentCrcMap(routingTable.values(), refreshGracePeriodMs)
+        : null;
+  }
+
   private static class RoutingEntry {
     final String _tableNameWithType;
     final String _idealStatePath;
@@ -626,6 +662,8 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
     final List<SegmentPruner> _segmentPruners;
     final InstanceSelector _instanceSelector;
     final Long _queryTimeoutMs;
+    // Segment CRC manager is only available for the tables with result cache enabled
+    final SegmentCrcManager _segmentCrcManager;
 
     // Cache IdealState and ExternalView version for the last update
     transient int _lastUpdateIdealStateVersion;
@@ -636,7 +674,8 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
     RoutingEntry(String tableNameWithType, String idealStatePath, String externalViewPath,
         SegmentPreSelector segmentPreSelector, SegmentSelector segmentSelector, List<SegmentPruner> segmentPruners,
         InstanceSelector instanceSelector, int lastUpdateIdealStateVersion, int lastUpdateExternalViewVersion,
-        @Nullable TimeBoundaryManager timeBoundaryManager, @Nullable Long queryTimeoutMs) {
+        @Nullable TimeBoundaryManager timeBoundaryManager, @Nullable Long queryTimeoutMs,
+        @Nullable SegmentCrcManager segmentCrcManager) {
       _tableNameWithType = tableNameWithType;
       _idealStatePath = idealStatePath;
       _externalViewPath = externalViewPath;
@@ -648,6 +687,7 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
       _lastUpdateExternalViewVersion = lastUpdateExternalViewVersion;
       _timeBoundaryManager = timeBoundaryManager;
       _queryTimeoutMs = queryTimeoutMs;
+      _segmentCrcManager = segmentCrcManager;
     }
 
     String getTableNameWithType() {
@@ -675,6 +715,15 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
       return _queryTimeoutMs;
     }
 
+    boolean isResultCacheEnabled() {
+      return _segmentCrcManager != null;
+    }
+
+    @Nullable
+    SegmentCrcManager getSegmentCrcManager() {
+      return _segmentCrcManager;
+    }
+
     // NOTE: The change gets applied in sequence, and before change applied to all components, there could be some
     // inconsistency between components, which is fine because the inconsistency only exists for the newly changed
     // segments and only lasts for a very short time.
@@ -689,6 +738,9 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
       if (_timeBoundaryManager != null) {
         _timeBoundaryManager.onAssignmentChange(idealState, externalView, preSelectedOnlineSegments);
       }
+      if (_segmentCrcManager != null) {
+        _segmentCrcManager.onAssignmentChange(idealState, externalView, preSelectedOnlineSegments);
+      }
       _lastUpdateIdealStateVersion = idealState.getStat().getVersion();
       _lastUpdateExternalViewVersion = externalView.getStat().getVersion();
     }
@@ -704,6 +756,9 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
       if (_timeBoundaryManager != null) {
         _timeBoundaryManager.refreshSegment(segment);
       }
+      if (_segmentCrcManager != null) {
+        _segmentCrcManager.refreshSegment(segment);
+      }
     }
 
     InstanceSelector.SelectionResult calculateRouting(BrokerRequest brokerRequest) {
@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.routing.segmentcrc;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+import org.apache.helix.AccessOption;
+import org.apache.helix.ZNRecord;
+import org.apache.helix.model.ExternalView;
+import org.apache.helix.model.IdealState;
+import org.apache.helix.store.zk.ZkHelixPropertyStore;
+import org.apache.pinot.common.metadata.ZKMetadataProvider;
+import org.apache.pinot.spi.utils.CommonConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The {@code SegmentCrcManager} class tracks the CRC of the online segments of a table from the segment ZK metadata,
+ * which identifies the version of the segments queried for the broker result cache.
+ * <p>When a segment is refreshed, the CRC in the segment ZK metadata is updated before the servers finish reloading the
+ * segment. To prevent caching the results of the old segment under the new CRC, the CRC of a refreshed segment is not
+ * returned within the refresh grace period.
+ */
+public class SegmentCrcManager {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SegmentCrcManager.class);
+  private static final long INVALID_CRC = -1;
+
+  private final String _tableNameWithType;
+  private final ZkHelixPropertyStore<ZNRecord> _propertyStore;
+  private final String _segmentZKMetadataPathPrefix;
+  private final Map<String, Long> _crcMap = new ConcurrentHashMap<>();
+  private final Map<String, Long> _refreshTimeMsMap = new ConcurrentHashMap<>();
+
+  public SegmentCrcManager(String tableNameWithType, ZkHelixPropertyStore<ZNRecord> propertyStore) {
+    _tableNameWithType = tableNameWithType;
+    _propertyStore = propertyStore;
+    _segmentZKMetadataPathPrefix = ZKMetadataProvider.constructPropertyStorePathForResource(tableNameWithType) + "/";
+  }
+
+  /**
+   * Initializes the segment CRCs with the given online segments.
+   */
+  public void init(IdealState idealState, ExternalView externalView, Set<String> onlineSegments) {
+    // Bulk load the CRC for all online segments
+    int numSegments = onlineSegments.size();
+    List<String> segments = new ArrayList<>(numSegments);
+    List<String> segmentZKMetadataPaths = new ArrayList<>(numSegments);
+    for (String segment : onlineSegments) {
+      segments.add(segment);
+      segmentZKMetadataPaths.add(_segmentZKMetadataPathPrefix + segment);
+    }
+    List<ZNRecord> znRecords = _propertyStore.get(segmentZKMetadataPaths, null, AccessOption.PERSISTENT, false);
+    for (int i = 0; i < numSegments; i++) {
+      String segment = segments.get(i);
+      _crcMap.put(segment, extractCrcFromSegmentZKMetadataZNRecord(segment, znRecords.get(i)));
+    }
+  }
+
+  private long extractCrcFromSegmentZKMetadataZNRecord(String segment, @Nullable ZNRecord znRecord) {
+    if (znRecord == null) {
+      LOGGER.warn("Failed to find segment ZK metadata for segment: {}, table: {}", segment, _tableNameWithType);
+      return INVALID_CRC;
+    }
+    return znRecord.getLongField(CommonConstants.Segment.CRC, INVALID_CRC);
+  }
+
+  /**
+   * Processes the segment assignment (ideal state or external view) change.
+   * <p>NOTE: We don't update all the segment ZK metadata for every external view change, but only the new added/removed
+   * ones. The refreshed segment ZK metadata change is picked up with {@link #refreshSegment(String)}.
+   */
+  public synchronized void onAssignmentChange(IdealState idealState, ExternalView externalView,
+      Set<String> onlineSegments) {
+    for (String segment : onlineSegments) {
+      _crcMap.computeIfAbsent(segment, k -> extractCrcFromSegmentZKMetadataZNRecord(k,
+          _propertyStore.get(_segmentZKMetadataPathPrefix + k, null, AccessOption.PERSISTENT)));
+    }
+    _crcMap.keySet().retainAll(onlineSegments);
+    _refreshTimeMsMap.keySet().retainAll(onlineSegments);
+  }
+
+  /**
+   * Refreshes the CRC for the given segment (called when segment is getting refreshed).
+   */
+  public synchronized void refreshSegment(String segment) {
+    // NOTE: Record the refresh time before updating the CRC so that the new CRC is never returned without the refresh
+    //       time
+    _refreshTimeMsMap.put(segment, System.currentTimeMillis());
+    _crcMap.put(segment, extractCrcFromSegmentZKMetadataZNRecord(segment,
+        _propertyStore.get(_segmentZKMetadataPathPrefix + segment, null, AccessOption.PERSISTENT)));
+  }
+
+  /**
+   * Returns the map from segment to CRC for the given segments, or {@code null} if the CRC is not available for any
+   * segment, or any segment is refreshed within the given refresh grace period.
+   */
+  @Nullable
+  public Map<String, Long> getSegmentCrcMap(Collection<? extends Collection<String>> segmentLists,
+      long refreshGracePeriodMs) {
+    Map<String, Long> segmentCrcMap = new HashMap<>();
+    long minRefreshTimeMs = System.currentTimeMillis() - refreshGracePeriodMs;
+    for (Collection<String> segments : segmentLists) {
+      for (String segment : segments) {
+        Long crc = _crcMap.get(segment);
+        if (crc == null || crc == INVALID_CRC) {
+          return null;
+        }
+        Long refreshTimeMs = _refreshTimeMsMap.get(segment);
+        if (refreshTimeMs != null && refreshTimeMs > minRefreshTimeMs) {
+          return null;
+        }
+        segmentCrcMap.put(segment, crc);
+      }
+    }
+    return segmentCrcMap;
+  }
+}
@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.requesthandler;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.pinot.common.request.PinotQuery;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.sql.parsers.CalciteSqlParser;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+
+
+public class BrokerResultCacheTest {
+  @Test
+  public void testKey() {
+    PinotQuery pinotQuery = CalciteSqlParser.compileToPinotQuery("SELECT COUNT(*) FROM myTable WHERE a > 10");
+    Map<String, Long> segmentCrcMap = new HashMap<>();
+    segmentCrcMap.put("seg0", 100L);
+    segmentCrcMap.put("seg1", 101L);
+    segmentCrcMap.put("seg2", 102L);
+    BrokerResultCache.Key key = new BrokerResultCache.Key(pinotQuery, pinotQuery, segmentCrcMap);
+
+    PinotQuery samePinotQuery = CalciteSqlParser.compileToPinotQuery("SELECT COUNT(*) FROM myTable WHERE a > 10");
+    Map<String, Long> sameSegmentCrcMap = new HashMap<>();
+    sameSegmentCrcMap.put("seg2", 102L);
+    sameSegmentCrcMap.put("seg1", 101L);
+    sameSegmentCrcMap.put("seg0", 100L);
+    BrokerResultCache.Key sameKey = new BrokerResultCache.Key(samePinotQuery, samePinotQuery, sameSegmentCrcMap);
+    assertEquals(sameKey, key);
+    assertEquals(sameKey.hashCode(), key.hashCode());
+
+    // Key should not be affected by the query or segment CRC modification after it is created
+    pinotQuery.setLimit(5);
+    segmentCrcMap.put("seg3", 103L);
+    assertEquals(sameKey, key);
+
+    // Different segment CRC (segment refreshed)
+    Map<String, Long> otherSegmentCrcMap = new HashMap<>(sameSegmentCrcMap);
+    otherSegmentCrcMap.put("seg1", 201L);
+    assertNotEquals(new BrokerResultCache.Key(samePinotQuery, samePinotQuery, otherSegmentCrcMap), key);
+
+    // Different segments
+    otherSegmentCrcMap = new HashMap<>(sameSegmentCrcMap);
+    otherSegmentCrcMap.put("seg3", 103L);
+    assertNotEquals(new BrokerResultCache.Key(samePinotQuery, samePinotQuery, otherSegmentCrcMap), key);
+
+    // Different query
+    PinotQuery otherPinotQuery = CalciteSqlParser.compileToPinotQuery("SELECT COUNT(*) FROM myTable WHERE a > 20");
+    assertNotEquals(new BrokerResultCache.Key(otherPinotQuery, otherPinotQuery, sameSegmentCrcMap), key);
+  }
+
+  @Test
+  public void testGetAndPut() {
+    BrokerResultCache resultCache = new BrokerResultCache(1024 * 1024, 60_000L);
+    PinotQuery pinotQuery = CalciteSqlParser.compileToPinotQuery("SELECT COUNT(*) FROM myTable");
+    Map<String, Long> segmentCrcMap = new HashMap<>();
+    segmentCrcMap.put("seg0", 100L);
+    segmentCrcMap.put("seg1", 101L);
+    BrokerResultCache.Key key = new BrokerResultCache.Key(pinotQuery, pinotQuery, segmentCrcMap);
+    assertNull(resultCache.get(key));
+
+    BrokerResponseNative brokerResponse = new BrokerResponseNative();
+    brokerResponse.setNumDocsScanned(123L);
+    resultCache.put(key, brokerResponse);
+    assertEquals(resultCache.size(), 1);
+
+    BrokerResponseNative cachedBrokerResponse = resultCache.get(key);
+    assertNotNull(cachedBrokerResponse);
+    assertEquals(cachedBrokerResponse.getNumDocsScanned(), 123L);
+    // Each hit should get its own copy of the response
+    assertNotSame(resultCache.get(key), cachedBrokerResponse);
+
+    // Segment CRC change should cause cache miss
+    segmentCrcMap.put("seg1", 201L);
+    assertNull(resultCache.get(new BrokerResultCache.Key(pinotQuery, pinotQuery, segmentCrcMap)));
+  }
+}
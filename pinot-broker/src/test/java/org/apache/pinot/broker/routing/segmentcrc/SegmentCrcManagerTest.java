@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.routing.segmentcrc;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.helix.model.ExternalView;
+import org.apache.helix.model.IdealState;
+import org.apache.pinot.broker.util.FakePropertyStore;
+import org.apache.pinot.common.metadata.ZKMetadataProvider;
+import org.apache.pinot.common.metadata.segment.SegmentZKMetadata;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+
+public class SegmentCrcManagerTest {
+  private static final String OFFLINE_TABLE_NAME = "testTable_OFFLINE";
+
+  @Test
+  public void testSegmentCrcManager()
+      throws Exception {
+    FakePropertyStore propertyStore = new FakePropertyStore();
+    setSegmentCrc(propertyStore, "seg0", 100L);
+    setSegmentCrc(propertyStore, "seg1", 101L);
+    IdealState idealState = new IdealState(OFFLINE_TABLE_NAME);
+    ExternalView externalView = new ExternalView(OFFLINE_TABLE_NAME);
+    SegmentCrcManager segmentCrcManager = new SegmentCrcManager(OFFLINE_TABLE_NAME, propertyStore);
+    Set<String> onlineSegments = new HashSet<>(Arrays.asList("seg0", "seg1"));
+    segmentCrcManager.init(idealState, externalView, onlineSegments);
+
+    List<List<String>> segmentLists =
+        Arrays.asList(Collections.singletonList("seg0"), Collections.singletonList("seg1"));
+    Map<String, Long> segmentCrcMap = segmentCrcManager.getSegmentCrcMap(segmentLists, 600_000L);
+    assertNotNull(segmentCrcMap);
+    assertEquals(segmentCrcMap.size(), 2);
+    assertEquals(segmentCrcMap.get("seg0"), Long.valueOf(100L));
+    assertEquals(segmentCrcMap.get("seg1"), Long.valueOf(101L));
+
+    // Segment without CRC
+    assertNull(segmentCrcManager.getSegmentCrcMap(Collections.singletonList(Arrays.asList("seg0", "seg2")), 0L));
+
+    // New added segment
+    setSegmentCrc(propertyStore, "seg2", 102L);
+    onlineSegments.add("seg2");
+    segmentCrcManager.onAssignmentChange(idealState, externalView, onlineSegments);
+    segmentCrcMap = segmentCrcManager.getSegmentCrcMap(Collections.singletonList(Arrays.asList("seg0", "seg2")), 0L);
+    assertNotNull(segmentCrcMap);
+    assertEquals(segmentCrcMap.get("seg2"), Long.valueOf(102L));
+
+    // Refreshed segment should not be returned within the refresh grace period
+    setSegmentCrc(propertyStore, "seg1", 201L);
+    segmentCrcManager.refreshSegment("seg1");
+    assertNull(segmentCrcManager.getSegmentCrcMap(segmentLists, 600_000L));
+    Thread.sleep(10L);
+    segmentCrcMap = segmentCrcManager.getSegmentCrcMap(segmentLists, 1L);
+    assertNotNull(segmentCrcMap);
+    assertEquals(segmentCrcMap.get("seg1"), Long.valueOf(201L));
+
+    // Removed segment
+    onlineSegments.remove("seg0");
+    segmentCrcManager.onAssignmentChange(idealState, externalView, onlineSegments);
+    assertNull(segmentCrcManager.getSegmentCrcMap(segmentLists, 0L));
+  }
+
+  private static void setSegmentCrc(FakePropertyStore propertyStore, String segment, long crc)
+      throws Exception {
+    SegmentZKMetadata segmentZKMetadata = new SegmentZKMetadata(segment);
+    segmentZKMetadata.setCrc(crc);
+    propertyStore.setContents(ZKMetadataProvider.constructPropertyStorePathForSegment(OFFLINE_TABLE_NAME, segment),
+        segmentZKMetadata.toZNRecord());
+  }
+}
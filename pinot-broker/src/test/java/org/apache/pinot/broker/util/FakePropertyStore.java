@@ -18,7 +18,9 @@
  */
 package org.apache.pinot.broker.util;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.I0Itec.zkclient.IZkDataListener;
 import org.apache.helix.ZNRecord;
@@ -40,6 +42,15 @@ public class FakePropertyStore extends ZkHelixPropertyStore<ZNRecord> {
     return _contents.get(path);
   }
 
+  @Override
+  public List<ZNRecord> get(List<String> paths, List<Stat> stats, int options, boolean throwException) {
+    List<ZNRecord> records = new ArrayList<>(paths.size());
+    for (String path : paths) {
+      records.add(_contents.get(path));
+    }
+    return records;
+  }
+
   @Override
   public void subscribeDataChanges(String path, IZkDataListener listener) {
     _listener = listener;
@@ -19,6 +19,9 @@
 package org.apache.pinot.common.function;
 
 import com.google.common.base.Preconditions;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -28,13 +31,19 @@ import org.apache.pinot.common.utils.PinotDataType;
 
 /**
  * The {@code FunctionInvoker} is a wrapper on a java method which supports arguments type conversion and method
- * invocation via reflection.
+ * invocation.
+ * <p>The method is invoked through a {@link MethodHandle} (with the instance bound for non-static methods) instead of
+ * {@link Method#invoke(Object, Object...)}, which allows the JIT to inline the call. The exact-typed handle is exposed
+ * via {@link #getMethodHandle()} so that callers can invoke the method with primitive arguments without boxing.
  */
 public class FunctionInvoker {
   private final Method _method;
   private final Class<?>[] _parameterClasses;
   private final PinotDataType[] _parameterTypes;
   private final Object _instance;
+  private final MethodHandle _methodHandle;
+  // Method handle with signature (Object[])Object for the generic invocation
+  private final MethodHandle _spreadMethodHandle;
 
   public FunctionInvoker(FunctionInfo functionInfo) {
     _method = functionInfo.getMethod();
@@ -58,6 +67,14 @@ public class FunctionInvoker {
         throw new IllegalStateException("Caught exception while constructing class: " + clazz, e);
       }
     }
+    try {
+      MethodHandle methodHandle = MethodHandles.lookup().unreflect(_method);
+      _methodHandle = _instance != null ? methodHandle.bindTo(_instance) : methodHandle;
+    } catch (Exception e) {
+      throw new IllegalStateException("Caught exception while creating method handle for method: " + _method, e);
+    }
+    _spreadMethodHandle = _methodHandle.asSpreader(Object[].class, numParameters)
+        .asType(MethodType.methodType(Object.class, Object[].class));
   }
 
   /**
@@ -67,6 +84,14 @@ public class FunctionInvoker {
     return _method;
   }
 
+  /**
+   * Returns the method handle of the underlying java method with the exact parameter and return types of the method.
+   * For non-static method, the instance is already bound to the method handle.
+   */
+  public MethodHandle getMethodHandle() {
+    return _methodHandle;
+  }
+
   /**
    * Returns the class of the parameters.
    */
@@ -124,8 +149,8 @@ public class FunctionInvoker {
    */
   public Object invoke(Object[] arguments) {
     try {
-      return _method.invoke(_instance, arguments);
-    } catch (Exception e) {
+      return _spreadMethodHandle.invokeExact(arguments);
+    } catch (Throwable e) {
       throw new IllegalStateException(
           "Caught exception while invoking method: " + _method + " with arguments: " + Arrays.toString(arguments), e);
     }
@@ -1005,6 +1005,23 @@ public class FileUploadDownloadClient implements AutoCloseable {
     return _httpClient.downloadFile(uri, HttpClient.DEFAULT_SOCKET_TIMEOUT_MS, dest, authToken, httpHeaders);
   }
 
+  /**
+   * Download and untar a tar.gz file in a streamed way, without persisting the tar.gz file on local disk.
+   *
+   * @param uri URI
+   * @param dest Directory to untar the file into
+   * @param authToken auth token
+   * @param httpHeaders http headers
+   * @return The untarred segment directory
+   * @throws IOException
+   * @throws HttpErrorStatusException
+   */
+  public File downloadUntarFileStreamed(URI uri, File dest, String authToken, List<Header> httpHeaders)
+      throws IOException, HttpErrorStatusException {
+    return _httpClient.downloadUntarFileStreamed(uri, HttpClient.DEFAULT_SOCKET_TIMEOUT_MS, dest, authToken,
+        httpHeaders);
+  }
+
   /**
    * Generate a param list with a table name attribute.
    *
@@ -169,6 +169,9 @@ public class TarGzCompressionUtils {
         }
         untarredFiles.add(outputFile);
       }
+      // The tar archive ends before the gzip trailer is consumed. Drain the remaining bytes so that the gzip trailer
+      // (CRC32 and uncompressed size) is verified, which also detects truncated or corrupted streams.
+      IOUtils.skip(gzipIn, Long.MAX_VALUE);
     }
     return untarredFiles;
   }
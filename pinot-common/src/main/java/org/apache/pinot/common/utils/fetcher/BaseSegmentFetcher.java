@@ -22,6 +22,10 @@ import java.io.File;
 import java.net.URI;
 import java.util.List;
 import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.utils.TarGzCompressionUtils;
 import org.apache.pinot.spi.env.PinotConfiguration;
 import org.apache.pinot.spi.utils.CommonConstants;
 import org.apache.pinot.spi.utils.retry.RetryPolicies;
@@ -101,6 +105,43 @@ public abstract class BaseSegmentFetcher implements SegmentFetcher {
     });
   }
 
+  @Override
+  public File fetchUntarSegmentToLocalStreamed(URI uri, File dest)
+      throws Exception {
+    AtomicReference<File> untarredSegmentDir = new AtomicReference<>();
+    RetryPolicies.exponentialBackoffRetryPolicy(_retryCount, _retryWaitMs, _retryDelayScaleFactor).attempt(() -> {
+      try {
+        // Clean up the leftover of the previous attempt
+        FileUtils.deleteQuietly(dest);
+        untarredSegmentDir.set(fetchUntarSegmentToLocalStreamedWithoutRetry(uri, dest));
+        _logger.info("Fetched and untarred segment from: {} to: {}", uri, untarredSegmentDir.get());
+        return true;
+      } catch (Exception e) {
+        _logger.warn("Caught exception while fetching and untarring segment from: {} to: {}", uri, dest, e);
+        return false;
+      }
+    });
+    return untarredSegmentDir.get();
+  }
+
+  /**
+   * Fetches a tarred segment from URI location and untars it into the given directory without retry. Returns the
+   * untarred segment directory.
+   * <p>Sub-class should override this to untar the segment directly from the remote stream. The default implementation
+   * fetches the tar file to local first, then untars it.
+   */
+  protected File fetchUntarSegmentToLocalStreamedWithoutRetry(URI uri, File dest)
+      throws Exception {
+    FileUtils.forceMkdir(dest);
+    File tarFile = new File(dest, UUID.randomUUID() + TarGzCompressionUtils.TAR_GZ_FILE_EXTENSION);
+    try {
+      fetchSegmentToLocalWithoutRetry(uri, tarFile);
+      return TarGzCompressionUtils.untar(tarFile, dest).get(0);
+    } finally {
+      FileUtils.deleteQuietly(tarFile);
+    }
+  }
+
   /**
    * Fetches a segment from URI location to local without retry. Sub-class should override this or
    * {@link #fetchSegmentToLocal(URI, File)}.
@@ -23,6 +23,8 @@ import java.io.File;
 import java.net.URI;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.commons.io.FileUtils;
 import org.apache.http.Header;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpStatus;
@@ -90,6 +92,46 @@ public class HttpSegmentFetcher extends BaseSegmentFetcher {
     });
   }
 
+  @Override
+  public File fetchUntarSegmentToLocalStreamed(URI downloadURI, File dest)
+      throws Exception {
+    // Same as fetchSegmentToLocal(), round robin the IP addresses of the download URI when retrying
+    RoundRobinURIProvider uriProvider = new RoundRobinURIProvider(downloadURI);
+    int retryCount = Math.max(_retryCount, uriProvider.numAddresses());
+    AtomicReference<File> untarredSegmentDir = new AtomicReference<>();
+    RetryPolicies.exponentialBackoffRetryPolicy(retryCount, _retryWaitMs, _retryDelayScaleFactor).attempt(() -> {
+      URI uri = uriProvider.next();
+      try {
+        String hostName = downloadURI.getHost();
+        int port = downloadURI.getPort();
+        List<Header> httpHeaders = new LinkedList<>();
+        if (!InetAddresses.isInetAddress(hostName)) {
+          httpHeaders.add(new BasicHeader(HttpHeaders.HOST, hostName + ":" + port));
+        }
+        // Clean up the leftover of the previous attempt
+        FileUtils.deleteQuietly(dest);
+        untarredSegmentDir.set(_httpClient.downloadUntarFileStreamed(uri, dest, _authToken, httpHeaders));
+        _logger.info("Downloaded and untarred segment from: {} to: {}", uri, untarredSegmentDir.get());
+        return true;
+      } catch (HttpErrorStatusException e) {
+        int statusCode = e.getStatusCode();
+        if (statusCode == HttpStatus.SC_NOT_FOUND || statusCode >= 500) {
+          _logger.warn("Got temporary error status code: {} while downloading segment from: {} to: {}", statusCode, uri,
+              dest, e);
+          return false;
+        } else {
+          _logger.error("Got permanent error status code: {} while downloading segment from: {} to: {}, won't retry",
+              statusCode, uri, dest, e);
+          throw e;
+        }
+      } catch (Exception e) {
+        _logger.warn("Caught exception while downloading and untarring segment from: {} to: {}", uri, dest, e);
+        return false;
+      }
+    });
+    return untarredSegmentDir.get();
+  }
+
   @Override
   public void fetchSegmentToLocalWithoutRetry(URI uri, File dest)
       throws Exception {
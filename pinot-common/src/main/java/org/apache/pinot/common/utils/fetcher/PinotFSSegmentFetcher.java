@@ -19,7 +19,9 @@
 package org.apache.pinot.common.utils.fetcher;
 
 import java.io.File;
+import java.io.InputStream;
 import java.net.URI;
+import org.apache.pinot.common.utils.TarGzCompressionUtils;
 import org.apache.pinot.spi.filesystem.PinotFSFactory;
 
 
@@ -30,4 +32,12 @@ public class PinotFSSegmentFetcher extends BaseSegmentFetcher {
       throws Exception {
     PinotFSFactory.create(uri.getScheme()).copyToLocalFile(uri, dest);
   }
+
+  @Override
+  protected File fetchUntarSegmentToLocalStreamedWithoutRetry(URI uri, File dest)
+      throws Exception {
+    try (InputStream inputStream = PinotFSFactory.create(uri.getScheme()).open(uri)) {
+      return TarGzCompressionUtils.untar(inputStream, dest).get(0);
+    }
+  }
 }
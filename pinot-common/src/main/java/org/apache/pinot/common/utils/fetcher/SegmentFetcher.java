@@ -21,6 +21,9 @@ package org.apache.pinot.common.utils.fetcher;
 import java.io.File;
 import java.net.URI;
 import java.util.List;
+import java.util.UUID;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.utils.TarGzCompressionUtils;
 import org.apache.pinot.spi.env.PinotConfiguration;
 
 
@@ -42,4 +45,22 @@ public interface SegmentFetcher {
    */
   void fetchSegmentToLocal(List<URI> uri, File dest)
       throws Exception;
+
+  /**
+   * Fetches a tarred segment from URI location and untars it into the given directory in a streamed way, without
+   * persisting the tar file on local disk. Returns the untarred segment directory.
+   * <p>The default implementation fetches the tar file into the given directory first, then untars it. Implementations
+   * should override this to untar the segment directly from the remote stream.
+   */
+  default File fetchUntarSegmentToLocalStreamed(URI uri, File dest)
+      throws Exception {
+    FileUtils.forceMkdir(dest);
+    File tarFile = new File(dest, UUID.randomUUID() + TarGzCompressionUtils.TAR_GZ_FILE_EXTENSION);
+    try {
+      fetchSegmentToLocal(uri, tarFile);
+      return TarGzCompressionUtils.untar(tarFile, dest).get(0);
+    } finally {
+      FileUtils.deleteQuietly(tarFile);
+    }
+  }
 }
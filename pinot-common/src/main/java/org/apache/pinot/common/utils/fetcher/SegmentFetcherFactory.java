@@ -148,6 +148,24 @@ public class SegmentFetcherFactory {
     getSegmentFetcher(uri.getScheme()).fetchSegmentToLocal(uri, dest);
   }
 
+  /**
+   * Fetches a tarred segment from a URI location and untars it into the given local directory in a streamed way,
+   * without persisting the tar file on local disk. Returns the untarred segment directory.
+   * <p>NOTE: Encrypted segments cannot be streamed, and should be fetched with
+   * {@link #fetchAndDecryptSegmentToLocal(String, File, String)} instead.
+   * @param uri remote segment location
+   * @param dest local directory to untar the segment into
+   */
+  public static File fetchAndStreamUntarToLocal(String uri, File dest)
+      throws Exception {
+    return getInstance().fetchAndStreamUntarToLocalInternal(new URI(uri), dest);
+  }
+
+  private File fetchAndStreamUntarToLocalInternal(URI uri, File dest)
+      throws Exception {
+    return getSegmentFetcher(uri.getScheme()).fetchUntarSegmentToLocalStreamed(uri, dest);
+  }
+
   /**
    * Fetches a segment from a URI location to a local file and decrypts it if needed
    * @param uri remote segment location
@@ -35,6 +35,7 @@ import javax.net.ssl.SSLContext;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
@@ -60,6 +61,7 @@ import org.apache.http.util.EntityUtils;
 import org.apache.pinot.common.exception.HttpErrorStatusException;
 import org.apache.pinot.common.utils.SimpleHttpErrorInfo;
 import org.apache.pinot.common.utils.SimpleHttpResponse;
+import org.apache.pinot.common.utils.TarGzCompressionUtils;
 import org.apache.pinot.common.utils.TlsUtils;
 import org.apache.pinot.spi.utils.CommonConstants;
 import org.apache.pinot.spi.utils.JsonUtils;
@@ -401,6 +403,51 @@ public class HttpClient implements AutoCloseable {
     }
   }
 
+  /**
+   * Download and untar a tar.gz file in a streamed way, without persisting the tar.gz file on local disk. The response
+   * body is decompressed and untarred on the fly into the destination directory.
+   *
+   * @param uri URI
+   * @param socketTimeoutMs Socket timeout in milliseconds
+   * @param dest Directory to untar the file into
+   * @param authToken auth token
+   * @param httpHeaders http headers
+   * @return The untarred segment directory
+   * @throws IOException
+   * @throws HttpErrorStatusException
+   */
+  public File downloadUntarFileStreamed(URI uri, int socketTimeoutMs, File dest, String authToken,
+      List<Header> httpHeaders)
+      throws IOException, HttpErrorStatusException {
+    HttpUriRequest request = getDownloadFileRequest(uri, socketTimeoutMs, authToken, httpHeaders);
+    try (CloseableHttpResponse response = _httpClient.execute(request)) {
+      StatusLine statusLine = response.getStatusLine();
+      int statusCode = statusLine.getStatusCode();
+      if (statusCode >= 300) {
+        throw new HttpErrorStatusException(HttpClient.getErrorMessage(request, response), statusCode);
+      }
+
+      HttpEntity entity = response.getEntity();
+      List<File> untarredFiles;
+      long bytesRead;
+      try (CountingInputStream inputStream = new CountingInputStream(entity.getContent())) {
+        untarredFiles = TarGzCompressionUtils.untar(inputStream, dest);
+        bytesRead = inputStream.getByteCount();
+      }
+      Preconditions.checkState(!untarredFiles.isEmpty(), "No file untarred while downloading file with uri: %s", uri);
+
+      // Verify content length if known
+      long contentLength = entity.getContentLength();
+      if (contentLength >= 0L) {
+        Preconditions.checkState(bytesRead == contentLength, String
+            .format("While downloading file with uri: %s, bytes read: %d does not match content length: %d", uri,
+                bytesRead, contentLength));
+      }
+
+      return untarredFiles.get(0);
+    }
+  }
+
   // --------------------------------------------------------------------------
   // Static utility for dealing with lower-level API responses.
   // --------------------------------------------------------------------------
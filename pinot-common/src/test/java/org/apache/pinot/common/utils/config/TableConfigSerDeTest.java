@@ -189,7 +189,7 @@ public class TableConfigSerDeTest {
     }
     {
       // With query config
-      QueryConfig queryConfig = new QueryConfig(1000L, true, Collections.singletonMap("func(a)", "b"));
+      QueryConfig queryConfig = new QueryConfig(1000L, true, Collections.singletonMap("func(a)", "b"), true);
       TableConfig tableConfig = tableConfigBuilder.setQueryConfig(queryConfig).build();
 
       checkQueryConfig(tableConfig);
@@ -434,6 +434,7 @@ public class TableConfigSerDeTest {
     assertEquals(queryConfig.getTimeoutMs(), Long.valueOf(1000L));
     assertEquals(queryConfig.getDisableGroovy(), Boolean.TRUE);
     assertEquals(queryConfig.getExpressionOverrideMap(), Collections.singletonMap("func(a)", "b"));
+    assertEquals(queryConfig.getEnableResultCache(), Boolean.TRUE);
   }
 
   private void checkIngestionConfig(TableConfig tableConfig) {
@@ -179,116 +179,106 @@ public class DataTableImplV3 extends BaseDataTable {
     return _errCodeToExceptionMap;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>All the sections are serialized (or already exist as byte arrays for the fixed/variable size data) before writing
+   * them, so that the exact size of the serialized data table is known upfront and the sections can be written directly
+   * into a single byte array of the exact size. This avoids the buffer expansions and the final copy of
+   * {@link ByteArrayOutputStream}, which are expensive for large responses.
+   */
   @Override
   public byte[] toBytes()
       throws IOException {
     ThreadTimer threadTimer = new ThreadTimer();
 
-    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-    DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
-    writeLeadingSections(dataOutputStream);
+    byte[] exceptionsBytes = serializeExceptions();
+    byte[] dictionaryMapBytes = _dictionaryMap != null ? serializeDictionaryMap() : null;
+    byte[] dataSchemaBytes = _dataSchema != null ? _dataSchema.toBytes() : null;
 
     // Add table serialization time metadata if thread timer is enabled.
+    // NOTE: Copying the fixed/variable size data into the serialized bytes is not included in the serialization time
+    //       because the metadata must be serialized before allocating the serialized bytes.
     if (ThreadTimer.isThreadCpuTimeMeasurementEnabled()) {
       long responseSerializationCpuTimeNs = threadTimer.getThreadTimeNs();
       getMetadata().put(MetadataKey.RESPONSE_SER_CPU_TIME_NS.getName(), String.valueOf(responseSerializationCpuTimeNs));
     }
 
-    // Write metadata: length followed by actual metadata bytes.
     // NOTE: We ignore metadata serialization time in "responseSerializationCpuTimeNs" as it's negligible while
     // considering it will bring a lot code complexity.
     byte[] metadataBytes = serializeMetadata();
-    dataOutputStream.writeInt(metadataBytes.length);
-    dataOutputStream.write(metadataBytes);
-
-    return byteArrayOutputStream.toByteArray();
-  }
 
-  @Override
-  public DataTableImplV3 toMetadataOnlyDataTable() {
-    DataTableImplV3 metadataOnlyDataTable = new DataTableImplV3();
-    metadataOnlyDataTable._metadata.putAll(_metadata);
-    metadataOnlyDataTable._errCodeToExceptionMap.putAll(_errCodeToExceptionMap);
-    return metadataOnlyDataTable;
-  }
-
-  @Override
-  public DataTableImplV3 toDataOnlyDataTable() {
-    return new DataTableImplV3(_numRows, _dataSchema, _dictionaryMap, _fixedSizeDataBytes, _variableSizeDataBytes);
-  }
-
-  private void writeLeadingSections(DataOutputStream dataOutputStream)
-      throws IOException {
-    dataOutputStream.writeInt(DataTableBuilder.VERSION_3);
-    dataOutputStream.writeInt(_numRows);
-    dataOutputStream.writeInt(_numColumns);
+    int exceptionsLength = exceptionsBytes.length;
+    int dictionaryMapLength = dictionaryMapBytes != null ? dictionaryMapBytes.length : 0;
+    int dataSchemaLength = dataSchemaBytes != null ? dataSchemaBytes.length : 0;
+    int fixedSizeDataLength = _fixedSizeDataBytes != null ? _fixedSizeDataBytes.length : 0;
+    int variableSizeDataLength = _variableSizeDataBytes != null ? _variableSizeDataBytes.length : 0;
+    int totalSize =
+        HEADER_SIZE + exceptionsLength + dictionaryMapLength + dataSchemaLength + fixedSizeDataLength
+            + variableSizeDataLength + Integer.BYTES + metadataBytes.length;
+
+    byte[] bytes = new byte[totalSize];
+    ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+
+    // Write header.
+    byteBuffer.putInt(DataTableBuilder.VERSION_3);
+    byteBuffer.putInt(_numRows);
+    byteBuffer.putInt(_numColumns);
     int dataOffset = HEADER_SIZE;
-
     // Write exceptions section offset(START|SIZE).
-    dataOutputStream.writeInt(dataOffset);
-    byte[] exceptionsBytes;
-    exceptionsBytes = serializeExceptions();
-    dataOutputStream.writeInt(exceptionsBytes.length);
-    dataOffset += exceptionsBytes.length;
-
+    byteBuffer.putInt(dataOffset);
+    byteBuffer.putInt(exceptionsLength);
+    dataOffset += exceptionsLength;
     // Write dictionary map section offset(START|SIZE).
-    dataOutputStream.writeInt(dataOffset);
-    byte[] dictionaryMapBytes = null;
-    if (_dictionaryMap != null) {
-      dictionaryMapBytes = serializeDictionaryMap();
-      dataOutputStream.writeInt(dictionaryMapBytes.length);
-      dataOffset += dictionaryMapBytes.length;
-    } else {
-      dataOutputStream.writeInt(0);
-    }
-
+    byteBuffer.putInt(dataOffset);
+    byteBuffer.putInt(dictionaryMapLength);
+    dataOffset += dictionaryMapLength;
     // Write data schema section offset(START|SIZE).
-    dataOutputStream.writeInt(dataOffset);
-    byte[] dataSchemaBytes = null;
-    if (_dataSchema != null) {
-      dataSchemaBytes = _dataSchema.toBytes();
-      dataOutputStream.writeInt(dataSchemaBytes.length);
-      dataOffset += dataSchemaBytes.length;
-    } else {
-      dataOutputStream.writeInt(0);
-    }
-
+    byteBuffer.putInt(dataOffset);
+    byteBuffer.putInt(dataSchemaLength);
+    dataOffset += dataSchemaLength;
     // Write fixed size data section offset(START|SIZE).
-    dataOutputStream.writeInt(dataOffset);
-    if (_fixedSizeDataBytes != null) {
-      dataOutputStream.writeInt(_fixedSizeDataBytes.length);
-      dataOffset += _fixedSizeDataBytes.length;
-    } else {
-      dataOutputStream.writeInt(0);
-    }
-
+    byteBuffer.putInt(dataOffset);
+    byteBuffer.putInt(fixedSizeDataLength);
+    dataOffset += fixedSizeDataLength;
     // Write variable size data section offset(START|SIZE).
-    dataOutputStream.writeInt(dataOffset);
-    if (_variableSizeDataBytes != null) {
-      dataOutputStream.writeInt(_variableSizeDataBytes.length);
-    } else {
-      dataOutputStream.writeInt(0);
-    }
+    byteBuffer.putInt(dataOffset);
+    byteBuffer.putInt(variableSizeDataLength);
 
     // Write actual data.
-    // Write exceptions bytes.
-    dataOutputStream.write(exceptionsBytes);
-    // Write dictionary map bytes.
+    byteBuffer.put(exceptionsBytes);
     if (dictionaryMapBytes != null) {
-      dataOutputStream.write(dictionaryMapBytes);
+      byteBuffer.put(dictionaryMapBytes);
     }
-    // Write data schema bytes.
     if (dataSchemaBytes != null) {
-      dataOutputStream.write(dataSchemaBytes);
+      byteBuffer.put(dataSchemaBytes);
     }
-    // Write fixed size data bytes.
     if (_fixedSizeDataBytes != null) {
-      dataOutputStream.write(_fixedSizeDataBytes);
+      byteBuffer.put(_fixedSizeDataBytes);
     }
-    // Write variable size data bytes.
     if (_variableSizeDataBytes != null) {
-      dataOutputStream.write(_variableSizeDataBytes);
+      byteBuffer.put(_variableSizeDataBytes);
     }
+
+    // Write metadata: length followed by actual metadata bytes.
+    byteBuffer.putInt(metadataBytes.length);
+    byteBuffer.put(metadataBytes);
+
+    assert !byteBuffer.hasRemaining();
+    return bytes;
+  }
+
+  @Override
+  public DataTableImplV3 toMetadataOnlyDataTable() {
+    DataTableImplV3 metadataOnlyDataTable = new DataTableImplV3();
+    metadataOnlyDataTable._metadata.putAll(_metadata);
+    metadataOnlyDataTable._errCodeToExceptionMap.putAll(_errCodeToExceptionMap);
+    return metadataOnlyDataTable;
+  }
+
+  @Override
+  public DataTableImplV3 toDataOnlyDataTable() {
+    return new DataTableImplV3(_numRows, _dataSchema, _dictionaryMap, _fixedSizeDataBytes, _variableSizeDataBytes);
   }
 
   /**
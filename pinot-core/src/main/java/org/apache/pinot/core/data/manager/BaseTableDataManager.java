@@ -23,12 +23,17 @@ import com.google.common.base.Preconditions;
 import com.google.common.cache.LoadingCache;
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
@@ -43,14 +48,17 @@ import org.apache.pinot.common.metrics.ServerMeter;
 import org.apache.pinot.common.metrics.ServerMetrics;
 import org.apache.pinot.common.restlet.resources.SegmentErrorInfo;
 import org.apache.pinot.common.utils.TarGzCompressionUtils;
+import org.apache.pinot.common.utils.URIUtils;
 import org.apache.pinot.common.utils.fetcher.SegmentFetcherFactory;
 import org.apache.pinot.core.data.manager.offline.ImmutableSegmentDataManager;
 import org.apache.pinot.segment.local.data.manager.SegmentDataManager;
 import org.apache.pinot.segment.local.data.manager.TableDataManager;
 import org.apache.pinot.segment.local.data.manager.TableDataManagerConfig;
 import org.apache.pinot.segment.local.indexsegment.immutable.ImmutableSegmentLoader;
+import org.apache.pinot.segment.local.loader.TieredSegmentDirectoryLoader;
 import org.apache.pinot.segment.local.segment.index.loader.IndexLoadingConfig;
 import org.apache.pinot.segment.local.segment.index.loader.LoaderUtils;
+import org.apache.pinot.segment.local.segment.store.TieredSegmentDirectory;
 import org.apache.pinot.segment.spi.ImmutableSegment;
 import org.apache.pinot.segment.spi.SegmentMetadata;
 import org.apache.pinot.segment.spi.index.metadata.SegmentMetadataImpl;
@@ -84,11 +92,22 @@ public abstract class BaseTableDataManager implements TableDataManager {
   protected Logger _logger;
   protected HelixManager _helixManager;
   protected String _authToken;
+  protected boolean _isStreamSegmentDownloadUntar;
+  // Semaphore to bound the number of segments downloaded in parallel on the server, null if unlimited
+  protected final Semaphore _segmentDownloadSemaphore;
 
   // Fixed size LRU cache with TableName - SegmentName pair as key, and segment related
   // errors as the value.
   protected LoadingCache<Pair<String, String>, SegmentErrorInfo> _errorCache;
 
+  protected BaseTableDataManager() {
+    this(null);
+  }
+
+  protected BaseTableDataManager(@Nullable Semaphore segmentDownloadSemaphore) {
+    _segmentDownloadSemaphore = segmentDownloadSemaphore;
+  }
+
   @Override
   public void init(TableDataManagerConfig tableDataManagerConfig, String instanceId,
       ZkHelixPropertyStore<ZNRecord> propertyStore, ServerMetrics serverMetrics, HelixManager helixManager,
@@ -101,6 +120,7 @@ public abstract class BaseTableDataManager implements TableDataManager {
     _serverMetrics = serverMetrics;
     _helixManager = helixManager;
     _authToken = tableDataManagerConfig.getAuthToken();
+    _isStreamSegmentDownloadUntar = tableDataManagerConfig.isStreamSegmentDownloadUntar();
 
     _tableNameWithType = tableDataManagerConfig.getTableName();
     _tableDataDir = tableDataManagerConfig.getDataDir();
@@ -294,17 +314,26 @@ public abstract class BaseTableDataManager implements TableDataManager {
       SegmentMetadata localMetadata, @Nullable Schema schema, boolean forceDownload)
       throws Exception {
     File indexDir = getSegmentDataDir(segmentName);
+    // Segments loaded from the tiered storage don't have the index directory, try to reload them from the tiered
+    // storage again, which falls back to download the segment if it needs to be reprocessed.
+    boolean hasIndexDir = indexDir.exists();
+    if (!hasIndexDir && !forceDownload && tryLoadTieredSegment(segmentName, indexLoadingConfig, zkMetadata, schema)) {
+      return;
+    }
     try {
       // Create backup directory to handle failure of segment reloading.
       createBackup(indexDir);
 
-      // Download segment from deep store if CRC changes or forced to download;
+      // Download segment from deep store if CRC changes, forced to download or the index directory doesn't exist;
       // otherwise, copy backup directory back to the original index directory.
       // And then continue to load the segment from the index directory.
-      boolean shouldDownload = forceDownload || !hasSameCRC(zkMetadata, localMetadata);
+      boolean shouldDownload = forceDownload || !hasIndexDir || !hasSameCRC(zkMetadata, localMetadata);
       if (shouldDownload && allowDownload(segmentName, zkMetadata)) {
         if (forceDownload) {
           LOGGER.info("Segment: {} of table: {} is forced to download", segmentName, _tableNameWithType);
+        } else if (!hasIndexDir) {
+          LOGGER.info("Download segment: {} of table: {} as the index directory doesn't exist", segmentName,
+              _tableNameWithType);
         } else {
           LOGGER.info("Download segment:{} of table: {} as crc changes from: {} to: {}", segmentName,
               _tableNameWithType, localMetadata.getCrc(), zkMetadata.getCrc());
@@ -358,6 +387,12 @@ public abstract class BaseTableDataManager implements TableDataManager {
       return;
     }
 
+    // Load the segment from the tiered storage without downloading it if configured.
+    if (tryLoadTieredSegment(segmentName, indexLoadingConfig, zkMetadata,
+        ZKMetadataProvider.getTableSchema(_propertyStore, _tableNameWithType))) {
+      return;
+    }
+
     Preconditions.checkState(allowDownload(segmentName, zkMetadata), "Segment: %s of table: %s does not allow download",
         segmentName, _tableNameWithType);
 
@@ -385,15 +420,48 @@ public abstract class BaseTableDataManager implements TableDataManager {
     return downloadSegmentFromDeepStore(segmentName, zkMetadata);
   }
 
-  private File downloadSegmentFromDeepStore(String segmentName, SegmentZKMetadata zkMetadata)
+  /**
+   * Downloads the segment from the deep store and replaces the existing index directory with it, throttled by the
+   * server-wide download semaphore. Returns the index directory.
+   */
+  protected File downloadSegmentFromDeepStore(String segmentName, SegmentZKMetadata zkMetadata)
       throws Exception {
     File tempRootDir = getTmpSegmentDataDir("tmp-" + segmentName + "-" + UUID.randomUUID());
-    FileUtils.forceMkdir(tempRootDir);
+    acquireDownloadPermit(segmentName);
     try {
-      File tarFile = downloadAndDecrypt(segmentName, zkMetadata, tempRootDir);
-      return untarAndMoveSegment(segmentName, tarFile, tempRootDir);
+      // Encrypted segments have to be persisted on local disk for decryption before untarring
+      if (_isStreamSegmentDownloadUntar && zkMetadata.getCrypterName() == null) {
+        File untaredSegDir = downloadAndStreamUntar(segmentName, zkMetadata, tempRootDir);
+        return moveSegment(segmentName, untaredSegDir);
+      } else {
+        FileUtils.forceMkdir(tempRootDir);
+        File tarFile = downloadAndDecrypt(segmentName, zkMetadata, tempRootDir);
+        return untarAndMoveSegment(segmentName, tarFile, tempRootDir);
+      }
     } finally {
       FileUtils.deleteQuietly(tempRootDir);
+      releaseDownloadPermit();
+    }
+  }
+
+  /**
+   * Acquires a permit from the server-wide download semaphore if configured. {@link #releaseDownloadPermit()} must be
+   * called after the download finishes.
+   */
+  protected void acquireDownloadPermit(String segmentName)
+      throws InterruptedException {
+    if (_segmentDownloadSemaphore != null) {
+      long startTimeMs = System.currentTimeMillis();
+      LOGGER.info("Acquiring download semaphore for segment: {} of table: {}", segmentName, _tableNameWithType);
+      _segmentDownloadSemaphore.acquire();
+      LOGGER.info("Acquired download semaphore for segment: {} of table: {} (waited {}ms)", segmentName,
+          _tableNameWithType, System.currentTimeMillis() - startTimeMs);
+    }
+  }
+
+  protected void releaseDownloadPermit() {
+    if (_segmentDownloadSemaphore != null) {
+      _segmentDownloadSemaphore.release();
     }
   }
 
@@ -415,8 +483,43 @@ public abstract class BaseTableDataManager implements TableDataManager {
     }
   }
 
+  /**
+   * Downloads the tarred segment and untars it on the fly into the temporary directory, without persisting the tar
+   * file on local disk. Returns the untarred segment directory after verifying its CRC against the ZK metadata.
+   */
   @VisibleForTesting
-  File untarAndMoveSegment(String segmentName, File tarFile, File tempRootDir)
+  File downloadAndStreamUntar(String segmentName, SegmentZKMetadata zkMetadata, File tempRootDir)
+      throws Exception {
+    File untarDir = new File(tempRootDir, segmentName);
+    String uri = zkMetadata.getDownloadUrl();
+    File untaredSegDir;
+    try {
+      untaredSegDir = SegmentFetcherFactory.fetchAndStreamUntarToLocal(uri, untarDir);
+      LOGGER.info("Downloaded and untarred segment: {} for table: {} from: {} to: {}", segmentName, _tableNameWithType,
+          uri, untaredSegDir);
+    } catch (AttemptsExceededException e) {
+      LOGGER.error("Attempts exceeded when downloading segment: {} for table: {} from: {} to: {}", segmentName,
+          _tableNameWithType, uri, untarDir);
+      _serverMetrics.addMeteredTableValue(_tableNameWithType, ServerMeter.SEGMENT_DOWNLOAD_FAILURES, 1L);
+      throw e;
+    }
+    try {
+      // The tar stream is verified while untarring, also verify the segment content before replacing the existing
+      // index directory
+      SegmentMetadataImpl segmentMetadata = new SegmentMetadataImpl(untaredSegDir);
+      Preconditions.checkState(hasSameCRC(zkMetadata, segmentMetadata),
+          "CRC mismatch for downloaded segment: %s of table: %s, expected: %s, actual: %s", segmentName,
+          _tableNameWithType, zkMetadata.getCrc(), segmentMetadata.getCrc());
+      return untaredSegDir;
+    } catch (Exception e) {
+      LOGGER.error("Failed to verify segment: {} of table: {} untarred to: {}", segmentName, _tableNameWithType,
+          untaredSegDir);
+      _serverMetrics.addMeteredTableValue(_tableNameWithType, ServerMeter.UNTAR_FAILURES, 1L);
+      throw e;
+    }
+  }
+
+  protected File untarAndMoveSegment(String segmentName, File tarFile, File tempRootDir)
       throws IOException {
     File untarDir = new File(tempRootDir, segmentName);
     try {
@@ -424,13 +527,7 @@ public abstract class BaseTableDataManager implements TableDataManager {
       // or not found after the retry. Thus, there's no need to retry again.
       File untaredSegDir = TarGzCompressionUtils.untar(tarFile, untarDir).get(0);
       LOGGER.info("Uncompressed tar file: {} into target dir: {}", tarFile, untarDir);
-      // Replace the existing index directory.
-      File indexDir = getSegmentDataDir(segmentName);
-      FileUtils.deleteDirectory(indexDir);
-      FileUtils.moveDirectory(untaredSegDir, indexDir);
-      LOGGER.info("Successfully downloaded segment: {} of table: {} to index dir: {}", segmentName, _tableNameWithType,
-          indexDir);
-      return indexDir;
+      return moveSegment(segmentName, untaredSegDir);
     } catch (Exception e) {
       LOGGER.error("Failed to untar segment: {} of table: {} from: {} to: {}", segmentName, _tableNameWithType, tarFile,
           untarDir);
@@ -439,6 +536,24 @@ public abstract class BaseTableDataManager implements TableDataManager {
     }
   }
 
+  /**
+   * Replaces the existing index directory with the untarred segment directory. The temporary directory is on the same
+   * file system as the index directory, so the directory can be renamed atomically without copying the files.
+   */
+  private File moveSegment(String segmentName, File untaredSegDir)
+      throws IOException {
+    File indexDir = getSegmentDataDir(segmentName);
+    FileUtils.deleteDirectory(indexDir);
+    try {
+      Files.move(untaredSegDir.toPath(), indexDir.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      FileUtils.moveDirectory(untaredSegDir, indexDir);
+    }
+    LOGGER.info("Successfully downloaded segment: {} of table: {} to index dir: {}", segmentName, _tableNameWithType,
+        indexDir);
+    return indexDir;
+  }
+
   @VisibleForTesting
   File getSegmentDataDir(String segmentName) {
     return new File(_indexDir, segmentName);
@@ -552,6 +667,57 @@ public abstract class BaseTableDataManager implements TableDataManager {
     }
   }
 
+  /**
+   * Try to load the segment from the tiered storage (the untarred segment on the remote file system configured with
+   * {@link TieredSegmentDirectoryLoader#REMOTE_DIR_KEY}), with the indexes fetched on demand into the local cache.
+   * Returns true if the segment is loaded; false if the tiered storage is not configured, the segment needs to be
+   * reprocessed (which requires a local copy), or it fails to be loaded, e.g. when the local cache is full, in which
+   * case the segment should be downloaded and loaded locally.
+   */
+  private boolean tryLoadTieredSegment(String segmentName, IndexLoadingConfig indexLoadingConfig,
+      SegmentZKMetadata zkMetadata, @Nullable Schema schema) {
+    String remoteDir =
+        indexLoadingConfig.getSegmentDirectoryConfigs().getProperty(TieredSegmentDirectoryLoader.REMOTE_DIR_KEY);
+    if (remoteDir == null) {
+      return false;
+    }
+    SegmentDirectory segmentDirectory = null;
+    try {
+      URI segmentURI = URIUtils.getUri(remoteDir, _tableNameWithType, URIUtils.encode(segmentName));
+      SegmentDirectoryLoaderContext loaderContext =
+          new SegmentDirectoryLoaderContext.Builder().setTableConfig(indexLoadingConfig.getTableConfig())
+              .setSchema(schema).setInstanceId(indexLoadingConfig.getInstanceId()).setSegmentName(segmentName)
+              .setSegmentCrc(String.valueOf(zkMetadata.getCrc()))
+              .setSegmentDirectoryConfigs(indexLoadingConfig.getSegmentDirectoryConfigs()).build();
+      segmentDirectory = SegmentDirectoryLoaderRegistry.getSegmentDirectoryLoader(TieredSegmentDirectoryLoader.NAME)
+          .load(segmentURI, loaderContext);
+      if (!hasSameCRC(zkMetadata, segmentDirectory.getSegmentMetadata())) {
+        LOGGER.info("Segment: {} of table: {} in tiered storage has crc: {} different from: {}", segmentName,
+            _tableNameWithType, segmentDirectory.getSegmentMetadata().getCrc(), zkMetadata.getCrc());
+        closeSegmentDirectoryQuietly(segmentDirectory);
+        return false;
+      }
+      if (ImmutableSegmentLoader.needPreprocess(segmentDirectory, indexLoadingConfig, schema)) {
+        LOGGER.info("Segment: {} of table: {} in tiered storage needs reprocess, loading it locally", segmentName,
+            _tableNameWithType);
+        closeSegmentDirectoryQuietly(segmentDirectory);
+        return false;
+      }
+      ImmutableSegment segment = ImmutableSegmentLoader.load(segmentDirectory, indexLoadingConfig, schema);
+      // Allow the indexes read while loading the segment to be evicted from the local cache once not queried
+      ((TieredSegmentDirectory) segmentDirectory).releaseLoadingReferences();
+      addSegment(segment);
+      LOGGER.info("Loaded segment: {} of table: {} with crc: {} from tiered storage", segmentName, _tableNameWithType,
+          zkMetadata.getCrc());
+      return true;
+    } catch (Exception e) {
+      LOGGER.warn("Failed to load segment: {} of table: {} from tiered storage, loading it locally", segmentName,
+          _tableNameWithType, e);
+      closeSegmentDirectoryQuietly(segmentDirectory);
+      return false;
+    }
+  }
+
   private SegmentDirectory tryInitSegmentDirectory(String segmentName, String segmentCrc,
       IndexLoadingConfig indexLoadingConfig, Schema schema) {
     try {
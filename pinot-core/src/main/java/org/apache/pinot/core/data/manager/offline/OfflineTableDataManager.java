@@ -19,6 +19,8 @@
 package org.apache.pinot.core.data.manager.offline;
 
 import java.io.File;
+import java.util.concurrent.Semaphore;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.pinot.common.metadata.ZKMetadataProvider;
 import org.apache.pinot.core.data.manager.BaseTableDataManager;
@@ -33,6 +35,13 @@ import org.apache.pinot.spi.data.Schema;
 @ThreadSafe
 public class OfflineTableDataManager extends BaseTableDataManager {
 
+  public OfflineTableDataManager() {
+  }
+
+  public OfflineTableDataManager(@Nullable Semaphore segmentDownloadSemaphore) {
+    super(segmentDownloadSemaphore);
+  }
+
   @Override
   protected void doInit() {
   }
@@ -38,6 +38,7 @@ import org.apache.pinot.spi.utils.Pair;
  */
 public class TableDataManagerProvider {
   private static Semaphore _segmentBuildSemaphore;
+  private static Semaphore _segmentDownloadSemaphore;
 
   private TableDataManagerProvider() {
   }
@@ -47,6 +48,10 @@ public class TableDataManagerProvider {
     if (maxParallelBuilds > 0) {
       _segmentBuildSemaphore = new Semaphore(maxParallelBuilds, true);
     }
+    int maxParallelDownloads = instanceDataManagerConfig.getMaxParallelSegmentDownloads();
+    if (maxParallelDownloads > 0) {
+      _segmentDownloadSemaphore = new Semaphore(maxParallelDownloads, true);
+    }
   }
 
   public static TableDataManager getTableDataManager(TableDataManagerConfig tableDataManagerConfig, String instanceId,
@@ -58,11 +63,11 @@ public class TableDataManagerProvider {
         if (tableDataManagerConfig.isDimTable()) {
           tableDataManager = DimensionTableDataManager.createInstanceByTableName(tableDataManagerConfig.getTableName());
         } else {
-          tableDataManager = new OfflineTableDataManager();
+          tableDataManager = new OfflineTableDataManager(_segmentDownloadSemaphore);
         }
         break;
       case REALTIME:
-        tableDataManager = new RealtimeTableDataManager(_segmentBuildSemaphore);
+        tableDataManager = new RealtimeTableDataManager(_segmentBuildSemaphore, _segmentDownloadSemaphore);
         break;
       default:
         throw new IllegalStateException();
@@ -256,6 +256,8 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
   final String _clientId;
   private final LLCSegmentName _llcSegmentName;
   private final TransformPipeline _transformPipeline;
+  // Decodes and transforms the messages in parallel when decode parallelism is configured, null otherwise
+  private final PipelinedMessageDecoder _pipelinedMessageDecoder;
   private PartitionGroupConsumer _partitionGroupConsumer = null;
   private StreamMetadataProvider _streamMetadataProvider = null;
   private final File _resourceTmpDir;
@@ -471,6 +473,8 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
 
     GenericRow reuse = new GenericRow();
     TransformPipeline.Result reusedResult = new TransformPipeline.Result();
+    PipelinedMessageDecoder.DecodedMessage[] decodedMessages =
+        _pipelinedMessageDecoder != null ? _pipelinedMessageDecoder.decodeAndTransform(messagesAndOffsets) : null;
     for (int index = 0; index < messageCount; index++) {
       if (_shouldStop || endCriteriaReached()) {
         if (_segmentLogger.isDebugEnabled()) {
@@ -501,32 +505,49 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
       }
 
       // Index each message
-      reuse.clear();
       // retrieve metadata from the message batch if available
       // this can be overridden by the decoder if there is a better indicator in the message payload
       RowMetadata msgMetadata = messagesAndOffsets.getMetadataAtIndex(index);
 
-      GenericRow decodedRow = _messageDecoder
-          .decode(messagesAndOffsets.getMessageAtIndex(index), messagesAndOffsets.getMessageOffsetAtIndex(index),
-              messagesAndOffsets.getMessageLengthAtIndex(index), reuse);
+      GenericRow decodedRow;
+      TransformPipeline.Result transformResult;
+      Exception transformException = null;
+      if (decodedMessages != null) {
+        // Already decoded and transformed by the pipelined message decoder
+        PipelinedMessageDecoder.DecodedMessage decodedMessage = decodedMessages[index];
+        decodedRow = decodedMessage.getDecodedRow();
+        transformResult = decodedMessage.getResult();
+        transformException = decodedMessage.getTransformException();
+      } else {
+        reuse.clear();
+        decodedRow = _messageDecoder
+            .decode(messagesAndOffsets.getMessageAtIndex(index), messagesAndOffsets.getMessageOffsetAtIndex(index),
+                messagesAndOffsets.getMessageLengthAtIndex(index), reuse);
+        transformResult = reusedResult;
+        if (decodedRow != null) {
+          try {
+            _transformPipeline.processRow(decodedRow, reusedResult);
+          } catch (Exception e) {
+            transformException = e;
+          }
+        }
+      }
       if (decodedRow != null) {
-        try {
-          _transformPipeline.processRow(decodedRow, reusedResult);
-        } catch (Exception e) {
+        if (transformException != null) {
           _numRowsErrored++;
           // when exception happens we prefer abandoning the whole batch and not partially indexing some rows
-          reusedResult.getTransformedRows().clear();
+          transformResult.getTransformedRows().clear();
           String errorMessage = String.format("Caught exception while transforming the record: %s", decodedRow);
-          _segmentLogger.error(errorMessage, e);
+          _segmentLogger.error(errorMessage, transformException);
           _realtimeTableDataManager.addSegmentError(_segmentNameStr,
-              new SegmentErrorInfo(System.currentTimeMillis(), errorMessage, e));
+              new SegmentErrorInfo(System.currentTimeMillis(), errorMessage, transformException));
         }
-        if (reusedResult.getSkippedRowCount() > 0) {
+        if (transformResult.getSkippedRowCount() > 0) {
           realtimeRowsDroppedMeter =
               _serverMetrics.addMeteredTableValue(_metricKeyName, ServerMeter.INVALID_REALTIME_ROWS_DROPPED,
-                  reusedResult.getSkippedRowCount(), realtimeRowsDroppedMeter);
+                  transformResult.getSkippedRowCount(), realtimeRowsDroppedMeter);
         }
-        for (GenericRow transformedRow : reusedResult.getTransformedRows()) {
+        for (GenericRow transformedRow : transformResult.getTransformedRows()) {
           try {
             canTakeMore = _realtimeSegment.index(transformedRow, msgMetadata);
             indexedMessageCount++;
@@ -971,6 +992,9 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
   private void closeStreamConsumers() {
     closePartitionGroupConsumer();
     closeStreamMetadataProvider();
+    if (_pipelinedMessageDecoder != null) {
+      _pipelinedMessageDecoder.close();
+    }
     if (_acquiredConsumerSemaphore.compareAndSet(true, false)) {
       _partitionGroupConsumerSemaphore.release();
     }
@@ -1323,6 +1347,15 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
     _clientId = streamTopic + "-" + _partitionGroupId;
 
     _transformPipeline = new TransformPipeline(tableConfig, schema);
+    int decodeParallelism = _partitionLevelStreamConfig.getDecodeParallelism();
+    if (decodeParallelism > 1) {
+      _segmentLogger.info("Decoding and transforming messages with parallelism: {}", decodeParallelism);
+      _pipelinedMessageDecoder = new PipelinedMessageDecoder(decodeParallelism,
+          () -> StreamDecoderProvider.create(_partitionLevelStreamConfig, fieldsToRead),
+          () -> new TransformPipeline(tableConfig, schema), _segmentNameStr);
+    } else {
+      _pipelinedMessageDecoder = null;
+    }
     // Acquire semaphore to create stream consumers
     try {
       _partitionGroupConsumerSemaphore.acquire();
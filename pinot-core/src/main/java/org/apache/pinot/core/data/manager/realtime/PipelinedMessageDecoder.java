@@ -0,0 +1,161 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.data.manager.realtime;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.apache.pinot.segment.local.segment.creator.TransformPipeline;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.stream.MessageBatch;
+import org.apache.pinot.spi.stream.StreamMessageDecoder;
+
+
+/**
+ * Decodes and transforms the messages of a {@link MessageBatch} in parallel, so that only the indexing into the mutable
+ * segment has to stay on the consumer thread.
+ * <p>The batch is split into contiguous ranges of messages, one per worker. The first range is processed on the calling
+ * thread and the others on a dedicated thread pool. Each worker owns its own {@link StreamMessageDecoder} and
+ * {@link TransformPipeline} because neither of them is thread-safe. The results are returned in the order of the
+ * messages in the batch, so the caller can index them in offset order.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class PipelinedMessageDecoder implements Closeable {
+  private final StreamMessageDecoder[] _decoders;
+  private final TransformPipeline[] _transformPipelines;
+  private final ExecutorService _executorService;
+
+  public PipelinedMessageDecoder(int parallelism, Supplier<StreamMessageDecoder> decoderSupplier,
+      Supplier<TransformPipeline> transformPipelineSupplier, String threadNamePrefix) {
+    Preconditions.checkArgument(parallelism > 1, "Parallelism must be larger than 1, got: %s", parallelism);
+    _decoders = new StreamMessageDecoder[parallelism];
+    _transformPipelines = new TransformPipeline[parallelism];
+    for (int i = 0; i < parallelism; i++) {
+      _decoders[i] = decoderSupplier.get();
+      _transformPipelines[i] = transformPipelineSupplier.get();
+    }
+    _executorService = Executors.newFixedThreadPool(parallelism - 1,
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat(threadNamePrefix + "-decoder-%d").build());
+  }
+
+  /**
+   * Decodes and transforms all the messages in the given batch, and returns the results in the order of the messages.
+   */
+  public DecodedMessage[] decodeAndTransform(MessageBatch messageBatch) {
+    int messageCount = messageBatch.getMessageCount();
+    DecodedMessage[] decodedMessages = new DecodedMessage[messageCount];
+    if (messageCount == 0) {
+      return decodedMessages;
+    }
+    int numWorkers = Math.min(_decoders.length, messageCount);
+    int numMessagesPerWorker = (messageCount + numWorkers - 1) / numWorkers;
+    List<Future<?>> futures = new ArrayList<>(numWorkers - 1);
+    for (int i = 1; i < numWorkers; i++) {
+      int workerId = i;
+      int startIndex = i * numMessagesPerWorker;
+      int endIndex = Math.min(startIndex + numMessagesPerWorker, messageCount);
+      if (startIndex < endIndex) {
+        futures.add(_executorService.submit(
+            () -> decodeAndTransform(workerId, messageBatch, startIndex, endIndex, decodedMessages)));
+      }
+    }
+    decodeAndTransform(0, messageBatch, 0, Math.min(numMessagesPerWorker, messageCount), decodedMessages);
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Interrupted while decoding the message batch", e);
+      } catch (ExecutionException e) {
+        throw new RuntimeException("Caught exception while decoding the message batch", e.getCause());
+      }
+    }
+    return decodedMessages;
+  }
+
+  private void decodeAndTransform(int workerId, MessageBatch messageBatch, int startIndex, int endIndex,
+      DecodedMessage[] decodedMessages) {
+    StreamMessageDecoder decoder = _decoders[workerId];
+    TransformPipeline transformPipeline = _transformPipelines[workerId];
+    for (int index = startIndex; index < endIndex; index++) {
+      // NOTE: The decoded row and the transform result are kept until the message is indexed, so they cannot be reused
+      GenericRow decodedRow = decoder.decode(messageBatch.getMessageAtIndex(index),
+          messageBatch.getMessageOffsetAtIndex(index), messageBatch.getMessageLengthAtIndex(index), new GenericRow());
+      TransformPipeline.Result result = new TransformPipeline.Result();
+      Exception transformException = null;
+      if (decodedRow != null) {
+        try {
+          transformPipeline.processRow(decodedRow, result);
+        } catch (Exception e) {
+          transformException = e;
+        }
+      }
+      decodedMessages[index] = new DecodedMessage(decodedRow, result, transformException);
+    }
+  }
+
+  @Override
+  public void close() {
+    _executorService.shutdownNow();
+  }
+
+  /**
+   * The result of decoding and transforming a single message.
+   */
+  public static class DecodedMessage {
+    private final GenericRow _decodedRow;
+    private final TransformPipeline.Result _result;
+    private final Exception _transformException;
+
+    public DecodedMessage(@Nullable GenericRow decodedRow, TransformPipeline.Result result,
+        @Nullable Exception transformException) {
+      _decodedRow = decodedRow;
+      _result = result;
+      _transformException = transformException;
+    }
+
+    /**
+     * Returns the decoded row, or {@code null} if the message cannot be decoded.
+     */
+    @Nullable
+    public GenericRow getDecodedRow() {
+      return _decodedRow;
+    }
+
+    public TransformPipeline.Result getResult() {
+      return _result;
+    }
+
+    /**
+     * Returns the exception thrown while transforming the decoded row, or {@code null} if the transform succeeded.
+     */
+    @Nullable
+    public Exception getTransformException() {
+      return _transformException;
+    }
+  }
+}
@@ -33,9 +33,12 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.io.FileUtils;
+import org.apache.helix.model.IdealState;
 import org.apache.pinot.common.Utils;
 import org.apache.pinot.common.metadata.ZKMetadataProvider;
 import org.apache.pinot.common.metadata.instance.InstanceZKMetadata;
@@ -47,6 +50,7 @@ import org.apache.pinot.common.utils.SegmentName;
 import org.apache.pinot.common.utils.SegmentUtils;
 import org.apache.pinot.common.utils.TarGzCompressionUtils;
 import org.apache.pinot.common.utils.fetcher.SegmentFetcherFactory;
+import org.apache.pinot.common.utils.helix.HelixHelper;
 import org.apache.pinot.core.data.manager.BaseTableDataManager;
 import org.apache.pinot.core.util.PeerServerSegmentFinder;
 import org.apache.pinot.segment.local.data.manager.SegmentDataManager;
@@ -57,8 +61,10 @@ import org.apache.pinot.segment.local.segment.index.loader.IndexLoadingConfig;
 import org.apache.pinot.segment.local.segment.index.loader.LoaderUtils;
 import org.apache.pinot.segment.local.segment.readers.PinotSegmentColumnReader;
 import org.apache.pinot.segment.local.segment.virtualcolumn.VirtualColumnProviderFactory;
+import org.apache.pinot.segment.local.upsert.OffHeapRecordLocationStore;
 import org.apache.pinot.segment.local.upsert.PartialUpsertHandler;
 import org.apache.pinot.segment.local.upsert.PartitionUpsertMetadataManager;
+import org.apache.pinot.segment.local.upsert.RecordLocationStore;
 import org.apache.pinot.segment.local.upsert.TableUpsertMetadataManager;
 import org.apache.pinot.segment.local.utils.SchemaUtils;
 import org.apache.pinot.segment.spi.ImmutableSegment;
@@ -71,6 +77,7 @@ import org.apache.pinot.spi.data.Schema;
 import org.apache.pinot.spi.data.readers.PrimaryKey;
 import org.apache.pinot.spi.utils.ByteArray;
 import org.apache.pinot.spi.utils.CommonConstants;
+import org.apache.pinot.spi.utils.CommonConstants.Helix.StateModel.SegmentStateModel;
 import org.apache.pinot.spi.utils.CommonConstants.Segment.Realtime.Status;
 
 import static org.apache.pinot.spi.utils.CommonConstants.Segment.METADATA_URI_FOR_PEER_DOWNLOAD;
@@ -96,6 +103,7 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
   // from com.linkedin to org.apache because of not being able to deserialize the old files using the newer classes
   private static final String STATS_FILE_NAME = "segment-stats.ser";
   private static final String CONSUMERS_DIR = "consumers";
+  private static final String UPSERT_DIR = "upsert";
 
   // Topics tend to have similar cardinality for values across partitions consumed during the same time.
   // Multiple partitions of a topic are likely to be consumed in each server, and these will tend to
@@ -116,6 +124,11 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
   private String _upsertComparisonColumn;
 
   public RealtimeTableDataManager(Semaphore segmentBuildSemaphore) {
+    this(segmentBuildSemaphore, null);
+  }
+
+  public RealtimeTableDataManager(Semaphore segmentBuildSemaphore, @Nullable Semaphore segmentDownloadSemaphore) {
+    super(segmentDownloadSemaphore);
     _segmentBuildSemaphore = segmentBuildSemaphore;
   }
 
@@ -173,14 +186,15 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
             comparisonColumn);
       }
       UpsertConfig.HashFunction hashFunction = upsertConfig.getHashFunction();
-      _tableUpsertMetadataManager =
-          new TableUpsertMetadataManager(_tableNameWithType, _serverMetrics, partialUpsertHandler, hashFunction);
       _primaryKeyColumns = schema.getPrimaryKeyColumns();
       Preconditions.checkState(!CollectionUtils.isEmpty(_primaryKeyColumns),
           "Primary key columns must be configured for upsert");
       String comparisonColumn = upsertConfig.getComparisonColumn();
       _upsertComparisonColumn =
           comparisonColumn != null ? comparisonColumn : tableConfig.getValidationConfig().getTimeColumnName();
+      _tableUpsertMetadataManager =
+          new TableUpsertMetadataManager(_tableNameWithType, _serverMetrics, partialUpsertHandler, hashFunction,
+              getRecordLocationStoreFactory(upsertConfig, schema));
     }
 
     if (consumerDir.exists()) {
@@ -200,6 +214,69 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
     }
   }
 
+  /**
+   * Returns the factory of the off-heap record location store when it is configured and supported, or {@code null} to
+   * use the on-heap store.
+   */
+  @Nullable
+  private IntFunction<RecordLocationStore> getRecordLocationStoreFactory(UpsertConfig upsertConfig, Schema schema) {
+    if (upsertConfig.getMetadataStore() != UpsertConfig.MetadataStore.OFF_HEAP) {
+      return null;
+    }
+    // The off-heap store requires the primary keys to be hashed into 16 bytes and fixed width comparison values. It is
+    // not supported for partial upsert because the record locations in the consuming segment are not recovered, and
+    // partial upsert needs them to merge the re-consumed records.
+    UpsertConfig.HashFunction hashFunction = upsertConfig.getHashFunction();
+    FieldSpec comparisonFieldSpec = schema.getFieldSpecFor(_upsertComparisonColumn);
+    FieldSpec.DataType comparisonStoredType =
+        comparisonFieldSpec != null ? comparisonFieldSpec.getDataType().getStoredType() : null;
+    if (isPartialUpsertEnabled() || (hashFunction != UpsertConfig.HashFunction.MD5
+        && hashFunction != UpsertConfig.HashFunction.MURMUR3) || (comparisonStoredType != FieldSpec.DataType.INT
+        && comparisonStoredType != FieldSpec.DataType.LONG && comparisonStoredType != FieldSpec.DataType.FLOAT
+        && comparisonStoredType != FieldSpec.DataType.DOUBLE)) {
+      _logger.warn("Off-heap upsert metadata store requires full upsert, MD5 or MURMUR3 hash function and numeric "
+              + "comparison column, got mode: {}, hash function: {}, comparison column type: {}, using on-heap store",
+          _upsertMode, hashFunction, comparisonStoredType);
+      return null;
+    }
+    File upsertDir = new File(_tableDataDir, UPSERT_DIR);
+    return partitionId -> {
+      File partitionDir = new File(upsertDir, "partition_" + partitionId);
+      try {
+        return new OffHeapRecordLocationStore(partitionDir, comparisonStoredType, this::isServingSegments);
+      } catch (IOException e) {
+        throw new RuntimeException("Caught exception while creating record location store in: " + partitionDir, e);
+      }
+    };
+  }
+
+  /**
+   * Returns {@code true} if all the given segments are ONLINE on this instance with the given CRCs in ZK. Used to
+   * validate the persisted record locations, which should be discarded if any segment is removed or replaced while
+   * the server is down.
+   */
+  private boolean isServingSegments(Map<String, String> segmentCrcMap) {
+    IdealState idealState = HelixHelper.getTableIdealState(_helixManager, _tableNameWithType);
+    if (idealState == null) {
+      return false;
+    }
+    for (Map.Entry<String, String> entry : segmentCrcMap.entrySet()) {
+      String segmentName = entry.getKey();
+      Map<String, String> instanceStateMap = idealState.getInstanceStateMap(segmentName);
+      if (instanceStateMap == null || !SegmentStateModel.ONLINE.equals(instanceStateMap.get(_instanceId))) {
+        _logger.info("Segment: {} with persisted upsert metadata is no longer served", segmentName);
+        return false;
+      }
+      SegmentZKMetadata segmentZKMetadata =
+          ZKMetadataProvider.getSegmentZKMetadata(_propertyStore, _tableNameWithType, segmentName);
+      if (segmentZKMetadata == null || !Long.toString(segmentZKMetadata.getCrc()).equals(entry.getValue())) {
+        _logger.info("Segment: {} with persisted upsert metadata is changed", segmentName);
+        return false;
+      }
+    }
+    return true;
+  }
+
   @Override
   protected void doStart() {
   }
@@ -207,6 +284,15 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
   @Override
   protected void doShutdown() {
     _segmentAsyncExecutorService.shutdown();
+    if (_tableUpsertMetadataManager != null) {
+      // Close the upsert metadata before destroying the segments so that the persisted record locations still point to
+      // the served segments
+      try {
+        _tableUpsertMetadataManager.close();
+      } catch (Exception e) {
+        _logger.error("Caught exception while closing upsert metadata manager", e);
+      }
+    }
     for (SegmentDataManager segmentDataManager : _segmentDataManagerMap.values()) {
       segmentDataManager.destroy();
     }
@@ -317,7 +403,7 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
       // The segment is uploaded to an upsert enabled realtime table. Download the segment and load.
       String downloadUrl = segmentZKMetadata.getDownloadUrl();
       Preconditions.checkNotNull(downloadUrl, "Upload segment metadata has no download url");
-      downloadSegmentFromDeepStore(segmentName, indexLoadingConfig, downloadUrl);
+      downloadAndReplaceSegmentFromDeepStore(segmentName, segmentZKMetadata, indexLoadingConfig);
       _logger
           .info("Downloaded, untarred and add segment {} of table {} from {}", segmentName, tableConfig.getTableName(),
               downloadUrl);
@@ -373,6 +459,13 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
         .getRealtimeSegmentPartitionId(segmentName, _tableNameWithType, _helixManager, _primaryKeyColumns.get(0));
     PartitionUpsertMetadataManager partitionUpsertMetadataManager =
         _tableUpsertMetadataManager.getOrCreatePartitionManager(partitionGroupId);
+    ThreadSafeMutableRoaringBitmap recoveredValidDocIds = partitionUpsertMetadataManager
+        .getRecoveredValidDocIds(segmentName, immutableSegment.getSegmentMetadata().getCrc());
+    if (recoveredValidDocIds != null) {
+      immutableSegment.enableUpsert(partitionUpsertMetadataManager, recoveredValidDocIds);
+      partitionUpsertMetadataManager.addRecoveredSegment(immutableSegment);
+      return;
+    }
     ThreadSafeMutableRoaringBitmap validDocIds = new ThreadSafeMutableRoaringBitmap();
     immutableSegment.enableUpsert(partitionUpsertMetadataManager, validDocIds);
 
@@ -429,7 +522,7 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
     String uri = segmentZKMetadata.getDownloadUrl();
     if (!METADATA_URI_FOR_PEER_DOWNLOAD.equals(uri)) {
       try {
-        downloadSegmentFromDeepStore(segmentName, indexLoadingConfig, uri);
+        downloadAndReplaceSegmentFromDeepStore(segmentName, segmentZKMetadata, indexLoadingConfig);
       } catch (Exception e) {
         _logger.warn("Download segment {} from deepstore uri {} failed.", segmentName, uri, e);
         // Download from deep store failed; try to download from peer if peer download is setup for the table.
@@ -450,40 +543,16 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
     }
   }
 
-  private void downloadSegmentFromDeepStore(String segmentName, IndexLoadingConfig indexLoadingConfig, String uri) {
-    File segmentTarFile = new File(_indexDir, segmentName + TarGzCompressionUtils.TAR_GZ_FILE_EXTENSION);
+  private void downloadAndReplaceSegmentFromDeepStore(String segmentName, SegmentZKMetadata segmentZKMetadata,
+      IndexLoadingConfig indexLoadingConfig) {
     try {
-      SegmentFetcherFactory.fetchSegmentToLocal(uri, segmentTarFile);
-      _logger.info("Downloaded file from {} to {}; Length of downloaded file: {}", uri, segmentTarFile,
-          segmentTarFile.length());
-      untarAndMoveSegment(segmentName, indexLoadingConfig, segmentTarFile);
+      downloadSegmentFromDeepStore(segmentName, segmentZKMetadata);
     } catch (Exception e) {
       _logger.warn("Failed to download segment {} from deep store: ", segmentName, e);
       throw new RuntimeException(e);
-    } finally {
-      FileUtils.deleteQuietly(segmentTarFile);
-    }
-  }
-
-  /**
-   * Untars the new segment and replaces the existing segment.
-   */
-  private void untarAndMoveSegment(String segmentName, IndexLoadingConfig indexLoadingConfig, File segmentTarFile)
-      throws IOException {
-    // This could leave temporary directories in _indexDir if JVM shuts down before the temp directory is deleted.
-    // This is fine since the temporary directories are deleted when the table data manager calls init.
-    File tempSegmentDir = getTmpSegmentDataDir("tmp-" + segmentName + "." + System.currentTimeMillis());
-    try {
-      File tempIndexDir = TarGzCompressionUtils.untar(segmentTarFile, tempSegmentDir).get(0);
-      _logger.info("Uncompressed file {} into tmp dir {}", segmentTarFile, tempSegmentDir);
-      File indexDir = new File(_indexDir, segmentName);
-      FileUtils.deleteQuietly(indexDir);
-      FileUtils.moveDirectory(tempIndexDir, indexDir);
-      _logger.info("Replacing LLC Segment {}", segmentName);
-      replaceLLSegment(segmentName, indexLoadingConfig);
-    } finally {
-      FileUtils.deleteQuietly(tempSegmentDir);
     }
+    _logger.info("Replacing LLC Segment {}", segmentName);
+    replaceLLSegment(segmentName, indexLoadingConfig);
   }
 
   private boolean isPeerSegmentDownloadEnabled(TableConfig tableConfig) {
@@ -495,21 +564,34 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
 
   private void downloadSegmentFromPeer(String segmentName, String downloadScheme,
       IndexLoadingConfig indexLoadingConfig) {
-    File segmentTarFile = new File(_indexDir, segmentName + TarGzCompressionUtils.TAR_GZ_FILE_EXTENSION);
+    // This could leave temporary directories in _indexDir if JVM shuts down before the temp directory is deleted.
+    // This is fine since the temporary directories are deleted when the table data manager calls init.
+    File tempRootDir = getTmpSegmentDataDir("tmp-" + segmentName + "." + System.currentTimeMillis());
+    File segmentTarFile = new File(tempRootDir, segmentName + TarGzCompressionUtils.TAR_GZ_FILE_EXTENSION);
+    try {
+      acquireDownloadPermit(segmentName);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
     try {
+      FileUtils.forceMkdir(tempRootDir);
       // First find servers hosting the segment in a ONLINE state.
       List<URI> peerSegmentURIs = PeerServerSegmentFinder.getPeerServerURIs(segmentName, downloadScheme, _helixManager);
       // Next download the segment from a randomly chosen server using configured scheme.
       SegmentFetcherFactory.getSegmentFetcher(downloadScheme).fetchSegmentToLocal(peerSegmentURIs, segmentTarFile);
       _logger.info("Fetched segment {} from: {} to: {} of size: {}", segmentName, peerSegmentURIs, segmentTarFile,
           segmentTarFile.length());
-      untarAndMoveSegment(segmentName, indexLoadingConfig, segmentTarFile);
+      untarAndMoveSegment(segmentName, segmentTarFile, tempRootDir);
     } catch (Exception e) {
       _logger.warn("Download and move segment {} from peer with scheme {} failed.", segmentName, downloadScheme, e);
       throw new RuntimeException(e);
     } finally {
-      FileUtils.deleteQuietly(segmentTarFile);
+      FileUtils.deleteQuietly(tempRootDir);
+      releaseDownloadPermit();
     }
+    _logger.info("Replacing LLC Segment {}", segmentName);
+    replaceLLSegment(segmentName, indexLoadingConfig);
   }
 
   /**
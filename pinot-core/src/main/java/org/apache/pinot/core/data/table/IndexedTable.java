@@ -101,16 +101,18 @@ public abstract class IndexedTable extends BaseTable {
    * Adds a record with new key or updates a record with existing key.
    */
   protected void addOrUpdateRecord(Key key, Record newRecord) {
-    _lookupMap.compute(key, (k, v) -> {
+    addOrUpdateRecord(_lookupMap, key, newRecord);
+  }
+
+  /**
+   * Adds a record with new key or updates a record with existing key in the given lookup map.
+   */
+  protected void addOrUpdateRecord(Map<Key, Record> lookupMap, Key key, Record newRecord) {
+    lookupMap.compute(key, (k, v) -> {
       if (v == null) {
         return newRecord;
       } else {
-        Object[] existingValues = v.getValues();
-        Object[] newValues = newRecord.getValues();
-        int aggNum = 0;
-        for (int i = _numKeyColumns; i < _numColumns; i++) {
-          existingValues[i] = _aggregationFunctions[aggNum++].merge(existingValues[i], newValues[i]);
-        }
+        mergeRecord(v, newRecord);
         return v;
       }
     });
@@ -120,17 +122,31 @@ public abstract class IndexedTable extends BaseTable {
    * Updates a record with existing key. Record with new key will be ignored.
    */
   protected void updateExistingRecord(Key key, Record newRecord) {
-    _lookupMap.computeIfPresent(key, (k, v) -> {
-      Object[] existingValues = v.getValues();
-      Object[] newValues = newRecord.getValues();
-      int aggNum = 0;
-      for (int i = _numKeyColumns; i < _numColumns; i++) {
-        existingValues[i] = _aggregationFunctions[aggNum++].merge(existingValues[i], newValues[i]);
-      }
+    updateExistingRecord(_lookupMap, key, newRecord);
+  }
+
+  /**
+   * Updates a record with existing key in the given lookup map. Record with new key will be ignored.
+   */
+  protected void updateExistingRecord(Map<Key, Record> lookupMap, Key key, Record newRecord) {
+    lookupMap.computeIfPresent(key, (k, v) -> {
+      mergeRecord(v, newRecord);
       return v;
     });
   }
 
+  /**
+   * Merges the aggregation values of the new record into the existing record.
+   */
+  protected void mergeRecord(Record existingRecord, Record newRecord) {
+    Object[] existingValues = existingRecord.getValues();
+    Object[] newValues = newRecord.getValues();
+    int aggNum = 0;
+    for (int i = _numKeyColumns; i < _numColumns; i++) {
+      existingValues[i] = _aggregationFunctions[aggNum++].merge(existingValues[i], newValues[i]);
+    }
+  }
+
   /**
    * Resizes the lookup map based on the trim size.
    */
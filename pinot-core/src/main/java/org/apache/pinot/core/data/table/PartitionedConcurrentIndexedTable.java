@@ -0,0 +1,207 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.data.table;
+
+import com.google.common.base.Preconditions;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.core.query.request.context.QueryContext;
+
+
+/**
+ * Thread safe {@link Table} implementation which splits the records into multiple partitions based on the hash of the
+ * {@link Key}. Each partition has its own lookup map and lock, and is trimmed independently when its size reaches the
+ * partition trim threshold, so that trimming one partition does not block the upserts into the other partitions. The
+ * partitions are merged into a single lookup map when {@link #finish(boolean)} is called.
+ * <p>Each partition is trimmed to the full {@code trimSize} (instead of {@code trimSize / numPartitions}), which
+ * guarantees that the records kept are a superset of the records kept by trimming a single lookup map. The trim
+ * threshold is split among the partitions to keep the same memory bound as {@link ConcurrentIndexedTable}, so the
+ * number of partitions is bounded by {@code trimThreshold / (2 * trimSize)}
+ * (see {@link #getNumPartitions(int, int, int)}).
+ */
+public class PartitionedConcurrentIndexedTable extends IndexedTable {
+  public static final int MAX_NUM_PARTITIONS = 64;
+  // Use 4 partitions per thread to reduce the chance of multiple threads contending on the same partition
+  private static final int NUM_PARTITIONS_PER_THREAD = 4;
+
+  private final int _numPartitionBits;
+  private final Partition[] _partitions;
+  private final int _partitionTrimThreshold;
+  private final AtomicInteger _numRecords = new AtomicInteger();
+  private final AtomicBoolean _noMoreNewRecords = new AtomicBoolean();
+  private final AtomicInteger _numPartitionResizes = new AtomicInteger();
+  private final AtomicLong _partitionResizeTimeNs = new AtomicLong();
+
+  /**
+   * Constructor for the PartitionedConcurrentIndexedTable.
+   *
+   * @param dataSchema    Data schema of the table
+   * @param queryContext  Query context
+   * @param resultSize    Number of records to keep in the final result after calling {@link #finish(boolean)}
+   * @param trimSize      Number of records to keep when trimming a partition
+   * @param trimThreshold Trim the table when the number of records exceeds the threshold, split among the partitions
+   * @param numPartitions Number of partitions, must be a power of 2
+   */
+  public PartitionedConcurrentIndexedTable(DataSchema dataSchema, QueryContext queryContext, int resultSize,
+      int trimSize, int trimThreshold, int numPartitions) {
+    super(dataSchema, queryContext, resultSize, trimSize, trimThreshold, new HashMap<>());
+    Preconditions.checkArgument(numPartitions > 0 && Integer.bitCount(numPartitions) == 1,
+        "Number of partitions must be a power of 2, got: %s", numPartitions);
+    _numPartitionBits = Integer.numberOfTrailingZeros(numPartitions);
+    _partitions = new Partition[numPartitions];
+    for (int i = 0; i < numPartitions; i++) {
+      _partitions[i] = new Partition();
+    }
+    _partitionTrimThreshold = _hasOrderBy ? Math.max(_trimThreshold / numPartitions, 2 * _trimSize) : Integer.MAX_VALUE;
+  }
+
+  /**
+   * Returns the number of partitions (power of 2) to use for the given number of threads, or 1 if partitioning cannot
+   * be applied without exceeding the trim threshold.
+   */
+  public static int getNumPartitions(int numThreads, int trimSize, int trimThreshold) {
+    int maxNumPartitions = (int) Math.min(MAX_NUM_PARTITIONS, trimThreshold / (2L * trimSize));
+    if (maxNumPartitions <= 1 || numThreads <= 1) {
+      return 1;
+    }
+    int numPartitions = Math.min((int) Math.min(MAX_NUM_PARTITIONS, (long) numThreads * NUM_PARTITIONS_PER_THREAD),
+        maxNumPartitions);
+    // Round down to power of 2
+    return Integer.highestOneBit(numPartitions);
+  }
+
+  public int getNumPartitions() {
+    return _partitions.length;
+  }
+
+  /**
+   * Thread safe implementation of upsert for inserting {@link Record} into {@link Table}
+   */
+  @Override
+  public boolean upsert(Key key, Record record) {
+    Partition partition = getPartition(key);
+    if (_hasOrderBy) {
+      upsertWithOrderBy(partition, key, record);
+    } else {
+      upsertWithoutOrderBy(partition, key, record);
+    }
+    return true;
+  }
+
+  private Partition getPartition(Key key) {
+    if (_numPartitionBits == 0) {
+      return _partitions[0];
+    }
+    // NOTE: Use the high bits of the scrambled hash code to pick the partition because ConcurrentHashMap picks the
+    //       bucket with the low bits of the hash code. Using the low bits here would leave most of the buckets of each
+    //       partition map empty.
+    return _partitions[(key.hashCode() * 0x9E3779B9) >>> (Integer.SIZE - _numPartitionBits)];
+  }
+
+  private void upsertWithOrderBy(Partition partition, Key key, Record record) {
+    ConcurrentHashMap<Key, Record> lookupMap = partition._lookupMap;
+    ReentrantReadWriteLock readWriteLock = partition._readWriteLock;
+    readWriteLock.readLock().lock();
+    try {
+      addOrUpdateRecord(lookupMap, key, record);
+    } finally {
+      readWriteLock.readLock().unlock();
+    }
+
+    if (lookupMap.size() >= _partitionTrimThreshold) {
+      readWriteLock.writeLock().lock();
+      try {
+        if (lookupMap.size() >= _partitionTrimThreshold) {
+          long startTimeNs = System.nanoTime();
+          _tableResizer.resizeRecordsMap(lookupMap, _trimSize);
+          _partitionResizeTimeNs.addAndGet(System.nanoTime() - startTimeNs);
+          _numPartitionResizes.incrementAndGet();
+        }
+      } finally {
+        readWriteLock.writeLock().unlock();
+      }
+    }
+  }
+
+  private void upsertWithoutOrderBy(Partition partition, Key key, Record record) {
+    if (_noMoreNewRecords.get()) {
+      updateExistingRecord(partition._lookupMap, key, record);
+    } else {
+      partition._lookupMap.compute(key, (k, v) -> {
+        if (v == null) {
+          if (_numRecords.incrementAndGet() >= _resultSize) {
+            _noMoreNewRecords.set(true);
+          }
+          return record;
+        } else {
+          mergeRecord(v, record);
+          return v;
+        }
+      });
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>NOTE: This method should be called after all the upserts are done.
+   */
+  @Override
+  public void finish(boolean sort) {
+    // The keys in different partitions never overlap, so the partitions can be directly merged
+    for (Partition partition : _partitions) {
+      _lookupMap.putAll(partition._lookupMap);
+      partition._lookupMap.clear();
+    }
+    super.finish(sort);
+  }
+
+  @Override
+  public int size() {
+    if (_topRecords != null) {
+      return _topRecords.size();
+    }
+    int size = _lookupMap.size();
+    for (Partition partition : _partitions) {
+      size += partition._lookupMap.size();
+    }
+    return size;
+  }
+
+  @Override
+  public int getNumResizes() {
+    return super.getNumResizes() + _numPartitionResizes.get();
+  }
+
+  @Override
+  public long getResizeTimeMs() {
+    return super.getResizeTimeMs() + TimeUnit.NANOSECONDS.toMillis(_partitionResizeTimeNs.get());
+  }
+
+  private static class Partition {
+    final ConcurrentHashMap<Key, Record> _lookupMap = new ConcurrentHashMap<>();
+    final ReentrantReadWriteLock _readWriteLock = new ReentrantReadWriteLock();
+  }
+}
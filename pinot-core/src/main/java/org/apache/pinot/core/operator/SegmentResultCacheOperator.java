@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator;
+
+import java.util.Collections;
+import java.util.List;
+import org.apache.pinot.core.common.Operator;
+import org.apache.pinot.core.operator.blocks.IntermediateResultsBlock;
+import org.apache.pinot.core.plan.PlanNode;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
+import org.apache.pinot.core.query.cache.SegmentResultCache;
+
+
+/**
+ * A wrapper around the segment-level aggregation operator which serves the result from the {@link SegmentResultCache}
+ * when present, and populates the cache otherwise.
+ * Similar to {@link AcquireReleaseColumnsSegmentOperator}, it expects the PlanNode of the execution instead of the
+ * Operator, so that the segment is not planned at all on a cache hit.
+ */
+@SuppressWarnings("unchecked")
+public class SegmentResultCacheOperator extends BaseOperator<IntermediateResultsBlock> {
+  private static final String EXPLAIN_NAME = "SEGMENT_RESULT_CACHE";
+
+  private final PlanNode _planNode;
+  private final SegmentResultCache _segmentResultCache;
+  private final SegmentResultCache.CacheKey _cacheKey;
+  private final AggregationFunction[] _aggregationFunctions;
+
+  private Operator<IntermediateResultsBlock> _childOperator;
+  private ExecutionStatistics _cachedExecutionStatistics;
+
+  public SegmentResultCacheOperator(PlanNode planNode, SegmentResultCache segmentResultCache,
+      SegmentResultCache.CacheKey cacheKey, AggregationFunction[] aggregationFunctions) {
+    _planNode = planNode;
+    _segmentResultCache = segmentResultCache;
+    _cacheKey = cacheKey;
+    _aggregationFunctions = aggregationFunctions;
+  }
+
+  @Override
+  protected IntermediateResultsBlock getNextBlock() {
+    SegmentResultCache.CachedResult cachedResult = _segmentResultCache.get(_cacheKey);
+    if (cachedResult != null) {
+      _cachedExecutionStatistics = cachedResult.getExecutionStatistics();
+      return cachedResult.toResultsBlock(_aggregationFunctions);
+    }
+    _childOperator = (Operator<IntermediateResultsBlock>) _planNode.run();
+    IntermediateResultsBlock resultsBlock = _childOperator.nextBlock();
+    cachedResult =
+        SegmentResultCache.CachedResult.fromResultsBlock(resultsBlock, _childOperator.getExecutionStatistics());
+    if (cachedResult != null) {
+      _segmentResultCache.put(_cacheKey, cachedResult);
+    }
+    return resultsBlock;
+  }
+
+  @Override
+  public String toExplainString() {
+    return EXPLAIN_NAME;
+  }
+
+  @Override
+  public List<Operator> getChildOperators() {
+    return _childOperator != null ? Collections.singletonList(_childOperator) : Collections.emptyList();
+  }
+
+  @Override
+  public ExecutionStatistics getExecutionStatistics() {
+    if (_cachedExecutionStatistics != null) {
+      return _cachedExecutionStatistics;
+    }
+    return _childOperator == null ? new ExecutionStatistics(0, 0, 0, 0) : _childOperator.getExecutionStatistics();
+  }
+}
@@ -294,6 +294,10 @@ public class IntermediateResultsBlock implements Block {
       return getResultDataTable();
     }
 
+    if (_intermediateRecords != null) {
+      return getIntermediateRecordsDataTable();
+    }
+
     // TODO: remove all these ifs once every operator starts using {@link Table}
     if (_selectionResult != null) {
       return getSelectionResultDataTable();
@@ -312,19 +316,37 @@ public class IntermediateResultsBlock implements Block {
     ColumnDataType[] storedColumnDataTypes = _dataSchema.getStoredColumnDataTypes();
     Iterator<Record> iterator = _table.iterator();
     while (iterator.hasNext()) {
-      Record record = iterator.next();
-      dataTableBuilder.startRow();
-      int columnIndex = 0;
-      for (Object value : record.getValues()) {
-        setDataTableColumn(storedColumnDataTypes[columnIndex], dataTableBuilder, columnIndex, value);
-        columnIndex++;
-      }
-      dataTableBuilder.finishRow();
+      addRow(dataTableBuilder, storedColumnDataTypes, iterator.next().getValues());
     }
     DataTable dataTable = dataTableBuilder.build();
     return attachMetadataToDataTable(dataTable);
   }
 
+  /**
+   * Serializes the segment-level group-by results (used by the streaming group-by query, where the partial results are
+   * sent to the broker without being merged on the server).
+   */
+  private DataTable getIntermediateRecordsDataTable()
+      throws IOException {
+    DataTableBuilder dataTableBuilder = new DataTableBuilder(_dataSchema);
+    ColumnDataType[] storedColumnDataTypes = _dataSchema.getStoredColumnDataTypes();
+    for (IntermediateRecord intermediateRecord : _intermediateRecords) {
+      addRow(dataTableBuilder, storedColumnDataTypes, intermediateRecord._record.getValues());
+    }
+    DataTable dataTable = dataTableBuilder.build();
+    return attachMetadataToDataTable(dataTable);
+  }
+
+  private void addRow(DataTableBuilder dataTableBuilder, ColumnDataType[] storedColumnDataTypes, Object[] values)
+      throws IOException {
+    dataTableBuilder.startRow();
+    int numColumns = storedColumnDataTypes.length;
+    for (int columnIndex = 0; columnIndex < numColumns; columnIndex++) {
+      setDataTableColumn(storedColumnDataTypes[columnIndex], dataTableBuilder, columnIndex, values[columnIndex]);
+    }
+    dataTableBuilder.finishRow();
+  }
+
   private void setDataTableColumn(ColumnDataType columnDataType, DataTableBuilder dataTableBuilder, int columnIndex,
       Object value)
       throws IOException {
@@ -26,6 +26,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Phaser;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import org.apache.pinot.common.exception.QueryException;
 import org.apache.pinot.core.common.Operator;
@@ -47,6 +48,10 @@ import org.slf4j.LoggerFactory;
  * <p>Combine operator uses multiple worker threads to process segments in parallel, and uses the main thread to merge
  * the results blocks from the processed segments. It can early-terminate the query to save the system resources if it
  * detects that the merged results can already satisfy the query, or the query is already errored out or timed out.
+ * <p>Segments are handed out to the worker threads through a shared cursor ({@link #getNextOperatorIndex()}) instead of
+ * being statically assigned, so that a thread which finishes early keeps picking up the remaining segments. The
+ * operators are consumed in the order of the given list, which is sorted by the plan maker so that the largest segments
+ * are processed first.
  */
 @SuppressWarnings("rawtypes")
 public abstract class BaseCombineOperator extends BaseOperator<IntermediateResultsBlock> {
@@ -61,6 +66,8 @@ public abstract class BaseCombineOperator extends BaseOperator<IntermediateResul
   // Use a _blockingQueue to store the intermediate results blocks
   protected final BlockingQueue<IntermediateResultsBlock> _blockingQueue = new LinkedBlockingQueue<>();
   protected final AtomicLong _totalWorkerThreadCpuTimeNs = new AtomicLong(0);
+  // Shared cursor to dispense the operators to the worker threads
+  protected final AtomicInteger _nextOperatorIndex = new AtomicInteger();
 
   protected BaseCombineOperator(List<Operator> operators, QueryContext queryContext, ExecutorService executorService) {
     _operators = operators;
@@ -144,11 +151,20 @@ public abstract class BaseCombineOperator extends BaseOperator<IntermediateResul
     return mergedBlock;
   }
 
+  /**
+   * Returns the index of the next operator to be processed by the calling worker thread, or a value no less than
+   * {@code _numOperators} if all the operators are already dispensed.
+   */
+  protected int getNextOperatorIndex() {
+    return _nextOperatorIndex.getAndIncrement();
+  }
+
   /**
    * Executes query on one or more segments in a worker thread.
    */
   protected void processSegments(int taskIndex) {
-    for (int operatorIndex = taskIndex; operatorIndex < _numOperators; operatorIndex += _numTasks) {
+    int operatorIndex;
+    while ((operatorIndex = getNextOperatorIndex()) < _numOperators) {
       Operator operator = _operators.get(operatorIndex);
       IntermediateResultsBlock resultsBlock;
       try {
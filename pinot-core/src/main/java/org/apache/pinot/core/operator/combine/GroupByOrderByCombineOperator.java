@@ -36,6 +36,7 @@ import org.apache.pinot.core.data.table.ConcurrentIndexedTable;
 import org.apache.pinot.core.data.table.IndexedTable;
 import org.apache.pinot.core.data.table.IntermediateRecord;
 import org.apache.pinot.core.data.table.Key;
+import org.apache.pinot.core.data.table.PartitionedConcurrentIndexedTable;
 import org.apache.pinot.core.data.table.Record;
 import org.apache.pinot.core.data.table.UnboundedConcurrentIndexedTable;
 import org.apache.pinot.core.operator.AcquireReleaseColumnsSegmentOperator;
@@ -125,7 +126,8 @@ public class GroupByOrderByCombineOperator extends BaseCombineOperator {
    */
   @Override
   protected void processSegments(int taskIndex) {
-    for (int operatorIndex = taskIndex; operatorIndex < _numOperators; operatorIndex += _numTasks) {
+    int operatorIndex;
+    while ((operatorIndex = getNextOperatorIndex()) < _numOperators) {
       Operator operator = _operators.get(operatorIndex);
       try {
         if (operator instanceof AcquireReleaseColumnsSegmentOperator) {
@@ -144,8 +146,17 @@ public class GroupByOrderByCombineOperator extends BaseCombineOperator {
                 // in the upsert method.
                 _indexedTable = new UnboundedConcurrentIndexedTable(dataSchema, _queryContext, _trimSize);
               } else {
-                _indexedTable =
-                    new ConcurrentIndexedTable(dataSchema, _queryContext, _trimSize, _trimSize, _trimThreshold);
+                // Split the table into multiple partitions so that the threads do not contend on the same lock, and
+                // trimming one partition does not block the upserts into the other partitions
+                int numPartitions =
+                    PartitionedConcurrentIndexedTable.getNumPartitions(_numTasks, _trimSize, _trimThreshold);
+                if (numPartitions > 1) {
+                  _indexedTable = new PartitionedConcurrentIndexedTable(dataSchema, _queryContext, _trimSize, _trimSize,
+                      _trimThreshold, numPartitions);
+                } else {
+                  _indexedTable =
+                      new ConcurrentIndexedTable(dataSchema, _queryContext, _trimSize, _trimSize, _trimThreshold);
+                }
               }
             }
           }
@@ -143,7 +143,8 @@ public class MinMaxValueBasedSelectionOrderByCombineOperator extends BaseCombine
     //       segment result is merged.
     Comparable threadBoundaryValue = null;
 
-    for (int operatorIndex = taskIndex; operatorIndex < _numOperators; operatorIndex += _numTasks) {
+    int operatorIndex;
+    while ((operatorIndex = getNextOperatorIndex()) < _numOperators) {
       // Calculate the boundary value from global boundary and thread boundary
       Comparable boundaryValue = _globalBoundaryValue.get();
       if (boundaryValue == null) {
@@ -171,7 +172,7 @@ public class MinMaxValueBasedSelectionOrderByCombineOperator extends BaseCombine
           if (minMaxValueContext._minValue != null) {
             int result = minMaxValueContext._minValue.compareTo(boundaryValue);
             if (result > 0 || (result == 0 && numOrderByExpressions == 1)) {
-              _numOperatorsSkipped.getAndAdd((_numOperators - operatorIndex - 1) / _numTasks);
+              skipRemainingOperators();
               _blockingQueue.offer(LAST_RESULTS_BLOCK);
               return;
             }
@@ -182,7 +183,7 @@ public class MinMaxValueBasedSelectionOrderByCombineOperator extends BaseCombine
           if (minMaxValueContext._maxValue != null) {
             int result = minMaxValueContext._maxValue.compareTo(boundaryValue);
             if (result < 0 || (result == 0 && numOrderByExpressions == 1)) {
-              _numOperatorsSkipped.getAndAdd((_numOperators - operatorIndex - 1) / _numTasks);
+              skipRemainingOperators();
               _blockingQueue.offer(LAST_RESULTS_BLOCK);
               return;
             }
@@ -227,6 +228,17 @@ public class MinMaxValueBasedSelectionOrderByCombineOperator extends BaseCombine
     }
   }
 
+  /**
+   * Marks all the operators not yet dispensed as skipped. Because the operators are sorted on the column min/max value,
+   * once a segment can be skipped, all the segments after it can also be skipped.
+   */
+  private void skipRemainingOperators() {
+    int nextOperatorIndex = _nextOperatorIndex.getAndSet(_numOperators);
+    if (nextOperatorIndex < _numOperators) {
+      _numOperatorsSkipped.getAndAdd(_numOperators - nextOperatorIndex);
+    }
+  }
+
   /**
    * {@inheritDoc}
    *
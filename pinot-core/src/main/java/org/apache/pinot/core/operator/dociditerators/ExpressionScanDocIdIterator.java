@@ -33,9 +33,6 @@ import org.apache.pinot.core.operator.transform.function.TransformFunction;
 import org.apache.pinot.core.plan.DocIdSetPlanNode;
 import org.apache.pinot.segment.spi.Constants;
 import org.apache.pinot.segment.spi.datasource.DataSource;
-import org.roaringbitmap.BitmapDataProvider;
-import org.roaringbitmap.PeekableIntIterator;
-import org.roaringbitmap.RoaringBitmap;
 import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 import org.roaringbitmap.buffer.MutableRoaringBitmap;
 
@@ -43,6 +40,8 @@ import org.roaringbitmap.buffer.MutableRoaringBitmap;
 /**
  * The {@code ExpressionScanDocIdIterator} is the scan-based iterator for ExpressionFilterDocIdSet that can handle
  * filters on the expressions. It leverages the projection operator to batch processing the records block by block.
+ * <p>For each block, the expression is evaluated and the predicate is applied on the whole block, and the doc ids of
+ * the matching records are compacted in place within the doc id buffer, so that no intermediate bitmap is needed.
  */
 public final class ExpressionScanDocIdIterator implements ScanBasedDocIdIterator {
   private final TransformFunction _transformFunction;
@@ -52,8 +51,14 @@ public final class ExpressionScanDocIdIterator implements ScanBasedDocIdIterator
 
   private final int[] _docIdBuffer = new int[DocIdSetPlanNode.MAX_DOC_PER_CALL];
 
+  // Lazily initialized because it is not needed for applyAnd()
+  private RangeDocIdSetOperator _rangeDocIdSetOperator;
+  private ProjectionOperator _rangeProjectionOperator;
+
   private int _blockEndDocId = 0;
-  private PeekableIntIterator _docIdIterator;
+  // Matching doc ids of the current block are stored in the first _numMatchingDocs entries of the doc id buffer
+  private int _numMatchingDocs = 0;
+  private int _nextMatchingDocIndex = 0;
 
   // NOTE: Number of entries scanned is not accurate because we might need to scan multiple columns in order to solve
   //       the expression, but we only track the number of entries scanned for the resolved expression.
@@ -70,25 +75,28 @@ public final class ExpressionScanDocIdIterator implements ScanBasedDocIdIterator
   @Override
   public int next() {
     // If there are remaining records in the current block, return them first
-    if (_docIdIterator != null && _docIdIterator.hasNext()) {
-      return _docIdIterator.next();
+    if (_nextMatchingDocIndex < _numMatchingDocs) {
+      return _docIdBuffer[_nextMatchingDocIndex++];
     }
 
     // Evaluate the records in the next block
+    if (_rangeProjectionOperator == null) {
+      _rangeDocIdSetOperator = new RangeDocIdSetOperator();
+      _rangeProjectionOperator = new ProjectionOperator(_dataSourceMap, _rangeDocIdSetOperator);
+    }
     while (_blockEndDocId < _endDocId) {
       int blockStartDocId = _blockEndDocId;
       _blockEndDocId = Math.min(blockStartDocId + DocIdSetPlanNode.MAX_DOC_PER_CALL, _endDocId);
-      ProjectionBlock projectionBlock =
-          new ProjectionOperator(_dataSourceMap, new RangeDocIdSetOperator(blockStartDocId, _blockEndDocId))
-              .nextBlock();
-      RoaringBitmap matchingDocIds = new RoaringBitmap();
-      processProjectionBlock(projectionBlock, matchingDocIds);
-      if (!matchingDocIds.isEmpty()) {
-        _docIdIterator = matchingDocIds.getIntIterator();
-        return _docIdIterator.next();
+      _rangeDocIdSetOperator.setRange(blockStartDocId, _blockEndDocId);
+      _numMatchingDocs = processProjectionBlock(_rangeProjectionOperator.nextBlock());
+      if (_numMatchingDocs > 0) {
+        _nextMatchingDocIndex = 1;
+        return _docIdBuffer[0];
       }
     }
 
+    _numMatchingDocs = 0;
+    _nextMatchingDocIndex = 0;
     return Constants.EOF;
   }
 
@@ -96,9 +104,11 @@ public final class ExpressionScanDocIdIterator implements ScanBasedDocIdIterator
   public int advance(int targetDocId) {
     if (targetDocId < _blockEndDocId) {
       // Search the current block first
-      _docIdIterator.advanceIfNeeded(targetDocId);
-      if (_docIdIterator.hasNext()) {
-        return _docIdIterator.next();
+      while (_nextMatchingDocIndex < _numMatchingDocs) {
+        int docId = _docIdBuffer[_nextMatchingDocIndex++];
+        if (docId >= targetDocId) {
+          return docId;
+        }
       }
     } else {
       // Skip the blocks before the target document id
@@ -106,7 +116,8 @@ public final class ExpressionScanDocIdIterator implements ScanBasedDocIdIterator
     }
 
     // Search the block following the target document id
-    _docIdIterator = null;
+    _numMatchingDocs = 0;
+    _nextMatchingDocIndex = 0;
     return next();
   }
 
@@ -117,62 +128,48 @@ public final class ExpressionScanDocIdIterator implements ScanBasedDocIdIterator
     MutableRoaringBitmap matchingDocIds = new MutableRoaringBitmap();
     ProjectionBlock projectionBlock;
     while ((projectionBlock = projectionOperator.nextBlock()) != null) {
-      processProjectionBlock(projectionBlock, matchingDocIds);
+      // Doc ids are processed in ascending order, so the matching doc ids can be appended in bulk
+      matchingDocIds.addN(_docIdBuffer, 0, processProjectionBlock(projectionBlock));
     }
     return matchingDocIds;
   }
 
-  private void processProjectionBlock(ProjectionBlock projectionBlock, BitmapDataProvider matchingDocIds) {
+  /**
+   * Evaluates the expression and applies the predicate on the records in the projection block, compacts the doc ids of
+   * the matching records to the front of the doc id buffer, and returns the number of matching records.
+   */
+  private int processProjectionBlock(ProjectionBlock projectionBlock) {
     int numDocs = projectionBlock.getNumDocs();
+    int numMatchingDocs = 0;
     TransformResultMetadata resultMetadata = _transformFunction.getResultMetadata();
     if (resultMetadata.isSingleValue()) {
       _numEntriesScanned += numDocs;
       if (resultMetadata.hasDictionary()) {
         int[] dictIds = _transformFunction.transformToDictIdsSV(projectionBlock);
-        for (int i = 0; i < numDocs; i++) {
-          if (_predicateEvaluator.applySV(dictIds[i])) {
-            matchingDocIds.add(_docIdBuffer[i]);
-          }
-        }
+        numMatchingDocs = _predicateEvaluator.applySV(numDocs, _docIdBuffer, dictIds);
       } else {
         switch (resultMetadata.getDataType().getStoredType()) {
           case INT:
             int[] intValues = _transformFunction.transformToIntValuesSV(projectionBlock);
-            for (int i = 0; i < numDocs; i++) {
-              if (_predicateEvaluator.applySV(intValues[i])) {
-                matchingDocIds.add(_docIdBuffer[i]);
-              }
-            }
+            numMatchingDocs = _predicateEvaluator.applySV(numDocs, _docIdBuffer, intValues);
             break;
           case LONG:
             long[] longValues = _transformFunction.transformToLongValuesSV(projectionBlock);
-            for (int i = 0; i < numDocs; i++) {
-              if (_predicateEvaluator.applySV(longValues[i])) {
-                matchingDocIds.add(_docIdBuffer[i]);
-              }
-            }
+            numMatchingDocs = _predicateEvaluator.applySV(numDocs, _docIdBuffer, longValues);
             break;
           case FLOAT:
             float[] floatValues = _transformFunction.transformToFloatValuesSV(projectionBlock);
-            for (int i = 0; i < numDocs; i++) {
-              if (_predicateEvaluator.applySV(floatValues[i])) {
-                matchingDocIds.add(_docIdBuffer[i]);
-              }
-            }
+            numMatchingDocs = _predicateEvaluator.applySV(numDocs, _docIdBuffer, floatValues);
             break;
           case DOUBLE:
             double[] doubleValues = _transformFunction.transformToDoubleValuesSV(projectionBlock);
-            for (int i = 0; i < numDocs; i++) {
-              if (_predicateEvaluator.applySV(doubleValues[i])) {
-                matchingDocIds.add(_docIdBuffer[i]);
-              }
-            }
+            numMatchingDocs = _predicateEvaluator.applySV(numDocs, _docIdBuffer, doubleValues);
             break;
           case STRING:
             String[] stringValues = _transformFunction.transformToStringValuesSV(projectionBlock);
             for (int i = 0; i < numDocs; i++) {
               if (_predicateEvaluator.applySV(stringValues[i])) {
-                matchingDocIds.add(_docIdBuffer[i]);
+                _docIdBuffer[numMatchingDocs++] = _docIdBuffer[i];
               }
             }
             break;
@@ -180,7 +177,7 @@ public final class ExpressionScanDocIdIterator implements ScanBasedDocIdIterator
             byte[][] bytesValues = _transformFunction.transformToBytesValuesSV(projectionBlock);
             for (int i = 0; i < numDocs; i++) {
               if (_predicateEvaluator.applySV(bytesValues[i])) {
-                matchingDocIds.add(_docIdBuffer[i]);
+                _docIdBuffer[numMatchingDocs++] = _docIdBuffer[i];
               }
             }
             break;
@@ -196,7 +193,7 @@ public final class ExpressionScanDocIdIterator implements ScanBasedDocIdIterator
           int numDictIds = dictIds.length;
           _numEntriesScanned += numDictIds;
           if (_predicateEvaluator.applyMV(dictIds, numDictIds)) {
-            matchingDocIds.add(_docIdBuffer[i]);
+            _docIdBuffer[numMatchingDocs++] = _docIdBuffer[i];
           }
         }
       } else {
@@ -208,7 +205,7 @@ public final class ExpressionScanDocIdIterator implements ScanBasedDocIdIterator
               int numValues = values.length;
               _numEntriesScanned += numValues;
               if (_predicateEvaluator.applyMV(values, numValues)) {
-                matchingDocIds.add(_docIdBuffer[i]);
+                _docIdBuffer[numMatchingDocs++] = _docIdBuffer[i];
               }
             }
             break;
@@ -219,7 +216,7 @@ public final class ExpressionScanDocIdIterator implements ScanBasedDocIdIterator
               int numValues = values.length;
               _numEntriesScanned += numValues;
               if (_predicateEvaluator.applyMV(values, numValues)) {
-                matchingDocIds.add(_docIdBuffer[i]);
+                _docIdBuffer[numMatchingDocs++] = _docIdBuffer[i];
               }
             }
             break;
@@ -230,7 +227,7 @@ public final class ExpressionScanDocIdIterator implements ScanBasedDocIdIterator
               int numValues = values.length;
               _numEntriesScanned += numValues;
               if (_predicateEvaluator.applyMV(values, numValues)) {
-                matchingDocIds.add(_docIdBuffer[i]);
+                _docIdBuffer[numMatchingDocs++] = _docIdBuffer[i];
               }
             }
             break;
@@ -241,7 +238,7 @@ public final class ExpressionScanDocIdIterator implements ScanBasedDocIdIterator
               int numValues = values.length;
               _numEntriesScanned += numValues;
               if (_predicateEvaluator.applyMV(values, numValues)) {
-                matchingDocIds.add(_docIdBuffer[i]);
+                _docIdBuffer[numMatchingDocs++] = _docIdBuffer[i];
               }
             }
             break;
@@ -252,7 +249,7 @@ public final class ExpressionScanDocIdIterator implements ScanBasedDocIdIterator
               int numValues = values.length;
               _numEntriesScanned += numValues;
               if (_predicateEvaluator.applyMV(values, numValues)) {
-                matchingDocIds.add(_docIdBuffer[i]);
+                _docIdBuffer[numMatchingDocs++] = _docIdBuffer[i];
               }
             }
             break;
@@ -261,6 +258,7 @@ public final class ExpressionScanDocIdIterator implements ScanBasedDocIdIterator
         }
       }
     }
+    return numMatchingDocs;
   }
 
   @Override
@@ -269,14 +267,14 @@ public final class ExpressionScanDocIdIterator implements ScanBasedDocIdIterator
   }
 
   /**
-   * NOTE: This operator contains only one block.
+   * NOTE: This operator contains only one block for each range set.
    */
   private class RangeDocIdSetOperator extends BaseOperator<DocIdSetBlock> {
     static final String EXPLAIN_NAME = "DOC_ID_SET_RANGE";
 
     DocIdSetBlock _docIdSetBlock;
 
-    RangeDocIdSetOperator(int startDocId, int endDocId) {
+    void setRange(int startDocId, int endDocId) {
       int numDocs = endDocId - startDocId;
       for (int i = 0; i < numDocs; i++) {
         _docIdBuffer[i] = startDocId + i;
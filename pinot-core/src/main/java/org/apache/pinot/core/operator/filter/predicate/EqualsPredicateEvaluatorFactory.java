@@ -106,6 +106,17 @@ public class EqualsPredicateEvaluatorFactory {
       return _matchingDictId == dictId;
     }
 
+    @Override
+    public int applySV(int limit, int[] docIds, int[] values) {
+      int numMatchingDocs = 0;
+      for (int i = 0; i < limit; i++) {
+        if (applySV(values[i])) {
+          docIds[numMatchingDocs++] = docIds[i];
+        }
+      }
+      return numMatchingDocs;
+    }
+
     @Override
     public int[] getMatchingDictIds() {
       return _matchingDictIds;
@@ -129,6 +140,17 @@ public class EqualsPredicateEvaluatorFactory {
     public boolean applySV(int value) {
       return _matchingValue == value;
     }
+
+    @Override
+    public int applySV(int limit, int[] docIds, int[] values) {
+      int numMatchingDocs = 0;
+      for (int i = 0; i < limit; i++) {
+        if (applySV(values[i])) {
+          docIds[numMatchingDocs++] = docIds[i];
+        }
+      }
+      return numMatchingDocs;
+    }
   }
 
   private static final class LongRawValueBasedEqPredicateEvaluator extends BaseRawValueBasedPredicateEvaluator {
@@ -148,6 +170,17 @@ public class EqualsPredicateEvaluatorFactory {
     public boolean applySV(long value) {
       return (_matchingValue == value);
     }
+
+    @Override
+    public int applySV(int limit, int[] docIds, long[] values) {
+      int numMatchingDocs = 0;
+      for (int i = 0; i < limit; i++) {
+        if (applySV(values[i])) {
+          docIds[numMatchingDocs++] = docIds[i];
+        }
+      }
+      return numMatchingDocs;
+    }
   }
 
   private static final class FloatRawValueBasedEqPredicateEvaluator extends BaseRawValueBasedPredicateEvaluator {
@@ -167,6 +200,17 @@ public class EqualsPredicateEvaluatorFactory {
     public boolean applySV(float value) {
       return _matchingValue == value;
     }
+
+    @Override
+    public int applySV(int limit, int[] docIds, float[] values) {
+      int numMatchingDocs = 0;
+      for (int i = 0; i < limit; i++) {
+        if (applySV(values[i])) {
+          docIds[numMatchingDocs++] = docIds[i];
+        }
+      }
+      return numMatchingDocs;
+    }
   }
 
   private static final class DoubleRawValueBasedEqPredicateEvaluator extends BaseRawValueBasedPredicateEvaluator {
@@ -186,6 +230,17 @@ public class EqualsPredicateEvaluatorFactory {
     public boolean applySV(double value) {
       return _matchingValue == value;
     }
+
+    @Override
+    public int applySV(int limit, int[] docIds, double[] values) {
+      int numMatchingDocs = 0;
+      for (int i = 0; i < limit; i++) {
+        if (applySV(values[i])) {
+          docIds[numMatchingDocs++] = docIds[i];
+        }
+      }
+      return numMatchingDocs;
+    }
   }
 
   private static final class BigDecimalRawValueBasedEqPredicateEvaluator extends BaseRawValueBasedPredicateEvaluator {
@@ -167,6 +167,17 @@ public class InPredicateEvaluatorFactory {
       return _matchingDictIdSet.contains(dictId);
     }
 
+    @Override
+    public int applySV(int limit, int[] docIds, int[] values) {
+      int numMatchingDocs = 0;
+      for (int i = 0; i < limit; i++) {
+        if (applySV(values[i])) {
+          docIds[numMatchingDocs++] = docIds[i];
+        }
+      }
+      return numMatchingDocs;
+    }
+
     @Override
     public int getNumMatchingDictIds() {
       return _numMatchingDictIds;
@@ -198,6 +209,17 @@ public class InPredicateEvaluatorFactory {
     public boolean applySV(int value) {
       return _matchingValues.contains(value);
     }
+
+    @Override
+    public int applySV(int limit, int[] docIds, int[] values) {
+      int numMatchingDocs = 0;
+      for (int i = 0; i < limit; i++) {
+        if (applySV(values[i])) {
+          docIds[numMatchingDocs++] = docIds[i];
+        }
+      }
+      return numMatchingDocs;
+    }
   }
 
   private static final class LongRawValueBasedInPredicateEvaluator extends BaseRawValueBasedPredicateEvaluator {
@@ -217,6 +239,17 @@ public class InPredicateEvaluatorFactory {
     public boolean applySV(long value) {
       return _matchingValues.contains(value);
     }
+
+    @Override
+    public int applySV(int limit, int[] docIds, long[] values) {
+      int numMatchingDocs = 0;
+      for (int i = 0; i < limit; i++) {
+        if (applySV(values[i])) {
+          docIds[numMatchingDocs++] = docIds[i];
+        }
+      }
+      return numMatchingDocs;
+    }
   }
 
   private static final class FloatRawValueBasedInPredicateEvaluator extends BaseRawValueBasedPredicateEvaluator {
@@ -236,6 +269,17 @@ public class InPredicateEvaluatorFactory {
     public boolean applySV(float value) {
       return _matchingValues.contains(value);
     }
+
+    @Override
+    public int applySV(int limit, int[] docIds, float[] values) {
+      int numMatchingDocs = 0;
+      for (int i = 0; i < limit; i++) {
+        if (applySV(values[i])) {
+          docIds[numMatchingDocs++] = docIds[i];
+        }
+      }
+      return numMatchingDocs;
+    }
   }
 
   private static final class DoubleRawValueBasedInPredicateEvaluator extends BaseRawValueBasedPredicateEvaluator {
@@ -255,6 +299,17 @@ public class InPredicateEvaluatorFactory {
     public boolean applySV(double value) {
       return _matchingValues.contains(value);
     }
+
+    @Override
+    public int applySV(int limit, int[] docIds, double[] values) {
+      int numMatchingDocs = 0;
+      for (int i = 0; i < limit; i++) {
+        if (applySV(values[i])) {
+          docIds[numMatchingDocs++] = docIds[i];
+        }
+      }
+      return numMatchingDocs;
+    }
   }
 
   private static final class BigDecimalRawValueBasedInPredicateEvaluator extends BaseRawValueBasedPredicateEvaluator {
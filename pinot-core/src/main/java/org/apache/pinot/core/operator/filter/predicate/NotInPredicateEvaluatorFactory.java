@@ -170,6 +170,17 @@ public class NotInPredicateEvaluatorFactory {
       return !_nonMatchingDictIdSet.contains(dictId);
     }
 
+    @Override
+    public int applySV(int limit, int[] docIds, int[] values) {
+      int numMatchingDocs = 0;
+      for (int i = 0; i < limit; i++) {
+        if (applySV(values[i])) {
+          docIds[numMatchingDocs++] = docIds[i];
+        }
+      }
+      return numMatchingDocs;
+    }
+
     @Override
     public int[] getMatchingDictIds() {
       if (_matchingDictIds == null) {
@@ -216,6 +227,17 @@ public class NotInPredicateEvaluatorFactory {
     public boolean applySV(int value) {
       return !_nonMatchingValues.contains(value);
     }
+
+    @Override
+    public int applySV(int limit, int[] docIds, int[] values) {
+      int numMatchingDocs = 0;
+      for (int i = 0; i < limit; i++) {
+        if (applySV(values[i])) {
+          docIds[numMatchingDocs++] = docIds[i];
+        }
+      }
+      return numMatchingDocs;
+    }
   }
 
   private static final class LongRawValueBasedNotInPredicateEvaluator extends BaseRawValueBasedPredicateEvaluator {
@@ -235,6 +257,17 @@ public class NotInPredicateEvaluatorFactory {
     public boolean applySV(long value) {
       return !_nonMatchingValues.contains(value);
     }
+
+    @Override
+    public int applySV(int limit, int[] docIds, long[] values) {
+      int numMatchingDocs = 0;
+      for (int i = 0; i < limit; i++) {
+        if (applySV(values[i])) {
+          docIds[numMatchingDocs++] = docIds[i];
+        }
+      }
+      return numMatchingDocs;
+    }
   }
 
   private static final class FloatRawValueBasedNotInPredicateEvaluator extends BaseRawValueBasedPredicateEvaluator {
@@ -254,6 +287,17 @@ public class NotInPredicateEvaluatorFactory {
     public boolean applySV(float value) {
       return !_nonMatchingValues.contains(value);
     }
+
+    @Override
+    public int applySV(int limit, int[] docIds, float[] values) {
+      int numMatchingDocs = 0;
+      for (int i = 0; i < limit; i++) {
+        if (applySV(values[i])) {
+          docIds[numMatchingDocs++] = docIds[i];
+        }
+      }
+      return numMatchingDocs;
+    }
   }
 
   private static final class DoubleRawValueBasedNotInPredicateEvaluator extends BaseRawValueBasedPredicateEvaluator {
@@ -273,6 +317,17 @@ public class NotInPredicateEvaluatorFactory {
     public boolean applySV(double value) {
       return !_nonMatchingValues.contains(value);
     }
+
+    @Override
+    public int applySV(int limit, int[] docIds, double[] values) {
+      int numMatchingDocs = 0;
+      for (int i = 0; i < limit; i++) {
+        if (applySV(values[i])) {
+          docIds[numMatchingDocs++] = docIds[i];
+        }
+      }
+      return numMatchingDocs;
+    }
   }
 
   private static final class BigDecimalRawValueBasedNotInPredicateEvaluator
@@ -81,6 +81,28 @@ public interface PredicateEvaluator {
    */
   boolean applyMV(int[] values, int length);
 
+  /**
+   * Apply a batch of single-value entries to the predicate, and compact the doc ids of the matching entries to the
+   * front of the doc id array. Predicate evaluators can override this method to avoid the virtual call per entry.
+   * <p>NOTE: The call to {@code applySV(value)} within this default method is shared by all the predicate evaluators,
+   *       so it becomes megamorphic and cannot be inlined. Final evaluator classes should override this method with
+   *       the same loop, where the call can only resolve to the class itself and is inlined into the loop.
+   *
+   * @param limit Number of entries in the batch
+   * @param docIds Doc ids of the entries, will be overwritten with the doc ids of the matching entries
+   * @param values Array of dictionary ids or raw values
+   * @return Number of matching entries
+   */
+  default int applySV(int limit, int[] docIds, int[] values) {
+    int numMatchingDocs = 0;
+    for (int i = 0; i < limit; i++) {
+      if (applySV(values[i])) {
+        docIds[numMatchingDocs++] = docIds[i];
+      }
+    }
+    return numMatchingDocs;
+  }
+
   /**
    * APIs for dictionary based predicate evaluator
    */
@@ -126,6 +148,25 @@ public interface PredicateEvaluator {
    */
   boolean applyMV(long[] values, int length);
 
+  /**
+   * Apply a batch of single-value entries to the predicate, and compact the doc ids of the matching entries to the
+   * front of the doc id array.
+   *
+   * @param limit Number of entries in the batch
+   * @param docIds Doc ids of the entries, will be overwritten with the doc ids of the matching entries
+   * @param values Array of raw values
+   * @return Number of matching entries
+   */
+  default int applySV(int limit, int[] docIds, long[] values) {
+    int numMatchingDocs = 0;
+    for (int i = 0; i < limit; i++) {
+      if (applySV(values[i])) {
+        docIds[numMatchingDocs++] = docIds[i];
+      }
+    }
+    return numMatchingDocs;
+  }
+
   /**
    * Apply a single-value entry to the predicate.
    *
@@ -143,6 +184,25 @@ public interface PredicateEvaluator {
    */
   boolean applyMV(float[] values, int length);
 
+  /**
+   * Apply a batch of single-value entries to the predicate, and compact the doc ids of the matching entries to the
+   * front of the doc id array.
+   *
+   * @param limit Number of entries in the batch
+   * @param docIds Doc ids of the entries, will be overwritten with the doc ids of the matching entries
+   * @param values Array of raw values
+   * @return Number of matching entries
+   */
+  default int applySV(int limit, int[] docIds, float[] values) {
+    int numMatchingDocs = 0;
+    for (int i = 0; i < limit; i++) {
+      if (applySV(values[i])) {
+        docIds[numMatchingDocs++] = docIds[i];
+      }
+    }
+    return numMatchingDocs;
+  }
+
   /**
    * Apply a single-value entry to the predicate.
    *
@@ -160,6 +220,25 @@ public interface PredicateEvaluator {
    */
   boolean applyMV(double[] values, int length);
 
+  /**
+   * Apply a batch of single-value entries to the predicate, and compact the doc ids of the matching entries to the
+   * front of the doc id array.
+   *
+   * @param limit Number of entries in the batch
+   * @param docIds Doc ids of the entries, will be overwritten with the doc ids of the matching entries
+   * @param values Array of raw values
+   * @return Number of matching entries
+   */
+  default int applySV(int limit, int[] docIds, double[] values) {
+    int numMatchingDocs = 0;
+    for (int i = 0; i < limit; i++) {
+      if (applySV(values[i])) {
+        docIds[numMatchingDocs++] = docIds[i];
+      }
+    }
+    return numMatchingDocs;
+  }
+
   /**
    * Apply a single-value entry to the predicate.
    *
@@ -0,0 +1,201 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.streaming;
+
+import io.grpc.stub.StreamObserver;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.apache.pinot.common.exception.QueryException;
+import org.apache.pinot.common.proto.Server;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.core.common.Operator;
+import org.apache.pinot.core.data.table.IntermediateRecord;
+import org.apache.pinot.core.data.table.Record;
+import org.apache.pinot.core.operator.AcquireReleaseColumnsSegmentOperator;
+import org.apache.pinot.core.operator.blocks.IntermediateResultsBlock;
+import org.apache.pinot.core.operator.combine.BaseCombineOperator;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
+import org.apache.pinot.core.query.aggregation.groupby.AggregationGroupByResult;
+import org.apache.pinot.core.query.aggregation.groupby.GroupKeyGenerator;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Combine operator for aggregation group-by streaming queries.
+ * <p>Instead of merging the segment-level results into an indexed table, the segment-level results are split into
+ * blocks of bounded number of rows and streamed to the broker as they are produced, and the broker merges them
+ * incrementally. This way the server never holds the merged group-by results for all the segments.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class StreamingGroupByCombineOperator extends BaseCombineOperator {
+  private static final Logger LOGGER = LoggerFactory.getLogger(StreamingGroupByCombineOperator.class);
+
+  private static final String EXPLAIN_NAME = "GROUP_BY_STREAMING_COMBINE";
+
+  public static final int DEFAULT_MAX_ROWS_PER_BLOCK = 10_000;
+
+  // Special IntermediateResultsBlock to indicate that this is the last results block for an operator
+  private static final IntermediateResultsBlock LAST_RESULTS_BLOCK =
+      new IntermediateResultsBlock(new DataSchema(new String[0], new DataSchema.ColumnDataType[0]),
+          Collections.emptyList());
+
+  private final StreamObserver<Server.ServerResponse> _streamObserver;
+  private final AggregationFunction[] _aggregationFunctions;
+  private final int _numAggregationFunctions;
+  private final int _numGroupByExpressions;
+  private final int _numColumns;
+  private final int _maxRowsPerBlock;
+
+  private volatile boolean _numGroupsLimitReached;
+
+  public StreamingGroupByCombineOperator(List<Operator> operators, QueryContext queryContext,
+      ExecutorService executorService, StreamObserver<Server.ServerResponse> streamObserver) {
+    this(operators, queryContext, executorService, streamObserver, DEFAULT_MAX_ROWS_PER_BLOCK);
+  }
+
+  public StreamingGroupByCombineOperator(List<Operator> operators, QueryContext queryContext,
+      ExecutorService executorService, StreamObserver<Server.ServerResponse> streamObserver, int maxRowsPerBlock) {
+    super(operators, queryContext, executorService);
+    _streamObserver = streamObserver;
+    _aggregationFunctions = queryContext.getAggregationFunctions();
+    assert _aggregationFunctions != null;
+    _numAggregationFunctions = _aggregationFunctions.length;
+    assert queryContext.getGroupByExpressions() != null;
+    _numGroupByExpressions = queryContext.getGroupByExpressions().size();
+    _numColumns = _numGroupByExpressions + _numAggregationFunctions;
+    _maxRowsPerBlock = maxRowsPerBlock;
+  }
+
+  @Override
+  public String toExplainString() {
+    return EXPLAIN_NAME;
+  }
+
+  @Override
+  protected void processSegments(int threadIndex) {
+    int operatorIndex;
+    while ((operatorIndex = getNextOperatorIndex()) < _numOperators) {
+      Operator<IntermediateResultsBlock> operator = _operators.get(operatorIndex);
+      IntermediateResultsBlock resultsBlock;
+      try {
+        if (operator instanceof AcquireReleaseColumnsSegmentOperator) {
+          ((AcquireReleaseColumnsSegmentOperator) operator).acquire();
+        }
+        resultsBlock = operator.nextBlock();
+      } finally {
+        if (operator instanceof AcquireReleaseColumnsSegmentOperator) {
+          ((AcquireReleaseColumnsSegmentOperator) operator).release();
+        }
+      }
+      if (resultsBlock.getProcessingExceptions() != null) {
+        _blockingQueue.offer(resultsBlock);
+        return;
+      }
+      if (resultsBlock.isNumGroupsLimitReached()) {
+        _numGroupsLimitReached = true;
+      }
+      offerBlocks(resultsBlock);
+      _blockingQueue.offer(LAST_RESULTS_BLOCK);
+    }
+  }
+
+  /**
+   * Splits the segment-level group-by results into blocks with at most {@code _maxRowsPerBlock} rows.
+   */
+  private void offerBlocks(IntermediateResultsBlock resultsBlock) {
+    DataSchema dataSchema = resultsBlock.getDataSchema();
+    List<IntermediateRecord> records = new ArrayList<>(_maxRowsPerBlock);
+    Collection<IntermediateRecord> intermediateRecords = resultsBlock.getIntermediateRecords();
+    if (intermediateRecords != null) {
+      for (IntermediateRecord intermediateRecord : intermediateRecords) {
+        records.add(intermediateRecord);
+        if (records.size() == _maxRowsPerBlock) {
+          _blockingQueue.offer(new IntermediateResultsBlock(_aggregationFunctions, records, dataSchema));
+          records = new ArrayList<>(_maxRowsPerBlock);
+        }
+      }
+    } else {
+      AggregationGroupByResult aggregationGroupByResult = resultsBlock.getAggregationGroupByResult();
+      if (aggregationGroupByResult != null) {
+        Iterator<GroupKeyGenerator.GroupKey> groupKeyIterator = aggregationGroupByResult.getGroupKeyIterator();
+        while (groupKeyIterator.hasNext()) {
+          GroupKeyGenerator.GroupKey groupKey = groupKeyIterator.next();
+          Object[] values = new Object[_numColumns];
+          System.arraycopy(groupKey._keys, 0, values, 0, _numGroupByExpressions);
+          int groupId = groupKey._groupId;
+          for (int i = 0; i < _numAggregationFunctions; i++) {
+            values[_numGroupByExpressions + i] = aggregationGroupByResult.getResultForGroupId(i, groupId);
+          }
+          // NOTE: Key is only used for the trimming on the server side, which is skipped for streaming
+          records.add(new IntermediateRecord(null, new Record(values), null));
+          if (records.size() == _maxRowsPerBlock) {
+            _blockingQueue.offer(new IntermediateResultsBlock(_aggregationFunctions, records, dataSchema));
+            records = new ArrayList<>(_maxRowsPerBlock);
+          }
+        }
+      }
+    }
+    if (!records.isEmpty()) {
+      _blockingQueue.offer(new IntermediateResultsBlock(_aggregationFunctions, records, dataSchema));
+    }
+  }
+
+  @Override
+  protected IntermediateResultsBlock mergeResults()
+      throws Exception {
+    int numOperatorsFinished = 0;
+    long endTimeMs = _queryContext.getEndTimeMs();
+    while (numOperatorsFinished < _numOperators) {
+      IntermediateResultsBlock resultsBlock =
+          _blockingQueue.poll(endTimeMs - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+      if (resultsBlock == null) {
+        // Query times out, skip streaming the remaining results blocks
+        LOGGER.error("Timed out while polling results block (query: {})", _queryContext);
+        return new IntermediateResultsBlock(QueryException.getException(QueryException.EXECUTION_TIMEOUT_ERROR,
+            new TimeoutException("Timed out while polling results block")));
+      }
+      if (resultsBlock.getProcessingExceptions() != null) {
+        // Caught exception while processing segment, skip streaming the remaining results blocks and directly return
+        // the exception
+        return resultsBlock;
+      }
+      if (resultsBlock == LAST_RESULTS_BLOCK) {
+        numOperatorsFinished++;
+        continue;
+      }
+      _streamObserver.onNext(StreamingResponseUtils.getDataResponse(resultsBlock.getDataTable()));
+    }
+    // Return an empty results block for the metadata
+    IntermediateResultsBlock metadataBlock = new IntermediateResultsBlock();
+    metadataBlock.setNumGroupsLimitReached(_numGroupsLimitReached);
+    return metadataBlock;
+  }
+
+  @Override
+  protected void mergeResultsBlocks(IntermediateResultsBlock mergedBlock, IntermediateResultsBlock blockToMerge) {
+  }
+}
@@ -19,9 +19,14 @@
 package org.apache.pinot.core.operator.transform.function;
 
 import com.google.common.base.Preconditions;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.sql.Timestamp;
 import java.util.List;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.pinot.common.function.FunctionInfo;
 import org.apache.pinot.common.function.FunctionInvoker;
@@ -35,6 +40,9 @@ import org.apache.pinot.spi.data.FieldSpec.DataType;
 
 /**
  * Wrapper transform function on the annotated scalar function.
+ * <p>When the function has only one non-literal argument, and both the parameter of the non-literal argument and the
+ * result are primitive INT/LONG/DOUBLE, the function is invoked on the primitive values directly through a method
+ * handle with the literal arguments bound, which avoids boxing the arguments and results.
  */
 public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
   private final String _name;
@@ -47,6 +55,10 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
   private int[] _nonLiteralIndices;
   private TransformFunction[] _nonLiteralFunctions;
   private Object[][] _nonLiteralValues;
+  // Method handles adapted to return the requested primitive output type, or null if the fast path is not applicable
+  private MethodHandle _intMethodHandle;
+  private MethodHandle _longMethodHandle;
+  private MethodHandle _doubleMethodHandle;
 
   private int[] _intResults;
   private float[] _floatResults;
@@ -112,6 +124,59 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
       }
     }
     _nonLiteralValues = new Object[_numNonLiteralArguments][];
+    MethodHandle primitiveMethodHandle = getPrimitiveMethodHandle();
+    if (primitiveMethodHandle != null) {
+      _intMethodHandle = adaptReturnType(primitiveMethodHandle, int.class);
+      _longMethodHandle = adaptReturnType(primitiveMethodHandle, long.class);
+      _doubleMethodHandle = adaptReturnType(primitiveMethodHandle, double.class);
+    }
+  }
+
+  /**
+   * Returns the method handle with the literal arguments bound if the function can be invoked on the primitive values,
+   * or {@code null} otherwise.
+   */
+  @Nullable
+  private MethodHandle getPrimitiveMethodHandle() {
+    if (_numNonLiteralArguments != 1) {
+      return null;
+    }
+    MethodHandle methodHandle = _functionInvoker.getMethodHandle();
+    MethodType methodType = methodHandle.type();
+    int nonLiteralIndex = _nonLiteralIndices[0];
+    if (!isPrimitiveNumericClass(methodType.returnType()) || !isPrimitiveNumericClass(
+        methodType.parameterType(nonLiteralIndex))) {
+      return null;
+    }
+    // Bind the literal arguments from the last one so that the indices of the remaining arguments are not changed
+    for (int i = _arguments.length - 1; i >= 0; i--) {
+      if (i != nonLiteralIndex) {
+        methodHandle = MethodHandles.insertArguments(methodHandle, i, _arguments[i]);
+      }
+    }
+    return methodHandle;
+  }
+
+  /**
+   * Adapts the method handle to return the given primitive class so that it can be invoked with
+   * {@link MethodHandle#invokeExact}, or returns {@code null} if the return value cannot be widened to the given class
+   * (e.g. {@code long} to {@code int}).
+   */
+  @Nullable
+  private static MethodHandle adaptReturnType(MethodHandle methodHandle, Class<?> returnClass) {
+    MethodType methodType = methodHandle.type();
+    if (methodType.returnType() == returnClass) {
+      return methodHandle;
+    }
+    try {
+      return methodHandle.asType(methodType.changeReturnType(returnClass));
+    } catch (WrongMethodTypeException e) {
+      return null;
+    }
+  }
+
+  private static boolean isPrimitiveNumericClass(Class<?> clazz) {
+    return clazz == int.class || clazz == long.class || clazz == double.class;
   }
 
   @Override
@@ -121,10 +186,18 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
 
   @Override
   public int[] transformToIntValuesSV(ProjectionBlock projectionBlock) {
+    int length = projectionBlock.getNumDocs();
+    if (_intMethodHandle != null) {
+      // Fast path also applies when the return value of the function is widened (e.g. LONG read as DOUBLE)
+      if (_intResults == null || _intResults.length < length) {
+        _intResults = new int[length];
+      }
+      transformToIntValuesSVPrimitive(projectionBlock, length);
+      return _intResults;
+    }
     if (_resultMetadata.getDataType().getStoredType() != DataType.INT) {
       return super.transformToIntValuesSV(projectionBlock);
     }
-    int length = projectionBlock.getNumDocs();
 
     if (_intResults == null || _intResults.length < length) {
       _intResults = new int[length];
@@ -141,10 +214,18 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
 
   @Override
   public long[] transformToLongValuesSV(ProjectionBlock projectionBlock) {
+    int length = projectionBlock.getNumDocs();
+    if (_longMethodHandle != null) {
+      // Fast path also applies when the return value of the function is widened (e.g. LONG read as DOUBLE)
+      if (_longResults == null || _longResults.length < length) {
+        _longResults = new long[length];
+      }
+      transformToLongValuesSVPrimitive(projectionBlock, length);
+      return _longResults;
+    }
     if (_resultMetadata.getDataType().getStoredType() != DataType.LONG) {
       return super.transformToLongValuesSV(projectionBlock);
     }
-    int length = projectionBlock.getNumDocs();
 
     if (_longResults == null || _longResults.length < length) {
       _longResults = new long[length];
@@ -181,10 +262,18 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
 
   @Override
   public double[] transformToDoubleValuesSV(ProjectionBlock projectionBlock) {
+    int length = projectionBlock.getNumDocs();
+    if (_doubleMethodHandle != null) {
+      // Fast path also applies when the return value of the function is widened (e.g. LONG read as DOUBLE)
+      if (_doubleResults == null || _doubleResults.length < length) {
+        _doubleResults = new double[length];
+      }
+      transformToDoubleValuesSVPrimitive(projectionBlock, length);
+      return _doubleResults;
+    }
     if (_resultMetadata.getDataType().getStoredType() != DataType.DOUBLE) {
       return super.transformToDoubleValuesSV(projectionBlock);
     }
-    int length = projectionBlock.getNumDocs();
 
     if (_doubleResults == null || _doubleResults.length < length) {
       _doubleResults = new double[length];
@@ -341,6 +430,111 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
     return _stringMVResults;
   }
 
+  private void transformToIntValuesSVPrimitive(ProjectionBlock projectionBlock, int length) {
+    MethodHandle methodHandle = _intMethodHandle;
+    TransformFunction transformFunction = _nonLiteralFunctions[0];
+    PinotDataType parameterType = _functionInvoker.getParameterTypes()[_nonLiteralIndices[0]];
+    try {
+      switch (parameterType) {
+        case INTEGER: {
+          int[] values = transformFunction.transformToIntValuesSV(projectionBlock);
+          for (int i = 0; i < length; i++) {
+            _intResults[i] = (int) methodHandle.invokeExact(values[i]);
+          }
+          break;
+        }
+        case LONG: {
+          long[] values = transformFunction.transformToLongValuesSV(projectionBlock);
+          for (int i = 0; i < length; i++) {
+            _intResults[i] = (int) methodHandle.invokeExact(values[i]);
+          }
+          break;
+        }
+        case DOUBLE: {
+          double[] values = transformFunction.transformToDoubleValuesSV(projectionBlock);
+          for (int i = 0; i < length; i++) {
+            _intResults[i] = (int) methodHandle.invokeExact(values[i]);
+          }
+          break;
+        }
+        default:
+          throw new IllegalStateException("Unsupported parameter type: " + parameterType);
+      }
+    } catch (Throwable t) {
+      throw new IllegalStateException("Caught exception while invoking method: " + _functionInvoker.getMethod(), t);
+    }
+  }
+
+  private void transformToLongValuesSVPrimitive(ProjectionBlock projectionBlock, int length) {
+    MethodHandle methodHandle = _longMethodHandle;
+    TransformFunction transformFunction = _nonLiteralFunctions[0];
+    PinotDataType parameterType = _functionInvoker.getParameterTypes()[_nonLiteralIndices[0]];
+    try {
+      switch (parameterType) {
+        case INTEGER: {
+          int[] values = transformFunction.transformToIntValuesSV(projectionBlock);
+          for (int i = 0; i < length; i++) {
+            _longResults[i] = (long) methodHandle.invokeExact(values[i]);
+          }
+          break;
+        }
+        case LONG: {
+          long[] values = transformFunction.transformToLongValuesSV(projectionBlock);
+          for (int i = 0; i < length; i++) {
+            _longResults[i] = (long) methodHandle.invokeExact(values[i]);
+          }
+          break;
+        }
+        case DOUBLE: {
+          double[] values = transformFunction.transformToDoubleValuesSV(projectionBlock);
+          for (int i = 0; i < length; i++) {
+            _longResults[i] = (long) methodHandle.invokeExact(values[i]);
+          }
+          break;
+        }
+        default:
+          throw new IllegalStateException("Unsupported parameter type: " + parameterType);
+      }
+    } catch (Throwable t) {
+      throw new IllegalStateException("Caught exception while invoking method: " + _functionInvoker.getMethod(), t);
+    }
+  }
+
+  private void transformToDoubleValuesSVPrimitive(ProjectionBlock projectionBlock, int length) {
+    MethodHandle methodHandle = _doubleMethodHandle;
+    TransformFunction transformFunction = _nonLiteralFunctions[0];
+    PinotDataType parameterType = _functionInvoker.getParameterTypes()[_nonLiteralIndices[0]];
+    try {
+      switch (parameterType) {
+        case INTEGER: {
+          int[] values = transformFunction.transformToIntValuesSV(projectionBlock);
+          for (int i = 0; i < length; i++) {
+            _doubleResults[i] = (double) methodHandle.invokeExact(values[i]);
+          }
+          break;
+        }
+        case LONG: {
+          long[] values = transformFunction.transformToLongValuesSV(projectionBlock);
+          for (int i = 0; i < length; i++) {
+            _doubleResults[i] = (double) methodHandle.invokeExact(values[i]);
+          }
+          break;
+        }
+        case DOUBLE: {
+          double[] values = transformFunction.transformToDoubleValuesSV(projectionBlock);
+          for (int i = 0; i < length; i++) {
+            _doubleResults[i] = (double) methodHandle.invokeExact(values[i]);
+          }
+          break;
+        }
+        default:
+          throw new IllegalStateException("Unsupported parameter type: " + parameterType);
+      }
+    } catch (Throwable t) {
+      throw new IllegalStateException("Caught exception while invoking method: " + _functionInvoker.getMethod(), t);
+    }
+  }
+
   /**
    * Helper method to fetch values for the non-literal transform functions based on the parameter types.
    */
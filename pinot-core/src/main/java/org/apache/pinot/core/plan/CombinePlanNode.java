@@ -36,10 +36,11 @@ import org.apache.pinot.core.operator.combine.DistinctCombineOperator;
 import org.apache.pinot.core.operator.combine.GroupByOrderByCombineOperator;
 import org.apache.pinot.core.operator.combine.SelectionOnlyCombineOperator;
 import org.apache.pinot.core.operator.combine.SelectionOrderByCombineOperator;
+import org.apache.pinot.core.operator.streaming.StreamingGroupByCombineOperator;
 import org.apache.pinot.core.operator.streaming.StreamingSelectionOnlyCombineOperator;
 import org.apache.pinot.core.query.request.context.QueryContext;
 import org.apache.pinot.core.query.request.context.utils.QueryContextUtils;
-import org.apache.pinot.core.util.trace.TraceCallable;
+import org.apache.pinot.core.util.trace.TraceRunnable;
 import org.apache.pinot.spi.exception.BadQueryRequestException;
 import org.apache.pinot.spi.trace.InvocationRecording;
 import org.apache.pinot.spi.trace.InvocationScope;
@@ -114,26 +115,27 @@ public class CombinePlanNode implements PlanNode {
       Phaser phaser = new Phaser(1);
 
       // Submit all jobs
+      // NOTE: Keep the operators in the same order as the plan nodes because the combine operator processes the
+      //       segments following the order of the operators.
+      Operator[] operatorArray = new Operator[numPlanNodes];
       Future[] futures = new Future[numTasks];
       for (int i = 0; i < numTasks; i++) {
         int index = i;
-        futures[i] = _executorService.submit(new TraceCallable<List<Operator>>() {
+        futures[i] = _executorService.submit(new TraceRunnable() {
           @Override
-          public List<Operator> callJob() {
+          public void runJob() {
             try {
               // Register the thread to the phaser.
               // If the phaser is terminated (returning negative value) when trying to register the thread, that means
               // the query execution has timed out, and the main thread has deregistered itself and returned the result.
               // Directly return as no execution result will be taken.
               if (phaser.register() < 0) {
-                return Collections.emptyList();
+                return;
               }
 
-              List<Operator> operators = new ArrayList<>();
               for (int i = index; i < numPlanNodes; i += numTasks) {
-                operators.add(_planNodes.get(i).run());
+                operatorArray[i] = _planNodes.get(i).run();
               }
-              return operators;
             } finally {
               phaser.arriveAndDeregister();
             }
@@ -144,10 +146,9 @@ public class CombinePlanNode implements PlanNode {
       // Get all results
       try {
         for (Future future : futures) {
-          List<Operator> ops = (List<Operator>) future.get(_queryContext.getEndTimeMs() - System.currentTimeMillis(),
-              TimeUnit.MILLISECONDS);
-          operators.addAll(ops);
+          future.get(_queryContext.getEndTimeMs() - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
         }
+        Collections.addAll(operators, operatorArray);
       } catch (Exception e) {
         // Future object will throw ExecutionException for execution exception, need to check the cause to determine
         // whether it is caused by bad query
@@ -169,9 +170,15 @@ public class CombinePlanNode implements PlanNode {
       }
     }
 
-    if (_streamObserver != null && QueryContextUtils.isSelectionOnlyQuery(_queryContext)) {
-      // Streaming query (only support selection only)
-      return new StreamingSelectionOnlyCombineOperator(operators, _queryContext, _executorService, _streamObserver);
+    if (_streamObserver != null) {
+      if (QueryContextUtils.isSelectionOnlyQuery(_queryContext)) {
+        // Streaming selection only
+        return new StreamingSelectionOnlyCombineOperator(operators, _queryContext, _executorService, _streamObserver);
+      }
+      if (QueryContextUtils.isAggregationQuery(_queryContext) && _queryContext.getGroupByExpressions() != null) {
+        // Streaming aggregation group-by
+        return new StreamingGroupByCombineOperator(operators, _queryContext, _executorService, _streamObserver);
+      }
     }
     if (QueryContextUtils.isAggregationQuery(_queryContext)) {
       if (_queryContext.getGroupByExpressions() == null) {
@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.plan;
+
+import org.apache.pinot.core.operator.SegmentResultCacheOperator;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
+import org.apache.pinot.core.query.cache.SegmentResultCache;
+
+
+/**
+ * A wrapper for the segment-level aggregation plan node which serves the result from the {@link SegmentResultCache}.
+ * Similar to {@link AcquireReleaseColumnsSegmentPlanNode}, this PlanNode does not invoke a <code>run</code> on the
+ * childPlanNode, and it is the {@link SegmentResultCacheOperator}'s responsibility to run the childPlanNode on cache
+ * miss.
+ */
+public class SegmentResultCachePlanNode implements PlanNode {
+  private final PlanNode _childPlanNode;
+  private final SegmentResultCache _segmentResultCache;
+  private final SegmentResultCache.CacheKey _cacheKey;
+  private final AggregationFunction[] _aggregationFunctions;
+
+  public SegmentResultCachePlanNode(PlanNode childPlanNode, SegmentResultCache segmentResultCache,
+      SegmentResultCache.CacheKey cacheKey, AggregationFunction[] aggregationFunctions) {
+    _childPlanNode = childPlanNode;
+    _segmentResultCache = segmentResultCache;
+    _cacheKey = cacheKey;
+    _aggregationFunctions = aggregationFunctions;
+  }
+
+  @Override
+  public SegmentResultCacheOperator run() {
+    return new SegmentResultCacheOperator(_childPlanNode, _segmentResultCache, _cacheKey, _aggregationFunctions);
+  }
+}
@@ -22,12 +22,14 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import io.grpc.stub.StreamObserver;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
+import javax.annotation.Nullable;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.pinot.common.proto.Server;
@@ -44,9 +46,12 @@ import org.apache.pinot.core.plan.GlobalPlanImplV0;
 import org.apache.pinot.core.plan.InstanceResponsePlanNode;
 import org.apache.pinot.core.plan.Plan;
 import org.apache.pinot.core.plan.PlanNode;
+import org.apache.pinot.core.plan.SegmentResultCachePlanNode;
 import org.apache.pinot.core.plan.SelectionPlanNode;
 import org.apache.pinot.core.plan.StreamingInstanceResponsePlanNode;
 import org.apache.pinot.core.plan.StreamingSelectionPlanNode;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
+import org.apache.pinot.core.query.cache.SegmentResultCache;
 import org.apache.pinot.core.query.config.QueryExecutorConfig;
 import org.apache.pinot.core.query.request.context.QueryContext;
 import org.apache.pinot.core.query.request.context.utils.QueryContextUtils;
@@ -86,6 +91,11 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
   // set as pinot.server.query.executor.groupby.trim.threshold
   public static final String GROUPBY_TRIM_THRESHOLD_KEY = "groupby.trim.threshold";
   public static final int DEFAULT_GROUPBY_TRIM_THRESHOLD = 1_000_000;
+  // Instance config key for the maximum size of the segment-level result cache for the immutable segments, non-positive
+  // value disables the cache
+  // Set as pinot.server.query.executor.segment.result.cache.max.size.bytes
+  public static final String SEGMENT_RESULT_CACHE_MAX_SIZE_BYTES_KEY = "segment.result.cache.max.size.bytes";
+  public static final long DEFAULT_SEGMENT_RESULT_CACHE_MAX_SIZE_BYTES = 0L;
 
   private static final Logger LOGGER = LoggerFactory.getLogger(InstancePlanMakerImplV2.class);
 
@@ -97,6 +107,8 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
   private final int _minSegmentGroupTrimSize;
   private final int _minServerGroupTrimSize;
   private final int _groupByTrimThreshold;
+  // Null when the segment result cache is disabled
+  private final SegmentResultCache _segmentResultCache;
 
   @VisibleForTesting
   public InstancePlanMakerImplV2() {
@@ -106,6 +118,7 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
     _minSegmentGroupTrimSize = DEFAULT_MIN_SEGMENT_GROUP_TRIM_SIZE;
     _minServerGroupTrimSize = DEFAULT_MIN_SERVER_GROUP_TRIM_SIZE;
     _groupByTrimThreshold = DEFAULT_GROUPBY_TRIM_THRESHOLD;
+    _segmentResultCache = null;
   }
 
   @VisibleForTesting
@@ -117,6 +130,7 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
     _minSegmentGroupTrimSize = minSegmentGroupTrimSize;
     _minServerGroupTrimSize = minServerGroupTrimSize;
     _groupByTrimThreshold = groupByTrimThreshold;
+    _segmentResultCache = null;
   }
 
   /**
@@ -142,21 +156,33 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
     _groupByTrimThreshold = config.getProperty(GROUPBY_TRIM_THRESHOLD_KEY, DEFAULT_GROUPBY_TRIM_THRESHOLD);
     Preconditions.checkState(_groupByTrimThreshold > 0,
         "Invalid configurable: groupByTrimThreshold: %d must be positive", _groupByTrimThreshold);
+    long segmentResultCacheMaxSizeBytes =
+        config.getProperty(SEGMENT_RESULT_CACHE_MAX_SIZE_BYTES_KEY, DEFAULT_SEGMENT_RESULT_CACHE_MAX_SIZE_BYTES);
+    _segmentResultCache =
+        segmentResultCacheMaxSizeBytes > 0 ? new SegmentResultCache(segmentResultCacheMaxSizeBytes) : null;
     LOGGER.info("Initializing plan maker with maxInitialResultHolderCapacity: {}, numGroupsLimit: {}, "
-            + "minSegmentGroupTrimSize: {}, minServerGroupTrimSize: {}", _maxInitialResultHolderCapacity,
-        _numGroupsLimit,
-        _minSegmentGroupTrimSize, _minServerGroupTrimSize);
+            + "minSegmentGroupTrimSize: {}, minServerGroupTrimSize: {}, segmentResultCacheMaxSizeBytes: {}",
+        _maxInitialResultHolderCapacity, _numGroupsLimit, _minSegmentGroupTrimSize, _minServerGroupTrimSize,
+        segmentResultCacheMaxSizeBytes);
   }
 
   @Override
   public Plan makeInstancePlan(List<IndexSegment> indexSegments, QueryContext queryContext,
       ExecutorService executorService) {
     applyQueryOptions(queryContext);
+    indexSegments = sortSegmentsByNumDocs(indexSegments);
 
     int numSegments = indexSegments.size();
     List<PlanNode> planNodes = new ArrayList<>(numSegments);
     List<FetchContext> fetchContexts;
 
+    // Compute the query fingerprint once for all the segments when the segment result cache applies to the query
+    String queryFingerprint = null;
+    if (_segmentResultCache != null && QueryContextUtils.isAggregationQuery(queryContext)
+        && !queryContext.isExplain()) {
+      queryFingerprint = SegmentResultCache.getQueryFingerprint(queryContext);
+    }
+
     if (queryContext.isEnablePrefetch()) {
       fetchContexts = new ArrayList<>(numSegments);
       List<ExpressionContext> selectExpressions = queryContext.getSelectExpressions();
@@ -170,13 +196,13 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
         FetchContext fetchContext = new FetchContext(UUID.randomUUID(), indexSegment.getSegmentName(), columns);
         fetchContexts.add(fetchContext);
         planNodes.add(
-            new AcquireReleaseColumnsSegmentPlanNode(makeSegmentPlanNode(indexSegment, queryContext), indexSegment,
-                fetchContext));
+            new AcquireReleaseColumnsSegmentPlanNode(makeSegmentPlanNode(indexSegment, queryContext, queryFingerprint),
+                indexSegment, fetchContext));
       }
     } else {
       fetchContexts = Collections.emptyList();
       for (IndexSegment indexSegment : indexSegments) {
-        planNodes.add(makeSegmentPlanNode(indexSegment, queryContext));
+        planNodes.add(makeSegmentPlanNode(indexSegment, queryContext, queryFingerprint));
       }
     }
 
@@ -184,6 +210,21 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
     return new GlobalPlanImplV0(new InstanceResponsePlanNode(combinePlanNode, indexSegments, fetchContexts));
   }
 
+  /**
+   * Makes the segment-level plan node, and wraps it with the {@link SegmentResultCachePlanNode} when the query
+   * fingerprint is provided and the segment is cacheable.
+   */
+  private PlanNode makeSegmentPlanNode(IndexSegment indexSegment, QueryContext queryContext,
+      @Nullable String queryFingerprint) {
+    PlanNode planNode = makeSegmentPlanNode(indexSegment, queryContext);
+    if (queryFingerprint == null || !SegmentResultCache.isCacheable(indexSegment)) {
+      return planNode;
+    }
+    AggregationFunction[] aggregationFunctions = queryContext.getAggregationFunctions();
+    return new SegmentResultCachePlanNode(planNode, _segmentResultCache,
+        new SegmentResultCache.CacheKey(indexSegment, queryFingerprint), aggregationFunctions);
+  }
+
   private void applyQueryOptions(QueryContext queryContext) {
     Map<String, String> queryOptions = queryContext.getQueryOptions();
 
@@ -255,14 +296,17 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
   public Plan makeStreamingInstancePlan(List<IndexSegment> indexSegments, QueryContext queryContext,
       ExecutorService executorService, StreamObserver<Server.ServerResponse> streamObserver) {
     applyQueryOptions(queryContext);
+    indexSegments = sortSegmentsByNumDocs(indexSegments);
 
     List<PlanNode> planNodes = new ArrayList<>(indexSegments.size());
     for (IndexSegment indexSegment : indexSegments) {
       planNodes.add(makeStreamingSegmentPlanNode(indexSegment, queryContext));
     }
     CombinePlanNode combinePlanNode = new CombinePlanNode(planNodes, queryContext, executorService, streamObserver);
-    if (QueryContextUtils.isSelectionOnlyQuery(queryContext)) {
-      // selection-only is streamed in StreamingSelectionPlanNode --> here only metadata block is returned.
+    if (QueryContextUtils.isSelectionOnlyQuery(queryContext) || (QueryContextUtils.isAggregationQuery(queryContext)
+        && queryContext.getGroupByExpressions() != null)) {
+      // selection-only and group-by are streamed in the streaming combine operator --> here only metadata block is
+      // returned.
       return new GlobalPlanImplV0(
           new InstanceResponsePlanNode(combinePlanNode, indexSegments, Collections.emptyList()));
     } else {
@@ -286,6 +330,32 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
     }
   }
 
+  /**
+   * Returns the segments sorted on the number of documents in descending order. The combine operator dispenses the
+   * segments to the worker threads following this order, so that the large segments are processed first and the small
+   * ones fill up the gaps at the end, which reduces the tail of the query execution.
+   * <p>NOTE: The number of documents of the consuming segments can change concurrently, so take a snapshot before
+   *          sorting.
+   */
+  @VisibleForTesting
+  static List<IndexSegment> sortSegmentsByNumDocs(List<IndexSegment> indexSegments) {
+    int numSegments = indexSegments.size();
+    if (numSegments <= 1) {
+      return indexSegments;
+    }
+    long[] sortKeys = new long[numSegments];
+    for (int i = 0; i < numSegments; i++) {
+      // Put the number of documents in the high bits and the original index in the low bits to get a stable order
+      sortKeys[i] = ((long) -indexSegments.get(i).getSegmentMetadata().getTotalDocs() << 32) | i;
+    }
+    Arrays.sort(sortKeys);
+    List<IndexSegment> sortedIndexSegments = new ArrayList<>(numSegments);
+    for (long sortKey : sortKeys) {
+      sortedIndexSegments.add(indexSegments.get((int) sortKey));
+    }
+    return sortedIndexSegments;
+  }
+
   /**
    * In-place rewrite QueryContext based on the information from local IndexSegment.
    *
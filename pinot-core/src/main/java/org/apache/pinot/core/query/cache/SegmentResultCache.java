@@ -0,0 +1,294 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.core.common.ObjectSerDeUtils;
+import org.apache.pinot.core.data.table.IntermediateRecord;
+import org.apache.pinot.core.data.table.Key;
+import org.apache.pinot.core.data.table.Record;
+import org.apache.pinot.core.operator.ExecutionStatistics;
+import org.apache.pinot.core.operator.blocks.IntermediateResultsBlock;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
+import org.apache.pinot.core.query.aggregation.groupby.AggregationGroupByResult;
+import org.apache.pinot.core.query.aggregation.groupby.GroupKeyGenerator;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.segment.spi.ImmutableSegment;
+import org.apache.pinot.segment.spi.IndexSegment;
+
+
+/**
+ * The {@code SegmentResultCache} caches the segment-level results of the aggregation and group-by queries on the
+ * immutable segments, keyed by the segment name, the segment CRC and the query fingerprint.
+ * <p>The segment-level results are merged in place by the combine operator, so the mutable intermediate results (e.g.
+ * HyperLogLog, sets) are stored serialized and deserialized for each cache hit to give each query its own copy.
+ * <p>The cache is bounded by the estimated size of the cached results.
+ */
+@ThreadSafe
+public class SegmentResultCache {
+  // Estimated size for the values not serialized (primitive wrappers, group keys)
+  private static final int ESTIMATED_VALUE_SIZE = 32;
+
+  private final Cache<CacheKey, CachedResult> _cache;
+
+  public SegmentResultCache(long maxSizeBytes) {
+    _cache = CacheBuilder.newBuilder().maximumWeight(maxSizeBytes)
+        .weigher((CacheKey key, CachedResult result) -> result._sizeInBytes).build();
+  }
+
+  /**
+   * Returns {@code true} if the results of the given segment can be cached, i.e. the segment is immutable and does not
+   * have valid doc ids (upsert), so that the results are deterministic for the same query.
+   */
+  public static boolean isCacheable(IndexSegment indexSegment) {
+    return indexSegment instanceof ImmutableSegment && indexSegment.getValidDocIds() == null
+        && indexSegment.getSegmentMetadata().getCrc() != null;
+  }
+
+  /**
+   * Returns the fingerprint of the query which contains all the query parts that can affect the segment-level results.
+   */
+  public static String getQueryFingerprint(QueryContext queryContext) {
+    return queryContext.getTableName() + '|' + queryContext.getSelectExpressions() + '|' + queryContext.getFilter()
+        + '|' + queryContext.getGroupByExpressions() + '|' + queryContext.getOrderByExpressions() + '|'
+        + queryContext.getLimit() + '|' + queryContext.getNumGroupsLimit() + '|'
+        + queryContext.getMinSegmentGroupTrimSize() + '|' + queryContext.getExpressionOverrideHints();
+  }
+
+  @Nullable
+  public CachedResult get(CacheKey key) {
+    return _cache.getIfPresent(key);
+  }
+
+  public void put(CacheKey key, CachedResult result) {
+    _cache.put(key, result);
+  }
+
+  public long size() {
+    return _cache.size();
+  }
+
+  public static final class CacheKey {
+    private final String _segmentName;
+    private final String _segmentCrc;
+    private final String _queryFingerprint;
+    private final int _hashCode;
+
+    public CacheKey(IndexSegment indexSegment, String queryFingerprint) {
+      _segmentName = indexSegment.getSegmentName();
+      _segmentCrc = indexSegment.getSegmentMetadata().getCrc();
+      _queryFingerprint = queryFingerprint;
+      _hashCode = 31 * (31 * _segmentName.hashCode() + _segmentCrc.hashCode()) + _queryFingerprint.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CacheKey)) {
+        return false;
+      }
+      CacheKey that = (CacheKey) o;
+      return _hashCode == that._hashCode && _segmentName.equals(that._segmentName) && _segmentCrc.equals(
+          that._segmentCrc) && _queryFingerprint.equals(that._queryFingerprint);
+    }
+
+    @Override
+    public int hashCode() {
+      return _hashCode;
+    }
+  }
+
+  /**
+   * The cached segment-level result, which can be converted to a new {@link IntermediateResultsBlock} for each hit.
+   */
+  public static final class CachedResult {
+    private final ExecutionStatistics _executionStatistics;
+    // For aggregation only query
+    private final Object[] _aggregationResult;
+    // For aggregation group-by query, each row contains the group keys followed by the aggregation results
+    private final DataSchema _dataSchema;
+    private final List<Object[]> _groupByRows;
+    private final int _numGroupByExpressions;
+    private final boolean _numGroupsLimitReached;
+    private final int _sizeInBytes;
+
+    private CachedResult(ExecutionStatistics executionStatistics, @Nullable Object[] aggregationResult,
+        @Nullable DataSchema dataSchema, @Nullable List<Object[]> groupByRows, int numGroupByExpressions,
+        boolean numGroupsLimitReached, int sizeInBytes) {
+      _executionStatistics = executionStatistics;
+      _aggregationResult = aggregationResult;
+      _dataSchema = dataSchema;
+      _groupByRows = groupByRows;
+      _numGroupByExpressions = numGroupByExpressions;
+      _numGroupsLimitReached = numGroupsLimitReached;
+      _sizeInBytes = sizeInBytes;
+    }
+
+    /**
+     * Creates the cached result from the segment-level results block, or returns {@code null} if the results block
+     * cannot be cached (e.g. has processing exceptions, contains intermediate result that cannot be serialized).
+     */
+    @Nullable
+    public static CachedResult fromResultsBlock(IntermediateResultsBlock resultsBlock,
+        ExecutionStatistics executionStatistics) {
+      if (resultsBlock.getProcessingExceptions() != null && !resultsBlock.getProcessingExceptions().isEmpty()) {
+        return null;
+      }
+      try {
+        List<Object> aggregationResult = resultsBlock.getAggregationResult();
+        if (aggregationResult != null) {
+          int numValues = aggregationResult.size();
+          Object[] values = new Object[numValues];
+          int sizeInBytes = 0;
+          for (int i = 0; i < numValues; i++) {
+            values[i] = freeze(aggregationResult.get(i));
+            sizeInBytes += getSizeInBytes(values[i]);
+          }
+          return new CachedResult(executionStatistics, values, null, null, 0, false, sizeInBytes);
+        }
+
+        DataSchema dataSchema = resultsBlock.getDataSchema();
+        AggregationFunction[] aggregationFunctions = resultsBlock.getAggregationFunctions();
+        if (dataSchema == null || aggregationFunctions == null) {
+          return null;
+        }
+        int numAggregationFunctions = aggregationFunctions.length;
+        int numColumns = dataSchema.size();
+        int numGroupByExpressions = numColumns - numAggregationFunctions;
+        List<Object[]> rows = new ArrayList<>();
+        int sizeInBytes = 0;
+        Collection<IntermediateRecord> intermediateRecords = resultsBlock.getIntermediateRecords();
+        if (intermediateRecords != null) {
+          for (IntermediateRecord intermediateRecord : intermediateRecords) {
+            Object[] row = Arrays.copyOf(intermediateRecord._record.getValues(), numColumns);
+            for (int i = numGroupByExpressions; i < numColumns; i++) {
+              row[i] = freeze(row[i]);
+              sizeInBytes += getSizeInBytes(row[i]);
+            }
+            rows.add(row);
+          }
+        } else {
+          AggregationGroupByResult aggregationGroupByResult = resultsBlock.getAggregationGroupByResult();
+          if (aggregationGroupByResult != null) {
+            Iterator<GroupKeyGenerator.GroupKey> groupKeyIterator = aggregationGroupByResult.getGroupKeyIterator();
+            while (groupKeyIterator.hasNext()) {
+              GroupKeyGenerator.GroupKey groupKey = groupKeyIterator.next();
+              Object[] row = Arrays.copyOf(groupKey._keys, numColumns);
+              for (int i = 0; i < numAggregationFunctions; i++) {
+                Object value = freeze(aggregationGroupByResult.getResultForGroupId(i, groupKey._groupId));
+                row[numGroupByExpressions + i] = value;
+                sizeInBytes += getSizeInBytes(value);
+              }
+              rows.add(row);
+            }
+          }
+        }
+        sizeInBytes += rows.size() * numGroupByExpressions * ESTIMATED_VALUE_SIZE;
+        return new CachedResult(executionStatistics, null, dataSchema, rows, numGroupByExpressions,
+            resultsBlock.isNumGroupsLimitReached(), sizeInBytes);
+      } catch (Exception e) {
+        // Intermediate result cannot be serialized
+        return null;
+      }
+    }
+
+    public ExecutionStatistics getExecutionStatistics() {
+      return _executionStatistics;
+    }
+
+    /**
+     * Returns a new results block with its own copy of the intermediate results.
+     */
+    public IntermediateResultsBlock toResultsBlock(AggregationFunction[] aggregationFunctions) {
+      if (_aggregationResult != null) {
+        int numValues = _aggregationResult.length;
+        List<Object> aggregationResult = new ArrayList<>(numValues);
+        for (Object value : _aggregationResult) {
+          aggregationResult.add(thaw(value));
+        }
+        return new IntermediateResultsBlock(aggregationFunctions, aggregationResult);
+      }
+
+      int numColumns = _dataSchema.size();
+      List<IntermediateRecord> intermediateRecords = new ArrayList<>(_groupByRows.size());
+      for (Object[] row : _groupByRows) {
+        Object[] values = new Object[numColumns];
+        System.arraycopy(row, 0, values, 0, _numGroupByExpressions);
+        for (int i = _numGroupByExpressions; i < numColumns; i++) {
+          values[i] = thaw(row[i]);
+        }
+        intermediateRecords.add(
+            new IntermediateRecord(new Key(Arrays.copyOf(row, _numGroupByExpressions)), new Record(values), null));
+      }
+      IntermediateResultsBlock resultsBlock =
+          new IntermediateResultsBlock(aggregationFunctions, intermediateRecords, _dataSchema);
+      resultsBlock.setNumGroupsLimitReached(_numGroupsLimitReached);
+      return resultsBlock;
+    }
+  }
+
+  /**
+   * Immutable values are stored as is, mutable values are stored serialized.
+   */
+  private static Object freeze(@Nullable Object value) {
+    if (value == null || value instanceof Integer || value instanceof Long || value instanceof Float
+        || value instanceof Double || value instanceof String || value instanceof BigDecimal) {
+      return value;
+    }
+    ObjectSerDeUtils.ObjectType objectType = ObjectSerDeUtils.ObjectType.getObjectType(value);
+    return new SerializedValue(objectType, ObjectSerDeUtils.serialize(value, objectType));
+  }
+
+  private static Object thaw(@Nullable Object value) {
+    if (value instanceof SerializedValue) {
+      SerializedValue serializedValue = (SerializedValue) value;
+      return ObjectSerDeUtils.deserialize(serializedValue._bytes, serializedValue._objectType);
+    }
+    return value;
+  }
+
+  private static int getSizeInBytes(@Nullable Object value) {
+    if (value instanceof SerializedValue) {
+      return ((SerializedValue) value)._bytes.length + ESTIMATED_VALUE_SIZE;
+    }
+    return ESTIMATED_VALUE_SIZE;
+  }
+
+  private static final class SerializedValue {
+    final ObjectSerDeUtils.ObjectType _objectType;
+    final byte[] _bytes;
+
+    SerializedValue(ObjectSerDeUtils.ObjectType objectType, byte[] bytes) {
+      _objectType = objectType;
+      _bytes = bytes;
+    }
+  }
+}
@@ -22,10 +22,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import org.apache.pinot.common.request.context.ExpressionContext;
 import org.apache.pinot.common.request.context.FilterContext;
 import org.apache.pinot.common.request.context.predicate.EqPredicate;
@@ -33,6 +35,7 @@ import org.apache.pinot.common.request.context.predicate.InPredicate;
 import org.apache.pinot.common.request.context.predicate.Predicate;
 import org.apache.pinot.common.request.context.predicate.RangePredicate;
 import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.GuavaBloomFilterReaderUtils;
 import org.apache.pinot.segment.spi.FetchContext;
 import org.apache.pinot.segment.spi.IndexSegment;
 import org.apache.pinot.segment.spi.datasource.DataSource;
@@ -58,6 +61,13 @@ import org.apache.pinot.spi.utils.CommonConstants.Server;
  *     </ul>
  *   </li>
  *   <li>
+ *     For IN filter with values more than the IN predicate threshold but no more than the IN predicate bloom filter
+ *     threshold, prune the segment based on:
+ *     <ul>
+ *       <li>Column bloom filter</li>
+ *     </ul>
+ *   </li>
+ *   <li>
  *     For RANGE filter, prune the segment based on:
  *     <ul>
  *       <li>Column min/max value<</li>
@@ -69,13 +79,17 @@ import org.apache.pinot.spi.utils.CommonConstants.Server;
 public class ColumnValueSegmentPruner implements SegmentPruner {
 
   public static final String IN_PREDICATE_THRESHOLD = "inpredicate.threshold";
+  public static final String IN_PREDICATE_BLOOM_FILTER_THRESHOLD = "inpredicate.bloomfilter.threshold";
 
   private int _inPredicateThreshold;
+  private int _inPredicateBloomFilterThreshold;
 
   @Override
   public void init(PinotConfiguration config) {
     _inPredicateThreshold =
         config.getProperty(IN_PREDICATE_THRESHOLD, Server.DEFAULT_VALUE_PRUNER_IN_PREDICATE_THRESHOLD);
+    _inPredicateBloomFilterThreshold = config.getProperty(IN_PREDICATE_BLOOM_FILTER_THRESHOLD,
+        Server.DEFAULT_VALUE_PRUNER_IN_PREDICATE_BLOOM_FILTER_THRESHOLD);
   }
 
   @Override
@@ -99,6 +113,7 @@ public class ColumnValueSegmentPruner implements SegmentPruner {
 
     int numSegments = segments.size();
     List<IndexSegment> selectedSegments = new ArrayList<>(numSegments);
+    ValueCache valueCache = new ValueCache();
     if (!eqInColumns.isEmpty() && query.isEnablePrefetch()) {
       Map[] dataSourceCaches = new Map[numSegments];
       FetchContext[] fetchContexts = new FetchContext[numSegments];
@@ -133,14 +148,14 @@ public class ColumnValueSegmentPruner implements SegmentPruner {
           if (fetchContext != null) {
             segment.acquire(fetchContext);
             try {
-              if (!pruneSegment(segment, filter, dataSourceCaches[i])) {
+              if (!pruneSegment(segment, filter, dataSourceCaches[i], valueCache)) {
                 selectedSegments.add(segment);
               }
             } finally {
               segment.release(fetchContext);
             }
           } else {
-            if (!pruneSegment(segment, filter, dataSourceCaches[i])) {
+            if (!pruneSegment(segment, filter, dataSourceCaches[i], valueCache)) {
               selectedSegments.add(segment);
             }
           }
@@ -157,7 +172,7 @@ public class ColumnValueSegmentPruner implements SegmentPruner {
     } else {
       for (IndexSegment segment : segments) {
         Map<String, DataSource> dataSourceCache = new HashMap<>();
-        if (!pruneSegment(segment, filter, dataSourceCache)) {
+        if (!pruneSegment(segment, filter, dataSourceCache, valueCache)) {
           selectedSegments.add(segment);
         }
       }
@@ -191,7 +206,7 @@ public class ColumnValueSegmentPruner implements SegmentPruner {
 
         Predicate.Type predicateType = predicate.getType();
         if (predicateType == Predicate.Type.EQ || (predicateType == Predicate.Type.IN
-            && ((InPredicate) predicate).getValues().size() <= _inPredicateThreshold)) {
+            && ((InPredicate) predicate).getValues().size() <= getMaxNumInPredicateValues())) {
           eqInColumns.add(column);
         } else if (predicateType == Predicate.Type.RANGE) {
           rangeColumns.add(column);
@@ -202,18 +217,26 @@ public class ColumnValueSegmentPruner implements SegmentPruner {
     }
   }
 
-  private boolean pruneSegment(IndexSegment segment, FilterContext filter, Map<String, DataSource> dataSourceCache) {
+  /**
+   * Returns the max number of values in the IN predicate to prune segments with.
+   */
+  private int getMaxNumInPredicateValues() {
+    return Math.max(_inPredicateThreshold, _inPredicateBloomFilterThreshold);
+  }
+
+  private boolean pruneSegment(IndexSegment segment, FilterContext filter, Map<String, DataSource> dataSourceCache,
+      ValueCache valueCache) {
     switch (filter.getType()) {
       case AND:
         for (FilterContext child : filter.getChildren()) {
-          if (pruneSegment(segment, child, dataSourceCache)) {
+          if (pruneSegment(segment, child, dataSourceCache, valueCache)) {
             return true;
           }
         }
         return false;
       case OR:
         for (FilterContext child : filter.getChildren()) {
-          if (!pruneSegment(segment, child, dataSourceCache)) {
+          if (!pruneSegment(segment, child, dataSourceCache, valueCache)) {
             return false;
           }
         }
@@ -229,9 +252,9 @@ public class ColumnValueSegmentPruner implements SegmentPruner {
         }
         Predicate.Type predicateType = predicate.getType();
         if (predicateType == Predicate.Type.EQ) {
-          return pruneEqPredicate(segment, (EqPredicate) predicate, dataSourceCache);
+          return pruneEqPredicate(segment, (EqPredicate) predicate, dataSourceCache, valueCache);
         } else if (predicateType == Predicate.Type.IN) {
-          return pruneInPredicate(segment, (InPredicate) predicate, dataSourceCache);
+          return pruneInPredicate(segment, (InPredicate) predicate, dataSourceCache, valueCache);
         } else if (predicateType == Predicate.Type.RANGE) {
           return pruneRangePredicate(segment, (RangePredicate) predicate, dataSourceCache);
         } else {
@@ -251,13 +274,14 @@ public class ColumnValueSegmentPruner implements SegmentPruner {
    * </ul>
    */
   private boolean pruneEqPredicate(IndexSegment segment, EqPredicate eqPredicate,
-      Map<String, DataSource> dataSourceCache) {
+      Map<String, DataSource> dataSourceCache, ValueCache valueCache) {
     String column = eqPredicate.getLhs().getIdentifier();
     DataSource dataSource = dataSourceCache.computeIfAbsent(column, segment::getDataSource);
     // NOTE: Column must exist after DataSchemaSegmentPruner
     assert dataSource != null;
     DataSourceMetadata dataSourceMetadata = dataSource.getDataSourceMetadata();
-    Comparable value = convertValue(eqPredicate.getValue(), dataSourceMetadata.getDataType());
+    CachedValue cachedValue = valueCache.get(eqPredicate, dataSourceMetadata.getDataType());
+    Comparable value = cachedValue.getComparableValue();
 
     // Check min/max value
     if (!checkMinMaxRange(dataSourceMetadata, value)) {
@@ -277,7 +301,7 @@ public class ColumnValueSegmentPruner implements SegmentPruner {
     // Check bloom filter
     BloomFilterReader bloomFilter = dataSource.getBloomFilter();
     if (bloomFilter != null) {
-      if (!bloomFilter.mightContain(value.toString())) {
+      if (!cachedValue.mightBeContained(bloomFilter)) {
         return true;
       }
     }
@@ -291,35 +315,44 @@ public class ColumnValueSegmentPruner implements SegmentPruner {
    *   <li>Column min/max value</li>
    *   <li>Column bloom filter</li>
    * </ul>
-   * <p>NOTE: segments will not be pruned if the number of values is greater than the threshold.
+   * <p>NOTE: segments will only be pruned based on the bloom filter if the number of values is greater than the IN
+   *       predicate threshold, and will not be pruned if the number of values is also greater than the IN predicate
+   *       bloom filter threshold.
    */
   private boolean pruneInPredicate(IndexSegment segment, InPredicate inPredicate,
-      Map<String, DataSource> dataSourceCache) {
+      Map<String, DataSource> dataSourceCache, ValueCache valueCache) {
+    int numValues = inPredicate.getValues().size();
+
+    // Skip pruning when there are too many values in the IN predicate
+    if (numValues > getMaxNumInPredicateValues()) {
+      return false;
+    }
+
     String column = inPredicate.getLhs().getIdentifier();
     DataSource dataSource = dataSourceCache.computeIfAbsent(column, segment::getDataSource);
     // NOTE: Column must exist after DataSchemaSegmentPruner
     assert dataSource != null;
     DataSourceMetadata dataSourceMetadata = dataSource.getDataSourceMetadata();
-    List<String> values = inPredicate.getValues();
-
-    // Skip pruning when there are too many values in the IN predicate
-    if (values.size() > _inPredicateThreshold) {
+    BloomFilterReader bloomFilter = dataSource.getBloomFilter();
+    boolean checkMinMax = numValues <= _inPredicateThreshold;
+    if (!checkMinMax && bloomFilter == null) {
       return false;
     }
+    List<CachedValue> cachedValues = valueCache.get(inPredicate, dataSourceMetadata.getDataType());
 
     // Check min/max value
-    for (String value : values) {
-      Comparable inValue = convertValue(value, dataSourceMetadata.getDataType());
-      if (checkMinMaxRange(dataSourceMetadata, inValue)) {
-        return false;
+    if (checkMinMax) {
+      for (CachedValue cachedValue : cachedValues) {
+        if (checkMinMaxRange(dataSourceMetadata, cachedValue.getComparableValue())) {
+          return false;
+        }
       }
     }
 
     // Check bloom filter
-    BloomFilterReader bloomFilter = dataSource.getBloomFilter();
     if (bloomFilter != null) {
-      for (String value : values) {
-        if (bloomFilter.mightContain(value)) {
+      for (CachedValue cachedValue : cachedValues) {
+        if (cachedValue.mightBeContained(bloomFilter)) {
           return false;
         }
       }
@@ -430,4 +463,66 @@ public class ColumnValueSegmentPruner implements SegmentPruner {
       throw new BadQueryRequestException(e);
     }
   }
+
+  /**
+   * Caches the values of the EQ/IN predicates converted to the column data type, as well as their bloom filter hashes,
+   * so that they are computed once per query instead of once per segment. Predicates are looked up by identity because
+   * the same predicate instances are used for all the segments.
+   */
+  private static class ValueCache {
+    private final Map<EqPredicate, CachedValue> _eqValues = new IdentityHashMap<>();
+    private final Map<InPredicate, List<CachedValue>> _inValues = new IdentityHashMap<>();
+
+    CachedValue get(EqPredicate predicate, DataType dataType) {
+      CachedValue cachedValue = _eqValues.computeIfAbsent(predicate, k -> new CachedValue(k.getValue()));
+      cachedValue.setDataType(dataType);
+      return cachedValue;
+    }
+
+    List<CachedValue> get(InPredicate predicate, DataType dataType) {
+      List<CachedValue> cachedValues = _inValues.computeIfAbsent(predicate,
+          k -> k.getValues().stream().map(CachedValue::new).collect(Collectors.toList()));
+      for (CachedValue cachedValue : cachedValues) {
+        cachedValue.setDataType(dataType);
+      }
+      return cachedValues;
+    }
+  }
+
+  private static class CachedValue {
+    private final String _value;
+    private DataType _dataType;
+    private Comparable _comparableValue;
+    private long[] _hashes;
+
+    CachedValue(String value) {
+      _value = value;
+    }
+
+    /**
+     * Sets the data type of the column to compare the value with. The data type can be different across segments when
+     * the schema evolves, in which case the value is converted again.
+     */
+    void setDataType(DataType dataType) {
+      if (dataType != _dataType) {
+        _dataType = dataType;
+        _comparableValue = null;
+        _hashes = null;
+      }
+    }
+
+    Comparable getComparableValue() {
+      if (_comparableValue == null) {
+        _comparableValue = convertValue(_value, _dataType);
+      }
+      return _comparableValue;
+    }
+
+    boolean mightBeContained(BloomFilterReader bloomFilter) {
+      if (_hashes == null) {
+        _hashes = GuavaBloomFilterReaderUtils.hashAsLongs(getComparableValue().toString());
+      }
+      return bloomFilter.mightContain(_hashes[0], _hashes[1]);
+    }
+  }
 }
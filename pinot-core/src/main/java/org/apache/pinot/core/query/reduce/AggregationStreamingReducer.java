@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.reduce;
+
+import java.util.Collections;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.common.utils.DataTable;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.transport.ServerRoutingInstance;
+
+
+/**
+ * Streaming reducer for aggregation only queries, which merges the intermediate results from the servers as they
+ * arrive.
+ */
+public class AggregationStreamingReducer implements StreamingReducer {
+  private final AggregationDataTableReducer _dataTableReducer;
+  private final Object[] _intermediateResults;
+
+  private boolean _hasResults;
+
+  public AggregationStreamingReducer(QueryContext queryContext) {
+    _dataTableReducer = new AggregationDataTableReducer(queryContext);
+    _intermediateResults = new Object[queryContext.getAggregationFunctions().length];
+  }
+
+  @Override
+  public void init(DataTableReducerContext dataTableReducerContext) {
+  }
+
+  @Override
+  public synchronized void reduce(ServerRoutingInstance key, DataTable dataTable) {
+    _dataTableReducer.mergeDataTable(_intermediateResults, dataTable.getDataSchema(), dataTable);
+    _hasResults = true;
+  }
+
+  @Override
+  public synchronized BrokerResponseNative seal() {
+    BrokerResponseNative brokerResponseNative = new BrokerResponseNative();
+    if (_hasResults) {
+      _dataTableReducer.setResultTable(brokerResponseNative, _intermediateResults);
+    } else {
+      _dataTableReducer.reduceAndSetResults(null, null, Collections.emptyMap(), brokerResponseNative, null, null);
+    }
+    return brokerResponseNative;
+  }
+}
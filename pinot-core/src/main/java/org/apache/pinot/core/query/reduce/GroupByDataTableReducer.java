@@ -124,7 +124,15 @@ public class GroupByDataTableReducer implements DataTableReducer {
     } else {
       sortedIterator = Collections.emptyIterator();
     }
+    setResultTable(brokerResponseNative, dataSchema, sortedIterator);
+  }
 
+  /**
+   * Applies the HAVING clause, limit and post-aggregation on the sorted records, and sets the results into the
+   * {@link ResultTable}.
+   */
+  void setResultTable(BrokerResponseNative brokerResponseNative, DataSchema dataSchema,
+      Iterator<Record> sortedIterator) {
     DataSchema prePostAggregationDataSchema = getPrePostAggregationDataSchema(dataSchema);
     ColumnDataType[] columnDataTypes = prePostAggregationDataSchema.getColumnDataTypes();
     int numColumns = columnDataTypes.length;
@@ -202,27 +210,8 @@ public class GroupByDataTableReducer implements DataTableReducer {
     // Get the number of threads to use for reducing.
     // In case of single reduce thread, fall back to SimpleIndexedTable to avoid redundant locking/unlocking calls.
     int numReduceThreadsToUse = getNumReduceThreadsToUse(numDataTables, reducerContext.getMaxReduceThreadsPerQuery());
-    int limit = _queryContext.getLimit();
-    // TODO: Make minTrimSize configurable
-    int trimSize = GroupByUtils.getTableCapacity(limit);
-    // NOTE: For query with HAVING clause, use trimSize as resultSize to ensure the result accuracy.
-    // TODO: Resolve the HAVING clause within the IndexedTable before returning the result
-    int resultSize = _queryContext.getHavingFilter() != null ? trimSize : limit;
-    int trimThreshold = reducerContext.getGroupByTrimThreshold();
-    IndexedTable indexedTable;
-    if (numReduceThreadsToUse == 1) {
-      indexedTable = new SimpleIndexedTable(dataSchema, _queryContext, resultSize, trimSize, trimThreshold);
-    } else {
-      if (trimThreshold >= GroupByOrderByCombineOperator.MAX_TRIM_THRESHOLD) {
-        // special case of trim threshold where it is set to max value.
-        // there won't be any trimming during upsert in this case.
-        // thus we can avoid the overhead of read-lock and write-lock
-        // in the upsert method.
-        indexedTable = new UnboundedConcurrentIndexedTable(dataSchema, _queryContext, resultSize);
-      } else {
-        indexedTable = new ConcurrentIndexedTable(dataSchema, _queryContext, resultSize, trimSize, trimThreshold);
-      }
-    }
+    IndexedTable indexedTable =
+        createIndexedTable(dataSchema, numReduceThreadsToUse > 1, reducerContext.getGroupByTrimThreshold());
 
     // Create groups of data tables that each thread can process concurrently.
     // Given that numReduceThreads is <= numDataTables, each group will have at least one data table.
@@ -250,42 +239,7 @@ public class GroupByDataTableReducer implements DataTableReducer {
               return;
             }
             try {
-              int numRows = dataTable.getNumberOfRows();
-              for (int rowId = 0; rowId < numRows; rowId++) {
-                Object[] values = new Object[_numColumns];
-                for (int colId = 0; colId < _numColumns; colId++) {
-                  switch (storedColumnDataTypes[colId]) {
-                    case INT:
-                      values[colId] = dataTable.getInt(rowId, colId);
-                      break;
-                    case LONG:
-                      values[colId] = dataTable.getLong(rowId, colId);
-                      break;
-                    case FLOAT:
-                      values[colId] = dataTable.getFloat(rowId, colId);
-                      break;
-                    case DOUBLE:
-                      values[colId] = dataTable.getDouble(rowId, colId);
-                      break;
-                    case BIG_DECIMAL:
-                      values[colId] = dataTable.getBigDecimal(rowId, colId);
-                      break;
-                    case STRING:
-                      values[colId] = dataTable.getString(rowId, colId);
-                      break;
-                    case BYTES:
-                      values[colId] = dataTable.getBytes(rowId, colId);
-                      break;
-                    case OBJECT:
-                      values[colId] = dataTable.getObject(rowId, colId);
-                      break;
-                    // Add other aggregation intermediate result / group-by column type supports here
-                    default:
-                      throw new IllegalStateException();
-                  }
-                }
-                indexedTable.upsert(new Record(values));
-              }
+              upsertDataTable(indexedTable, dataTable, storedColumnDataTypes);
             } finally {
               countDownLatch.countDown();
             }
@@ -313,6 +267,73 @@ public class GroupByDataTableReducer implements DataTableReducer {
     return indexedTable;
   }
 
+  /**
+   * Creates the {@link IndexedTable} to merge the intermediate group-by results into.
+   */
+  IndexedTable createIndexedTable(DataSchema dataSchema, boolean concurrent, int trimThreshold) {
+    int limit = _queryContext.getLimit();
+    // TODO: Make minTrimSize configurable
+    int trimSize = GroupByUtils.getTableCapacity(limit);
+    // NOTE: For query with HAVING clause, use trimSize as resultSize to ensure the result accuracy.
+    // TODO: Resolve the HAVING clause within the IndexedTable before returning the result
+    int resultSize = _queryContext.getHavingFilter() != null ? trimSize : limit;
+    if (!concurrent) {
+      // Use SimpleIndexedTable to avoid redundant locking/unlocking calls
+      return new SimpleIndexedTable(dataSchema, _queryContext, resultSize, trimSize, trimThreshold);
+    }
+    if (trimThreshold >= GroupByOrderByCombineOperator.MAX_TRIM_THRESHOLD) {
+      // special case of trim threshold where it is set to max value.
+      // there won't be any trimming during upsert in this case.
+      // thus we can avoid the overhead of read-lock and write-lock
+      // in the upsert method.
+      return new UnboundedConcurrentIndexedTable(dataSchema, _queryContext, resultSize);
+    } else {
+      return new ConcurrentIndexedTable(dataSchema, _queryContext, resultSize, trimSize, trimThreshold);
+    }
+  }
+
+  /**
+   * Upserts all the rows of the given data table into the {@link IndexedTable}.
+   */
+  void upsertDataTable(IndexedTable indexedTable, DataTable dataTable, ColumnDataType[] storedColumnDataTypes) {
+    int numRows = dataTable.getNumberOfRows();
+    for (int rowId = 0; rowId < numRows; rowId++) {
+      Object[] values = new Object[_numColumns];
+      for (int colId = 0; colId < _numColumns; colId++) {
+        switch (storedColumnDataTypes[colId]) {
+          case INT:
+            values[colId] = dataTable.getInt(rowId, colId);
+            break;
+          case LONG:
+            values[colId] = dataTable.getLong(rowId, colId);
+            break;
+          case FLOAT:
+            values[colId] = dataTable.getFloat(rowId, colId);
+            break;
+          case DOUBLE:
+            values[colId] = dataTable.getDouble(rowId, colId);
+            break;
+          case BIG_DECIMAL:
+            values[colId] = dataTable.getBigDecimal(rowId, colId);
+            break;
+          case STRING:
+            values[colId] = dataTable.getString(rowId, colId);
+            break;
+          case BYTES:
+            values[colId] = dataTable.getBytes(rowId, colId);
+            break;
+          case OBJECT:
+            values[colId] = dataTable.getObject(rowId, colId);
+            break;
+          // Add other aggregation intermediate result / group-by column type supports here
+          default:
+            throw new IllegalStateException();
+        }
+      }
+      indexedTable.upsert(new Record(values));
+    }
+  }
+
   /**
    * Computes the number of reduce threads to use per query.
    * <ul>
@@ -0,0 +1,81 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.reduce;
+
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.DataSchema.ColumnDataType;
+import org.apache.pinot.common.utils.DataTable;
+import org.apache.pinot.core.data.table.IndexedTable;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.transport.ServerRoutingInstance;
+
+
+/**
+ * Streaming reducer for aggregation group-by queries. The partial group-by blocks streamed from the servers are merged
+ * into a concurrent {@link IndexedTable} as they arrive, so that the broker does not need to hold all the data tables
+ * in memory, and the size of the merged result is bounded by the group-by trim threshold.
+ */
+public class GroupByStreamingReducer implements StreamingReducer {
+  private final GroupByDataTableReducer _dataTableReducer;
+
+  private int _groupByTrimThreshold;
+  private volatile IndexedTable _indexedTable;
+  private DataSchema _dataSchema;
+  private ColumnDataType[] _storedColumnDataTypes;
+
+  public GroupByStreamingReducer(QueryContext queryContext) {
+    _dataTableReducer = new GroupByDataTableReducer(queryContext);
+  }
+
+  @Override
+  public void init(DataTableReducerContext dataTableReducerContext) {
+    _groupByTrimThreshold = dataTableReducerContext.getGroupByTrimThreshold();
+  }
+
+  @Override
+  public void reduce(ServerRoutingInstance key, DataTable dataTable) {
+    IndexedTable indexedTable = _indexedTable;
+    if (indexedTable == null) {
+      indexedTable = initIndexedTable(dataTable.getDataSchema());
+    }
+    _dataTableReducer.upsertDataTable(indexedTable, dataTable, _storedColumnDataTypes);
+  }
+
+  private synchronized IndexedTable initIndexedTable(DataSchema dataSchema) {
+    if (_indexedTable == null) {
+      _dataSchema = dataSchema;
+      _storedColumnDataTypes = dataSchema.getStoredColumnDataTypes();
+      _indexedTable = _dataTableReducer.createIndexedTable(dataSchema, true, _groupByTrimThreshold);
+    }
+    return _indexedTable;
+  }
+
+  @Override
+  public BrokerResponseNative seal() {
+    BrokerResponseNative brokerResponseNative = new BrokerResponseNative();
+    // NOTE: When no data block is received, return the response with metadata only (same as the non-streaming reduce)
+    IndexedTable indexedTable = _indexedTable;
+    if (indexedTable != null) {
+      indexedTable.finish(true);
+      _dataTableReducer.setResultTable(brokerResponseNative, _dataSchema, indexedTable.iterator());
+    }
+    return brokerResponseNative;
+  }
+}
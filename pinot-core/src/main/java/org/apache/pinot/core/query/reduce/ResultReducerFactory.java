@@ -63,11 +63,19 @@ public final class ResultReducerFactory {
   }
 
   public static StreamingReducer getStreamingReducer(QueryContext queryContext) {
-    if (!QueryContextUtils.isSelectionQuery(queryContext) || queryContext.getOrderByExpressions() != null) {
-      throw new UnsupportedOperationException("Only selection queries are supported");
-    } else {
+    if (QueryContextUtils.isSelectionOnlyQuery(queryContext)) {
       // Selection query
       return new SelectionOnlyStreamingReducer(queryContext);
     }
+    if (QueryContextUtils.isAggregationQuery(queryContext)) {
+      if (queryContext.getGroupByExpressions() == null) {
+        // Aggregation only query
+        return new AggregationStreamingReducer(queryContext);
+      } else {
+        // Aggregation group-by query
+        return new GroupByStreamingReducer(queryContext);
+      }
+    }
+    throw new UnsupportedOperationException("Only selection-only, aggregation and group-by queries are supported");
   }
 }
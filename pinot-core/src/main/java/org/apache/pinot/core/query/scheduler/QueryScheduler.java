@@ -190,6 +190,7 @@ public abstract class QueryScheduler {
     long responseSerializationCpuTimeNs =
         Long.parseLong(dataTableMetadata.getOrDefault(MetadataKey.RESPONSE_SER_CPU_TIME_NS.getName(), "0"));
     long totalCpuTimeNs = threadCpuTimeNs + systemActivitiesCpuTimeNs + responseSerializationCpuTimeNs;
+    onQueryProcessed(queryRequest, totalCpuTimeNs);
 
     if (numDocsScanned > 0) {
       _serverMetrics.addMeteredTableValue(tableNameWithType, ServerMeter.NUM_DOCS_SCANNED, numDocsScanned);
@@ -314,6 +315,15 @@ public abstract class QueryScheduler {
     return responseByte;
   }
 
+  /**
+   * Invoked after the query is processed with the total CPU time spent on the query (0 if the thread CPU time
+   * measurement is not enabled). Schedulers can override this method to account for the resource usage.
+   * @param queryRequest processed query request
+   * @param totalCpuTimeNs total CPU time spent on the query
+   */
+  protected void onQueryProcessed(ServerQueryRequest queryRequest, long totalCpuTimeNs) {
+  }
+
   /**
    * Error response future in case of internal error where query response is not available. This can happen if the query
    * can not be executed.
@@ -0,0 +1,234 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.scheduler.adaptive;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.Nullable;
+import org.apache.pinot.core.query.scheduler.MultiLevelPriorityQueue;
+import org.apache.pinot.core.query.scheduler.OutOfCapacityException;
+import org.apache.pinot.core.query.scheduler.SchedulerPriorityQueue;
+import org.apache.pinot.core.query.scheduler.SchedulerQueryContext;
+import org.apache.pinot.core.query.scheduler.resources.ResourceManager;
+import org.apache.pinot.spi.env.PinotConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Lock-free priority queue of per-table {@link AdaptiveSchedulerGroup}s.
+ *
+ * Similar to {@link MultiLevelPriorityQueue}, each group maintains a waitlist of queries for the table, but the
+ * priority between the groups is based on the recent CPU cost of the group, and the thread limit of each group is
+ * periodically re-computed based on its share of the CPU cost among the active groups:
+ * <ul>
+ *   <li>A group using no more than its fair share of the CPU (1 / number of active groups) can use up to the table
+ *   threads hard limit</li>
+ *   <li>A group using more than its fair share of the CPU gets its thread limit lowered proportionally, but no lower
+ *   than its fair share of the worker threads (bounded by the table threads soft limit)</li>
+ * </ul>
+ * This way a noisy table cannot starve the other tables, while still being able to use all the threads when the other
+ * tables are idle.
+ *
+ * The queries are added to the per-group concurrent queues without locking, and the scheduler thread (single
+ * consumer) is woken up by {@link LockSupport#unpark(Thread)}.
+ */
+public class AdaptivePriorityQueue implements SchedulerPriorityQueue {
+  private static final Logger LOGGER = LoggerFactory.getLogger(AdaptivePriorityQueue.class);
+
+  public static final String CPU_COST_WINDOW_MS_KEY = "cpu_cost_window_ms";
+  public static final String THREADS_REALLOCATION_INTERVAL_MS_KEY = "threads_reallocation_interval_ms";
+
+  private static final int DEFAULT_CPU_COST_WINDOW_MS = 1000;
+  private static final int DEFAULT_THREADS_REALLOCATION_INTERVAL_MS = 100;
+  private static final int DEFAULT_WAKEUP_MICROS = 1000;
+
+  private final ConcurrentHashMap<String, AdaptiveSchedulerGroup> _schedulerGroups = new ConcurrentHashMap<>();
+  private final ResourceManager _resourceManager;
+  private final int _queryDeadlineMillis;
+  private final int _maxPendingPerGroup;
+  private final long _wakeUpTimeNanos;
+  private final int _cpuCostWindowMs;
+  private final int _threadsReallocationIntervalMs;
+
+  // The scheduler thread waiting for the queries
+  private volatile Thread _consumerThread;
+  // Only accessed by the scheduler thread
+  private long _lastThreadsReallocationTimeMs;
+
+  public AdaptivePriorityQueue(PinotConfiguration config, ResourceManager resourceManager) {
+    Preconditions.checkNotNull(config);
+    Preconditions.checkNotNull(resourceManager);
+    _resourceManager = resourceManager;
+    _queryDeadlineMillis = config.getProperty(MultiLevelPriorityQueue.QUERY_DEADLINE_SECONDS_KEY, 30) * 1000;
+    _maxPendingPerGroup = config.getProperty(MultiLevelPriorityQueue.MAX_PENDING_PER_GROUP_KEY, 10);
+    _wakeUpTimeNanos = TimeUnit.MICROSECONDS.toNanos(
+        config.getProperty(MultiLevelPriorityQueue.QUEUE_WAKEUP_MICROS, DEFAULT_WAKEUP_MICROS));
+    _cpuCostWindowMs = config.getProperty(CPU_COST_WINDOW_MS_KEY, DEFAULT_CPU_COST_WINDOW_MS);
+    _threadsReallocationIntervalMs =
+        config.getProperty(THREADS_REALLOCATION_INTERVAL_MS_KEY, DEFAULT_THREADS_REALLOCATION_INTERVAL_MS);
+  }
+
+  @Override
+  public void put(SchedulerQueryContext query)
+      throws OutOfCapacityException {
+    Preconditions.checkNotNull(query);
+    AdaptiveSchedulerGroup group = getOrCreateGroup(query.getQueryRequest().getTableNameWithType());
+    checkGroupHasCapacity(group);
+    query.setSchedulerGroupContext(group);
+    group.addLast(query);
+    Thread consumerThread = _consumerThread;
+    if (consumerThread != null) {
+      LockSupport.unpark(consumerThread);
+    }
+  }
+
+  /**
+   * Blocking call to read the next query in order of priority. This method should only be called by a single thread.
+   * @return
+   */
+  @Nullable
+  @Override
+  public SchedulerQueryContext take() {
+    _consumerThread = Thread.currentThread();
+    while (true) {
+      SchedulerQueryContext schedulerQueryContext = takeNextInternal();
+      if (schedulerQueryContext != null) {
+        return schedulerQueryContext;
+      }
+      LockSupport.parkNanos(this, _wakeUpTimeNanos);
+      if (Thread.interrupted()) {
+        return null;
+      }
+    }
+  }
+
+  @Override
+  public List<SchedulerQueryContext> drain() {
+    List<SchedulerQueryContext> pending = new ArrayList<>();
+    for (AdaptiveSchedulerGroup group : _schedulerGroups.values()) {
+      SchedulerQueryContext query;
+      while ((query = group.removeFirst()) != null) {
+        pending.add(query);
+      }
+    }
+    return pending;
+  }
+
+  /**
+   * Accounts the CPU time consumed by a query of the given table.
+   */
+  public void addCpuTimeNs(String tableNameWithType, long cpuTimeNs) {
+    AdaptiveSchedulerGroup group = _schedulerGroups.get(tableNameWithType);
+    if (group != null) {
+      group.addCpuTimeNs(cpuTimeNs);
+    }
+  }
+
+  private SchedulerQueryContext takeNextInternal() {
+    long currentTimeMs = currentTimeMillis();
+    if (currentTimeMs - _lastThreadsReallocationTimeMs >= _threadsReallocationIntervalMs) {
+      reallocateThreads();
+      _lastThreadsReallocationTimeMs = currentTimeMs;
+    }
+
+    AdaptiveSchedulerGroup currentWinnerGroup = null;
+    long deadlineEpochMillis = currentTimeMs - _queryDeadlineMillis;
+    for (AdaptiveSchedulerGroup group : _schedulerGroups.values()) {
+      group.trimExpired(deadlineEpochMillis);
+      if (group.isEmpty() || !_resourceManager.canSchedule(group)) {
+        continue;
+      }
+      if (currentWinnerGroup == null || group.compareTo(currentWinnerGroup) > 0) {
+        currentWinnerGroup = group;
+      }
+    }
+    if (currentWinnerGroup == null) {
+      return null;
+    }
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("SchedulerInfo: Winner: {}", currentWinnerGroup);
+    }
+    return currentWinnerGroup.removeFirst();
+  }
+
+  /**
+   * Re-computes the thread limit of each group based on its share of the CPU cost among the active groups.
+   */
+  @VisibleForTesting
+  void reallocateThreads() {
+    List<AdaptiveSchedulerGroup> activeGroups = new ArrayList<>();
+    List<Double> cpuCosts = new ArrayList<>();
+    double totalCpuCostNs = 0;
+    int hardLimit = _resourceManager.getTableThreadsHardLimit();
+    for (AdaptiveSchedulerGroup group : _schedulerGroups.values()) {
+      if (group.isActive()) {
+        double cpuCostNs = group.getCpuCostNs();
+        activeGroups.add(group);
+        cpuCosts.add(cpuCostNs);
+        totalCpuCostNs += cpuCostNs;
+      } else {
+        group.setThreadsLimit(hardLimit);
+      }
+    }
+    int numActiveGroups = activeGroups.size();
+    if (numActiveGroups == 0) {
+      return;
+    }
+    int minLimit = Math.max(1,
+        Math.min(_resourceManager.getTableThreadsSoftLimit(),
+            _resourceManager.getNumQueryWorkerThreads() / numActiveGroups));
+    for (int i = 0; i < numActiveGroups; i++) {
+      AdaptiveSchedulerGroup group = activeGroups.get(i);
+      // Ratio between the actual CPU share and the fair share of the group
+      double overuse = totalCpuCostNs > 0 ? cpuCosts.get(i) / totalCpuCostNs * numActiveGroups : 0;
+      if (overuse <= 1) {
+        group.setThreadsLimit(hardLimit);
+      } else {
+        group.setThreadsLimit(Math.min(hardLimit, Math.max(minLimit, (int) (hardLimit / overuse))));
+      }
+    }
+  }
+
+  private void checkGroupHasCapacity(AdaptiveSchedulerGroup group)
+      throws OutOfCapacityException {
+    if (group.numPending() >= _maxPendingPerGroup && group.totalReservedThreads() >= group.getThreadsLimit()) {
+      throw new OutOfCapacityException(String.format(
+          "SchedulerGroup %s is out of capacity. numPending: %d, maxPending: %d, reservedThreads: %d "
+              + "threadsLimit: %d", group.name(), group.numPending(), _maxPendingPerGroup,
+          group.totalReservedThreads(), group.getThreadsLimit()));
+    }
+  }
+
+  @VisibleForTesting
+  AdaptiveSchedulerGroup getOrCreateGroup(String groupName) {
+    return _schedulerGroups.computeIfAbsent(groupName,
+        k -> new AdaptiveSchedulerGroup(k, _cpuCostWindowMs, _resourceManager.getTableThreadsHardLimit()));
+  }
+
+  // separate method to allow mocking for unit testing
+  private long currentTimeMillis() {
+    return System.currentTimeMillis();
+  }
+}
@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.scheduler.adaptive;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import org.apache.pinot.common.metrics.ServerMetrics;
+import org.apache.pinot.common.metrics.ServerQueryPhase;
+import org.apache.pinot.core.query.executor.QueryExecutor;
+import org.apache.pinot.core.query.request.ServerQueryRequest;
+import org.apache.pinot.core.query.scheduler.PriorityScheduler;
+import org.apache.pinot.core.query.scheduler.resources.ResourceManager;
+import org.apache.pinot.spi.env.PinotConfiguration;
+
+
+/**
+ * Schedules queries from the table with the lowest recent CPU cost on priority, and adaptively re-allocates the worker
+ * threads across the tables based on their CPU cost.
+ * This is a thin wrapper factory class that configures {@link PriorityScheduler} with the
+ * {@link AdaptivePriorityQueue}, and feeds the CPU time of the processed queries back to the queue.
+ */
+public class AdaptivePriorityScheduler extends PriorityScheduler {
+  private final AdaptivePriorityQueue _adaptiveQueue;
+
+  public static AdaptivePriorityScheduler create(PinotConfiguration config, QueryExecutor queryExecutor,
+      ServerMetrics metrics, LongAccumulator latestQueryTime) {
+    ResourceManager resourceManager = new AdaptiveResourceManager(config);
+    AdaptivePriorityQueue queue = new AdaptivePriorityQueue(config, resourceManager);
+    return new AdaptivePriorityScheduler(config, resourceManager, queryExecutor, queue, metrics, latestQueryTime);
+  }
+
+  private AdaptivePriorityScheduler(PinotConfiguration config, ResourceManager resourceManager,
+      QueryExecutor queryExecutor, AdaptivePriorityQueue queue, ServerMetrics metrics,
+      LongAccumulator latestQueryTime) {
+    super(config, resourceManager, queryExecutor, queue, metrics, latestQueryTime);
+    _adaptiveQueue = queue;
+  }
+
+  @Override
+  protected void onQueryProcessed(ServerQueryRequest queryRequest, long totalCpuTimeNs) {
+    // Fall back to the wall clock time of the query processing when thread CPU time measurement is not enabled
+    long cpuTimeNs = totalCpuTimeNs > 0 ? totalCpuTimeNs : TimeUnit.MILLISECONDS.toNanos(
+        Math.max(0, queryRequest.getTimerContext().getPhaseDurationMs(ServerQueryPhase.QUERY_PROCESSING)));
+    _adaptiveQueue.addCpuTimeNs(queryRequest.getTableNameWithType(), cpuTimeNs);
+  }
+
+  @Override
+  public String name() {
+    return "Adaptive";
+  }
+}
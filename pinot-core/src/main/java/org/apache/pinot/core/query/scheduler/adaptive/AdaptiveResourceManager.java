@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.scheduler.adaptive;
+
+import org.apache.pinot.core.query.scheduler.SchedulerGroupAccountant;
+import org.apache.pinot.core.query.scheduler.resources.PolicyBasedResourceManager;
+import org.apache.pinot.spi.env.PinotConfiguration;
+
+
+/**
+ * Policy based resource manager where the hard limit on the number of threads is adjusted per scheduler group by the
+ * {@link AdaptivePriorityQueue}.
+ */
+public class AdaptiveResourceManager extends PolicyBasedResourceManager {
+
+  public AdaptiveResourceManager(PinotConfiguration config) {
+    super(config);
+  }
+
+  @Override
+  public int getTableThreadsHardLimit(SchedulerGroupAccountant accountant) {
+    if (accountant instanceof AdaptiveSchedulerGroup) {
+      return ((AdaptiveSchedulerGroup) accountant).getThreadsLimit();
+    }
+    return getTableThreadsHardLimit();
+  }
+}
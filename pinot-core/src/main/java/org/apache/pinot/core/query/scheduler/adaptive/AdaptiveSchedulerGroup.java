@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.scheduler.adaptive;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.pinot.core.query.scheduler.AbstractSchedulerGroup;
+import org.apache.pinot.core.query.scheduler.SchedulerGroup;
+import org.apache.pinot.core.query.scheduler.SchedulerGroupAccountant;
+import org.apache.pinot.core.query.scheduler.fcfs.FCFSSchedulerGroup;
+
+
+/**
+ * Scheduler group that tracks the CPU cost of the queries for the group.
+ *
+ * The CPU cost is an exponential moving average of the CPU time consumed by the group per time window, so that the
+ * groups that heavily used the CPU recently are de-prioritized, and their thread limit can be lowered by the
+ * {@link AdaptivePriorityQueue} to leave room for the other groups. All the accounting is lock-free.
+ */
+public class AdaptiveSchedulerGroup extends AbstractSchedulerGroup {
+  // Weight of the CPU time in the last window when updating the moving average
+  private static final double ALPHA = 0.5;
+
+  private final long _windowMs;
+  private final AtomicLong _windowStartMs;
+  // CPU time consumed in the current window
+  private final AtomicLong _windowCpuTimeNs = new AtomicLong();
+  // Moving average of the CPU time consumed per window, as of the start of the current window
+  private volatile double _cpuCostNs;
+  // Hard limit on the number of threads for this group, adjusted by the AdaptivePriorityQueue
+  private volatile int _threadsLimit;
+
+  AdaptiveSchedulerGroup(String name, long windowMs, int threadsLimit) {
+    super(name);
+    Preconditions.checkArgument(windowMs > 0);
+    Preconditions.checkArgument(threadsLimit > 0);
+    _windowMs = windowMs;
+    _windowStartMs = new AtomicLong(currentTimeMillis());
+    _threadsLimit = threadsLimit;
+  }
+
+  /**
+   * Accounts the CPU time consumed by a query of this group.
+   */
+  public void addCpuTimeNs(long cpuTimeNs) {
+    rollWindow(currentTimeMillis());
+    _windowCpuTimeNs.addAndGet(cpuTimeNs);
+  }
+
+  /**
+   * Returns the moving average of the CPU time consumed per window, including the CPU time consumed in the current
+   * window.
+   */
+  public double getCpuCostNs() {
+    rollWindow(currentTimeMillis());
+    return ALPHA * _windowCpuTimeNs.get() + (1 - ALPHA) * _cpuCostNs;
+  }
+
+  public int getThreadsLimit() {
+    return _threadsLimit;
+  }
+
+  void setThreadsLimit(int threadsLimit) {
+    _threadsLimit = threadsLimit;
+  }
+
+  /**
+   * Returns {@code true} if the group has pending or running queries.
+   */
+  boolean isActive() {
+    return !isEmpty() || numRunning() > 0;
+  }
+
+  private void rollWindow(long currentTimeMs) {
+    long windowStartMs = _windowStartMs.get();
+    long numWindows = (currentTimeMs - windowStartMs) / _windowMs;
+    // Only the thread that moves the window start updates the moving average. The CPU time added concurrently while
+    // rolling the window might be accounted to the next window, which is acceptable for scheduling purpose.
+    if (numWindows > 0 && _windowStartMs.compareAndSet(windowStartMs, windowStartMs + numWindows * _windowMs)) {
+      double cpuCostNs = ALPHA * _windowCpuTimeNs.getAndSet(0) + (1 - ALPHA) * _cpuCostNs;
+      if (numWindows > 1) {
+        // Decay for the idle windows
+        cpuCostNs *= Math.pow(1 - ALPHA, Math.min(numWindows - 1, 64));
+      }
+      _cpuCostNs = cpuCostNs;
+    }
+  }
+
+  /**
+   * Compares priority of this group with respect to another scheduler group.
+   * The group with lower CPU cost has higher priority. If both groups have the same CPU cost, then the group with
+   * earliest waiting job has higher priority (FCFS).
+   * @param rhs SchedulerGroupAccount to compare with
+   * @return < 0 if lhs has lower priority than rhs
+   *     > 0 if lhs has higher priority than rhs
+   *     = 0 if lhs has same priority as rhs
+   */
+  @Override
+  public int compareTo(SchedulerGroupAccountant rhs) {
+    if (rhs == null) {
+      return 1;
+    }
+    if (this == rhs) {
+      return 0;
+    }
+    int comparison = Double.compare(((AdaptiveSchedulerGroup) rhs).getCpuCostNs(), getCpuCostNs());
+    if (comparison != 0) {
+      return comparison;
+    }
+    return FCFSSchedulerGroup.compare(this, (SchedulerGroup) rhs);
+  }
+
+  public String toString() {
+    return String.format(" {%s:[%.0f,%d,%d,%d,%d,%d]},", name(), getCpuCostNs(), _threadsLimit, numPending(),
+        numRunning(), getThreadsInUse(), totalReservedThreads());
+  }
+
+  @VisibleForTesting
+  protected long currentTimeMillis() {
+    return System.currentTimeMillis();
+  }
+}
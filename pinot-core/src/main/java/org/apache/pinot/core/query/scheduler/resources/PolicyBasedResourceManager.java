@@ -52,7 +52,7 @@ public class PolicyBasedResourceManager extends ResourceManager {
   public QueryExecutorService getExecutorService(ServerQueryRequest query, SchedulerGroupAccountant accountant) {
     int numSegments = query.getSegmentsToQuery().size();
     int queryThreadLimit = Math.max(1, Math.min(_resourcePolicy.getMaxThreadsPerQuery(), numSegments));
-    int spareThreads = _resourcePolicy.getTableThreadsHardLimit() - accountant.totalReservedThreads();
+    int spareThreads = getTableThreadsHardLimit(accountant) - accountant.totalReservedThreads();
     if (spareThreads <= 0) {
       LOGGER.warn("UNEXPECTED: Attempt to schedule query uses more than the configured hard limit on threads");
       spareThreads = 1;
@@ -144,6 +144,16 @@ public abstract class ResourceManager {
    */
   public abstract int getTableThreadsHardLimit();
 
+  /**
+   * Hard limit on number of threads for the given scheduler group. By default, all the groups share the same hard
+   * limit, but the resource manager can assign different limits to different groups.
+   * @param accountant resource accounting information for a group
+   * @return number of threads
+   */
+  public int getTableThreadsHardLimit(SchedulerGroupAccountant accountant) {
+    return getTableThreadsHardLimit();
+  }
+
   /**
    * Soft limit on the number of threads for a scheduler group.
    * Queries from a scheduler group will be de-prioritized if the group
@@ -158,6 +168,6 @@ public abstract class ResourceManager {
    * @return
    */
   public boolean canSchedule(SchedulerGroupAccountant accountant) {
-    return accountant.totalReservedThreads() < getTableThreadsHardLimit();
+    return accountant.totalReservedThreads() < getTableThreadsHardLimit(accountant);
   }
 }
@@ -456,6 +456,35 @@ public class BaseTableDataManagerTest {
     }
   }
 
+  @Test
+  public void testDownloadAndStreamUntar()
+      throws Exception {
+    TableConfig tableConfig = new TableConfigBuilder(TableType.OFFLINE).setTableName(TABLE_NAME).build();
+    String segName = "seg01";
+    SegmentZKMetadata zkmd = createRawSegment(tableConfig, segName, SegmentVersion.v3, 5);
+
+    BaseTableDataManager tmgr = createTableManager();
+    File tempRootDir = tmgr.getTmpSegmentDataDir("test-download-stream-untar");
+
+    // The tar file is untarred directly into the temp root dir without being persisted locally.
+    File untaredSegDir = tmgr.downloadAndStreamUntar(segName, zkmd, tempRootDir);
+    assertEquals(untaredSegDir.getParentFile(), new File(tempRootDir, segName));
+    SegmentMetadataImpl llmd = new SegmentMetadataImpl(untaredSegDir);
+    assertEquals(llmd.getCrc(), zkmd.getCrc() + "");
+    assertEquals(llmd.getTotalDocs(), 5);
+    assertFalse(new File(tempRootDir, segName + TarGzCompressionUtils.TAR_GZ_FILE_EXTENSION).exists());
+
+    // Segment with mismatched CRC should be rejected.
+    long crc = zkmd.getCrc();
+    when(zkmd.getCrc()).thenReturn(crc + 1);
+    try {
+      tmgr.downloadAndStreamUntar(segName, zkmd, tempRootDir);
+      fail();
+    } catch (IllegalStateException e) {
+      assertTrue(e.getMessage().contains("CRC mismatch"));
+    }
+  }
+
   @Test
   public void testUntarAndMoveSegment()
       throws IOException {
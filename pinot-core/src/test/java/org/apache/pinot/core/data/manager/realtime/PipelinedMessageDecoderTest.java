@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.data.manager.realtime;
+
+import java.util.Map;
+import java.util.Set;
+import org.apache.pinot.segment.local.segment.creator.TransformPipeline;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.stream.MessageBatch;
+import org.apache.pinot.spi.stream.StreamMessageDecoder;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+public class PipelinedMessageDecoderTest {
+  private static final String COLUMN = "col";
+
+  @Test
+  public void testDecodeAndTransform() {
+    // Skip the values divisible by 5, and fail to transform the values divisible by 7
+    TransformPipeline transformPipeline = new TransformPipeline(record -> {
+      int value = (int) record.getValue(COLUMN);
+      if (value % 7 == 0) {
+        throw new IllegalStateException("Failed to transform: " + value);
+      }
+      return value % 5 == 0 ? null : record;
+    }, null);
+    try (PipelinedMessageDecoder pipelinedMessageDecoder = new PipelinedMessageDecoder(4, IntDecoder::new,
+        () -> transformPipeline, "testSegment")) {
+      for (int messageCount : new int[]{0, 1, 3, 4, 100, 1001}) {
+        PipelinedMessageDecoder.DecodedMessage[] decodedMessages =
+            pipelinedMessageDecoder.decodeAndTransform(new IntMessageBatch(messageCount));
+        assertEquals(decodedMessages.length, messageCount);
+        for (int i = 0; i < messageCount; i++) {
+          PipelinedMessageDecoder.DecodedMessage decodedMessage = decodedMessages[i];
+          if (i % 3 == 0) {
+            // Integer.MIN_VALUE cannot be decoded
+            assertNull(decodedMessage.getDecodedRow());
+            continue;
+          }
+          int value = i % 3 == 1 ? i : -i;
+          GenericRow decodedRow = decodedMessage.getDecodedRow();
+          assertNotNull(decodedRow);
+          assertEquals(decodedRow.getValue(COLUMN), value);
+          TransformPipeline.Result result = decodedMessage.getResult();
+          if (value % 7 == 0) {
+            assertNotNull(decodedMessage.getTransformException());
+          } else if (value % 5 == 0) {
+            assertNull(decodedMessage.getTransformException());
+            assertEquals(result.getSkippedRowCount(), 1);
+            assertTrue(result.getTransformedRows().isEmpty());
+          } else {
+            assertNull(decodedMessage.getTransformException());
+            assertEquals(result.getSkippedRowCount(), 0);
+            assertEquals(result.getTransformedRows().size(), 1);
+            assertEquals(result.getTransformedRows().get(0).getValue(COLUMN), value);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Message batch where the message at index i is i if i % 3 == 1, -i if i % 3 == 2, and Integer.MIN_VALUE otherwise.
+   */
+  private static class IntMessageBatch implements MessageBatch<Integer> {
+    private final int _messageCount;
+
+    IntMessageBatch(int messageCount) {
+      _messageCount = messageCount;
+    }
+
+    @Override
+    public int getMessageCount() {
+      return _messageCount;
+    }
+
+    @Override
+    public Integer getMessageAtIndex(int index) {
+      switch (index % 3) {
+        case 1:
+          return index;
+        case 2:
+          return -index;
+        default:
+          return Integer.MIN_VALUE;
+      }
+    }
+
+    @Override
+    public int getMessageOffsetAtIndex(int index) {
+      return 0;
+    }
+
+    @Override
+    public int getMessageLengthAtIndex(int index) {
+      return 1;
+    }
+
+    @Override
+    public long getNextStreamMessageOffsetAtIndex(int index) {
+      return index + 1;
+    }
+  }
+
+  /**
+   * Decoder that returns null for {@code Integer.MIN_VALUE}.
+   */
+  private static class IntDecoder implements StreamMessageDecoder<Integer> {
+    @Override
+    public void init(Map<String, String> props, Set<String> fieldsToRead, String topicName) {
+    }
+
+    @Override
+    public GenericRow decode(Integer payload, GenericRow destination) {
+      if (payload == Integer.MIN_VALUE) {
+        return null;
+      }
+      destination.putValue(COLUMN, payload);
+      return destination;
+    }
+
+    @Override
+    public GenericRow decode(Integer payload, int offset, int length, GenericRow destination) {
+      return decode(payload, destination);
+    }
+  }
+}
@@ -116,6 +116,67 @@ public class IndexedTableTest {
     }
   }
 
+  @Test
+  public void testPartitionedConcurrentIndexedTable()
+      throws InterruptedException, TimeoutException, ExecutionException {
+    QueryContext queryContext = QueryContextConverterUtils.getQueryContext(
+        "SELECT SUM(m1) FROM testTable GROUP BY d1 ORDER BY SUM(m1) DESC");
+    DataSchema dataSchema = new DataSchema(new String[]{"d1", "sum(m1)"}, new ColumnDataType[]{
+        ColumnDataType.INT, ColumnDataType.DOUBLE
+    });
+    PartitionedConcurrentIndexedTable indexedTable =
+        new PartitionedConcurrentIndexedTable(dataSchema, queryContext, 5, TRIM_SIZE, TRIM_THRESHOLD, 4);
+    Assert.assertEquals(indexedTable.getNumPartitions(), 4);
+
+    // 4 threads upsert 1000 groups in total, where thread i upserts the groups with id j where j % 4 == i
+    // Partitions are trimmed independently, but the top 5 groups should always survive
+    int numThreads = 4;
+    int numGroups = 1000;
+    ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+    try {
+      List<Callable<Void>> callables = new ArrayList<>(numThreads);
+      for (int i = 0; i < numThreads; i++) {
+        int threadId = i;
+        callables.add(() -> {
+          for (int j = threadId; j < numGroups; j += numThreads) {
+            indexedTable.upsert(getKey(new Object[]{j}), getRecord(new Object[]{j, (double) j}));
+          }
+          return null;
+        });
+      }
+      for (Future<Void> future : executorService.invokeAll(callables)) {
+        future.get(10, TimeUnit.SECONDS);
+      }
+    } finally {
+      executorService.shutdown();
+    }
+
+    indexedTable.finish(true);
+    Assert.assertEquals(indexedTable.size(), 5);
+    Assert.assertTrue(indexedTable.getNumResizes() > 1);
+    Iterator<Record> iterator = indexedTable.iterator();
+    for (int i = 0; i < 5; i++) {
+      Object[] values = iterator.next().getValues();
+      Assert.assertEquals(values[0], numGroups - 1 - i);
+      Assert.assertEquals(values[1], (double) (numGroups - 1 - i));
+    }
+  }
+
+  @Test
+  public void testGetNumPartitions() {
+    // Single thread
+    Assert.assertEquals(PartitionedConcurrentIndexedTable.getNumPartitions(1, 5000, 1_000_000), 1);
+    // Round down to power of 2
+    Assert.assertEquals(PartitionedConcurrentIndexedTable.getNumPartitions(3, 5000, 1_000_000), 8);
+    Assert.assertEquals(PartitionedConcurrentIndexedTable.getNumPartitions(10, 5000, 1_000_000), 32);
+    // Bounded by max number of partitions
+    Assert.assertEquals(PartitionedConcurrentIndexedTable.getNumPartitions(100, 5000, 1_000_000),
+        PartitionedConcurrentIndexedTable.MAX_NUM_PARTITIONS);
+    // Bounded by trim threshold
+    Assert.assertEquals(PartitionedConcurrentIndexedTable.getNumPartitions(10, 100_000, 1_000_000), 4);
+    Assert.assertEquals(PartitionedConcurrentIndexedTable.getNumPartitions(10, 500_000, 1_000_000), 1);
+  }
+
   @Test(dataProvider = "initDataProvider")
   public void testNonConcurrentIndexedTable(String orderBy, List<String> survivors) {
     QueryContext queryContext = QueryContextConverterUtils.getQueryContext(
@@ -139,6 +200,13 @@ public class IndexedTableTest {
     testNonConcurrent(indexedTable, mergeTable);
     indexedTable.finish(true);
     checkSurvivors(indexedTable, survivors);
+
+    // Test PartitionedConcurrentIndexedTable
+    indexedTable = new PartitionedConcurrentIndexedTable(dataSchema, queryContext, 5, TRIM_SIZE, TRIM_THRESHOLD, 4);
+    mergeTable = new SimpleIndexedTable(dataSchema, queryContext, 10, TRIM_SIZE, TRIM_THRESHOLD);
+    testNonConcurrent(indexedTable, mergeTable);
+    indexedTable.finish(true);
+    checkSurvivors(indexedTable, survivors);
   }
 
   @DataProvider(name = "initDataProvider")
@@ -255,6 +323,9 @@ public class IndexedTableTest {
 
     indexedTable = new ConcurrentIndexedTable(dataSchema, queryContext, 5, TRIM_SIZE, TRIM_THRESHOLD);
     testNoMoreNewRecordsInTable(indexedTable);
+
+    indexedTable = new PartitionedConcurrentIndexedTable(dataSchema, queryContext, 5, TRIM_SIZE, TRIM_THRESHOLD, 4);
+    testNoMoreNewRecordsInTable(indexedTable);
   }
 
   private void testNoMoreNewRecordsInTable(IndexedTable indexedTable) {
@@ -321,4 +321,39 @@ public class NoDictionaryInPredicateEvaluatorTest {
     Assert.assertTrue(inPredicateEvaluator.applyMV(multiValues, NUM_MULTI_VALUES));
     Assert.assertFalse(notInPredicateEvaluator.applyMV(multiValues, NUM_MULTI_VALUES));
   }
+
+  @Test
+  public void testApplySVBatch() {
+    List<String> stringValues = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      stringValues.add(Integer.toString(i * 3));
+    }
+    PredicateEvaluator inPredicateEvaluator = InPredicateEvaluatorFactory.newRawValueBasedEvaluator(
+        new InPredicate(COLUMN_EXPRESSION, stringValues), FieldSpec.DataType.LONG);
+    PredicateEvaluator notInPredicateEvaluator = NotInPredicateEvaluatorFactory.newRawValueBasedEvaluator(
+        new NotInPredicate(COLUMN_EXPRESSION, stringValues), FieldSpec.DataType.LONG);
+
+    int numValues = 40;
+    long[] values = new long[numValues];
+    int[] inDocIds = new int[numValues];
+    int[] notInDocIds = new int[numValues];
+    for (int i = 0; i < numValues; i++) {
+      values[i] = i;
+      inDocIds[i] = 100 + i;
+      notInDocIds[i] = 100 + i;
+    }
+    int numInMatchingDocs = inPredicateEvaluator.applySV(numValues, inDocIds, values);
+    int numNotInMatchingDocs = notInPredicateEvaluator.applySV(numValues, notInDocIds, values);
+    Assert.assertEquals(numInMatchingDocs, 10);
+    Assert.assertEquals(numNotInMatchingDocs, numValues - 10);
+    for (int i = 0; i < numInMatchingDocs; i++) {
+      Assert.assertEquals(inDocIds[i], 100 + i * 3);
+    }
+    int index = 0;
+    for (int i = 0; i < numValues; i++) {
+      if (i % 3 != 0 || i >= 30) {
+        Assert.assertEquals(notInDocIds[index++], 100 + i);
+      }
+    }
+  }
 }
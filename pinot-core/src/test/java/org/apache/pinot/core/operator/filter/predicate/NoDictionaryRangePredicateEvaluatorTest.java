@@ -19,6 +19,7 @@
 package org.apache.pinot.core.operator.filter.predicate;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import org.apache.pinot.common.request.context.ExpressionContext;
 import org.apache.pinot.common.request.context.predicate.RangePredicate;
 import org.apache.pinot.spi.data.FieldSpec;
@@ -392,6 +393,59 @@ public class NoDictionaryRangePredicateEvaluatorTest {
     }
   }
 
+  @Test
+  public void testApplySVBatch() {
+    int numValues = 40;
+    int[] intValues = new int[numValues];
+    long[] longValues = new long[numValues];
+    float[] floatValues = new float[numValues];
+    double[] doubleValues = new double[numValues];
+    int[] expectedDocIds = new int[numValues];
+    int numExpectedDocIds = 0;
+    for (int i = 0; i < numValues; i++) {
+      int value = i - 20;
+      intValues[i] = value;
+      longValues[i] = value;
+      floatValues[i] = value;
+      doubleValues[i] = value;
+      if (value > -10 && value <= 10) {
+        expectedDocIds[numExpectedDocIds++] = 100 + i;
+      }
+    }
+
+    int[] docIds = getDocIds(numValues);
+    int numMatchingDocs =
+        buildRangePredicate("(-10\00010]", FieldSpec.DataType.INT).applySV(numValues, docIds, intValues);
+    Assert.assertEquals(numMatchingDocs, numExpectedDocIds);
+    Assert.assertEquals(Arrays.copyOf(docIds, numMatchingDocs), Arrays.copyOf(expectedDocIds, numExpectedDocIds));
+
+    docIds = getDocIds(numValues);
+    numMatchingDocs =
+        buildRangePredicate("(-10\00010]", FieldSpec.DataType.LONG).applySV(numValues, docIds, longValues);
+    Assert.assertEquals(numMatchingDocs, numExpectedDocIds);
+    Assert.assertEquals(Arrays.copyOf(docIds, numMatchingDocs), Arrays.copyOf(expectedDocIds, numExpectedDocIds));
+
+    docIds = getDocIds(numValues);
+    numMatchingDocs =
+        buildRangePredicate("(-10\00010]", FieldSpec.DataType.FLOAT).applySV(numValues, docIds, floatValues);
+    Assert.assertEquals(numMatchingDocs, numExpectedDocIds);
+    Assert.assertEquals(Arrays.copyOf(docIds, numMatchingDocs), Arrays.copyOf(expectedDocIds, numExpectedDocIds));
+
+    docIds = getDocIds(numValues);
+    numMatchingDocs =
+        buildRangePredicate("(-10\00010]", FieldSpec.DataType.DOUBLE).applySV(numValues, docIds, doubleValues);
+    Assert.assertEquals(numMatchingDocs, numExpectedDocIds);
+    Assert.assertEquals(Arrays.copyOf(docIds, numMatchingDocs), Arrays.copyOf(expectedDocIds, numExpectedDocIds));
+  }
+
+  private static int[] getDocIds(int numDocs) {
+    int[] docIds = new int[numDocs];
+    for (int i = 0; i < numDocs; i++) {
+      docIds[i] = 100 + i;
+    }
+    return docIds;
+  }
+
   private PredicateEvaluator buildRangePredicate(String rangeString, FieldSpec.DataType dataType) {
     RangePredicate predicate = new RangePredicate(COLUMN_EXPRESSION, rangeString);
     return RangePredicateEvaluatorFactory.newRawValueBasedEvaluator(predicate, dataType);
@@ -589,6 +589,65 @@ public class ScalarTransformFunctionWrapperTest extends BaseTransformFunctionTes
     testTransformFunctionMV(transformFunction, expectedValues);
   }
 
+  @Test
+  public void testPrimitiveNumericTransformFunction() {
+    ExpressionContext expression =
+        RequestContextUtils.getExpression(String.format("toEpochSeconds(%s)", LONG_SV_COLUMN));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    assertTrue(transformFunction instanceof ScalarTransformFunctionWrapper);
+    assertEquals(transformFunction.getName(), "toEpochSeconds");
+    assertEquals(transformFunction.getResultMetadata().getDataType(), DataType.LONG);
+    long[] expectedValues = new long[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = _longSVValues[i] / 1000;
+    }
+    testTransformFunction(transformFunction, expectedValues);
+
+    // Literal argument should be bound to the method handle
+    expression = RequestContextUtils.getExpression(String.format("toEpochSecondsRounded(%s, 10)", LONG_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    assertTrue(transformFunction instanceof ScalarTransformFunctionWrapper);
+    assertEquals(transformFunction.getName(), "toEpochSecondsRounded");
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = (_longSVValues[i] / 1000 / 10) * 10;
+    }
+    testTransformFunction(transformFunction, expectedValues);
+
+    // INT column should be read as LONG values
+    expression = RequestContextUtils.getExpression(String.format("toEpochSeconds(%s)", INT_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    assertTrue(transformFunction instanceof ScalarTransformFunctionWrapper);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = _intSVValues[i] / 1000;
+    }
+    testTransformFunction(transformFunction, expectedValues);
+  }
+
+  @Test
+  public void testPrimitiveNumericTransformFunctionWithMismatchedReturnType() {
+    // toEpochSeconds() returns long, which should be widened when read as DOUBLE values (e.g. SUM(toEpochSeconds(ts)))
+    ExpressionContext expression =
+        RequestContextUtils.getExpression(String.format("toEpochSeconds(%s)", LONG_SV_COLUMN));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    assertTrue(transformFunction instanceof ScalarTransformFunctionWrapper);
+    double[] doubleValues = transformFunction.transformToDoubleValuesSV(_projectionBlock);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      assertEquals(doubleValues[i], (double) (_longSVValues[i] / 1000));
+    }
+
+    // LONG cannot be widened to INT, which should fall back to the generic path
+    expression = RequestContextUtils.getExpression(String.format("toEpochDays(%s)", LONG_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    assertTrue(transformFunction instanceof ScalarTransformFunctionWrapper);
+    int[] intValues = transformFunction.transformToIntValuesSV(_projectionBlock);
+    doubleValues = transformFunction.transformToDoubleValuesSV(_projectionBlock);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      long expectedValue = _longSVValues[i] / 86400000L;
+      assertEquals(intValues[i], (int) expectedValue);
+      assertEquals(doubleValues[i], (double) expectedValue);
+    }
+  }
+
   @Test
   public void testArrayIndexOfIntTransformFunction() {
     ExpressionContext expression =
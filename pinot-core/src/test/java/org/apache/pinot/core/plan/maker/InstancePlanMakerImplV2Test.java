@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.plan.maker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.pinot.segment.spi.IndexSegment;
+import org.apache.pinot.segment.spi.SegmentMetadata;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+
+public class InstancePlanMakerImplV2Test {
+
+  @Test
+  public void testSortSegmentsByNumDocs() {
+    int[] numDocsArray = new int[]{100, 0, 5000, 100, Integer.MAX_VALUE, 42};
+    List<IndexSegment> indexSegments = new ArrayList<>(numDocsArray.length);
+    for (int numDocs : numDocsArray) {
+      indexSegments.add(mockSegment(numDocs));
+    }
+
+    List<IndexSegment> sortedIndexSegments = InstancePlanMakerImplV2.sortSegmentsByNumDocs(indexSegments);
+    assertEquals(sortedIndexSegments.size(), numDocsArray.length);
+    // Segments should be sorted on number of documents in descending order, and keep the original order on ties
+    assertSame(sortedIndexSegments.get(0), indexSegments.get(4));
+    assertSame(sortedIndexSegments.get(1), indexSegments.get(2));
+    assertSame(sortedIndexSegments.get(2), indexSegments.get(0));
+    assertSame(sortedIndexSegments.get(3), indexSegments.get(3));
+    assertSame(sortedIndexSegments.get(4), indexSegments.get(5));
+    assertSame(sortedIndexSegments.get(5), indexSegments.get(1));
+
+    // Single segment list should be returned as is
+    List<IndexSegment> singleSegment = Arrays.asList(mockSegment(10));
+    assertSame(InstancePlanMakerImplV2.sortSegmentsByNumDocs(singleSegment), singleSegment);
+  }
+
+  private static IndexSegment mockSegment(int numDocs) {
+    SegmentMetadata segmentMetadata = mock(SegmentMetadata.class);
+    when(segmentMetadata.getTotalDocs()).thenReturn(numDocs);
+    IndexSegment indexSegment = mock(IndexSegment.class);
+    when(indexSegment.getSegmentMetadata()).thenReturn(segmentMetadata);
+    return indexSegment;
+  }
+}
@@ -0,0 +1,149 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.cache;
+
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.DataSchema.ColumnDataType;
+import org.apache.pinot.core.data.table.IntermediateRecord;
+import org.apache.pinot.core.data.table.Key;
+import org.apache.pinot.core.data.table.Record;
+import org.apache.pinot.core.operator.ExecutionStatistics;
+import org.apache.pinot.core.operator.blocks.IntermediateResultsBlock;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
+import org.apache.pinot.segment.spi.ImmutableSegment;
+import org.apache.pinot.segment.spi.IndexSegment;
+import org.apache.pinot.segment.spi.MutableSegment;
+import org.apache.pinot.segment.spi.SegmentMetadata;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+public class SegmentResultCacheTest {
+  private static final AggregationFunction[] AGGREGATION_FUNCTIONS = new AggregationFunction[2];
+
+  @Test
+  public void testIsCacheable() {
+    assertTrue(SegmentResultCache.isCacheable(mockSegment(ImmutableSegment.class, "segment", "123")));
+    assertFalse(SegmentResultCache.isCacheable(mockSegment(ImmutableSegment.class, "segment", null)));
+    assertFalse(SegmentResultCache.isCacheable(mockSegment(MutableSegment.class, "segment", "123")));
+  }
+
+  @Test
+  public void testCacheKey() {
+    IndexSegment segment = mockSegment(ImmutableSegment.class, "segment", "123");
+    IndexSegment reloadedSegment = mockSegment(ImmutableSegment.class, "segment", "456");
+    SegmentResultCache.CacheKey key = new SegmentResultCache.CacheKey(segment, "query");
+    assertEquals(new SegmentResultCache.CacheKey(segment, "query"), key);
+    assertEquals(new SegmentResultCache.CacheKey(segment, "query").hashCode(), key.hashCode());
+    assertNotEquals(new SegmentResultCache.CacheKey(segment, "otherQuery"), key);
+    assertNotEquals(new SegmentResultCache.CacheKey(reloadedSegment, "query"), key);
+  }
+
+  @Test
+  public void testAggregationResult() {
+    IntSet intSet = new IntOpenHashSet(new int[]{1, 2, 3});
+    IntermediateResultsBlock resultsBlock =
+        new IntermediateResultsBlock(AGGREGATION_FUNCTIONS, Arrays.asList(10L, intSet));
+    ExecutionStatistics executionStatistics = new ExecutionStatistics(10, 20, 30, 100);
+    SegmentResultCache.CachedResult cachedResult =
+        SegmentResultCache.CachedResult.fromResultsBlock(resultsBlock, executionStatistics);
+    assertNotNull(cachedResult);
+    assertEquals(cachedResult.getExecutionStatistics(), executionStatistics);
+
+    SegmentResultCache cache = new SegmentResultCache(1024 * 1024);
+    SegmentResultCache.CacheKey key =
+        new SegmentResultCache.CacheKey(mockSegment(ImmutableSegment.class, "segment", "123"), "query");
+    assertNull(cache.get(key));
+    cache.put(key, cachedResult);
+    assertEquals(cache.size(), 1);
+
+    // Each hit should get its own copy of the mutable intermediate results
+    List<Object> firstResult = cache.get(key).toResultsBlock(AGGREGATION_FUNCTIONS).getAggregationResult();
+    List<Object> secondResult = cache.get(key).toResultsBlock(AGGREGATION_FUNCTIONS).getAggregationResult();
+    assertEquals(firstResult, Arrays.asList(10L, intSet));
+    assertEquals(secondResult, Arrays.asList(10L, intSet));
+    assertNotSame(firstResult.get(1), secondResult.get(1));
+    ((IntSet) firstResult.get(1)).add(4);
+    assertEquals(secondResult.get(1), intSet);
+  }
+
+  @Test
+  public void testGroupByResult() {
+    DataSchema dataSchema = new DataSchema(new String[]{"key", "count", "distinct"},
+        new ColumnDataType[]{ColumnDataType.STRING, ColumnDataType.LONG, ColumnDataType.OBJECT});
+    List<IntermediateRecord> intermediateRecords = new ArrayList<>();
+    intermediateRecords.add(new IntermediateRecord(new Key(new Object[]{"a"}),
+        new Record(new Object[]{"a", 1L, new IntOpenHashSet(new int[]{1})}), null));
+    intermediateRecords.add(new IntermediateRecord(new Key(new Object[]{"b"}),
+        new Record(new Object[]{"b", 2L, new IntOpenHashSet(new int[]{1, 2})}), null));
+    IntermediateResultsBlock resultsBlock =
+        new IntermediateResultsBlock(AGGREGATION_FUNCTIONS, intermediateRecords, dataSchema);
+    resultsBlock.setNumGroupsLimitReached(true);
+    SegmentResultCache.CachedResult cachedResult = SegmentResultCache.CachedResult.fromResultsBlock(resultsBlock,
+        new ExecutionStatistics(2, 0, 2, 2));
+    assertNotNull(cachedResult);
+
+    IntermediateResultsBlock cachedResultsBlock = cachedResult.toResultsBlock(AGGREGATION_FUNCTIONS);
+    assertEquals(cachedResultsBlock.getDataSchema(), dataSchema);
+    assertTrue(cachedResultsBlock.isNumGroupsLimitReached());
+    Collection<IntermediateRecord> cachedRecords = cachedResultsBlock.getIntermediateRecords();
+    assertEquals(cachedRecords.size(), 2);
+    Iterator<IntermediateRecord> iterator = cachedRecords.iterator();
+    for (IntermediateRecord expected : intermediateRecords) {
+      IntermediateRecord actual = iterator.next();
+      assertEquals(actual._key, expected._key);
+      assertEquals(actual._record, expected._record);
+      assertNotSame(actual._record.getValues()[2], expected._record.getValues()[2]);
+    }
+  }
+
+  @Test
+  public void testNotCacheable() {
+    IntermediateResultsBlock resultsBlock =
+        new IntermediateResultsBlock(AGGREGATION_FUNCTIONS, Collections.singletonList(new Object()));
+    assertNull(SegmentResultCache.CachedResult.fromResultsBlock(resultsBlock, new ExecutionStatistics(0, 0, 0, 0)));
+  }
+
+  private static IndexSegment mockSegment(Class<? extends IndexSegment> segmentClass, String segmentName,
+      String crc) {
+    IndexSegment segment = mock(segmentClass);
+    SegmentMetadata segmentMetadata = mock(SegmentMetadata.class);
+    when(segmentMetadata.getCrc()).thenReturn(crc);
+    when(segment.getSegmentName()).thenReturn(segmentName);
+    when(segment.getSegmentMetadata()).thenReturn(segmentMetadata);
+    return segment;
+  }
+}
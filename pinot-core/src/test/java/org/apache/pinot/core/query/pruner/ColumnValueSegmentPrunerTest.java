@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.Map;
 import org.apache.pinot.core.query.request.context.QueryContext;
 import org.apache.pinot.core.query.request.context.utils.QueryContextConverterUtils;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.GuavaBloomFilterReaderUtils;
 import org.apache.pinot.segment.spi.IndexSegment;
 import org.apache.pinot.segment.spi.datasource.DataSource;
 import org.apache.pinot.segment.spi.datasource.DataSourceMetadata;
@@ -153,9 +154,10 @@ public class ColumnValueSegmentPrunerTest {
     when(dataSourceMetadata.getDataType()).thenReturn(DataType.INT);
     when(dataSource.getDataSourceMetadata()).thenReturn(dataSourceMetadata);
     when(dataSource.getBloomFilter()).thenReturn(bloomFilterReader);
-    when(bloomFilterReader.mightContain("1")).thenReturn(true);
-    when(bloomFilterReader.mightContain("2")).thenReturn(true);
-    when(bloomFilterReader.mightContain("3")).thenReturn(true);
+    for (String value : new String[]{"1", "2", "3"}) {
+      long[] hashes = GuavaBloomFilterReaderUtils.hashAsLongs(value);
+      when(bloomFilterReader.mightContain(hashes[0], hashes[1])).thenReturn(true);
+    }
     when(dataSourceMetadata.getMinValue()).thenReturn(5);
     when(dataSourceMetadata.getMaxValue()).thenReturn(10);
 
@@ -164,10 +166,25 @@ public class ColumnValueSegmentPrunerTest {
     assertTrue(runPruner(indexSegment, "SELECT COUNT(*) FROM testTable WHERE column IN (21, 30)"));
     assertFalse(
         runPruner(indexSegment, "SELECT COUNT(*) FROM testTable WHERE column IN (0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10)"));
+    // IN predicates with more values than the IN predicate threshold are pruned with the bloom filter only
+    assertTrue(runPruner(indexSegment, "SELECT COUNT(*) FROM testTable WHERE column IN (5, 6, 7, 8, 9, 10)"));
+    assertFalse(runPruner(indexSegment, "SELECT COUNT(*) FROM testTable WHERE column IN (3, 5, 6, 7, 8, 9, 10)"));
+
+    // IN predicates with more values than the IN predicate bloom filter threshold are not pruned
+    // NOTE: Use a separate pruner so that the shared pruner is not affected
+    properties.put(ColumnValueSegmentPruner.IN_PREDICATE_BLOOM_FILTER_THRESHOLD, 5);
+    ColumnValueSegmentPruner pruner = new ColumnValueSegmentPruner();
+    pruner.init(new PinotConfiguration(properties));
+    assertTrue(runPruner(pruner, indexSegment, "SELECT COUNT(*) FROM testTable WHERE column IN (0)"));
+    assertFalse(runPruner(pruner, indexSegment, "SELECT COUNT(*) FROM testTable WHERE column IN (5, 6, 7, 8, 9, 10)"));
   }
 
   private boolean runPruner(IndexSegment indexSegment, String query) {
+    return runPruner(PRUNER, indexSegment, query);
+  }
+
+  private boolean runPruner(ColumnValueSegmentPruner pruner, IndexSegment indexSegment, String query) {
     QueryContext queryContext = QueryContextConverterUtils.getQueryContext(query);
-    return PRUNER.prune(Collections.singletonList(indexSegment), queryContext).isEmpty();
+    return pruner.prune(Collections.singletonList(indexSegment), queryContext).isEmpty();
   }
 }
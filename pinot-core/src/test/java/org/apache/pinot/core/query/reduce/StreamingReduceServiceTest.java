@@ -20,12 +20,21 @@ package org.apache.pinot.core.query.reduce;
 
 import com.google.common.collect.ImmutableMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Predicate;
 import org.apache.pinot.common.proto.Server;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.common.response.broker.ResultTable;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.DataSchema.ColumnDataType;
+import org.apache.pinot.common.utils.DataTable;
+import org.apache.pinot.core.common.datatable.DataTableBuilder;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.query.request.context.utils.QueryContextConverterUtils;
 import org.apache.pinot.core.transport.ServerRoutingInstance;
 import org.apache.pinot.spi.config.table.TableType;
 import org.mockito.invocation.InvocationOnMock;
@@ -34,11 +43,60 @@ import org.testng.annotations.Test;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 
 public class StreamingReduceServiceTest {
 
+  @Test
+  public void testGroupByStreamingReducer()
+      throws Exception {
+    QueryContext queryContext = QueryContextConverterUtils.getQueryContext(
+        "SELECT col1, COUNT(*) FROM testTable GROUP BY col1 ORDER BY COUNT(*) DESC, col1 LIMIT 3");
+    StreamingReducer reducer = ResultReducerFactory.getStreamingReducer(queryContext);
+    assertTrue(reducer instanceof GroupByStreamingReducer);
+    ExecutorService executorService = Executors.newFixedThreadPool(2);
+    try {
+      reducer.init(new DataTableReducerContext(executorService, 2, 10_000L, 1_000_000));
+      // Nothing received, metadata only
+      assertNull(reducer.seal().getResultTable());
+
+      reducer = ResultReducerFactory.getStreamingReducer(queryContext);
+      reducer.init(new DataTableReducerContext(executorService, 2, 10_000L, 1_000_000));
+      DataSchema dataSchema = new DataSchema(new String[]{"col1", "count(*)"},
+          new ColumnDataType[]{ColumnDataType.INT, ColumnDataType.LONG});
+      // Each server streams the partial group-by results in multiple blocks, with overlapping groups
+      ServerRoutingInstance server1 = new ServerRoutingInstance("localhost", 1, TableType.OFFLINE);
+      ServerRoutingInstance server2 = new ServerRoutingInstance("localhost", 2, TableType.OFFLINE);
+      reducer.reduce(server1, buildGroupByDataTable(dataSchema, new int[]{0, 1, 2}, 1L));
+      reducer.reduce(server1, buildGroupByDataTable(dataSchema, new int[]{1, 2, 3}, 2L));
+      reducer.reduce(server2, buildGroupByDataTable(dataSchema, new int[]{2, 3, 4}, 3L));
+      BrokerResponseNative brokerResponse = reducer.seal();
+      ResultTable resultTable = brokerResponse.getResultTable();
+      List<Object[]> rows = resultTable.getRows();
+      assertEquals(rows.size(), 3);
+      assertEquals(rows.get(0), new Object[]{2, 6L});
+      assertEquals(rows.get(1), new Object[]{3, 5L});
+      assertEquals(rows.get(2), new Object[]{1, 3L});
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  private static DataTable buildGroupByDataTable(DataSchema dataSchema, int[] groups, long count)
+      throws Exception {
+    DataTableBuilder dataTableBuilder = new DataTableBuilder(dataSchema);
+    for (int group : groups) {
+      dataTableBuilder.startRow();
+      dataTableBuilder.setColumn(0, group);
+      dataTableBuilder.setColumn(1, count);
+      dataTableBuilder.finishRow();
+    }
+    return dataTableBuilder.build();
+  }
+
   @Test
   public void testThreadExceptionTransfer() {
     // simulate a thread exception in gRPC call and verify that the thread can transfer the exception
@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.scheduler.adaptive;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.pinot.common.metrics.PinotMetricUtils;
+import org.apache.pinot.common.metrics.ServerMetrics;
+import org.apache.pinot.core.query.scheduler.OutOfCapacityException;
+import org.apache.pinot.core.query.scheduler.SchedulerQueryContext;
+import org.apache.pinot.core.query.scheduler.resources.ResourceManager;
+import org.apache.pinot.spi.env.PinotConfiguration;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.apache.pinot.core.query.scheduler.TestHelper.createQueryRequest;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+
+public class AdaptivePriorityQueueTest {
+  private static final ServerMetrics METRICS = new ServerMetrics(PinotMetricUtils.getPinotMetricsRegistry());
+  private static final String NOISY_TABLE = "noisy_OFFLINE";
+  private static final String LIGHT_TABLE = "light_OFFLINE";
+
+  private ResourceManager _resourceManager;
+
+  @BeforeClass
+  public void setUp() {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(ResourceManager.QUERY_WORKER_CONFIG_KEY, 20);
+    properties.put(ResourceManager.QUERY_RUNNER_CONFIG_KEY, 2);
+    _resourceManager = new AdaptiveResourceManager(new PinotConfiguration(properties));
+  }
+
+  @AfterClass
+  public void tearDown() {
+    _resourceManager.stop();
+  }
+
+  @Test
+  public void testTakeLowerCpuCostFirst()
+      throws OutOfCapacityException {
+    AdaptivePriorityQueue queue = new AdaptivePriorityQueue(new PinotConfiguration(), _resourceManager);
+    long now = System.currentTimeMillis();
+    queue.put(createQueryRequest(NOISY_TABLE, METRICS, now - 10));
+    queue.put(createQueryRequest(LIGHT_TABLE, METRICS, now));
+    queue.addCpuTimeNs(NOISY_TABLE, TimeUnit.SECONDS.toNanos(1));
+    queue.addCpuTimeNs(LIGHT_TABLE, TimeUnit.MILLISECONDS.toNanos(1));
+
+    // Light table should be scheduled first even though the noisy table query arrived earlier
+    SchedulerQueryContext query = queue.take();
+    assertEquals(query.getSchedulerGroup().name(), LIGHT_TABLE);
+    query = queue.take();
+    assertEquals(query.getSchedulerGroup().name(), NOISY_TABLE);
+    assertTrue(queue.drain().isEmpty());
+  }
+
+  @Test
+  public void testReallocateThreads()
+      throws OutOfCapacityException {
+    AdaptivePriorityQueue queue = new AdaptivePriorityQueue(new PinotConfiguration(), _resourceManager);
+    int hardLimit = _resourceManager.getTableThreadsHardLimit();
+    queue.put(createQueryRequest(NOISY_TABLE, METRICS));
+    queue.put(createQueryRequest(LIGHT_TABLE, METRICS));
+    AdaptiveSchedulerGroup noisyGroup = queue.getOrCreateGroup(NOISY_TABLE);
+    AdaptiveSchedulerGroup lightGroup = queue.getOrCreateGroup(LIGHT_TABLE);
+
+    // Same CPU cost, both groups can use up to the hard limit
+    queue.addCpuTimeNs(NOISY_TABLE, 1000);
+    queue.addCpuTimeNs(LIGHT_TABLE, 1000);
+    queue.reallocateThreads();
+    assertEquals(noisyGroup.getThreadsLimit(), hardLimit);
+    assertEquals(lightGroup.getThreadsLimit(), hardLimit);
+    assertEquals(_resourceManager.getTableThreadsHardLimit(noisyGroup), hardLimit);
+
+    // Noisy group uses most of the CPU, its thread limit should be lowered but not below the soft limit
+    queue.addCpuTimeNs(NOISY_TABLE, TimeUnit.SECONDS.toNanos(1));
+    queue.reallocateThreads();
+    int noisyLimit = noisyGroup.getThreadsLimit();
+    assertTrue(noisyLimit < hardLimit);
+    assertEquals(noisyLimit, _resourceManager.getTableThreadsSoftLimit());
+    assertEquals(_resourceManager.getTableThreadsHardLimit(noisyGroup), noisyLimit);
+    assertEquals(lightGroup.getThreadsLimit(), hardLimit);
+
+    // Noisy group cannot be scheduled once it reserves all the allowed threads
+    noisyGroup.addReservedThreads(noisyLimit);
+    assertTrue(!_resourceManager.canSchedule(noisyGroup));
+    assertTrue(_resourceManager.canSchedule(lightGroup));
+    noisyGroup.releasedReservedThreads(noisyLimit);
+
+    // Once the noisy group is idle, its thread limit is restored
+    queue.drain();
+    queue.reallocateThreads();
+    assertEquals(noisyGroup.getThreadsLimit(), hardLimit);
+  }
+}
@@ -30,6 +30,7 @@ import org.apache.pinot.segment.local.io.writer.impl.DirectMemoryManager;
 import org.apache.pinot.segment.local.realtime.converter.RealtimeSegmentConverter;
 import org.apache.pinot.segment.local.realtime.impl.RealtimeSegmentConfig;
 import org.apache.pinot.segment.local.realtime.impl.RealtimeSegmentStatsHistory;
+import org.apache.pinot.segment.local.segment.readers.PinotSegmentRecordReader;
 import org.apache.pinot.segment.local.segment.virtualcolumn.VirtualColumnProviderFactory;
 import org.apache.pinot.segment.spi.creator.SegmentVersion;
 import org.apache.pinot.segment.spi.index.metadata.SegmentMetadataImpl;
@@ -40,6 +41,7 @@ import org.apache.pinot.spi.config.table.TableType;
 import org.apache.pinot.spi.data.FieldSpec;
 import org.apache.pinot.spi.data.Schema;
 import org.apache.pinot.spi.data.TimeGranularitySpec;
+import org.apache.pinot.spi.data.readers.GenericRow;
 import org.apache.pinot.spi.utils.CommonConstants;
 import org.apache.pinot.spi.utils.builder.TableConfigBuilder;
 import org.testng.Assert;
@@ -141,6 +143,91 @@ public class RealtimeSegmentConverterTest {
         "100");
   }
 
+  @Test
+  public void testColumnMajorSegmentBuilder()
+      throws Exception {
+    File tmpDir = new File(TMP_DIR, "tmp_" + System.currentTimeMillis());
+    TableConfig tableConfig =
+        new TableConfigBuilder(TableType.OFFLINE).setTableName("testTable").setTimeColumnName(DATE_TIME_COLUMN)
+            .setInvertedIndexColumns(Lists.newArrayList(STRING_COLUMN1, MV_INT_COLUMN)).setSortedColumn(LONG_COLUMN1)
+            .setNoDictionaryColumns(Lists.newArrayList(LONG_COLUMN2))
+            .setVarLengthDictionaryColumns(Lists.newArrayList(STRING_COLUMN3)).build();
+    Schema schema = new Schema.SchemaBuilder().addSingleValueDimension(STRING_COLUMN1, FieldSpec.DataType.STRING)
+        .addSingleValueDimension(STRING_COLUMN3, FieldSpec.DataType.STRING)
+        .addSingleValueDimension(LONG_COLUMN1, FieldSpec.DataType.LONG)
+        .addSingleValueDimension(LONG_COLUMN2, FieldSpec.DataType.LONG)
+        .addMultiValueDimension(MV_INT_COLUMN, FieldSpec.DataType.INT).addMetric(LONG_COLUMN4, FieldSpec.DataType.LONG)
+        .addDateTime(DATE_TIME_COLUMN, FieldSpec.DataType.LONG, "1:MILLISECONDS:EPOCH", "1:MILLISECONDS").build();
+
+    String tableNameWithType = tableConfig.getTableName();
+    String segmentName = "testTable__0__1__123456";
+    IndexingConfig indexingConfig = tableConfig.getIndexingConfig();
+
+    RealtimeSegmentConfig.Builder realtimeSegmentConfigBuilder =
+        new RealtimeSegmentConfig.Builder().setTableNameWithType(tableNameWithType).setSegmentName(segmentName)
+            .setStreamName(tableNameWithType).setSchema(schema).setTimeColumnName(DATE_TIME_COLUMN).setCapacity(1000)
+            .setAvgNumMultiValues(3).setNoDictionaryColumns(Sets.newHashSet(LONG_COLUMN2))
+            .setVarLengthDictionaryColumns(Sets.newHashSet(STRING_COLUMN3))
+            .setInvertedIndexColumns(Sets.newHashSet(STRING_COLUMN1, MV_INT_COLUMN))
+            .setSegmentZKMetadata(getSegmentZKMetadata(segmentName)).setOffHeap(true)
+            .setMemoryManager(new DirectMemoryManager(segmentName))
+            .setStatsHistory(RealtimeSegmentStatsHistory.deserialzeFrom(new File(tmpDir, "stats")))
+            .setConsumerDir(new File(tmpDir, "consumerDir").getAbsolutePath());
+    MutableSegmentImpl mutableSegmentImpl = new MutableSegmentImpl(realtimeSegmentConfigBuilder.build(), null);
+
+    int numDocs = 100;
+    long startTime = System.currentTimeMillis();
+    for (int i = 0; i < numDocs; i++) {
+      GenericRow row = new GenericRow();
+      row.putValue(STRING_COLUMN1, "s1_" + (i % 7));
+      row.putValue(STRING_COLUMN3, "s3_" + (i % 13));
+      row.putValue(LONG_COLUMN1, (long) ((i * 31) % 17));
+      row.putValue(LONG_COLUMN2, (long) i);
+      row.putValue(MV_INT_COLUMN, new Object[]{i % 5, i % 11});
+      row.putValue(LONG_COLUMN4, (long) (i % 3));
+      row.putValue(DATE_TIME_COLUMN, startTime + i);
+      mutableSegmentImpl.index(row, null);
+    }
+
+    SegmentZKPropsConfig segmentZKPropsConfig = new SegmentZKPropsConfig();
+    segmentZKPropsConfig.setStartOffset("1");
+    segmentZKPropsConfig.setEndOffset("100");
+
+    // Build the segment row by row and column by column, and compare the records
+    File rowMajorOutputDir = new File(tmpDir, "rowMajorOutputDir");
+    new RealtimeSegmentConverter(mutableSegmentImpl, segmentZKPropsConfig, rowMajorOutputDir.getAbsolutePath(),
+        schema, tableNameWithType, tableConfig, segmentName, LONG_COLUMN1, indexingConfig.getInvertedIndexColumns(),
+        null, null, indexingConfig.getNoDictionaryColumns(), indexingConfig.getVarLengthDictionaryColumns(),
+        false).build(SegmentVersion.v3, null);
+    indexingConfig.setColumnMajorSegmentBuilderEnabled(true);
+    File columnMajorOutputDir = new File(tmpDir, "columnMajorOutputDir");
+    new RealtimeSegmentConverter(mutableSegmentImpl, segmentZKPropsConfig, columnMajorOutputDir.getAbsolutePath(),
+        schema, tableNameWithType, tableConfig, segmentName, LONG_COLUMN1, indexingConfig.getInvertedIndexColumns(),
+        null, null, indexingConfig.getNoDictionaryColumns(), indexingConfig.getVarLengthDictionaryColumns(),
+        false).build(SegmentVersion.v3, null);
+    mutableSegmentImpl.destroy();
+
+    SegmentMetadataImpl metadata = new SegmentMetadataImpl(new File(columnMajorOutputDir, segmentName));
+    Assert.assertEquals(metadata.getTotalDocs(), numDocs);
+    Assert.assertTrue(metadata.getColumnMetadataFor(LONG_COLUMN1).isSorted());
+    try (PinotSegmentRecordReader rowMajorReader = new PinotSegmentRecordReader(
+        new File(rowMajorOutputDir, segmentName)); PinotSegmentRecordReader columnMajorReader =
+        new PinotSegmentRecordReader(new File(columnMajorOutputDir, segmentName))) {
+      int numRecords = 0;
+      while (rowMajorReader.hasNext()) {
+        Assert.assertTrue(columnMajorReader.hasNext());
+        GenericRow expected = rowMajorReader.next();
+        GenericRow actual = columnMajorReader.next();
+        for (String column : schema.getColumnNames()) {
+          Assert.assertEquals(actual.getValue(column), expected.getValue(column));
+        }
+        numRecords++;
+      }
+      Assert.assertFalse(columnMajorReader.hasNext());
+      Assert.assertEquals(numRecords, numDocs);
+    }
+  }
+
   private SegmentZKMetadata getSegmentZKMetadata(String segmentName) {
     SegmentZKMetadata segmentZKMetadata = new SegmentZKMetadata(segmentName);
     segmentZKMetadata.setCreationTime(System.currentTimeMillis());
@@ -0,0 +1,214 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.pinot.common.request.context.ExpressionContext;
+import org.apache.pinot.common.request.context.predicate.EqPredicate;
+import org.apache.pinot.common.request.context.predicate.InPredicate;
+import org.apache.pinot.common.request.context.predicate.NotInPredicate;
+import org.apache.pinot.common.request.context.predicate.RangePredicate;
+import org.apache.pinot.core.operator.filter.predicate.EqualsPredicateEvaluatorFactory;
+import org.apache.pinot.core.operator.filter.predicate.InPredicateEvaluatorFactory;
+import org.apache.pinot.core.operator.filter.predicate.NotInPredicateEvaluatorFactory;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory;
+import org.apache.pinot.core.plan.DocIdSetPlanNode;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Compares the batch predicate evaluation ({@code PredicateEvaluator.applySV(limit, docIds, values)}) used by the
+ * {@code ExpressionScanDocIdIterator} against the baseline per-entry evaluation, where the {@code applySV(value)} call
+ * site is shared by all the predicate evaluators (EQ, RANGE, IN and NOT_IN are evaluated in each invocation to keep the
+ * shared call site megamorphic as on a server serving different queries).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class BenchmarkBatchPredicateEvaluation {
+  private static final int NUM_DOCS = DocIdSetPlanNode.MAX_DOC_PER_CALL;
+  private static final int CARDINALITY = 1000;
+  private static final int NUM_IN_VALUES = 10;
+
+  @Param({"INT", "LONG", "FLOAT", "DOUBLE"})
+  private DataType _dataType;
+
+  private final int[] _docIds = new int[NUM_DOCS];
+  private final int[] _docIdBuffer = new int[NUM_DOCS];
+  private PredicateEvaluator[] _predicateEvaluators;
+  private Object _values;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ExpressionContext lhs = ExpressionContext.forIdentifier("col");
+    List<String> inValues = new ArrayList<>(NUM_IN_VALUES);
+    for (int i = 0; i < NUM_IN_VALUES; i++) {
+      inValues.add(Integer.toString(i * CARDINALITY / NUM_IN_VALUES));
+    }
+    _predicateEvaluators = new PredicateEvaluator[]{
+        EqualsPredicateEvaluatorFactory.newRawValueBasedEvaluator(new EqPredicate(lhs, "500"), _dataType),
+        RangePredicateEvaluatorFactory.newRawValueBasedEvaluator(new RangePredicate(lhs, true, "250", false, "750"),
+            _dataType),
+        InPredicateEvaluatorFactory.newRawValueBasedEvaluator(new InPredicate(lhs, inValues), _dataType),
+        NotInPredicateEvaluatorFactory.newRawValueBasedEvaluator(new NotInPredicate(lhs, inValues), _dataType)
+    };
+
+    for (int i = 0; i < NUM_DOCS; i++) {
+      _docIds[i] = i;
+    }
+    Random random = new Random(42);
+    switch (_dataType) {
+      case INT:
+        int[] intValues = new int[NUM_DOCS];
+        for (int i = 0; i < NUM_DOCS; i++) {
+          intValues[i] = random.nextInt(CARDINALITY);
+        }
+        _values = intValues;
+        break;
+      case LONG:
+        long[] longValues = new long[NUM_DOCS];
+        for (int i = 0; i < NUM_DOCS; i++) {
+          longValues[i] = random.nextInt(CARDINALITY);
+        }
+        _values = longValues;
+        break;
+      case FLOAT:
+        float[] floatValues = new float[NUM_DOCS];
+        for (int i = 0; i < NUM_DOCS; i++) {
+          floatValues[i] = random.nextInt(CARDINALITY);
+        }
+        _values = floatValues;
+        break;
+      case DOUBLE:
+        double[] doubleValues = new double[NUM_DOCS];
+        for (int i = 0; i < NUM_DOCS; i++) {
+          doubleValues[i] = random.nextInt(CARDINALITY);
+        }
+        _values = doubleValues;
+        break;
+      default:
+        throw new IllegalStateException();
+    }
+  }
+
+  @Benchmark
+  public int perEntry() {
+    int numMatchingDocs = 0;
+    for (PredicateEvaluator predicateEvaluator : _predicateEvaluators) {
+      System.arraycopy(_docIds, 0, _docIdBuffer, 0, NUM_DOCS);
+      numMatchingDocs += applyPerEntry(predicateEvaluator);
+    }
+    return numMatchingDocs;
+  }
+
+  @Benchmark
+  public int batch() {
+    int numMatchingDocs = 0;
+    for (PredicateEvaluator predicateEvaluator : _predicateEvaluators) {
+      System.arraycopy(_docIds, 0, _docIdBuffer, 0, NUM_DOCS);
+      numMatchingDocs += applyBatch(predicateEvaluator);
+    }
+    return numMatchingDocs;
+  }
+
+  /**
+   * Baseline: applies the predicate to each entry through the call site shared by all the predicate evaluators.
+   */
+  private int applyPerEntry(PredicateEvaluator predicateEvaluator) {
+    int numMatchingDocs = 0;
+    switch (_dataType) {
+      case INT:
+        int[] intValues = (int[]) _values;
+        for (int i = 0; i < NUM_DOCS; i++) {
+          if (predicateEvaluator.applySV(intValues[i])) {
+            _docIdBuffer[numMatchingDocs++] = _docIdBuffer[i];
+          }
+        }
+        break;
+      case LONG:
+        long[] longValues = (long[]) _values;
+        for (int i = 0; i < NUM_DOCS; i++) {
+          if (predicateEvaluator.applySV(longValues[i])) {
+            _docIdBuffer[numMatchingDocs++] = _docIdBuffer[i];
+          }
+        }
+        break;
+      case FLOAT:
+        float[] floatValues = (float[]) _values;
+        for (int i = 0; i < NUM_DOCS; i++) {
+          if (predicateEvaluator.applySV(floatValues[i])) {
+            _docIdBuffer[numMatchingDocs++] = _docIdBuffer[i];
+          }
+        }
+        break;
+      case DOUBLE:
+        double[] doubleValues = (double[]) _values;
+        for (int i = 0; i < NUM_DOCS; i++) {
+          if (predicateEvaluator.applySV(doubleValues[i])) {
+            _docIdBuffer[numMatchingDocs++] = _docIdBuffer[i];
+          }
+        }
+        break;
+      default:
+        throw new IllegalStateException();
+    }
+    return numMatchingDocs;
+  }
+
+  private int applyBatch(PredicateEvaluator predicateEvaluator) {
+    switch (_dataType) {
+      case INT:
+        return predicateEvaluator.applySV(NUM_DOCS, _docIdBuffer, (int[]) _values);
+      case LONG:
+        return predicateEvaluator.applySV(NUM_DOCS, _docIdBuffer, (long[]) _values);
+      case FLOAT:
+        return predicateEvaluator.applySV(NUM_DOCS, _docIdBuffer, (float[]) _values);
+      case DOUBLE:
+        return predicateEvaluator.applySV(NUM_DOCS, _docIdBuffer, (double[]) _values);
+      default:
+        throw new IllegalStateException();
+    }
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    new Runner(new OptionsBuilder().include(BenchmarkBatchPredicateEvaluation.class.getSimpleName()).build()).run();
+  }
+}
@@ -601,6 +601,17 @@ public class S3PinotFS extends BasePinotFS {
     }
   }
 
+  @Override
+  public InputStream open(URI uri, long offset, long length)
+      throws IOException {
+    Preconditions.checkArgument(length > 0, "Invalid length: %s to open: %s", length, uri);
+    String path = sanitizePath(uri.getPath());
+    // NOTE: HTTP byte range is inclusive on both ends
+    String range = "bytes=" + offset + "-" + (offset + length - 1);
+    GetObjectRequest getObjectRequest = GetObjectRequest.builder().bucket(uri.getHost()).key(path).range(range).build();
+    return _s3Client.getObject(getObjectRequest);
+  }
+
   @Override
   public void close()
       throws IOException {
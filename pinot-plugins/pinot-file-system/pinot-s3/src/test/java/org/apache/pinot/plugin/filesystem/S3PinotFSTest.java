@@ -306,6 +306,12 @@ public class S3PinotFSTest {
     InputStream is = _s3PinotFS.open(URI.create(String.format(FILE_FORMAT, SCHEME, BUCKET, fileName)));
     String actualContents = IOUtils.toString(is, StandardCharsets.UTF_8);
     Assert.assertEquals(actualContents, fileContent);
+
+    // Only the requested byte range should be returned
+    try (InputStream rangeInputStream = _s3PinotFS.open(
+        URI.create(String.format(FILE_FORMAT, SCHEME, BUCKET, fileName)), 7, 5)) {
+      Assert.assertEquals(IOUtils.toString(rangeInputStream, StandardCharsets.UTF_8), "World");
+    }
   }
 
   @Test
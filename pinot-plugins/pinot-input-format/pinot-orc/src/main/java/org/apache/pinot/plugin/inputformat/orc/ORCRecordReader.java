@@ -42,8 +42,9 @@ import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
 import org.apache.orc.OrcFile;
 import org.apache.orc.Reader;
 import org.apache.orc.TypeDescription;
+import org.apache.pinot.spi.data.readers.ColumnarRecordReader;
 import org.apache.pinot.spi.data.readers.GenericRow;
-import org.apache.pinot.spi.data.readers.RecordReader;
+import org.apache.pinot.spi.data.readers.RecordBatch;
 import org.apache.pinot.spi.data.readers.RecordReaderConfig;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -63,8 +64,10 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  *   <li>LIST -> Object[] of the supported types</li> TODO: -> List?
  *   <li>MAP -> Map of the supported types</li>
  * </ul>
+ * <p>The records can also be read in batches, where each batch contains the remaining rows of the current ORC row
+ * batch, and the single-value numeric columns are extracted into primitive arrays.
  */
-public class ORCRecordReader implements RecordReader {
+public class ORCRecordReader implements ColumnarRecordReader {
   private List<String> _orcFields;
   private List<TypeDescription> _orcFieldTypes;
   private boolean[] _includeOrcFields;
@@ -201,6 +204,123 @@ public class ORCRecordReader implements RecordReader {
     return reuse;
   }
 
+  @Override
+  public boolean isBatchReadSupported() {
+    return true;
+  }
+
+  @Override
+  public RecordBatch nextBatch(RecordBatch reuse)
+      throws IOException {
+    reuse.clear();
+    int startRowId = _nextRowId;
+    int numRows = _rowBatch.size - startRowId;
+    int numFields = _orcFields.size();
+    for (int i = 0; i < numFields; i++) {
+      if (_includeOrcFields[i]) {
+        extractColumn(_orcFields.get(i), _rowBatch.cols[i], _orcFieldTypes.get(i), startRowId, numRows, reuse);
+      }
+    }
+    reuse.setNumRows(numRows);
+
+    _hasNext = _orcRecordReader.nextBatch(_rowBatch);
+    _nextRowId = 0;
+    return reuse;
+  }
+
+  /**
+   * Extracts the values of a given column vector for the rows within the given range into the record batch.
+   * Single-value numeric columns are extracted into primitive arrays, the other columns are extracted value by value
+   * the same way as the row based read.
+   */
+  private void extractColumn(String field, ColumnVector columnVector, TypeDescription fieldType, int startRowId,
+      int numRows, RecordBatch recordBatch) {
+    TypeDescription.Category category = fieldType.getCategory();
+    switch (category) {
+      case BYTE:
+      case SHORT:
+      case INT: {
+        long[] vector = ((LongColumnVector) columnVector).vector;
+        int[] values = new int[numRows];
+        for (int i = 0; i < numRows; i++) {
+          values[i] = (int) vector[getRowId(columnVector, startRowId + i)];
+        }
+        recordBatch.putColumn(field, values, getNullFlags(columnVector, startRowId, numRows));
+        break;
+      }
+      case LONG:
+      case DATE: {
+        long[] vector = ((LongColumnVector) columnVector).vector;
+        long[] values = new long[numRows];
+        for (int i = 0; i < numRows; i++) {
+          values[i] = vector[getRowId(columnVector, startRowId + i)];
+        }
+        recordBatch.putColumn(field, values, getNullFlags(columnVector, startRowId, numRows));
+        break;
+      }
+      case TIMESTAMP: {
+        long[] time = ((TimestampColumnVector) columnVector).time;
+        long[] values = new long[numRows];
+        for (int i = 0; i < numRows; i++) {
+          values[i] = time[getRowId(columnVector, startRowId + i)];
+        }
+        recordBatch.putColumn(field, values, getNullFlags(columnVector, startRowId, numRows));
+        break;
+      }
+      case FLOAT: {
+        double[] vector = ((DoubleColumnVector) columnVector).vector;
+        float[] values = new float[numRows];
+        for (int i = 0; i < numRows; i++) {
+          values[i] = (float) vector[getRowId(columnVector, startRowId + i)];
+        }
+        recordBatch.putColumn(field, values, getNullFlags(columnVector, startRowId, numRows));
+        break;
+      }
+      case DOUBLE: {
+        double[] vector = ((DoubleColumnVector) columnVector).vector;
+        double[] values = new double[numRows];
+        for (int i = 0; i < numRows; i++) {
+          values[i] = vector[getRowId(columnVector, startRowId + i)];
+        }
+        recordBatch.putColumn(field, values, getNullFlags(columnVector, startRowId, numRows));
+        break;
+      }
+      default: {
+        Object[] values = new Object[numRows];
+        boolean[] nullFlags = null;
+        for (int i = 0; i < numRows; i++) {
+          Object value = extractValue(field, columnVector, fieldType, startRowId + i);
+          if (value != null) {
+            values[i] = value;
+          } else {
+            if (nullFlags == null) {
+              nullFlags = new boolean[numRows];
+            }
+            nullFlags[i] = true;
+          }
+        }
+        recordBatch.putColumn(field, values, nullFlags);
+        break;
+      }
+    }
+  }
+
+  private static int getRowId(ColumnVector columnVector, int rowId) {
+    return columnVector.isRepeating ? 0 : rowId;
+  }
+
+  @Nullable
+  private static boolean[] getNullFlags(ColumnVector columnVector, int startRowId, int numRows) {
+    if (columnVector.noNulls) {
+      return null;
+    }
+    boolean[] nullFlags = new boolean[numRows];
+    for (int i = 0; i < numRows; i++) {
+      nullFlags[i] = columnVector.isNull[getRowId(columnVector, startRowId + i)];
+    }
+    return nullFlags;
+  }
+
   /**
    * Extracts the values for a given column vector.
    *
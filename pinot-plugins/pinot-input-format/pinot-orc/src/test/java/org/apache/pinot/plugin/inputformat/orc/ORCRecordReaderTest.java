@@ -32,8 +32,10 @@ import org.apache.orc.TypeDescription;
 import org.apache.orc.Writer;
 import org.apache.pinot.spi.data.readers.AbstractRecordReaderTest;
 import org.apache.pinot.spi.data.readers.RecordReader;
+import org.testng.annotations.Test;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertTrue;
 
 
 public class ORCRecordReaderTest extends AbstractRecordReaderTest {
@@ -143,4 +145,16 @@ public class ORCRecordReaderTest extends AbstractRecordReaderTest {
     }
     writer.close();
   }
+
+  @Test
+  public void testBatchRead()
+      throws Exception {
+    try (ORCRecordReader orcRecordReader = new ORCRecordReader()) {
+      orcRecordReader.init(_dataFile, _sourceFields, null);
+      assertTrue(orcRecordReader.isBatchReadSupported());
+      checkBatchValue(orcRecordReader, _records, _pinotSchema.getAllFieldSpecs());
+      orcRecordReader.rewind();
+      checkBatchValue(orcRecordReader, _records, _pinotSchema.getAllFieldSpecs());
+    }
+  }
 }
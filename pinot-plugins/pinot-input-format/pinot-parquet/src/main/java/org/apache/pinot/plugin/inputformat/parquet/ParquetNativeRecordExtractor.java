@@ -89,6 +89,15 @@ public class ParquetNativeRecordExtractor extends BaseRecordExtractor<Group> {
     }
   }
 
+  /**
+   * Converts the INT96 timestamp (nanos of day followed by Julian day) into millis since epoch.
+   */
+  public static long int96ToMillis(Binary int96) {
+    ByteBuffer buf = ByteBuffer.wrap(int96.getBytes()).order(ByteOrder.LITTLE_ENDIAN);
+    return (buf.getInt(8) - JULIAN_DAY_NUMBER_FOR_UNIX_EPOCH) * DateTimeConstants.MILLIS_PER_DAY
+        + buf.getLong(0) / NANOS_PER_MILLISECOND;
+  }
+
   @Override
   public void init(@Nullable Set<String> fields, RecordExtractorConfig recordExtractorConfig) {
     if (fields == null || fields.isEmpty()) {
@@ -167,11 +176,7 @@ public class ParquetNativeRecordExtractor extends BaseRecordExtractor<Group> {
           }
           return from.getBinary(fieldIndex, index).getBytes();
         case INT96:
-          Binary int96 = from.getInt96(fieldIndex, index);
-          ByteBuffer buf = ByteBuffer.wrap(int96.getBytes()).order(ByteOrder.LITTLE_ENDIAN);
-          long dateTime = (buf.getInt(8) - JULIAN_DAY_NUMBER_FOR_UNIX_EPOCH) * DateTimeConstants.MILLIS_PER_DAY
-              + buf.getLong(0) / NANOS_PER_MILLISECOND;
-          return dateTime;
+          return int96ToMillis(from.getInt96(fieldIndex, index));
         default:
           throw new IllegalArgumentException(
               "Unsupported field type: " + fieldType + ", primitive type: " + fieldType.asPrimitiveType()
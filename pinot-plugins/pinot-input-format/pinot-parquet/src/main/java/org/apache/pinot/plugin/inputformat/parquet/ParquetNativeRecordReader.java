@@ -18,12 +18,17 @@
  */
 package org.apache.pinot.plugin.inputformat.parquet;
 
+import com.google.common.base.Preconditions;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
 import org.apache.parquet.column.page.PageReadStore;
 import org.apache.parquet.example.data.Group;
 import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
@@ -32,16 +37,25 @@ import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.apache.parquet.io.ColumnIOFactory;
 import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.schema.DecimalMetadata;
 import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.apache.pinot.spi.data.readers.ColumnarRecordReader;
 import org.apache.pinot.spi.data.readers.GenericRow;
-import org.apache.pinot.spi.data.readers.RecordReader;
+import org.apache.pinot.spi.data.readers.RecordBatch;
 import org.apache.pinot.spi.data.readers.RecordReaderConfig;
 
 
 /**
  * Record reader for Native Parquet file.
+ * <p>When all the fields to read are flat (non-repeated primitive) fields, the records can also be read in batches
+ * directly from the column readers of the row group, without assembling the {@link Group}s.
  */
-public class ParquetNativeRecordReader implements RecordReader {
+public class ParquetNativeRecordReader implements ColumnarRecordReader {
+  private static final int MAX_NUM_ROWS_PER_BATCH = 10_000;
+
   private Path _dataFilePath;
   private ParquetNativeRecordExtractor _recordExtractor;
   private MessageType _schema;
@@ -50,7 +64,12 @@ public class ParquetNativeRecordReader implements RecordReader {
   private Group _nextRecord;
   private PageReadStore _pageReadStore;
   private MessageColumnIO _columnIO;
+  // NOTE: The record reader and the column readers are created lazily for each row group because both of them consume
+  //       the pages of the row group
   private org.apache.parquet.io.RecordReader _parquetRecordReader;
+  private ColumnReader[] _columnReaders;
+  // Fields to read in batches, or null if batch read is not supported
+  private List<PrimitiveType> _batchFields;
   private int _currentPageIdx;
 
   @Override
@@ -62,32 +81,51 @@ public class ParquetNativeRecordReader implements RecordReader {
     _recordExtractor = new ParquetNativeRecordExtractor();
     _recordExtractor.init(fieldsToRead, null);
     _schema = _parquetMetadata.getFileMetaData().getSchema();
+    _batchFields = getBatchFields(_schema, fieldsToRead);
     _parquetFileReader =
         new ParquetFileReader(conf, _parquetMetadata.getFileMetaData(), _dataFilePath, _parquetMetadata.getBlocks(),
             _schema.getColumns());
     _pageReadStore = _parquetFileReader.readNextRowGroup();
     _columnIO = new ColumnIOFactory().getColumnIO(_schema);
-    _parquetRecordReader = _columnIO.getRecordReader(_pageReadStore, new GroupRecordConverter(_schema));
+    _parquetRecordReader = null;
+    _columnReaders = null;
     _currentPageIdx = 0;
   }
 
+  /**
+   * Returns the fields to read in batches, or {@code null} if any of the fields to read is not a flat field.
+   */
+  @Nullable
+  private static List<PrimitiveType> getBatchFields(MessageType schema, @Nullable Set<String> fieldsToRead) {
+    boolean extractAll = fieldsToRead == null || fieldsToRead.isEmpty();
+    List<PrimitiveType> batchFields = new ArrayList<>();
+    for (Type field : schema.getFields()) {
+      if (extractAll || fieldsToRead.contains(field.getName())) {
+        if (!field.isPrimitive() || field.isRepetition(Type.Repetition.REPEATED)) {
+          return null;
+        }
+        batchFields.add(field.asPrimitiveType());
+      }
+    }
+    return batchFields;
+  }
+
   @Override
   public boolean hasNext() {
     if (_pageReadStore == null) {
       return false;
     }
     if (_pageReadStore.getRowCount() - _currentPageIdx >= 1) {
-      // System.out.println("_pageReadStore.getRowCount() = " + _pageReadStore.getRowCount() + ", _currentPageIdx = "
-      // + _currentPageIdx);
       return true;
     }
     try {
       _pageReadStore = _parquetFileReader.readNextRowGroup();
+      _parquetRecordReader = null;
+      _columnReaders = null;
       _currentPageIdx = 0;
       if (_pageReadStore == null) {
         return false;
       }
-      _parquetRecordReader = _columnIO.getRecordReader(_pageReadStore, new GroupRecordConverter(_schema));
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
@@ -103,12 +141,169 @@ public class ParquetNativeRecordReader implements RecordReader {
   @Override
   public GenericRow next(GenericRow reuse)
       throws IOException {
+    if (_parquetRecordReader == null) {
+      _parquetRecordReader = _columnIO.getRecordReader(_pageReadStore, new GroupRecordConverter(_schema));
+    }
     _nextRecord = (Group) _parquetRecordReader.read();
     _recordExtractor.extract(_nextRecord, reuse);
     _currentPageIdx++;
     return reuse;
   }
 
+  @Override
+  public boolean isBatchReadSupported() {
+    return _batchFields != null;
+  }
+
+  @Override
+  public RecordBatch nextBatch(RecordBatch reuse)
+      throws IOException {
+    Preconditions.checkState(_batchFields != null, "Batch read is not supported for non-flat fields");
+    int numBatchFields = _batchFields.size();
+    if (_columnReaders == null) {
+      ColumnReadStoreImpl columnReadStore =
+          new ColumnReadStoreImpl(_pageReadStore, new GroupRecordConverter(_schema).getRootConverter(), _schema,
+              _parquetMetadata.getFileMetaData().getCreatedBy());
+      _columnReaders = new ColumnReader[numBatchFields];
+      for (int i = 0; i < numBatchFields; i++) {
+        _columnReaders[i] = columnReadStore.getColumnReader(
+            _schema.getColumnDescription(new String[]{_batchFields.get(i).getName()}));
+      }
+    }
+    reuse.clear();
+    int numRows = (int) Math.min(_pageReadStore.getRowCount() - _currentPageIdx, MAX_NUM_ROWS_PER_BATCH);
+    for (int i = 0; i < numBatchFields; i++) {
+      readColumn(_batchFields.get(i), _columnReaders[i], numRows, reuse);
+    }
+    reuse.setNumRows(numRows);
+    _currentPageIdx += numRows;
+    return reuse;
+  }
+
+  /**
+   * Reads the values of the next rows from the column reader into the record batch. The values are converted the same
+   * way as the {@link ParquetNativeRecordExtractor}.
+   */
+  private static void readColumn(PrimitiveType field, ColumnReader columnReader, int numRows,
+      RecordBatch recordBatch) {
+    int maxDefinitionLevel = columnReader.getDescriptor().getMaxDefinitionLevel();
+    boolean[] nullFlags = null;
+    switch (field.getPrimitiveTypeName()) {
+      case INT32: {
+        int[] values = new int[numRows];
+        for (int i = 0; i < numRows; i++) {
+          if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+            values[i] = columnReader.getInteger();
+          } else {
+            nullFlags = setNull(nullFlags, i, numRows);
+          }
+          columnReader.consume();
+        }
+        recordBatch.putColumn(field.getName(), values, nullFlags);
+        break;
+      }
+      case INT64: {
+        long[] values = new long[numRows];
+        for (int i = 0; i < numRows; i++) {
+          if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+            values[i] = columnReader.getLong();
+          } else {
+            nullFlags = setNull(nullFlags, i, numRows);
+          }
+          columnReader.consume();
+        }
+        recordBatch.putColumn(field.getName(), values, nullFlags);
+        break;
+      }
+      case INT96: {
+        long[] values = new long[numRows];
+        for (int i = 0; i < numRows; i++) {
+          if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+            values[i] = ParquetNativeRecordExtractor.int96ToMillis(columnReader.getBinary());
+          } else {
+            nullFlags = setNull(nullFlags, i, numRows);
+          }
+          columnReader.consume();
+        }
+        recordBatch.putColumn(field.getName(), values, nullFlags);
+        break;
+      }
+      case FLOAT: {
+        float[] values = new float[numRows];
+        for (int i = 0; i < numRows; i++) {
+          if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+            values[i] = columnReader.getFloat();
+          } else {
+            nullFlags = setNull(nullFlags, i, numRows);
+          }
+          columnReader.consume();
+        }
+        recordBatch.putColumn(field.getName(), values, nullFlags);
+        break;
+      }
+      case DOUBLE: {
+        double[] values = new double[numRows];
+        for (int i = 0; i < numRows; i++) {
+          if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+            values[i] = columnReader.getDouble();
+          } else {
+            nullFlags = setNull(nullFlags, i, numRows);
+          }
+          columnReader.consume();
+        }
+        recordBatch.putColumn(field.getName(), values, nullFlags);
+        break;
+      }
+      case BOOLEAN: {
+        String[] values = new String[numRows];
+        for (int i = 0; i < numRows; i++) {
+          if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+            values[i] = Boolean.toString(columnReader.getBoolean());
+          } else {
+            nullFlags = setNull(nullFlags, i, numRows);
+          }
+          columnReader.consume();
+        }
+        recordBatch.putColumn(field.getName(), values, nullFlags);
+        break;
+      }
+      case BINARY:
+      case FIXED_LEN_BYTE_ARRAY: {
+        OriginalType originalType = field.getOriginalType();
+        DecimalMetadata decimalMetadata = originalType == OriginalType.DECIMAL ? field.getDecimalMetadata() : null;
+        Object[] values = new Object[numRows];
+        for (int i = 0; i < numRows; i++) {
+          if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+            if (originalType == OriginalType.UTF8) {
+              values[i] = columnReader.getBinary().toStringUsingUTF8();
+            } else if (decimalMetadata != null) {
+              values[i] = ParquetNativeRecordExtractor.binaryToDecimal(columnReader.getBinary(),
+                  decimalMetadata.getPrecision(), decimalMetadata.getScale());
+            } else {
+              values[i] = columnReader.getBinary().getBytes();
+            }
+          } else {
+            nullFlags = setNull(nullFlags, i, numRows);
+          }
+          columnReader.consume();
+        }
+        recordBatch.putColumn(field.getName(), values, nullFlags);
+        break;
+      }
+      default:
+        throw new IllegalArgumentException(
+            "Unsupported field type: " + field + ", primitive type: " + field.getPrimitiveTypeName());
+    }
+  }
+
+  private static boolean[] setNull(@Nullable boolean[] nullFlags, int rowId, int numRows) {
+    if (nullFlags == null) {
+      nullFlags = new boolean[numRows];
+    }
+    nullFlags[rowId] = true;
+    return nullFlags;
+  }
+
   @Override
   public void rewind()
       throws IOException {
@@ -118,7 +313,8 @@ public class ParquetNativeRecordReader implements RecordReader {
         new ParquetFileReader(conf, _parquetMetadata.getFileMetaData(), _dataFilePath, _parquetMetadata.getBlocks(),
             _schema.getColumns());
     _pageReadStore = _parquetFileReader.readNextRowGroup();
-    _parquetRecordReader = _columnIO.getRecordReader(_pageReadStore, new GroupRecordConverter(_schema));
+    _parquetRecordReader = null;
+    _columnReaders = null;
     _currentPageIdx = 0;
   }
 
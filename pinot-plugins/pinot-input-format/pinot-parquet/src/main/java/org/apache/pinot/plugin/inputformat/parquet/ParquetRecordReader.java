@@ -22,7 +22,9 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Set;
 import javax.annotation.Nullable;
+import org.apache.pinot.spi.data.readers.ColumnarRecordReader;
 import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.data.readers.RecordBatch;
 import org.apache.pinot.spi.data.readers.RecordReader;
 import org.apache.pinot.spi.data.readers.RecordReaderConfig;
 
@@ -30,8 +32,9 @@ import org.apache.pinot.spi.data.readers.RecordReaderConfig;
 /**
  * Pinot Record reader for Parquet file.<p>
  * It has two implementations: {@link ParquetAvroRecordReader} (Default) and {@link ParquetNativeRecordReader}.
+ * Batch read is only supported by the {@link ParquetNativeRecordReader}.
  */
-public class ParquetRecordReader implements RecordReader {
+public class ParquetRecordReader implements ColumnarRecordReader {
   private RecordReader _internalParquetRecordReader;
   private boolean _useAvroParquetRecordReader = true;
 
@@ -64,6 +67,18 @@ public class ParquetRecordReader implements RecordReader {
     return _internalParquetRecordReader.next(reuse);
   }
 
+  @Override
+  public boolean isBatchReadSupported() {
+    return _internalParquetRecordReader instanceof ColumnarRecordReader
+        && ((ColumnarRecordReader) _internalParquetRecordReader).isBatchReadSupported();
+  }
+
+  @Override
+  public RecordBatch nextBatch(RecordBatch reuse)
+      throws IOException {
+    return ((ColumnarRecordReader) _internalParquetRecordReader).nextBatch(reuse);
+  }
+
   @Override
   public void rewind()
       throws IOException {
@@ -20,8 +20,10 @@ package org.apache.pinot.plugin.inputformat.parquet;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericRecord;
@@ -31,6 +33,10 @@ import org.apache.pinot.plugin.inputformat.avro.AvroUtils;
 import org.apache.pinot.spi.data.FieldSpec;
 import org.apache.pinot.spi.data.readers.AbstractRecordReaderTest;
 import org.apache.pinot.spi.data.readers.RecordReader;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 
 public class ParquetNativeRecordReaderTest extends AbstractRecordReaderTest {
@@ -63,4 +69,30 @@ public class ParquetNativeRecordReaderTest extends AbstractRecordReaderTest {
       }
     }
   }
+
+  @Test
+  public void testBatchRead()
+      throws Exception {
+    // Batch read is not supported with multi-value fields
+    try (ParquetNativeRecordReader recordReader = new ParquetNativeRecordReader()) {
+      recordReader.init(_dataFile, _sourceFields, null);
+      assertFalse(recordReader.isBatchReadSupported());
+    }
+
+    List<FieldSpec> singleValueFieldSpecs = new ArrayList<>();
+    Set<String> singleValueFields = new HashSet<>();
+    for (FieldSpec fieldSpec : _pinotSchema.getAllFieldSpecs()) {
+      if (fieldSpec.isSingleValueField()) {
+        singleValueFieldSpecs.add(fieldSpec);
+        singleValueFields.add(fieldSpec.getName());
+      }
+    }
+    try (ParquetNativeRecordReader recordReader = new ParquetNativeRecordReader()) {
+      recordReader.init(_dataFile, singleValueFields, null);
+      assertTrue(recordReader.isBatchReadSupported());
+      checkBatchValue(recordReader, _records, singleValueFieldSpecs);
+      recordReader.rewind();
+      checkBatchValue(recordReader, _records, singleValueFieldSpecs);
+    }
+  }
 }
@@ -18,12 +18,16 @@
  */
 package org.apache.pinot.segment.local.indexsegment.immutable;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nullable;
+import org.apache.pinot.segment.local.segment.index.column.LazyColumnIndexContainer;
 import org.apache.pinot.segment.local.segment.index.datasource.ImmutableDataSource;
 import org.apache.pinot.segment.local.segment.readers.PinotSegmentRecordReader;
 import org.apache.pinot.segment.local.startree.v2.store.StarTreeIndexContainer;
@@ -53,6 +57,13 @@ public class ImmutableSegmentImpl implements ImmutableSegment {
   private final Map<String, ColumnIndexContainer> _indexContainerMap;
   private final StarTreeIndexContainer _starTreeIndexContainer;
 
+  // For lazily loaded columns, time after which the idle on-heap dictionaries are evicted on release
+  private long _lazyColumnIdleEvictionMs = -1L;
+  // Lazily loaded columns acquired by queries whose on-heap dictionary might be evicted
+  private final Set<LazyColumnIndexContainer> _evictionCandidates = ConcurrentHashMap.newKeySet();
+  // Idle dictionaries are checked at most once per eviction time to keep the cost of release low
+  private volatile long _nextEvictionCheckTimeMs;
+
   // For upsert
   private PartitionUpsertMetadataManager _partitionUpsertMetadataManager;
   private ThreadSafeMutableRoaringBitmap _validDocIds;
@@ -67,6 +78,15 @@ public class ImmutableSegmentImpl implements ImmutableSegment {
     _starTreeIndexContainer = starTreeIndexContainer;
   }
 
+  /**
+   * Sets the time after which the on-heap dictionaries of the lazily loaded columns are evicted when they are released
+   * by all the queries and not accessed. A value of <= 0 disables the eviction. It should be called before the segment
+   * getting queried.
+   */
+  public void setLazyColumnIdleEvictionMs(long lazyColumnIdleEvictionMs) {
+    _lazyColumnIdleEvictionMs = lazyColumnIdleEvictionMs;
+  }
+
   /**
    * Enables upsert for this segment. It should be called before the segment getting queried.
    */
@@ -74,6 +94,8 @@ public class ImmutableSegmentImpl implements ImmutableSegment {
       ThreadSafeMutableRoaringBitmap validDocIds) {
     _partitionUpsertMetadataManager = partitionUpsertMetadataManager;
     _validDocIds = validDocIds;
+    // Upsert reads the primary key columns outside of the acquire/release hooks, so never evict columns
+    _lazyColumnIdleEvictionMs = -1L;
   }
 
   @Override
@@ -95,6 +117,11 @@ public class ImmutableSegmentImpl implements ImmutableSegment {
     return _indexContainerMap.get(column).getInvertedIndex();
   }
 
+  @VisibleForTesting
+  Map<String, ColumnIndexContainer> getIndexContainerMap() {
+    return _indexContainerMap;
+  }
+
   @Override
   public long getSegmentSizeBytes() {
     return _segmentDirectory.getDiskSizeBytes();
@@ -136,11 +163,59 @@ public class ImmutableSegmentImpl implements ImmutableSegment {
   @Override
   public void acquire(FetchContext fetchContext) {
     _segmentDirectory.acquire(fetchContext);
+    for (String column : fetchContext.getColumnToIndexList().keySet()) {
+      ColumnIndexContainer container = _indexContainerMap.get(column);
+      if (container instanceof LazyColumnIndexContainer) {
+        ((LazyColumnIndexContainer) container).acquire();
+      }
+    }
   }
 
   @Override
   public void release(FetchContext fetchContext) {
+    boolean evictionEnabled = _lazyColumnIdleEvictionMs > 0;
+    for (String column : fetchContext.getColumnToIndexList().keySet()) {
+      ColumnIndexContainer container = _indexContainerMap.get(column);
+      if (container instanceof LazyColumnIndexContainer) {
+        LazyColumnIndexContainer lazyContainer = (LazyColumnIndexContainer) container;
+        lazyContainer.release();
+        if (evictionEnabled && lazyContainer.isEvictable()) {
+          _evictionCandidates.add(lazyContainer);
+        }
+      }
+    }
     _segmentDirectory.release(fetchContext);
+    if (evictionEnabled) {
+      long currentTimeMs = System.currentTimeMillis();
+      if (currentTimeMs >= _nextEvictionCheckTimeMs) {
+        _nextEvictionCheckTimeMs = currentTimeMs + _lazyColumnIdleEvictionMs;
+        evictIdleDictionaries(currentTimeMs);
+      }
+    }
+  }
+
+  /**
+   * Evicts the on-heap dictionaries of the lazily loaded columns acquired by queries that are not acquired anymore and
+   * have been idle for longer than the configured eviction time. Returns the number of evicted dictionaries.
+   */
+  @VisibleForTesting
+  int evictIdleDictionaries(long currentTimeMs) {
+    int numEvictedDictionaries = 0;
+    Iterator<LazyColumnIndexContainer> iterator = _evictionCandidates.iterator();
+    while (iterator.hasNext()) {
+      LazyColumnIndexContainer container = iterator.next();
+      if (container.evictDictionaryIfIdle(currentTimeMs, _lazyColumnIdleEvictionMs)) {
+        numEvictedDictionaries++;
+        iterator.remove();
+      } else if (!container.isDictionaryEvictionCandidate()) {
+        // Dictionary is not loaded or pinned
+        iterator.remove();
+      }
+    }
+    if (numEvictedDictionaries > 0) {
+      LOGGER.debug("Evicted {} idle dictionaries for segment: {}", numEvictedDictionaries, getSegmentName());
+    }
+    return numEvictedDictionaries;
   }
 
   @Override
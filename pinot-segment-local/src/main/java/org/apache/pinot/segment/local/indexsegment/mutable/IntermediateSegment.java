@@ -34,6 +34,7 @@ import org.apache.pinot.segment.local.io.writer.impl.MmapMemoryManager;
 import org.apache.pinot.segment.local.realtime.impl.dictionary.MutableDictionaryFactory;
 import org.apache.pinot.segment.local.realtime.impl.forward.FixedByteMVMutableForwardIndex;
 import org.apache.pinot.segment.local.realtime.impl.forward.FixedByteSVMutableForwardIndex;
+import org.apache.pinot.segment.local.realtime.impl.nullvalue.MutableNullValueVector;
 import org.apache.pinot.segment.local.segment.index.column.IntermediateIndexContainer;
 import org.apache.pinot.segment.local.segment.index.column.NumValuesInfo;
 import org.apache.pinot.segment.spi.MutableSegment;
@@ -82,6 +83,7 @@ public class IntermediateSegment implements MutableSegment {
   private final Map<String, IntermediateIndexContainer> _indexContainerMap = new HashMap<>();
   private final PinotDataBufferMemoryManager _memoryManager;
   private final File _mmapDir;
+  private final boolean _nullHandlingEnabled;
 
   private final int _capacity = DEFAULT_CAPACITY;
   private volatile int _numDocsIndexed = 0;
@@ -91,6 +93,7 @@ public class IntermediateSegment implements MutableSegment {
     _schema = segmentGeneratorConfig.getSchema();
     _tableConfig = segmentGeneratorConfig.getTableConfig();
     _segmentName = _segmentGeneratorConfig.getTableName() + System.currentTimeMillis();
+    _nullHandlingEnabled = segmentGeneratorConfig.isNullHandlingEnabled();
 
     Collection<FieldSpec> allFieldSpecs = _schema.getAllFieldSpecs();
     List<FieldSpec> physicalFieldSpecs = new ArrayList<>(allFieldSpecs.size());
@@ -158,7 +161,7 @@ public class IntermediateSegment implements MutableSegment {
 
       _indexContainerMap.put(column,
           new IntermediateIndexContainer(fieldSpec, partitionFunction, partitions, new NumValuesInfo(), forwardIndex,
-              dictionary));
+              dictionary, _nullHandlingEnabled ? new MutableNullValueVector() : null));
     }
   }
 
@@ -339,6 +342,11 @@ public class IntermediateSegment implements MutableSegment {
         // Update forward index
         indexContainer.getForwardIndex().setDictIdMV(docId, dictIds);
       }
+
+      // Update null value vector
+      if (_nullHandlingEnabled && row.isNullValue(column)) {
+        indexContainer.getNullValueVector().setNull(docId);
+      }
     }
   }
 
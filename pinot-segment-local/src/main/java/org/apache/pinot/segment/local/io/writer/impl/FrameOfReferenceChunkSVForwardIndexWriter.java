@@ -0,0 +1,219 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.io.writer.impl;
+
+import com.google.common.base.Preconditions;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+
+
+/**
+ * Chunk-based single-value raw (non-dictionary-encoded) forward index writer for INT and LONG values, where each chunk
+ * is encoded with frame-of-reference and bit-packing so that values can be randomly accessed without decompressing the
+ * chunk.
+ * <p>Each value is encoded as {@code value = base + index * step + packedValue}, where {@code index} is the index of
+ * the value within the chunk. For each chunk, {@code step} is picked from:
+ * <ul>
+ *   <li>0: plain frame-of-reference, where {@code base} is the min value within the chunk</li>
+ *   <li>Min or average delta between adjacent values: delta encoding, which packs sorted or near-sorted values (e.g.
+ *   timestamps, monotonic ids) into very few bits</li>
+ * </ul>
+ * whichever requires fewer bits per value.
+ *
+ * The layout of the file is as follows:
+ * <p> Header Section: </p>
+ * <ul>
+ *   <li> Integer: File format version. </li>
+ *   <li> Integer: Total number of chunks. </li>
+ *   <li> Integer: Number of docs per chunk (power of 2). </li>
+ *   <li> Integer: Length of entry (in bytes). </li>
+ *   <li> Integer: Total number of docs. </li>
+ *   <li> Long array: Long offsets for all chunks in the file. </li>
+ * </ul>
+ *
+ * <p> Individual Chunks: </p>
+ * <ul>
+ *   <li> Long: Base. </li>
+ *   <li> Long: Step. </li>
+ *   <li> Byte: Number of bits per packed value (0 - 56, or 64). </li>
+ *   <li> Bit-packed values (big-endian), followed by 8 bytes of padding so that each packed value can be read with a
+ *   single long read. </li>
+ * </ul>
+ *
+ * Only sequential writes are supported.
+ */
+@NotThreadSafe
+public class FrameOfReferenceChunkSVForwardIndexWriter implements Closeable {
+  public static final int VERSION = 5;
+  public static final int HEADER_SIZE = 5 * Integer.BYTES;
+  public static final int CHUNK_HEADER_SIZE = 2 * Long.BYTES + 1;
+  // Packed values with more than this number of bits cannot be read with a single long read, and are stored as 64 bits
+  public static final int MAX_NUM_BITS_PER_PACKED_VALUE = 56;
+
+  private final FileChannel _dataFile;
+  private final ByteBuffer _header;
+  private final long[] _chunkValues;
+  private final int _numDocsPerChunk;
+
+  private int _numValuesInChunk;
+  private long _dataOffset;
+
+  /**
+   * Constructor for the class.
+   *
+   * @param file File to write to
+   * @param totalDocs Total number of docs to write
+   * @param numDocsPerChunk Number of docs per chunk, must be power of 2
+   * @param valueType Type of the values, must be INT or LONG
+   * @throws IOException if the file cannot be opened
+   */
+  public FrameOfReferenceChunkSVForwardIndexWriter(File file, int totalDocs, int numDocsPerChunk, DataType valueType)
+      throws IOException {
+    Preconditions.checkArgument(numDocsPerChunk > 0 && (numDocsPerChunk & (numDocsPerChunk - 1)) == 0,
+        "Number of docs per chunk must be power of 2, got: %s", numDocsPerChunk);
+    Preconditions.checkArgument(valueType == DataType.INT || valueType == DataType.LONG,
+        "Frame-of-reference encoding is only supported for INT and LONG values, got: %s", valueType);
+    int numChunks = (totalDocs + numDocsPerChunk - 1) / numDocsPerChunk;
+    int headerSize = HEADER_SIZE + numChunks * Long.BYTES;
+    _header = ByteBuffer.allocate(headerSize);
+    _header.putInt(VERSION);
+    _header.putInt(numChunks);
+    _header.putInt(numDocsPerChunk);
+    _header.putInt(valueType.size());
+    _header.putInt(totalDocs);
+    _chunkValues = new long[numDocsPerChunk];
+    _numDocsPerChunk = numDocsPerChunk;
+    _dataOffset = headerSize;
+    _dataFile = new RandomAccessFile(file, "rw").getChannel();
+  }
+
+  public void putInt(int value) {
+    putLong(value);
+  }
+
+  public void putLong(long value) {
+    _chunkValues[_numValuesInChunk++] = value;
+    if (_numValuesInChunk == _numDocsPerChunk) {
+      writeChunk();
+    }
+  }
+
+  private void writeChunk() {
+    int numValues = _numValuesInChunk;
+    long[] values = _chunkValues;
+
+    // Frame-of-reference
+    long step = 0;
+    long base = getBase(values, numValues, 0);
+    int numBits = getNumBits(values, numValues, 0, base);
+
+    // Delta with min delta or average delta as the step
+    if (numBits > 0 && numValues > 1) {
+      long minDelta = values[1] - values[0];
+      for (int i = 2; i < numValues; i++) {
+        minDelta = Math.min(minDelta, values[i] - values[i - 1]);
+      }
+      long averageDelta = (values[numValues - 1] - values[0]) / (numValues - 1);
+      for (long candidateStep : new long[]{minDelta, averageDelta}) {
+        long candidateBase = getBase(values, numValues, candidateStep);
+        int candidateNumBits = getNumBits(values, numValues, candidateStep, candidateBase);
+        if (candidateNumBits < numBits) {
+          step = candidateStep;
+          base = candidateBase;
+          numBits = candidateNumBits;
+        }
+      }
+    }
+
+    int packedSize = (int) (((long) numValues * numBits + 7) >>> 3) + Long.BYTES;
+    ByteBuffer chunkBuffer = ByteBuffer.allocate(CHUNK_HEADER_SIZE + packedSize);
+    chunkBuffer.putLong(base);
+    chunkBuffer.putLong(step);
+    chunkBuffer.put((byte) numBits);
+    if (numBits == Long.SIZE) {
+      for (int i = 0; i < numValues; i++) {
+        chunkBuffer.putLong(CHUNK_HEADER_SIZE + (i << 3), values[i] - i * step - base);
+      }
+    } else if (numBits > 0) {
+      for (int i = 0; i < numValues; i++) {
+        long packedValue = values[i] - i * step - base;
+        long bitOffset = (long) i * numBits;
+        int offset = CHUNK_HEADER_SIZE + (int) (bitOffset >>> 3);
+        int shift = Long.SIZE - ((int) bitOffset & 7) - numBits;
+        chunkBuffer.putLong(offset, chunkBuffer.getLong(offset) | (packedValue << shift));
+      }
+    }
+    chunkBuffer.clear();
+
+    try {
+      _dataFile.write(chunkBuffer, _dataOffset);
+    } catch (IOException e) {
+      throw new RuntimeException("Caught exception while writing data chunk", e);
+    }
+    _header.putLong(_dataOffset);
+    _dataOffset += chunkBuffer.capacity();
+    _numValuesInChunk = 0;
+  }
+
+  /**
+   * Returns the min residual ({@code value - index * step}) of the values.
+   * <p>NOTE: The residual might overflow, but the encoding is still correct because both encoding and decoding wrap
+   *          around consistently.
+   */
+  private static long getBase(long[] values, int numValues, long step) {
+    long base = values[0];
+    for (int i = 1; i < numValues; i++) {
+      base = Math.min(base, values[i] - i * step);
+    }
+    return base;
+  }
+
+  /**
+   * Returns the number of bits required to store the packed values ({@code value - index * step - base}), which are
+   * treated as unsigned values.
+   */
+  private static int getNumBits(long[] values, int numValues, long step, long base) {
+    long maxPackedValue = 0;
+    for (int i = 0; i < numValues; i++) {
+      long packedValue = values[i] - i * step - base;
+      if (Long.compareUnsigned(packedValue, maxPackedValue) > 0) {
+        maxPackedValue = packedValue;
+      }
+    }
+    int numBits = Long.SIZE - Long.numberOfLeadingZeros(maxPackedValue);
+    return numBits <= MAX_NUM_BITS_PER_PACKED_VALUE ? numBits : Long.SIZE;
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    if (_numValuesInChunk > 0) {
+      writeChunk();
+    }
+    _header.flip();
+    _dataFile.write(_header, 0);
+    _dataFile.close();
+  }
+}
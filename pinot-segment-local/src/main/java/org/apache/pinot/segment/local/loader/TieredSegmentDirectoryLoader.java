@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.loader;
+
+import com.google.common.base.Preconditions;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import org.apache.pinot.segment.local.segment.store.TieredIndexCache;
+import org.apache.pinot.segment.local.segment.store.TieredSegmentDirectory;
+import org.apache.pinot.segment.spi.loader.SegmentDirectoryLoader;
+import org.apache.pinot.segment.spi.loader.SegmentDirectoryLoaderContext;
+import org.apache.pinot.segment.spi.loader.SegmentLoader;
+import org.apache.pinot.segment.spi.store.SegmentDirectory;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.env.PinotConfiguration;
+import org.apache.pinot.spi.utils.DataSizeUtils;
+
+
+/**
+ * Implementation of {@link SegmentDirectoryLoader} that loads segments stored on a remote {@link
+ * org.apache.pinot.spi.filesystem.PinotFS} (e.g. the deep store) as {@link TieredSegmentDirectory}, with the index
+ * buffers fetched on demand and cached on local disk.
+ *
+ * The index directory passed to {@link #load(URI, SegmentDirectoryLoaderContext)} should point to the untarred V3
+ * segment on the remote file system. The local cache is configured with the segment directory configs (instance configs
+ * prefixed with {@code segment.directory.loader.config}):
+ * <ul>
+ *   <li>tiered.cache.dir: local directory for the cache (required)</li>
+ *   <li>tiered.cache.max.size: disk budget of the cache, e.g. 100G (default 10G)</li>
+ *   <li>tiered.remote.dir: remote directory of the untarred segments, under which segments are stored as
+ *   {@code <tableNameWithType>/<segmentName>}. When configured, the table data managers load segments through this
+ *   loader without downloading them, and fall back to download the segments when loading fails or the segments need
+ *   to be preprocessed.</li>
+ * </ul>
+ * The cache is shared by all the segments loaded by this loader, and is created on the first load.
+ */
+@SegmentLoader(name = TieredSegmentDirectoryLoader.NAME)
+public class TieredSegmentDirectoryLoader implements SegmentDirectoryLoader {
+  public static final String NAME = "tiered";
+  public static final String CACHE_DIR_KEY = "tiered.cache.dir";
+  public static final String CACHE_MAX_SIZE_KEY = "tiered.cache.max.size";
+  public static final String DEFAULT_CACHE_MAX_SIZE = "10G";
+  public static final String REMOTE_DIR_KEY = "tiered.remote.dir";
+
+  private volatile TieredIndexCache _cache;
+
+  @Override
+  public SegmentDirectory load(URI indexDir, SegmentDirectoryLoaderContext segmentLoaderContext)
+      throws Exception {
+    TieredIndexCache cache = getCache(segmentLoaderContext.getSegmentDirectoryConfigs());
+    File localDir = cache.getCacheDir();
+    TableConfig tableConfig = segmentLoaderContext.getTableConfig();
+    if (tableConfig != null) {
+      localDir = new File(localDir, tableConfig.getTableName());
+    }
+    String segmentName = segmentLoaderContext.getSegmentName();
+    String segmentCrc = segmentLoaderContext.getSegmentCrc();
+    localDir = new File(localDir, segmentCrc != null ? segmentName + "_" + segmentCrc : segmentName);
+    return new TieredSegmentDirectory(indexDir, localDir, cache);
+  }
+
+  /**
+   * Returns the shared local cache, or {@code null} if no segment has been loaded yet.
+   */
+  public TieredIndexCache getCache() {
+    return _cache;
+  }
+
+  private TieredIndexCache getCache(PinotConfiguration segmentDirectoryConfigs)
+      throws IOException {
+    TieredIndexCache cache = _cache;
+    if (cache == null) {
+      synchronized (this) {
+        cache = _cache;
+        if (cache == null) {
+          String cacheDir = segmentDirectoryConfigs.getProperty(CACHE_DIR_KEY);
+          Preconditions.checkState(cacheDir != null, "Config: %s must be configured for tiered segment loader",
+              CACHE_DIR_KEY);
+          long maxSizeBytes =
+              DataSizeUtils.toBytes(segmentDirectoryConfigs.getProperty(CACHE_MAX_SIZE_KEY, DEFAULT_CACHE_MAX_SIZE));
+          cache = new TieredIndexCache(new File(cacheDir), maxSizeBytes);
+          _cache = cache;
+        }
+      }
+    }
+    return cache;
+  }
+}
@@ -120,7 +120,11 @@ public class RealtimeSegmentConverter {
       RealtimeSegmentSegmentCreationDataSource dataSource =
           new RealtimeSegmentSegmentCreationDataSource(_realtimeSegmentImpl, recordReader);
       driver.init(genConfig, dataSource, CompositeTransformer.getPassThroughTransformer(), null);
-      driver.build();
+      if (_tableConfig.getIndexingConfig().isColumnMajorSegmentBuilderEnabled()) {
+        driver.buildByColumn(_realtimeSegmentImpl);
+      } else {
+        driver.build();
+      }
     }
 
     if (segmentPartitionConfig != null) {
@@ -19,13 +19,12 @@
 package org.apache.pinot.segment.local.realtime.impl.json;
 
 import com.google.common.base.Preconditions;
-import it.unimi.dsi.fastutil.ints.IntArrayList;
-import it.unimi.dsi.fastutil.ints.IntList;
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
 import org.apache.pinot.common.request.context.ExpressionContext;
 import org.apache.pinot.common.request.context.FilterContext;
 import org.apache.pinot.common.request.context.RequestContextUtils;
@@ -34,6 +33,7 @@ import org.apache.pinot.common.request.context.predicate.InPredicate;
 import org.apache.pinot.common.request.context.predicate.NotEqPredicate;
 import org.apache.pinot.common.request.context.predicate.NotInPredicate;
 import org.apache.pinot.common.request.context.predicate.Predicate;
+import org.apache.pinot.common.request.context.predicate.RangePredicate;
 import org.apache.pinot.segment.local.segment.creator.impl.inv.json.BaseJsonIndexCreator;
 import org.apache.pinot.segment.spi.index.creator.JsonIndexCreator;
 import org.apache.pinot.segment.spi.index.mutable.MutableJsonIndex;
@@ -47,23 +47,34 @@ import org.roaringbitmap.buffer.MutableRoaringBitmap;
 
 /**
  * Json index for mutable segment.
+ * <p>This class is thread-safe for single writer multiple readers, and readers never block the writer on a global lock:
+ * <ul>
+ *   <li>Posting lists are kept in a concurrent map, and each posting list bitmap is locked individually when it is
+ *   modified or copied, so the writer can only be blocked briefly when a reader is copying the same posting list.</li>
+ *   <li>The flattened doc id to doc id mapping is stored in fixed size chunks that are never re-allocated.</li>
+ *   <li>The number of docs and flattened docs are published together after each document is added. Readers only
+ *   consider the published documents, so that a partially added document is never visible.</li>
+ * </ul>
  */
 public class MutableJsonIndexImpl implements MutableJsonIndex {
+  private static final int DOC_ID_MAPPING_CHUNK_SHIFT = 12;
+  private static final int DOC_ID_MAPPING_CHUNK_SIZE = 1 << DOC_ID_MAPPING_CHUNK_SHIFT;
+  private static final int DOC_ID_MAPPING_CHUNK_MASK = DOC_ID_MAPPING_CHUNK_SIZE - 1;
+  private static final long MAX_FLATTENED_DOC_ID_RANGE_END = 0x100000000L;
+
   private final Map<String, RoaringBitmap> _postingListMap;
-  private final IntList _docIdMapping;
-  private final ReentrantReadWriteLock.ReadLock _readLock;
-  private final ReentrantReadWriteLock.WriteLock _writeLock;
+  // NOTE: The chunks array is replaced (not modified in place) when growing, and is volatile so that readers always see
+  //       the fully initialized array.
+  private volatile int[][] _docIdMappingChunks;
 
   private int _nextDocId;
   private int _nextFlattenedDocId;
+  // Number of docs (high 32 bits) and flattened docs (low 32 bits) visible to the readers
+  private volatile long _numDocsAndFlattenedDocs;
 
   public MutableJsonIndexImpl() {
-    _postingListMap = new HashMap<>();
-    _docIdMapping = new IntArrayList();
-
-    ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
-    _readLock = readWriteLock.readLock();
-    _writeLock = readWriteLock.writeLock();
+    _postingListMap = new ConcurrentHashMap<>();
+    _docIdMappingChunks = new int[1][];
   }
 
   /**
@@ -74,14 +85,10 @@ public class MutableJsonIndexImpl implements MutableJsonIndex {
       throws IOException {
     try {
       List<Map<String, String>> flattenedRecords = JsonUtils.flatten(JsonUtils.stringToJsonNode(jsonString));
-      _writeLock.lock();
-      try {
-        addFlattenedRecords(flattenedRecords);
-      } finally {
-        _writeLock.unlock();
-      }
+      addFlattenedRecords(flattenedRecords);
     } finally {
       _nextDocId++;
+      _numDocsAndFlattenedDocs = ((long) _nextDocId << 32) | _nextFlattenedDocId;
     }
   }
 
@@ -93,7 +100,7 @@ public class MutableJsonIndexImpl implements MutableJsonIndex {
     Preconditions
         .checkState(_nextFlattenedDocId + numRecords >= 0, "Got more than %s flattened records", Integer.MAX_VALUE);
     for (int i = 0; i < numRecords; i++) {
-      _docIdMapping.add(_nextDocId);
+      setDocIdMapping(_nextFlattenedDocId + i, _nextDocId);
     }
     // TODO: Consider storing tuples as the key of the posting list so that the strings can be reused, and the hashcode
     //       can be cached.
@@ -101,14 +108,58 @@ public class MutableJsonIndexImpl implements MutableJsonIndex {
       for (Map.Entry<String, String> entry : record.entrySet()) {
         // Put both key and key-value into the posting list. Key is useful for checking if a key exists in the json.
         String key = entry.getKey();
-        _postingListMap.computeIfAbsent(key, k -> new RoaringBitmap()).add(_nextFlattenedDocId);
+        addToPostingList(key, _nextFlattenedDocId);
         String keyValue = key + JsonIndexCreator.KEY_VALUE_SEPARATOR + entry.getValue();
-        _postingListMap.computeIfAbsent(keyValue, k -> new RoaringBitmap()).add(_nextFlattenedDocId);
+        addToPostingList(keyValue, _nextFlattenedDocId);
       }
       _nextFlattenedDocId++;
     }
   }
 
+  private void setDocIdMapping(int flattenedDocId, int docId) {
+    int chunkId = flattenedDocId >>> DOC_ID_MAPPING_CHUNK_SHIFT;
+    int[][] chunks = _docIdMappingChunks;
+    if (chunkId == chunks.length) {
+      chunks = Arrays.copyOf(chunks, chunks.length * 2);
+      _docIdMappingChunks = chunks;
+    }
+    int[] chunk = chunks[chunkId];
+    if (chunk == null) {
+      chunk = new int[DOC_ID_MAPPING_CHUNK_SIZE];
+      chunks[chunkId] = chunk;
+    }
+    chunk[flattenedDocId & DOC_ID_MAPPING_CHUNK_MASK] = docId;
+  }
+
+  private static int getDocId(int[][] docIdMappingChunks, int flattenedDocId) {
+    int[] chunk = docIdMappingChunks[flattenedDocId >>> DOC_ID_MAPPING_CHUNK_SHIFT];
+    return chunk[flattenedDocId & DOC_ID_MAPPING_CHUNK_MASK];
+  }
+
+  private void addToPostingList(String key, int flattenedDocId) {
+    RoaringBitmap postingList = _postingListMap.get(key);
+    if (postingList == null) {
+      postingList = _postingListMap.computeIfAbsent(key, k -> new RoaringBitmap());
+    }
+    synchronized (postingList) {
+      postingList.add(flattenedDocId);
+    }
+  }
+
+  /**
+   * Returns a copy of the posting list for the given key, or {@code null} if the key does not exist.
+   */
+  @Nullable
+  private RoaringBitmap getPostingList(String key) {
+    RoaringBitmap postingList = _postingListMap.get(key);
+    if (postingList == null) {
+      return null;
+    }
+    synchronized (postingList) {
+      return postingList.clone();
+    }
+  }
+
   @Override
   public MutableRoaringBitmap getMatchingDocIds(String filterString) {
     FilterContext filter;
@@ -118,26 +169,28 @@ public class MutableJsonIndexImpl implements MutableJsonIndex {
       throw new BadQueryRequestException("Invalid json match filter: " + filterString);
     }
 
-    _readLock.lock();
-    try {
-      if (filter.getType() == FilterContext.Type.PREDICATE && isExclusive(filter.getPredicate().getType())) {
-        // Handle exclusive predicate separately because the flip can only be applied to the unflattened doc ids in
-        // order to get the correct result, and it cannot be nested
-        RoaringBitmap matchingFlattenedDocIds = getMatchingFlattenedDocIds(filter.getPredicate());
-        MutableRoaringBitmap matchingDocIds = new MutableRoaringBitmap();
-        matchingFlattenedDocIds
-            .forEach((IntConsumer) flattenedDocId -> matchingDocIds.add(_docIdMapping.getInt(flattenedDocId)));
-        matchingDocIds.flip(0, (long) _nextDocId);
-        return matchingDocIds;
-      } else {
-        RoaringBitmap matchingFlattenedDocIds = getMatchingFlattenedDocIds(filter);
-        MutableRoaringBitmap matchingDocIds = new MutableRoaringBitmap();
-        matchingFlattenedDocIds
-            .forEach((IntConsumer) flattenedDocId -> matchingDocIds.add(_docIdMapping.getInt(flattenedDocId)));
-        return matchingDocIds;
-      }
-    } finally {
-      _readLock.unlock();
+    // Read the published number of docs before reading the posting lists, and ignore the flattened docs added after it
+    long numDocsAndFlattenedDocs = _numDocsAndFlattenedDocs;
+    int numDocs = (int) (numDocsAndFlattenedDocs >>> 32);
+    int numFlattenedDocs = (int) numDocsAndFlattenedDocs;
+    int[][] docIdMappingChunks = _docIdMappingChunks;
+    if (filter.getType() == FilterContext.Type.PREDICATE && isExclusive(filter.getPredicate().getType())) {
+      // Handle exclusive predicate separately because the flip can only be applied to the unflattened doc ids in
+      // order to get the correct result, and it cannot be nested
+      RoaringBitmap matchingFlattenedDocIds = getMatchingFlattenedDocIds(filter.getPredicate());
+      matchingFlattenedDocIds.remove(numFlattenedDocs, MAX_FLATTENED_DOC_ID_RANGE_END);
+      MutableRoaringBitmap matchingDocIds = new MutableRoaringBitmap();
+      matchingFlattenedDocIds.forEach(
+          (IntConsumer) flattenedDocId -> matchingDocIds.add(getDocId(docIdMappingChunks, flattenedDocId)));
+      matchingDocIds.flip(0, (long) numDocs);
+      return matchingDocIds;
+    } else {
+      RoaringBitmap matchingFlattenedDocIds = getMatchingFlattenedDocIds(filter);
+      matchingFlattenedDocIds.remove(numFlattenedDocs, MAX_FLATTENED_DOC_ID_RANGE_END);
+      MutableRoaringBitmap matchingDocIds = new MutableRoaringBitmap();
+      matchingFlattenedDocIds.forEach(
+          (IntConsumer) flattenedDocId -> matchingDocIds.add(getDocId(docIdMappingChunks, flattenedDocId)));
+      return matchingDocIds;
     }
   }
 
@@ -226,10 +279,10 @@ public class MutableJsonIndexImpl implements MutableJsonIndex {
         // "[0]"=1 -> ".$index"='0' && "."='1'
         // ".foo[1].bar"='abc' -> ".foo.$index"=1 && ".foo..bar"='abc'
         String searchKey = leftPart + JsonUtils.ARRAY_INDEX_KEY + BaseJsonIndexCreator.KEY_VALUE_SEPARATOR + arrayIndex;
-        RoaringBitmap docIds = _postingListMap.get(searchKey);
+        RoaringBitmap docIds = getPostingList(searchKey);
         if (docIds != null) {
           if (matchingDocIds == null) {
-            matchingDocIds = docIds.clone();
+            matchingDocIds = docIds;
           } else {
             matchingDocIds.and(docIds);
           }
@@ -246,10 +299,10 @@ public class MutableJsonIndexImpl implements MutableJsonIndex {
       String value = predicateType == Predicate.Type.EQ ? ((EqPredicate) predicate).getValue()
           : ((NotEqPredicate) predicate).getValue();
       String keyValuePair = key + BaseJsonIndexCreator.KEY_VALUE_SEPARATOR + value;
-      RoaringBitmap matchingDocIdsForKeyValuePair = _postingListMap.get(keyValuePair);
+      RoaringBitmap matchingDocIdsForKeyValuePair = getPostingList(keyValuePair);
       if (matchingDocIdsForKeyValuePair != null) {
         if (matchingDocIds == null) {
-          return matchingDocIdsForKeyValuePair.clone();
+          return matchingDocIdsForKeyValuePair;
         } else {
           matchingDocIds.and(matchingDocIdsForKeyValuePair);
           return matchingDocIds;
@@ -263,9 +316,11 @@ public class MutableJsonIndexImpl implements MutableJsonIndex {
       RoaringBitmap matchingDocIdsForKeyValuePairs = new RoaringBitmap();
       for (String value : values) {
         String keyValuePair = key + BaseJsonIndexCreator.KEY_VALUE_SEPARATOR + value;
-        RoaringBitmap matchingDocIdsForKeyValuePair = _postingListMap.get(keyValuePair);
-        if (matchingDocIdsForKeyValuePair != null) {
-          matchingDocIdsForKeyValuePairs.or(matchingDocIdsForKeyValuePair);
+        RoaringBitmap postingList = _postingListMap.get(keyValuePair);
+        if (postingList != null) {
+          synchronized (postingList) {
+            matchingDocIdsForKeyValuePairs.or(postingList);
+          }
         }
       }
       if (matchingDocIds == null) {
@@ -275,10 +330,10 @@ public class MutableJsonIndexImpl implements MutableJsonIndex {
         return matchingDocIds;
       }
     } else if (predicateType == Predicate.Type.IS_NOT_NULL || predicateType == Predicate.Type.IS_NULL) {
-      RoaringBitmap matchingDocIdsForKey = _postingListMap.get(key);
+      RoaringBitmap matchingDocIdsForKey = getPostingList(key);
       if (matchingDocIdsForKey != null) {
         if (matchingDocIds == null) {
-          return matchingDocIdsForKey.clone();
+          return matchingDocIdsForKey;
         } else {
           matchingDocIds.and(matchingDocIdsForKey);
           return matchingDocIds;
@@ -286,11 +341,69 @@ public class MutableJsonIndexImpl implements MutableJsonIndex {
       } else {
         return new RoaringBitmap();
       }
+    } else if (predicateType == Predicate.Type.RANGE) {
+      RoaringBitmap matchingDocIdsForRange = getMatchingDocIdsForRange(key, (RangePredicate) predicate);
+      if (matchingDocIds == null) {
+        return matchingDocIdsForRange;
+      } else {
+        matchingDocIds.and(matchingDocIdsForRange);
+        return matchingDocIds;
+      }
     } else {
       throw new IllegalStateException("Unsupported json_match predicate type: " + predicate);
     }
   }
 
+  /**
+   * Returns the matching flattened doc ids for the given range predicate on the numeric values of the given key. Values
+   * that cannot be parsed as number never match.
+   * <p>NOTE: The posting lists are not sorted for mutable index, so all the key-value pairs are scanned.
+   */
+  private RoaringBitmap getMatchingDocIdsForRange(String key, RangePredicate predicate) {
+    String lowerBound = predicate.getLowerBound();
+    boolean lowerUnbounded = lowerBound.equals(RangePredicate.UNBOUNDED);
+    double lowerValue = lowerUnbounded ? Double.NEGATIVE_INFINITY : parseBound(lowerBound);
+    boolean lowerInclusive = lowerUnbounded || predicate.isLowerInclusive();
+    String upperBound = predicate.getUpperBound();
+    boolean upperUnbounded = upperBound.equals(RangePredicate.UNBOUNDED);
+    double upperValue = upperUnbounded ? Double.POSITIVE_INFINITY : parseBound(upperBound);
+    boolean upperInclusive = upperUnbounded || predicate.isUpperInclusive();
+
+    String prefix = key + JsonIndexCreator.KEY_VALUE_SEPARATOR;
+    int prefixLength = prefix.length();
+    RoaringBitmap matchingDocIds = new RoaringBitmap();
+    for (Map.Entry<String, RoaringBitmap> entry : _postingListMap.entrySet()) {
+      String keyValuePair = entry.getKey();
+      if (!keyValuePair.startsWith(prefix)) {
+        continue;
+      }
+      double value;
+      try {
+        value = Double.parseDouble(keyValuePair.substring(prefixLength));
+      } catch (NumberFormatException e) {
+        continue;
+      }
+      int lowerCompareResult = Double.compare(value, lowerValue);
+      int upperCompareResult = Double.compare(value, upperValue);
+      if ((lowerCompareResult > 0 || (lowerCompareResult == 0 && lowerInclusive)) && (upperCompareResult < 0 || (
+          upperCompareResult == 0 && upperInclusive))) {
+        RoaringBitmap postingList = entry.getValue();
+        synchronized (postingList) {
+          matchingDocIds.or(postingList);
+        }
+      }
+    }
+    return matchingDocIds;
+  }
+
+  private static double parseBound(String bound) {
+    try {
+      return Double.parseDouble(bound);
+    } catch (NumberFormatException e) {
+      throw new BadQueryRequestException("Range predicate in json_match only supports numeric bounds, got: " + bound);
+    }
+  }
+
   @Override
   public void close() {
   }
@@ -54,51 +54,56 @@ public class DataTypeTransformer implements RecordTransformer {
   public GenericRow transform(GenericRow record) {
     for (Map.Entry<String, PinotDataType> entry : _dataTypes.entrySet()) {
       String column = entry.getKey();
-      try {
-        Object value = record.getValue(column);
-        if (value == null) {
-          continue;
-        }
-        PinotDataType dest = entry.getValue();
-        if (dest != PinotDataType.JSON) {
-          value = standardize(column, value, dest.isSingleValue());
-        }
+      Object value = record.getValue(column);
+      if (value == null) {
+        continue;
+      }
+      record.putValue(column, transformValue(column, value, entry.getValue()));
+    }
+    return record;
+  }
 
-        // NOTE: The standardized value could be null for empty Collection/Map/Object[].
-        if (value == null) {
-          record.putValue(column, null);
-          continue;
-        }
+  /**
+   * Converts a single non-null value of the given column into the desired data type, or returns {@code null} if the
+   * value is standardized to null (e.g. empty Collection/Map/Object[]).
+   */
+  @Nullable
+  public static Object transformValue(String column, Object value, PinotDataType dest) {
+    try {
+      if (dest != PinotDataType.JSON) {
+        value = standardize(column, value, dest.isSingleValue());
+      }
 
-        // Convert data type if necessary
-        PinotDataType source;
-        if (value instanceof Object[]) {
-          // Multi-value column
-          Object[] values = (Object[]) value;
-          source = PinotDataType.getMultiValueType(values[0].getClass());
-        } else {
-          // Single-value column
-          source = PinotDataType.getSingleValueType(value.getClass());
-        }
-        // Skipping conversion when srcType!=destType is speculative, and can be unsafe when
-        // the array for MV column contains values of mixing types. Mixing types can lead
-        // to ClassCastException during conversion, often aborting data ingestion jobs.
-        //
-        // So now, calling convert() unconditionally for safety. Perf impact is negligible:
-        // 1. for SV column, when srcType=destType, the conversion is simply pass through.
-        // 2. for MV column, when srcType=destType, the conversion is simply pass through
-        // if the source type is not Object[] (but sth like Integer[], Double[]). For Object[],
-        // the conversion loops through values in the array like before, but can catch the
-        // ClassCastException if it happens and continue the conversion now.
-        value = dest.convert(value, source);
-        value = dest.toInternal(value);
+      // NOTE: The standardized value could be null for empty Collection/Map/Object[].
+      if (value == null) {
+        return null;
+      }
 
-        record.putValue(column, value);
-      } catch (Exception e) {
-        throw new RuntimeException("Caught exception while transforming data type for column: " + column, e);
+      // Convert data type if necessary
+      PinotDataType source;
+      if (value instanceof Object[]) {
+        // Multi-value column
+        Object[] values = (Object[]) value;
+        source = PinotDataType.getMultiValueType(values[0].getClass());
+      } else {
+        // Single-value column
+        source = PinotDataType.getSingleValueType(value.getClass());
       }
+      // Skipping conversion when srcType!=destType is speculative, and can be unsafe when
+      // the array for MV column contains values of mixing types. Mixing types can lead
+      // to ClassCastException during conversion, often aborting data ingestion jobs.
+      //
+      // So now, calling convert() unconditionally for safety. Perf impact is negligible:
+      // 1. for SV column, when srcType=destType, the conversion is simply pass through.
+      // 2. for MV column, when srcType=destType, the conversion is simply pass through
+      // if the source type is not Object[] (but sth like Integer[], Double[]). For Object[],
+      // the conversion loops through values in the array like before, but can catch the
+      // ClassCastException if it happens and continue the conversion now.
+      value = dest.convert(value, source);
+      return dest.toInternal(value);
+    } catch (Exception e) {
+      throw new RuntimeException("Caught exception while transforming data type for column: " + column, e);
     }
-    return record;
   }
 
   /**
@@ -117,6 +117,13 @@ public class ExpressionTransformer implements RecordTransformer {
     }
   }
 
+  /**
+   * Returns {@code true} if there is no expression to evaluate, in which case the transformer does not modify records.
+   */
+  public boolean isNoOp() {
+    return _expressionEvaluators.isEmpty();
+  }
+
   @Override
   public GenericRow transform(GenericRow record) {
     for (Map.Entry<String, FunctionEvaluator> entry : _expressionEvaluators.entrySet()) {
@@ -82,6 +82,13 @@ public class NullValueTransformer implements RecordTransformer {
     }
   }
 
+  /**
+   * Returns the default value to fill in when the value of the given column is {@code null}.
+   */
+  public Object getDefaultNullValue(String column) {
+    return _defaultNullValues.get(column);
+  }
+
   @Override
   public GenericRow transform(GenericRow record) {
     for (Map.Entry<String, Object> entry : _defaultNullValues.entrySet()) {
@@ -0,0 +1,221 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.creator;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.utils.PinotDataType;
+import org.apache.pinot.segment.local.recordtransformer.ComplexTypeTransformer;
+import org.apache.pinot.segment.local.recordtransformer.DataTypeTransformer;
+import org.apache.pinot.segment.local.recordtransformer.ExpressionTransformer;
+import org.apache.pinot.segment.local.recordtransformer.NullValueTransformer;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.config.table.ingestion.IngestionConfig;
+import org.apache.pinot.spi.data.FieldSpec;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.ColumnarRecordReader;
+import org.apache.pinot.spi.data.readers.RecordBatch;
+import org.apache.pinot.spi.data.readers.RecordReader;
+import org.apache.pinot.spi.utils.StringUtil;
+
+
+/**
+ * The {@code RecordBatchTransformer} transforms the values of a {@link RecordBatch} column by column, and produces the
+ * same values as the default record transformer (data type conversion, null value handling and sanitization) does for
+ * each record. The single-valued INT/LONG/FLOAT/DOUBLE columns are kept in primitive arrays, and are passed through
+ * without boxing when the source values are already of the desired data type.
+ * <p>It can only be used when there is no ingestion transform, filter or complex type handling configured (see
+ * {@link #isSupported(TableConfig, Schema, RecordReader)}).
+ * <p>NOTE: Different columns can be transformed concurrently.
+ */
+public class RecordBatchTransformer {
+  private final Map<String, FieldSpec> _fieldSpecs = new HashMap<>();
+  private final Map<String, PinotDataType> _dataTypes = new HashMap<>();
+  private final NullValueTransformer _nullValueTransformer;
+
+  public RecordBatchTransformer(TableConfig tableConfig, Schema schema) {
+    for (FieldSpec fieldSpec : schema.getAllFieldSpecs()) {
+      if (!fieldSpec.isVirtualColumn()) {
+        _fieldSpecs.put(fieldSpec.getName(), fieldSpec);
+        _dataTypes.put(fieldSpec.getName(), PinotDataType.getPinotDataTypeForIngestion(fieldSpec));
+      }
+    }
+    _nullValueTransformer = new NullValueTransformer(tableConfig, schema);
+  }
+
+  /**
+   * Returns whether the segment can be created from the record batches of the given record reader, which requires:
+   * <ul>
+   *   <li>Columnar build is enabled in the indexing config</li>
+   *   <li>The record reader supports batch read</li>
+   *   <li>No ingestion transform (including the derived columns from the schema), filter or complex type handling</li>
+   * </ul>
+   */
+  public static boolean isSupported(TableConfig tableConfig, Schema schema, RecordReader recordReader) {
+    if (!tableConfig.getIndexingConfig().isColumnMajorSegmentBuilderEnabled()) {
+      return false;
+    }
+    if (!(recordReader instanceof ColumnarRecordReader) || !((ColumnarRecordReader) recordReader)
+        .isBatchReadSupported()) {
+      return false;
+    }
+    IngestionConfig ingestionConfig = tableConfig.getIngestionConfig();
+    if (ingestionConfig != null && ingestionConfig.getFilterConfig() != null) {
+      return false;
+    }
+    return new ExpressionTransformer(tableConfig, schema).isNoOp()
+        && ComplexTypeTransformer.getComplexTypeTransformer(tableConfig) == null;
+  }
+
+  /**
+   * Returns the columns to be transformed.
+   */
+  public Iterable<String> getColumns() {
+    return _fieldSpecs.keySet();
+  }
+
+  /**
+   * Transforms the values of the given column within the record batch.
+   */
+  public TransformedColumn transform(RecordBatch recordBatch, String column) {
+    FieldSpec fieldSpec = _fieldSpecs.get(column);
+    DataType storedType = fieldSpec.getDataType().getStoredType();
+    boolean isPrimitive =
+        fieldSpec.isSingleValueField() && storedType.isNumeric() && storedType != DataType.BIG_DECIMAL;
+    int numRows = recordBatch.getNumRows();
+    Object values = recordBatch.getValues(column);
+    boolean[] nullFlags = recordBatch.getNullFlags(column);
+
+    // Fast path: pass through the primitive values of the desired data type
+    if (values != null && nullFlags == null && fieldSpec.isSingleValueField() && isPassThrough(fieldSpec.getDataType(),
+        values)) {
+      return new TransformedColumn(values, null);
+    }
+
+    PinotDataType dest = _dataTypes.get(column);
+    Object defaultNullValue = _nullValueTransformer.getDefaultNullValue(column);
+    Object transformedValues = isPrimitive ? createPrimitiveArray(storedType, numRows) : new Object[numRows];
+    boolean[] transformedNullFlags = null;
+    // NOTE: Only sanitize STRING columns (same as SanitizationTransformer) because truncating JSON values would make
+    //       them invalid
+    int maxLength = fieldSpec.getDataType() == DataType.STRING ? fieldSpec.getMaxLength() : 0;
+    for (int i = 0; i < numRows; i++) {
+      Object value = recordBatch.getValue(column, i);
+      if (value != null) {
+        value = DataTypeTransformer.transformValue(column, value, dest);
+      }
+      if (value == null) {
+        value = defaultNullValue;
+        if (transformedNullFlags == null) {
+          transformedNullFlags = new boolean[numRows];
+        }
+        transformedNullFlags[i] = true;
+      }
+      if (maxLength > 0) {
+        value = sanitize(value, maxLength);
+      }
+      setValue(transformedValues, i, value);
+    }
+    return new TransformedColumn(transformedValues, transformedNullFlags);
+  }
+
+  private static boolean isPassThrough(DataType dataType, Object values) {
+    switch (dataType) {
+      case INT:
+        return values instanceof int[];
+      case LONG:
+        return values instanceof long[];
+      case FLOAT:
+        return values instanceof float[];
+      case DOUBLE:
+        return values instanceof double[];
+      default:
+        return false;
+    }
+  }
+
+  private static Object createPrimitiveArray(DataType storedType, int length) {
+    switch (storedType) {
+      case INT:
+        return new int[length];
+      case LONG:
+        return new long[length];
+      case FLOAT:
+        return new float[length];
+      case DOUBLE:
+        return new double[length];
+      default:
+        throw new IllegalStateException("Unsupported stored type: " + storedType);
+    }
+  }
+
+  private static void setValue(Object values, int index, Object value) {
+    if (values instanceof Object[]) {
+      ((Object[]) values)[index] = value;
+    } else if (values instanceof int[]) {
+      ((int[]) values)[index] = (Integer) value;
+    } else if (values instanceof long[]) {
+      ((long[]) values)[index] = (Long) value;
+    } else if (values instanceof float[]) {
+      ((float[]) values)[index] = (Float) value;
+    } else {
+      ((double[]) values)[index] = (Double) value;
+    }
+  }
+
+  /**
+   * Sanitizes the STRING value the same way as the {@code SanitizationTransformer}.
+   */
+  private static Object sanitize(Object value, int maxLength) {
+    if (value instanceof String) {
+      return StringUtil.sanitizeStringValue((String) value, maxLength);
+    }
+    Object[] values = (Object[]) value;
+    int numValues = values.length;
+    Object[] sanitizedValues = new Object[numValues];
+    for (int i = 0; i < numValues; i++) {
+      sanitizedValues[i] = StringUtil.sanitizeStringValue(values[i].toString(), maxLength);
+    }
+    return sanitizedValues;
+  }
+
+  /**
+   * The transformed values of a column, where the null flags indicate the values filled with the default null value.
+   */
+  public static class TransformedColumn {
+    private final Object _values;
+    private final boolean[] _nullFlags;
+
+    public TransformedColumn(Object values, @Nullable boolean[] nullFlags) {
+      _values = values;
+      _nullFlags = nullFlags;
+    }
+
+    public Object getValues() {
+      return _values;
+    }
+
+    @Nullable
+    public boolean[] getNullFlags() {
+      return _nullFlags;
+    }
+  }
+}
@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.creator.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Worker pool to create the indexes of different columns in parallel during the segment creation.
+ * <p>The pool is created per segment build and starts a dedicated thread for each worker, which is stopped when the
+ * pool is closed. The threads are not shared across the concurrent segment builds.
+ * <p>Each column should always be assigned to the same worker so that the tasks for a column are executed in order
+ * (index creators are not thread-safe). Each worker has a bounded task queue, and {@link #submit(int, Task)} blocks
+ * when the queue is full so that the producer (the segment creation thread) cannot run too far ahead of the workers.
+ * <p>Once a task fails, the remaining tasks are skipped, and the failure is thrown from the next {@link #submit} or
+ * {@link #awaitCompletion()} call.
+ */
+public class ColumnIndexCreationWorkerPool implements Closeable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ColumnIndexCreationWorkerPool.class);
+
+  private final BlockingQueue<Runnable>[] _taskQueues;
+  private final Thread[] _workerThreads;
+  private final AtomicReference<Throwable> _failure = new AtomicReference<>();
+
+  @SuppressWarnings("unchecked")
+  public ColumnIndexCreationWorkerPool(int numWorkers, int queueCapacity, String threadNamePrefix) {
+    _taskQueues = new BlockingQueue[numWorkers];
+    _workerThreads = new Thread[numWorkers];
+    for (int i = 0; i < numWorkers; i++) {
+      BlockingQueue<Runnable> taskQueue = new ArrayBlockingQueue<>(queueCapacity);
+      _taskQueues[i] = taskQueue;
+      Thread workerThread = new Thread(() -> {
+        try {
+          while (true) {
+            taskQueue.take().run();
+          }
+        } catch (InterruptedException e) {
+          // Exit when the pool is closed
+        }
+      }, threadNamePrefix + i);
+      workerThread.setDaemon(true);
+      workerThread.start();
+      _workerThreads[i] = workerThread;
+    }
+  }
+
+  public int getNumWorkers() {
+    return _workerThreads.length;
+  }
+
+  /**
+   * Submits a task to the given worker, and blocks if the task queue of the worker is full.
+   */
+  public void submit(int workerId, Task task)
+      throws IOException {
+    checkFailure();
+    put(workerId, () -> {
+      if (_failure.get() == null) {
+        try {
+          task.run();
+        } catch (Throwable t) {
+          LOGGER.error("Caught exception while creating indexes", t);
+          _failure.compareAndSet(null, t);
+        }
+      }
+    });
+  }
+
+  /**
+   * Waits for all the submitted tasks to finish, and throws the failure if any task failed.
+   */
+  public void awaitCompletion()
+      throws IOException {
+    int numWorkers = _workerThreads.length;
+    CountDownLatch latch = new CountDownLatch(numWorkers);
+    for (int i = 0; i < numWorkers; i++) {
+      put(i, latch::countDown);
+    }
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for the index creation to finish", e);
+    }
+    checkFailure();
+  }
+
+  private void put(int workerId, Runnable runnable)
+      throws IOException {
+    try {
+      _taskQueues[workerId].put(runnable);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while submitting index creation task", e);
+    }
+  }
+
+  private void checkFailure()
+      throws IOException {
+    Throwable failure = _failure.get();
+    if (failure != null) {
+      throw new IOException("Caught exception while creating indexes", failure);
+    }
+  }
+
+  /**
+   * Stops the workers, and waits for them to exit so that the index creators can be safely closed afterwards.
+   */
+  @Override
+  public void close() {
+    for (Thread workerThread : _workerThreads) {
+      workerThread.interrupt();
+    }
+    for (Thread workerThread : _workerThreads) {
+      try {
+        workerThread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Index creation task for a column.
+   */
+  public interface Task {
+    void run()
+        throws Exception;
+  }
+}
@@ -24,11 +24,14 @@ import java.io.IOException;
 import java.util.Map;
 import java.util.Objects;
 import org.apache.pinot.segment.local.io.writer.impl.BaseChunkSVForwardIndexWriter;
+import org.apache.pinot.segment.local.io.writer.impl.FrameOfReferenceChunkSVForwardIndexWriter;
 import org.apache.pinot.segment.local.segment.creator.impl.bloom.OnHeapGuavaBloomFilterCreator;
+import org.apache.pinot.segment.local.segment.creator.impl.bloom.SplitBlockBloomFilterCreator;
 import org.apache.pinot.segment.local.segment.creator.impl.fwd.MultiValueFixedByteRawIndexCreator;
 import org.apache.pinot.segment.local.segment.creator.impl.fwd.MultiValueUnsortedForwardIndexCreator;
 import org.apache.pinot.segment.local.segment.creator.impl.fwd.MultiValueVarByteRawIndexCreator;
 import org.apache.pinot.segment.local.segment.creator.impl.fwd.SingleValueFixedByteRawIndexCreator;
+import org.apache.pinot.segment.local.segment.creator.impl.fwd.SingleValueFrameOfReferenceRawIndexCreator;
 import org.apache.pinot.segment.local.segment.creator.impl.fwd.SingleValueSortedForwardIndexCreator;
 import org.apache.pinot.segment.local.segment.creator.impl.fwd.SingleValueUnsortedForwardIndexCreator;
 import org.apache.pinot.segment.local.segment.creator.impl.fwd.SingleValueVarByteRawIndexCreator;
@@ -55,6 +58,7 @@ import org.apache.pinot.segment.spi.index.creator.GeoSpatialIndexCreator;
 import org.apache.pinot.segment.spi.index.creator.JsonIndexCreator;
 import org.apache.pinot.segment.spi.index.creator.TextIndexCreator;
 import org.apache.pinot.segment.spi.index.reader.H3IndexResolution;
+import org.apache.pinot.spi.config.table.BloomFilterConfig;
 import org.apache.pinot.spi.config.table.FSTType;
 import org.apache.pinot.spi.config.table.FieldConfig;
 import org.apache.pinot.spi.data.FieldSpec;
@@ -204,6 +208,15 @@ public final class DefaultIndexCreatorProvider implements IndexCreatorProvider {
       boolean deriveNumDocsPerChunk,
       int writerVersion)
       throws IOException {
+    if (writerVersion == FrameOfReferenceChunkSVForwardIndexWriter.VERSION) {
+      // Frame-of-reference encoding packs the values into bits instead of compressing the chunks, so the compression
+      // type does not apply
+      Preconditions.checkState(dataType.getStoredType() == FieldSpec.DataType.INT
+              || dataType.getStoredType() == FieldSpec.DataType.LONG,
+          "Frame-of-reference encoding is only supported for INT and LONG columns, got: %s for column: %s", dataType,
+          column);
+      return new SingleValueFrameOfReferenceRawIndexCreator(file, column, totalDocs, dataType.getStoredType());
+    }
     switch (dataType.getStoredType()) {
       case INT:
       case LONG:
@@ -238,6 +251,8 @@ public final class DefaultIndexCreatorProvider implements IndexCreatorProvider {
       String column, FieldSpec.DataType dataType, final int totalDocs, int maxNumberOfMultiValueElements,
       boolean deriveNumDocsPerChunk, int writerVersion, int maxRowLengthInBytes)
       throws IOException {
+    Preconditions.checkState(writerVersion != FrameOfReferenceChunkSVForwardIndexWriter.VERSION,
+        "Frame-of-reference encoding is not supported for multi-value column: %s", column);
     switch (dataType.getStoredType()) {
       case INT:
       case LONG:
@@ -257,8 +272,13 @@ public final class DefaultIndexCreatorProvider implements IndexCreatorProvider {
   @Override
   public BloomFilterCreator newBloomFilterCreator(IndexCreationContext.BloomFilter context)
       throws IOException {
+    BloomFilterConfig bloomFilterConfig = Objects.requireNonNull(context.getBloomFilterConfig());
+    if (bloomFilterConfig.getType() == BloomFilterConfig.Type.SPLIT_BLOCK) {
+      return new SplitBlockBloomFilterCreator(context.getIndexDir(), context.getFieldSpec().getName(),
+          context.getCardinality(), bloomFilterConfig);
+    }
     return new OnHeapGuavaBloomFilterCreator(context.getIndexDir(), context.getFieldSpec().getName(),
-        context.getCardinality(), Objects.requireNonNull(context.getBloomFilterConfig()));
+        context.getCardinality(), bloomFilterConfig);
   }
 
   @Override
@@ -31,13 +31,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.configuration.PropertiesConfiguration;
 import org.apache.pinot.common.utils.FileUtils;
 import org.apache.pinot.segment.local.io.util.PinotDataBitSet;
 import org.apache.pinot.segment.local.segment.creator.impl.nullvalue.NullValueVectorCreator;
+import org.apache.pinot.segment.local.segment.readers.PinotSegmentColumnReader;
 import org.apache.pinot.segment.local.segment.store.TextIndexUtils;
 import org.apache.pinot.segment.local.utils.GeometrySerializer;
+import org.apache.pinot.segment.spi.IndexSegment;
 import org.apache.pinot.segment.spi.V1Constants;
 import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
 import org.apache.pinot.segment.spi.creator.ColumnIndexCreationInfo;
@@ -53,6 +56,7 @@ import org.apache.pinot.segment.spi.index.creator.H3IndexConfig;
 import org.apache.pinot.segment.spi.index.creator.JsonIndexCreator;
 import org.apache.pinot.segment.spi.index.creator.SegmentIndexCreationInfo;
 import org.apache.pinot.segment.spi.index.creator.TextIndexCreator;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
 import org.apache.pinot.segment.spi.partition.PartitionFunction;
 import org.apache.pinot.spi.config.table.FSTType;
 import org.apache.pinot.spi.config.table.FieldConfig;
@@ -86,6 +90,10 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
   private static final Logger LOGGER = LoggerFactory.getLogger(SegmentColumnarIndexCreator.class);
   // Allow at most 512 characters for the metadata property
   private static final int METADATA_PROPERTY_LENGTH_LIMIT = 512;
+  // Number of rows buffered for each column before submitting them to the worker pool for parallel index creation
+  private static final int NUM_ROWS_PER_INDEXING_TASK = 1024;
+  // Maximum number of pending tasks for each worker before blocking the segment creation thread
+  private static final int INDEXING_TASK_QUEUE_CAPACITY = 16;
 
   private SegmentGeneratorConfig _config;
   private Map<String, ColumnIndexCreationInfo> _indexCreationInfoMap;
@@ -106,6 +114,15 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
   private boolean _nullHandlingEnabled;
   private Map<String, Map<String, String>> _columnProperties;
 
+  // Only set when the index creation is parallelized across columns. Each column is always handled by the same worker
+  // so that the values of a column are indexed in order.
+  private ColumnIndexCreationWorkerPool _workerPool;
+  private final Map<String, Integer> _columnWorkerIds = new HashMap<>();
+  private final Map<String, Object[]> _bufferedValues = new HashMap<>();
+  private final Map<String, boolean[]> _bufferedNullFlags = new HashMap<>();
+  private int _bufferedStartDocId;
+  private int _numBufferedRows;
+
   @Override
   public void init(SegmentGeneratorConfig segmentCreationSpec, SegmentIndexCreationInfo segmentIndexCreationInfo,
       Map<String, ColumnIndexCreationInfo> indexCreationInfoMap, Schema schema, File outDir)
@@ -128,6 +145,13 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
     }
 
     Collection<FieldSpec> fieldSpecs = schema.getAllFieldSpecs();
+    // NOTE: The worker threads are dedicated to this segment build, so cap them by the available processors
+    int numWorkers = Math.min(Math.min(segmentCreationSpec.getIndexCreationParallelism(), fieldSpecs.size()),
+        Runtime.getRuntime().availableProcessors());
+    if (numWorkers > 1) {
+      _workerPool = new ColumnIndexCreationWorkerPool(numWorkers, INDEXING_TASK_QUEUE_CAPACITY,
+          "index-creation-" + segmentCreationSpec.getTableName() + "-");
+    }
     Set<String> invertedIndexColumns = new HashSet<>();
     for (String columnName : _config.getInvertedIndexCreationColumns()) {
       Preconditions.checkState(schema.hasColumn(columnName),
@@ -208,13 +232,11 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
                 columnIndexCreationInfo.isUseVarLengthDictionary());
         _dictionaryCreatorMap.put(columnName, dictionaryCreator);
         // Create dictionary
-        try {
-          dictionaryCreator.build();
-        } catch (Exception e) {
-          LOGGER.error("Error building dictionary for field: {}, cardinality: {}, number of bytes per entry: {}",
-              fieldSpec.getName(), columnIndexCreationInfo.getDistinctValueCount(),
-              dictionaryCreator.getNumBytesPerEntry());
-          throw e;
+        if (_workerPool != null) {
+          _workerPool.submit(getWorkerId(columnName),
+              () -> buildDictionary(dictionaryCreator, columnIndexCreationInfo, columnName));
+        } else {
+          buildDictionary(dictionaryCreator, columnIndexCreationInfo, columnName);
         }
       }
 
@@ -257,6 +279,31 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
         _nullValueVectorCreatorMap.put(columnName, new NullValueVectorCreator(_indexDir, columnName));
       }
     }
+
+    if (_workerPool != null) {
+      _workerPool.awaitCompletion();
+    }
+  }
+
+  private static void buildDictionary(SegmentDictionaryCreator dictionaryCreator, ColumnIndexCreationInfo info,
+      String columnName)
+      throws Exception {
+    try {
+      dictionaryCreator.build();
+    } catch (Exception e) {
+      LOGGER.error("Error building dictionary for field: {}, cardinality: {}, number of bytes per entry: {}",
+          columnName, info.getDistinctValueCount(), dictionaryCreator.getNumBytesPerEntry());
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the id of the worker to create the indexes for the given column. Columns are assigned to the workers in a
+   * round-robin fashion.
+   */
+  private int getWorkerId(String columnName) {
+    return _columnWorkerIds.computeIfAbsent(columnName,
+        k -> _columnWorkerIds.size() % _workerPool.getNumWorkers());
   }
 
   /**
@@ -333,6 +380,11 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
   @Override
   public void indexRow(GenericRow row)
       throws IOException {
+    if (_workerPool != null) {
+      bufferRow(row);
+      _docIdCounter++;
+      return;
+    }
     for (Map.Entry<String, ForwardIndexCreator> entry : _forwardIndexCreatorMap.entrySet()) {
       String columnName = entry.getKey();
       ForwardIndexCreator forwardIndexCreator = entry.getValue();
@@ -342,190 +394,394 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
         throw new RuntimeException("Null value for column:" + columnName);
       }
 
-      FieldSpec fieldSpec = _schema.getFieldSpecFor(columnName);
+      indexColumnValue(columnName, forwardIndexCreator, columnValueToIndex);
 
-      //get dictionaryCreator, will be null if column is not dictionaryEncoded
-      SegmentDictionaryCreator dictionaryCreator = _dictionaryCreatorMap.get(columnName);
+      if (_nullHandlingEnabled) {
+        // If row has null value for given column name, add to null value vector
+        if (row.isNullValue(columnName)) {
+          _nullValueVectorCreatorMap.get(columnName).setNull(_docIdCounter);
+        }
+      }
+    }
+    _docIdCounter++;
+  }
 
-      // text-index
-      TextIndexCreator textIndexCreator = _textIndexCreatorMap.get(columnName);
-      if (textIndexCreator != null) {
-        if (fieldSpec.isSingleValueField()) {
-          textIndexCreator.add((String) columnValueToIndex);
-        } else {
-          Object[] values = (Object[]) columnValueToIndex;
-          int length = values.length;
-          if (values instanceof String[]) {
-            textIndexCreator.add((String[]) values, length);
+  /**
+   * Buffers the values of the row, and submits the buffered values of each column to the worker pool when there are
+   * enough rows buffered.
+   */
+  private void bufferRow(GenericRow row)
+      throws IOException {
+    if (_numBufferedRows == 0) {
+      _bufferedStartDocId = _docIdCounter;
+    }
+    for (String columnName : _forwardIndexCreatorMap.keySet()) {
+      Object columnValueToIndex = row.getValue(columnName);
+      if (columnValueToIndex == null) {
+        throw new RuntimeException("Null value for column:" + columnName);
+      }
+      _bufferedValues.computeIfAbsent(columnName, k -> new Object[NUM_ROWS_PER_INDEXING_TASK])[_numBufferedRows] =
+          columnValueToIndex;
+      if (_nullHandlingEnabled && row.isNullValue(columnName)) {
+        _bufferedNullFlags.computeIfAbsent(columnName, k -> new boolean[NUM_ROWS_PER_INDEXING_TASK])[_numBufferedRows] =
+            true;
+      }
+    }
+    if (++_numBufferedRows == NUM_ROWS_PER_INDEXING_TASK) {
+      flushBufferedRows();
+    }
+  }
+
+  private void flushBufferedRows()
+      throws IOException {
+    if (_numBufferedRows == 0) {
+      return;
+    }
+    int startDocId = _bufferedStartDocId;
+    int numDocs = _numBufferedRows;
+    for (Map.Entry<String, Object[]> entry : _bufferedValues.entrySet()) {
+      String columnName = entry.getKey();
+      Object[] values = entry.getValue();
+      boolean[] nullFlags = _bufferedNullFlags.get(columnName);
+      _workerPool.submit(getWorkerId(columnName),
+          () -> indexColumnBatch(columnName, startDocId, numDocs, values, nullFlags));
+    }
+    // The buffers are now owned by the workers
+    _bufferedValues.clear();
+    _bufferedNullFlags.clear();
+    _numBufferedRows = 0;
+  }
+
+  @Override
+  public void indexColumn(String columnName, @Nullable int[] sortedDocIds, IndexSegment segment)
+      throws IOException {
+    ForwardIndexCreator forwardIndexCreator = _forwardIndexCreatorMap.get(columnName);
+    if (forwardIndexCreator == null) {
+      // Index creators are not initialized for empty segment
+      return;
+    }
+    if (_workerPool != null) {
+      _workerPool.submit(getWorkerId(columnName),
+          () -> indexColumn(columnName, sortedDocIds, segment, forwardIndexCreator));
+    } else {
+      indexColumn(columnName, sortedDocIds, segment, forwardIndexCreator);
+    }
+  }
+
+  private void indexColumn(String columnName, @Nullable int[] sortedDocIds, IndexSegment segment,
+      ForwardIndexCreator forwardIndexCreator)
+      throws IOException {
+    // NOTE: Use the total docs from the stats because the segment (e.g. intermediate segment) might not have metadata
+    int numDocs = _totalDocs;
+    NullValueVectorCreator nullValueVectorCreator = _nullValueVectorCreatorMap.get(columnName);
+    try (PinotSegmentColumnReader columnReader = new PinotSegmentColumnReader(segment, columnName)) {
+      SegmentDictionaryCreator dictionaryCreator = _dictionaryCreatorMap.get(columnName);
+      if (dictionaryCreator != null && columnReader.hasDictionary() && !_textIndexCreatorMap.containsKey(columnName)
+          && !_jsonIndexCreatorMap.containsKey(columnName) && !_h3IndexCreatorMap.containsKey(columnName)) {
+        // Fast path for dictionary encoded column: map the dictionary ids of the source segment to the dictionary ids
+        // of the segment being created once per distinct value, then copy the dictionary ids without reading values
+        Dictionary dictionary = columnReader.getDictionary();
+        int[] dictIdMapping = new int[dictionary.length()];
+        for (int i = 0; i < dictIdMapping.length; i++) {
+          dictIdMapping[i] = dictionaryCreator.indexOfSV(dictionary.get(i));
+        }
+        DictionaryBasedInvertedIndexCreator invertedIndexCreator = _invertedIndexCreatorMap.get(columnName);
+        boolean isSingleValue = columnReader.isSingleValue();
+        for (int i = 0; i < numDocs; i++) {
+          int docId = sortedDocIds != null ? sortedDocIds[i] : i;
+          if (isSingleValue) {
+            int dictId = dictIdMapping[columnReader.getDictId(docId)];
+            forwardIndexCreator.putDictId(dictId);
+            if (invertedIndexCreator != null) {
+              invertedIndexCreator.add(dictId);
+            }
           } else {
-            String[] strings = new String[length];
-            for (int i = 0; i < length; i++) {
-              strings[i] = (String) values[i];
+            int[] dictIds = columnReader.getDictIdMV(docId);
+            for (int j = 0; j < dictIds.length; j++) {
+              dictIds[j] = dictIdMapping[dictIds[j]];
+            }
+            forwardIndexCreator.putDictIdMV(dictIds);
+            if (invertedIndexCreator != null) {
+              invertedIndexCreator.add(dictIds, dictIds.length);
             }
-            textIndexCreator.add(strings, length);
-            columnValueToIndex = strings;
+          }
+          if (nullValueVectorCreator != null && columnReader.isNull(docId)) {
+            nullValueVectorCreator.setNull(i);
+          }
+        }
+      } else {
+        for (int i = 0; i < numDocs; i++) {
+          int docId = sortedDocIds != null ? sortedDocIds[i] : i;
+          indexColumnValue(columnName, forwardIndexCreator, columnReader.getValue(docId));
+          if (nullValueVectorCreator != null && columnReader.isNull(docId)) {
+            nullValueVectorCreator.setNull(i);
           }
         }
       }
+    }
+  }
 
-      if (fieldSpec.isSingleValueField()) {
-        // Single Value column
-        JsonIndexCreator jsonIndexCreator = _jsonIndexCreatorMap.get(columnName);
-        if (jsonIndexCreator != null) {
-          jsonIndexCreator.add((String) columnValueToIndex);
-        }
-        GeoSpatialIndexCreator h3IndexCreator = _h3IndexCreatorMap.get(columnName);
-        if (h3IndexCreator != null) {
-          h3IndexCreator.add(GeometrySerializer.deserialize((byte[]) columnValueToIndex));
-        }
-        if (dictionaryCreator != null) {
-          // dictionary encoded SV column
-          // get dictID from dictionary
-          int dictId = dictionaryCreator.indexOfSV(columnValueToIndex);
-          // store the docID -> dictID mapping in forward index
+  @Override
+  public void indexColumnBatch(String columnName, int startDocId, int numDocs, Object values,
+      @Nullable boolean[] nullFlags)
+      throws IOException {
+    ForwardIndexCreator forwardIndexCreator = _forwardIndexCreatorMap.get(columnName);
+    if (forwardIndexCreator == null) {
+      // Index creators are not initialized for empty segment
+      return;
+    }
+    if (values instanceof Object[]) {
+      Object[] objectValues = (Object[]) values;
+      for (int i = 0; i < numDocs; i++) {
+        indexColumnValue(columnName, forwardIndexCreator, objectValues[i]);
+      }
+    } else {
+      // Single-valued INT/LONG/FLOAT/DOUBLE column stored in primitive array, which cannot have text/json/H3 index
+      SegmentDictionaryCreator dictionaryCreator = _dictionaryCreatorMap.get(columnName);
+      if (dictionaryCreator != null) {
+        DictionaryBasedInvertedIndexCreator invertedIndexCreator = _invertedIndexCreatorMap.get(columnName);
+        for (int i = 0; i < numDocs; i++) {
+          int dictId = getDictId(dictionaryCreator, values, i);
           forwardIndexCreator.putDictId(dictId);
-          DictionaryBasedInvertedIndexCreator invertedIndexCreator = _invertedIndexCreatorMap.get(columnName);
           if (invertedIndexCreator != null) {
-            // if inverted index enabled during segment creation,
-            // then store dictID -> docID mapping in inverted index
             invertedIndexCreator.add(dictId);
           }
+        }
+      } else {
+        putRawValues(forwardIndexCreator, values, numDocs);
+      }
+    }
+    if (nullFlags != null) {
+      NullValueVectorCreator nullValueVectorCreator = _nullValueVectorCreatorMap.get(columnName);
+      if (nullValueVectorCreator != null) {
+        for (int i = 0; i < numDocs; i++) {
+          if (nullFlags[i]) {
+            nullValueVectorCreator.setNull(startDocId + i);
+          }
+        }
+      }
+    }
+  }
+
+  private static int getDictId(SegmentDictionaryCreator dictionaryCreator, Object values, int index) {
+    if (values instanceof int[]) {
+      return dictionaryCreator.indexOfInt(((int[]) values)[index]);
+    }
+    if (values instanceof long[]) {
+      return dictionaryCreator.indexOfLong(((long[]) values)[index]);
+    }
+    if (values instanceof float[]) {
+      return dictionaryCreator.indexOfFloat(((float[]) values)[index]);
+    }
+    if (values instanceof double[]) {
+      return dictionaryCreator.indexOfDouble(((double[]) values)[index]);
+    }
+    throw new IllegalStateException("Unsupported values type: " + values.getClass());
+  }
+
+  private static void putRawValues(ForwardIndexCreator forwardIndexCreator, Object values, int numDocs) {
+    if (values instanceof int[]) {
+      int[] intValues = (int[]) values;
+      for (int i = 0; i < numDocs; i++) {
+        forwardIndexCreator.putInt(intValues[i]);
+      }
+    } else if (values instanceof long[]) {
+      long[] longValues = (long[]) values;
+      for (int i = 0; i < numDocs; i++) {
+        forwardIndexCreator.putLong(longValues[i]);
+      }
+    } else if (values instanceof float[]) {
+      float[] floatValues = (float[]) values;
+      for (int i = 0; i < numDocs; i++) {
+        forwardIndexCreator.putFloat(floatValues[i]);
+      }
+    } else if (values instanceof double[]) {
+      double[] doubleValues = (double[]) values;
+      for (int i = 0; i < numDocs; i++) {
+        forwardIndexCreator.putDouble(doubleValues[i]);
+      }
+    } else {
+      throw new IllegalStateException("Unsupported values type: " + values.getClass());
+    }
+  }
+
+  private void indexColumnValue(String columnName, ForwardIndexCreator forwardIndexCreator, Object columnValueToIndex)
+      throws IOException {
+    FieldSpec fieldSpec = _schema.getFieldSpecFor(columnName);
+
+    //get dictionaryCreator, will be null if column is not dictionaryEncoded
+    SegmentDictionaryCreator dictionaryCreator = _dictionaryCreatorMap.get(columnName);
+
+    // text-index
+    TextIndexCreator textIndexCreator = _textIndexCreatorMap.get(columnName);
+    if (textIndexCreator != null) {
+      if (fieldSpec.isSingleValueField()) {
+        textIndexCreator.add((String) columnValueToIndex);
+      } else {
+        Object[] values = (Object[]) columnValueToIndex;
+        int length = values.length;
+        if (values instanceof String[]) {
+          textIndexCreator.add((String[]) values, length);
         } else {
-          // non-dictionary encoded SV column
-          // store the docId -> raw value mapping in forward index
-          if (textIndexCreator != null && !shouldStoreRawValueForTextIndex(columnName)) {
-            // for text index on raw columns, check the config to determine if actual raw value should
-            // be stored or not
-            columnValueToIndex = _columnProperties.get(columnName).get(FieldConfig.TEXT_INDEX_RAW_VALUE);
-            if (columnValueToIndex == null) {
-              columnValueToIndex = FieldConfig.TEXT_INDEX_DEFAULT_RAW_VALUE;
-            }
+          String[] strings = new String[length];
+          for (int i = 0; i < length; i++) {
+            strings[i] = (String) values[i];
           }
-          switch (forwardIndexCreator.getValueType()) {
-            case INT:
-              forwardIndexCreator.putInt((int) columnValueToIndex);
-              break;
-            case LONG:
-              forwardIndexCreator.putLong((long) columnValueToIndex);
-              break;
-            case FLOAT:
-              forwardIndexCreator.putFloat((float) columnValueToIndex);
-              break;
-            case DOUBLE:
-              forwardIndexCreator.putDouble((double) columnValueToIndex);
-              break;
-            case BIG_DECIMAL:
-              forwardIndexCreator.putBigDecimal((BigDecimal) columnValueToIndex);
-              break;
-            case STRING:
+          textIndexCreator.add(strings, length);
+          columnValueToIndex = strings;
+        }
+      }
+    }
+
+    if (fieldSpec.isSingleValueField()) {
+      // Single Value column
+      JsonIndexCreator jsonIndexCreator = _jsonIndexCreatorMap.get(columnName);
+      if (jsonIndexCreator != null) {
+        jsonIndexCreator.add((String) columnValueToIndex);
+      }
+      GeoSpatialIndexCreator h3IndexCreator = _h3IndexCreatorMap.get(columnName);
+      if (h3IndexCreator != null) {
+        h3IndexCreator.add(GeometrySerializer.deserialize((byte[]) columnValueToIndex));
+      }
+      if (dictionaryCreator != null) {
+        // dictionary encoded SV column
+        // get dictID from dictionary
+        int dictId = dictionaryCreator.indexOfSV(columnValueToIndex);
+        // store the docID -> dictID mapping in forward index
+        forwardIndexCreator.putDictId(dictId);
+        DictionaryBasedInvertedIndexCreator invertedIndexCreator = _invertedIndexCreatorMap.get(columnName);
+        if (invertedIndexCreator != null) {
+          // if inverted index enabled during segment creation,
+          // then store dictID -> docID mapping in inverted index
+          invertedIndexCreator.add(dictId);
+        }
+      } else {
+        // non-dictionary encoded SV column
+        // store the docId -> raw value mapping in forward index
+        if (textIndexCreator != null && !shouldStoreRawValueForTextIndex(columnName)) {
+          // for text index on raw columns, check the config to determine if actual raw value should
+          // be stored or not
+          columnValueToIndex = _columnProperties.get(columnName).get(FieldConfig.TEXT_INDEX_RAW_VALUE);
+          if (columnValueToIndex == null) {
+            columnValueToIndex = FieldConfig.TEXT_INDEX_DEFAULT_RAW_VALUE;
+          }
+        }
+        switch (forwardIndexCreator.getValueType()) {
+          case INT:
+            forwardIndexCreator.putInt((int) columnValueToIndex);
+            break;
+          case LONG:
+            forwardIndexCreator.putLong((long) columnValueToIndex);
+            break;
+          case FLOAT:
+            forwardIndexCreator.putFloat((float) columnValueToIndex);
+            break;
+          case DOUBLE:
+            forwardIndexCreator.putDouble((double) columnValueToIndex);
+            break;
+          case BIG_DECIMAL:
+            forwardIndexCreator.putBigDecimal((BigDecimal) columnValueToIndex);
+            break;
+          case STRING:
+            forwardIndexCreator.putString((String) columnValueToIndex);
+            break;
+          case BYTES:
+            forwardIndexCreator.putBytes((byte[]) columnValueToIndex);
+            break;
+          case JSON:
+            if (columnValueToIndex instanceof String) {
               forwardIndexCreator.putString((String) columnValueToIndex);
-              break;
-            case BYTES:
+            } else if (columnValueToIndex instanceof byte[]) {
               forwardIndexCreator.putBytes((byte[]) columnValueToIndex);
-              break;
-            case JSON:
-              if (columnValueToIndex instanceof String) {
-                forwardIndexCreator.putString((String) columnValueToIndex);
-              } else if (columnValueToIndex instanceof byte[]) {
-                forwardIndexCreator.putBytes((byte[]) columnValueToIndex);
-              }
-              break;
-            default:
-              throw new IllegalStateException();
-          }
+            }
+            break;
+          default:
+            throw new IllegalStateException();
+        }
+      }
+    } else {
+      if (dictionaryCreator != null) {
+        //dictionary encoded
+        int[] dictIds = dictionaryCreator.indexOfMV(columnValueToIndex);
+        forwardIndexCreator.putDictIdMV(dictIds);
+        DictionaryBasedInvertedIndexCreator invertedIndexCreator = _invertedIndexCreatorMap.get(columnName);
+        if (invertedIndexCreator != null) {
+          invertedIndexCreator.add(dictIds, dictIds.length);
         }
       } else {
-        if (dictionaryCreator != null) {
-          //dictionary encoded
-          int[] dictIds = dictionaryCreator.indexOfMV(columnValueToIndex);
-          forwardIndexCreator.putDictIdMV(dictIds);
-          DictionaryBasedInvertedIndexCreator invertedIndexCreator = _invertedIndexCreatorMap.get(columnName);
-          if (invertedIndexCreator != null) {
-            invertedIndexCreator.add(dictIds, dictIds.length);
+        // for text index on raw columns, check the config to determine if actual raw value should
+        // be stored or not
+        if (textIndexCreator != null && !shouldStoreRawValueForTextIndex(columnName)) {
+          Object value = _columnProperties.get(columnName).get(FieldConfig.TEXT_INDEX_RAW_VALUE);
+          if (value == null) {
+            value = FieldConfig.TEXT_INDEX_DEFAULT_RAW_VALUE;
           }
-        } else {
-          // for text index on raw columns, check the config to determine if actual raw value should
-          // be stored or not
-          if (textIndexCreator != null && !shouldStoreRawValueForTextIndex(columnName)) {
-            Object value = _columnProperties.get(columnName).get(FieldConfig.TEXT_INDEX_RAW_VALUE);
-            if (value == null) {
-              value = FieldConfig.TEXT_INDEX_DEFAULT_RAW_VALUE;
+          if (forwardIndexCreator.getValueType().getStoredType() == DataType.STRING) {
+            columnValueToIndex = new String[]{String.valueOf(value)};
+          } else if (forwardIndexCreator.getValueType().getStoredType() == DataType.BYTES) {
+            columnValueToIndex = new byte[][]{String.valueOf(value).getBytes(UTF_8)};
+          } else {
+            throw new RuntimeException("Text Index is only supported for STRING and BYTES stored type");
+          }
+        }
+        Object[] values = (Object[]) columnValueToIndex;
+        int length = values.length;
+        switch (forwardIndexCreator.getValueType()) {
+          case INT:
+            int[] ints = new int[length];
+            for (int i = 0; i < length; i++) {
+              ints[i] = (Integer) values[i];
             }
-            if (forwardIndexCreator.getValueType().getStoredType() == DataType.STRING) {
-              columnValueToIndex = new String[]{String.valueOf(value)};
-            } else if (forwardIndexCreator.getValueType().getStoredType() == DataType.BYTES) {
-              columnValueToIndex = new byte[][]{String.valueOf(value).getBytes(UTF_8)};
-            } else {
-              throw new RuntimeException("Text Index is only supported for STRING and BYTES stored type");
+            forwardIndexCreator.putIntMV(ints);
+            break;
+          case LONG:
+            long[] longs = new long[length];
+            for (int i = 0; i < length; i++) {
+              longs[i] = (Long) values[i];
             }
-          }
-          Object[] values = (Object[]) columnValueToIndex;
-          int length = values.length;
-          switch (forwardIndexCreator.getValueType()) {
-            case INT:
-              int[] ints = new int[length];
-              for (int i = 0; i < length; i++) {
-                ints[i] = (Integer) values[i];
-              }
-              forwardIndexCreator.putIntMV(ints);
-              break;
-            case LONG:
-              long[] longs = new long[length];
-              for (int i = 0; i < length; i++) {
-                longs[i] = (Long) values[i];
-              }
-              forwardIndexCreator.putLongMV(longs);
-              break;
-            case FLOAT:
-              float[] floats = new float[length];
+            forwardIndexCreator.putLongMV(longs);
+            break;
+          case FLOAT:
+            float[] floats = new float[length];
+            for (int i = 0; i < length; i++) {
+              floats[i] = (Float) values[i];
+            }
+            forwardIndexCreator.putFloatMV(floats);
+            break;
+          case DOUBLE:
+            double[] doubles = new double[length];
+            for (int i = 0; i < length; i++) {
+              doubles[i] = (Double) values[i];
+            }
+            forwardIndexCreator.putDoubleMV(doubles);
+            break;
+          case STRING:
+            if (values instanceof String[]) {
+              forwardIndexCreator.putStringMV((String[]) values);
+            } else {
+              String[] strings = new String[length];
               for (int i = 0; i < length; i++) {
-                floats[i] = (Float) values[i];
+                strings[i] = (String) values[i];
               }
-              forwardIndexCreator.putFloatMV(floats);
-              break;
-            case DOUBLE:
-              double[] doubles = new double[length];
+              forwardIndexCreator.putStringMV(strings);
+            }
+            break;
+          case BYTES:
+            if (values instanceof byte[][]) {
+              forwardIndexCreator.putBytesMV((byte[][]) values);
+            } else {
+              byte[][] bytesArray = new byte[length][];
               for (int i = 0; i < length; i++) {
-                doubles[i] = (Double) values[i];
-              }
-              forwardIndexCreator.putDoubleMV(doubles);
-              break;
-            case STRING:
-              if (values instanceof String[]) {
-                forwardIndexCreator.putStringMV((String[]) values);
-              } else {
-                String[] strings = new String[length];
-                for (int i = 0; i < length; i++) {
-                  strings[i] = (String) values[i];
-                }
-                forwardIndexCreator.putStringMV(strings);
+                bytesArray[i] = (byte[]) values[i];
               }
-              break;
-            case BYTES:
-              if (values instanceof byte[][]) {
-                forwardIndexCreator.putBytesMV((byte[][]) values);
-              } else {
-                byte[][] bytesArray = new byte[length][];
-                for (int i = 0; i < length; i++) {
-                  bytesArray[i] = (byte[]) values[i];
-                }
-                forwardIndexCreator.putBytesMV(bytesArray);
-              }
-              break;
-            default:
-              throw new IllegalStateException();
-          }
-        }
-      }
-
-      if (_nullHandlingEnabled) {
-        // If row has null value for given column name, add to null value vector
-        if (row.isNullValue(columnName)) {
-          _nullValueVectorCreatorMap.get(columnName).setNull(_docIdCounter);
+              forwardIndexCreator.putBytesMV(bytesArray);
+            }
+            break;
+          default:
+            throw new IllegalStateException();
         }
       }
     }
-    _docIdCounter++;
   }
 
   private boolean shouldStoreRawValueForTextIndex(String column) {
@@ -548,25 +804,48 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
   @Override
   public void seal()
       throws ConfigurationException, IOException {
-    for (DictionaryBasedInvertedIndexCreator invertedIndexCreator : _invertedIndexCreatorMap.values()) {
+    if (_workerPool != null) {
+      // Finish indexing the pending values, then seal the indexes of different columns in parallel
+      flushBufferedRows();
+      _workerPool.awaitCompletion();
+      for (String columnName : _forwardIndexCreatorMap.keySet()) {
+        _workerPool.submit(getWorkerId(columnName), () -> sealColumn(columnName));
+      }
+      _workerPool.awaitCompletion();
+    } else {
+      for (String columnName : _forwardIndexCreatorMap.keySet()) {
+        sealColumn(columnName);
+      }
+    }
+    writeMetadata();
+  }
+
+  private void sealColumn(String columnName)
+      throws IOException {
+    DictionaryBasedInvertedIndexCreator invertedIndexCreator = _invertedIndexCreatorMap.get(columnName);
+    if (invertedIndexCreator != null) {
       invertedIndexCreator.seal();
     }
-    for (TextIndexCreator textIndexCreator : _textIndexCreatorMap.values()) {
+    TextIndexCreator textIndexCreator = _textIndexCreatorMap.get(columnName);
+    if (textIndexCreator != null) {
       textIndexCreator.seal();
     }
-    for (TextIndexCreator fstIndexCreator : _fstIndexCreatorMap.values()) {
+    TextIndexCreator fstIndexCreator = _fstIndexCreatorMap.get(columnName);
+    if (fstIndexCreator != null) {
       fstIndexCreator.seal();
     }
-    for (JsonIndexCreator jsonIndexCreator : _jsonIndexCreatorMap.values()) {
+    JsonIndexCreator jsonIndexCreator = _jsonIndexCreatorMap.get(columnName);
+    if (jsonIndexCreator != null) {
       jsonIndexCreator.seal();
     }
-    for (GeoSpatialIndexCreator h3IndexCreator : _h3IndexCreatorMap.values()) {
+    GeoSpatialIndexCreator h3IndexCreator = _h3IndexCreatorMap.get(columnName);
+    if (h3IndexCreator != null) {
       h3IndexCreator.seal();
     }
-    for (NullValueVectorCreator nullValueVectorCreator : _nullValueVectorCreatorMap.values()) {
+    NullValueVectorCreator nullValueVectorCreator = _nullValueVectorCreatorMap.get(columnName);
+    if (nullValueVectorCreator != null) {
       nullValueVectorCreator.seal();
     }
-    writeMetadata();
   }
 
   private void writeMetadata()
@@ -768,6 +1047,9 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
   @Override
   public void close()
       throws IOException {
+    if (_workerPool != null) {
+      _workerPool.close();
+    }
     FileUtils.close(Iterables.concat(_dictionaryCreatorMap.values(), _forwardIndexCreatorMap.values(),
         _invertedIndexCreatorMap.values(), _textIndexCreatorMap.values(), _fstIndexCreatorMap.values(),
         _jsonIndexCreatorMap.values(), _h3IndexCreatorMap.values(), _nullValueVectorCreatorMap.values()));
@@ -315,6 +315,22 @@ public class SegmentDictionaryCreator implements Closeable {
     }
   }
 
+  public int indexOfInt(int value) {
+    return _intValueToIndexMap.get(value);
+  }
+
+  public int indexOfLong(long value) {
+    return _longValueToIndexMap.get(value);
+  }
+
+  public int indexOfFloat(float value) {
+    return _floatValueToIndexMap.get(value);
+  }
+
+  public int indexOfDouble(double value) {
+    return _doubleValueToIndexMap.get(value);
+  }
+
   public int[] indexOfMV(Object value) {
     Object[] multiValues = (Object[]) value;
     int[] indexes = new int[multiValues.length];
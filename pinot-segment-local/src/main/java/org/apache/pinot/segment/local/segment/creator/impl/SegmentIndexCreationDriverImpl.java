@@ -23,27 +23,36 @@ import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.annotation.Nullable;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.indexsegment.mutable.IntermediateSegment;
 import org.apache.pinot.segment.local.recordtransformer.ComplexTypeTransformer;
 import org.apache.pinot.segment.local.recordtransformer.CompositeTransformer;
 import org.apache.pinot.segment.local.recordtransformer.RecordTransformer;
 import org.apache.pinot.segment.local.segment.creator.IntermediateSegmentSegmentCreationDataSource;
+import org.apache.pinot.segment.local.segment.creator.RecordBatchTransformer;
+import org.apache.pinot.segment.local.segment.creator.RecordBatchTransformer.TransformedColumn;
 import org.apache.pinot.segment.local.segment.creator.RecordReaderSegmentCreationDataSource;
 import org.apache.pinot.segment.local.segment.creator.TransformPipeline;
+import org.apache.pinot.segment.local.segment.creator.impl.stats.SegmentPreIndexStatsCollectorImpl;
 import org.apache.pinot.segment.local.segment.index.converter.SegmentFormatConverterFactory;
 import org.apache.pinot.segment.local.segment.readers.IntermediateSegmentRecordReader;
 import org.apache.pinot.segment.local.segment.readers.PinotSegmentRecordReader;
 import org.apache.pinot.segment.local.startree.v2.builder.MultipleTreesBuilder;
 import org.apache.pinot.segment.local.utils.CrcUtils;
 import org.apache.pinot.segment.local.utils.IngestionUtils;
+import org.apache.pinot.segment.spi.IndexSegment;
 import org.apache.pinot.segment.spi.V1Constants;
 import org.apache.pinot.segment.spi.converter.SegmentFormatConverter;
 import org.apache.pinot.segment.spi.creator.ColumnIndexCreationInfo;
@@ -64,8 +73,10 @@ import org.apache.pinot.spi.data.FieldSpec.DataType;
 import org.apache.pinot.spi.data.IngestionSchemaValidator;
 import org.apache.pinot.spi.data.Schema;
 import org.apache.pinot.spi.data.SchemaValidatorFactory;
+import org.apache.pinot.spi.data.readers.ColumnarRecordReader;
 import org.apache.pinot.spi.data.readers.FileFormat;
 import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.data.readers.RecordBatch;
 import org.apache.pinot.spi.data.readers.RecordReader;
 import org.apache.pinot.spi.data.readers.RecordReaderFactory;
 import org.apache.pinot.spi.utils.ByteArray;
@@ -89,6 +100,11 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
   private SegmentIndexCreationInfo _segmentIndexCreationInfo;
   private Schema _dataSchema;
   private TransformPipeline _transformPipeline;
+  // Non-null when the segment is created column by column from the record batches of a ColumnarRecordReader
+  private RecordBatchTransformer _recordBatchTransformer;
+  // Non-null when the segment is created in a single pass, where the transformed records are buffered in the
+  // intermediate segment
+  private IntermediateSegment _intermediateSegment;
   private IngestionSchemaValidator _ingestionSchemaValidator;
   private int _totalDocs = 0;
   private File _tempIndexDir;
@@ -147,9 +163,25 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
     if (recordReader instanceof IntermediateSegmentRecordReader) {
       LOGGER.info("IntermediateSegmentRecordReader is used");
       dataSource = new IntermediateSegmentSegmentCreationDataSource((IntermediateSegmentRecordReader) recordReader);
+    } else if (config.isSinglePassSegmentCreation() && isSinglePassSegmentCreationSupported(config.getSchema())) {
+      LOGGER.info("Single-pass segment creation is used");
+      String sourceRecordReaderClassName = recordReader.getClass().getName();
+      IntermediateSegmentRecordReader intermediateSegmentRecordReader =
+          new IntermediateSegmentRecordReader(ingestToIntermediateSegment(config, recordReader));
+      // NOTE: The records in the intermediate segment are already transformed
+      init(config, new IntermediateSegmentSegmentCreationDataSource(intermediateSegmentRecordReader),
+          CompositeTransformer.getPassThroughTransformer(), null);
+      _intermediateSegment = intermediateSegmentRecordReader.getIntermediateSegment();
+      _ingestionSchemaValidator = SchemaValidatorFactory
+          .getSchemaValidator(_dataSchema, sourceRecordReaderClassName, config.getInputFilePath());
+      return;
     } else {
       LOGGER.info("RecordReaderSegmentCreationDataSource is used");
       dataSource = new RecordReaderSegmentCreationDataSource(recordReader);
+      if (RecordBatchTransformer.isSupported(config.getTableConfig(), config.getSchema(), recordReader)) {
+        LOGGER.info("Columnar batch segment creation is used");
+        _recordBatchTransformer = new RecordBatchTransformer(config.getTableConfig(), config.getSchema());
+      }
     }
     init(config, dataSource, CompositeTransformer.getDefaultTransformer(config.getTableConfig(), config.getSchema()),
         ComplexTypeTransformer.getComplexTypeTransformer(config.getTableConfig()));
@@ -167,8 +199,13 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
     _transformPipeline = new TransformPipeline(recordTransformer, complexTypeTransformer);
 
     // Initialize stats collection
-    _segmentStats = dataSource.gatherStats(
-        new StatsCollectorConfig(config.getTableConfig(), _dataSchema, config.getSegmentPartitionConfig()));
+    StatsCollectorConfig statsCollectorConfig =
+        new StatsCollectorConfig(config.getTableConfig(), _dataSchema, config.getSegmentPartitionConfig());
+    if (_recordBatchTransformer != null) {
+      _segmentStats = gatherStatsFromBatches(statsCollectorConfig);
+    } else {
+      _segmentStats = dataSource.gatherStats(statsCollectorConfig);
+    }
     _totalDocs = _segmentStats.getTotalDocCount();
 
     // Initialize index creation
@@ -192,6 +229,108 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
     LOGGER.debug("tempIndexDir:{}", _tempIndexDir);
   }
 
+  /**
+   * Returns whether the segment can be created in a single pass, which requires all the columns to be supported by the
+   * intermediate segment.
+   */
+  private static boolean isSinglePassSegmentCreationSupported(Schema schema) {
+    for (FieldSpec fieldSpec : schema.getAllFieldSpecs()) {
+      if (!fieldSpec.isVirtualColumn() && fieldSpec.getDataType().getStoredType() == DataType.BIG_DECIMAL) {
+        LOGGER.info("Single-pass segment creation is not supported for BIG_DECIMAL column: {}", fieldSpec.getName());
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads and transforms all the records from the record reader, and buffers the transformed records in an intermediate
+   * segment backed by memory mapped files, from which the statistics and indexes can be built without reading the input
+   * data again. The record reader is closed after all the records are read.
+   */
+  private IntermediateSegment ingestToIntermediateSegment(SegmentGeneratorConfig config, RecordReader recordReader)
+      throws Exception {
+    // NOTE: The intermediate segment is created under the output directory
+    FileUtils.forceMkdir(new File(config.getOutDir()));
+    IntermediateSegment intermediateSegment = new IntermediateSegment(config);
+    TransformPipeline transformPipeline = new TransformPipeline(config.getTableConfig(), config.getSchema());
+    try {
+      GenericRow reuse = new GenericRow();
+      TransformPipeline.Result reusedResult = new TransformPipeline.Result();
+      while (recordReader.hasNext()) {
+        long recordReadStartTime = System.currentTimeMillis();
+        reuse.clear();
+        GenericRow decodedRow = recordReader.next(reuse);
+        transformPipeline.processRow(decodedRow, reusedResult);
+        long recordReadStopTime = System.currentTimeMillis();
+        _totalRecordReadTime += (recordReadStopTime - recordReadStartTime);
+
+        for (GenericRow row : reusedResult.getTransformedRows()) {
+          intermediateSegment.index(row, null);
+        }
+        _totalStatsCollectorTime += (System.currentTimeMillis() - recordReadStopTime);
+      }
+    } catch (Exception e) {
+      intermediateSegment.destroy();
+      throw e;
+    } finally {
+      recordReader.close();
+    }
+    LOGGER.info("Buffered {} records in intermediate segment", intermediateSegment.getNumDocsIndexed());
+    return intermediateSegment;
+  }
+
+  /**
+   * Gathers the per-column statistics from the record batches, where the columns within each batch are transformed and
+   * collected in parallel.
+   */
+  private SegmentPreIndexStatsContainer gatherStatsFromBatches(StatsCollectorConfig statsCollectorConfig)
+      throws Exception {
+    SegmentPreIndexStatsCollectorImpl collector = new SegmentPreIndexStatsCollectorImpl(statsCollectorConfig);
+    collector.init();
+    ColumnarRecordReader recordReader = (ColumnarRecordReader) _recordReader;
+    ExecutorService executorService = createColumnExecutorService();
+    try {
+      RecordBatch recordBatch = new RecordBatch();
+      while (recordReader.hasNext()) {
+        RecordBatch batch = recordReader.nextBatch(recordBatch);
+        int numRows = batch.getNumRows();
+        List<Future<?>> futures = new ArrayList<>();
+        for (String column : _recordBatchTransformer.getColumns()) {
+          futures.add(executorService.submit(() -> {
+            TransformedColumn transformedColumn = _recordBatchTransformer.transform(batch, column);
+            collector.collectColumn(column, transformedColumn.getValues(), numRows);
+          }));
+        }
+        waitForAll(futures);
+        collector.incrementTotalDocCount(numRows);
+      }
+    } finally {
+      executorService.shutdownNow();
+    }
+    collector.build();
+    return collector;
+  }
+
+  private ExecutorService createColumnExecutorService() {
+    int numThreads = Math.max(1, Math.min(_dataSchema.size(), Runtime.getRuntime().availableProcessors()));
+    return Executors.newFixedThreadPool(numThreads);
+  }
+
+  private static void waitForAll(List<Future<?>> futures)
+      throws Exception {
+    try {
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (Exception e) {
+      for (Future<?> future : futures) {
+        future.cancel(true);
+      }
+      throw e;
+    }
+  }
+
   @Override
   public void build()
       throws Exception {
@@ -201,6 +340,15 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
     LOGGER.info("Finished building StatsCollector!");
     LOGGER.info("Collected stats for {} documents", _totalDocs);
 
+    if (_recordBatchTransformer != null) {
+      buildFromBatches();
+      return;
+    }
+    if (_intermediateSegment != null) {
+      buildFromIntermediateSegment();
+      return;
+    }
+
     try {
       // Initialize the index creation using the per-column statistics information
       _indexCreator.init(_config, _segmentIndexCreationInfo, _indexCreationInfoMap, _dataSchema, _tempIndexDir);
@@ -238,6 +386,124 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
     handlePostCreation();
   }
 
+  /**
+   * Builds the segment from the record batches, where the columns within each batch are transformed and indexed in
+   * parallel.
+   */
+  private void buildFromBatches()
+      throws Exception {
+    ExecutorService executorService = createColumnExecutorService();
+    try {
+      // Initialize the index creation using the per-column statistics information
+      _indexCreator.init(_config, _segmentIndexCreationInfo, _indexCreationInfoMap, _dataSchema, _tempIndexDir);
+
+      // Build the index
+      _recordReader.rewind();
+      LOGGER.info("Start building IndexCreator from record batches!");
+      ColumnarRecordReader recordReader = (ColumnarRecordReader) _recordReader;
+      RecordBatch recordBatch = new RecordBatch();
+      int startDocId = 0;
+      while (recordReader.hasNext()) {
+        long recordReadStartTime = System.currentTimeMillis();
+        RecordBatch batch = recordReader.nextBatch(recordBatch);
+        long recordReadStopTime = System.currentTimeMillis();
+        _totalRecordReadTime += (recordReadStopTime - recordReadStartTime);
+
+        int numRows = batch.getNumRows();
+        int batchStartDocId = startDocId;
+        List<Future<?>> futures = new ArrayList<>();
+        for (String column : _recordBatchTransformer.getColumns()) {
+          futures.add(executorService.submit(() -> {
+            TransformedColumn transformedColumn = _recordBatchTransformer.transform(batch, column);
+            _indexCreator.indexColumnBatch(column, batchStartDocId, numRows, transformedColumn.getValues(),
+                transformedColumn.getNullFlags());
+            return null;
+          }));
+        }
+        waitForAll(futures);
+        startDocId += numRows;
+        _totalIndexTime += (System.currentTimeMillis() - recordReadStopTime);
+      }
+    } catch (Exception e) {
+      _indexCreator.close();
+      throw e;
+    } finally {
+      executorService.shutdownNow();
+      _recordReader.close();
+    }
+    LOGGER.info("Finished records indexing from record batches in IndexCreator!");
+
+    handlePostCreation();
+  }
+
+  /**
+   * Builds the segment column by column from the buffered records in the intermediate segment (single-pass segment
+   * creation). The intermediate segment is destroyed after the indexes are built.
+   */
+  private void buildFromIntermediateSegment()
+      throws Exception {
+    try {
+      // Initialize the index creation using the per-column statistics information
+      _indexCreator.init(_config, _segmentIndexCreationInfo, _indexCreationInfoMap, _dataSchema, _tempIndexDir);
+
+      // Build the index column by column
+      LOGGER.info("Start building IndexCreator from intermediate segment!");
+      long indexStartTime = System.currentTimeMillis();
+      for (String columnName : _indexCreationInfoMap.keySet()) {
+        _indexCreator.indexColumn(columnName, null, _intermediateSegment);
+      }
+      _totalIndexTime += (System.currentTimeMillis() - indexStartTime);
+    } catch (Exception e) {
+      _indexCreator.close();
+      throw e;
+    } finally {
+      // NOTE: Closing the intermediate segment record reader also destroys the intermediate segment
+      _recordReader.close();
+    }
+    LOGGER.info("Finished indexing from intermediate segment in IndexCreator!");
+
+    handlePostCreation();
+  }
+
+  /**
+   * Builds the segment column by column from the given index segment (e.g. a consuming segment), instead of reading
+   * the records row by row. The record reader must be a {@link PinotSegmentRecordReader} on top of the same segment
+   * (which provides the sorted document ids), and the transformers are not applied.
+   */
+  public void buildByColumn(IndexSegment indexSegment)
+      throws Exception {
+    Preconditions.checkState(_recordReader instanceof PinotSegmentRecordReader,
+        "Column-major segment build requires PinotSegmentRecordReader, got: %s", _recordReader.getClass());
+
+    // Count the number of documents and gather per-column statistics
+    LOGGER.debug("Start building StatsCollector!");
+    buildIndexCreationInfo();
+    LOGGER.info("Finished building StatsCollector!");
+    LOGGER.info("Collected stats for {} documents", _totalDocs);
+
+    try {
+      // Initialize the index creation using the per-column statistics information
+      _indexCreator.init(_config, _segmentIndexCreationInfo, _indexCreationInfoMap, _dataSchema, _tempIndexDir);
+
+      // Build the index column by column
+      LOGGER.info("Start building IndexCreator by column!");
+      long indexStartTime = System.currentTimeMillis();
+      int[] sortedDocIds = ((PinotSegmentRecordReader) _recordReader).getSortedDocIds();
+      for (String columnName : _indexCreationInfoMap.keySet()) {
+        _indexCreator.indexColumn(columnName, sortedDocIds, indexSegment);
+      }
+      _totalIndexTime += (System.currentTimeMillis() - indexStartTime);
+    } catch (Exception e) {
+      _indexCreator.close();
+      throw e;
+    } finally {
+      _recordReader.close();
+    }
+    LOGGER.info("Finished column-major indexing in IndexCreator!");
+
+    handlePostCreation();
+  }
+
   private void handlePostCreation()
       throws Exception {
     ColumnStatistics timeColumnStatistics = _segmentStats.getColumnProfileFor(_config.getTimeColumnName());
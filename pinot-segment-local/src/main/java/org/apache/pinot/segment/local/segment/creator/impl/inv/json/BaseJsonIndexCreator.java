@@ -50,12 +50,17 @@ import org.roaringbitmap.RoaringBitmapWriter;
  *   <li>Inverted index file length (long)</li>
  *   <li>Doc id mapping file length (long)</li>
  * </ul>
+ * <p>The header is followed by the dictionary, the inverted index and the doc id mapping, then a flags int (e.g.
+ * {@link #FLAG_IDENTITY_DOC_ID_MAPPING}). The flags are ignored by the readers that don't know about them, and are
+ * treated as 0 when missing (index created before the flags were added).
  */
 public abstract class BaseJsonIndexCreator implements JsonIndexCreator {
   // NOTE: V1 is deprecated because it does not support top-level value, top-level array and nested array
   public static final int VERSION_1 = 1;
   public static final int VERSION_2 = 2;
   public static final int HEADER_LENGTH = 32;
+  // Set when each document is flattened into exactly one record, i.e. the doc id mapping is identity
+  public static final int FLAG_IDENTITY_DOC_ID_MAPPING = 1;
 
   static final String TEMP_DIR_SUFFIX = ".json.idx.tmp";
   static final String DICTIONARY_FILE_NAME = "dictionary.buf";
@@ -154,8 +159,10 @@ public abstract class BaseJsonIndexCreator implements JsonIndexCreator {
           indexFileChannel.map(FileChannel.MapMode.READ_WRITE, indexFileChannel.position(), docIdMappingFileLength)
               .order(ByteOrder.LITTLE_ENDIAN);
       int numDocs = _numFlattenedRecordsList.size();
+      boolean identityDocIdMapping = true;
       for (int i = 0; i < numDocs; i++) {
         int numRecords = _numFlattenedRecordsList.getInt(i);
+        identityDocIdMapping &= numRecords == 1;
         for (int j = 0; j < numRecords; j++) {
           docIdMappingBuffer.putInt(i);
         }
@@ -164,6 +171,12 @@ public abstract class BaseJsonIndexCreator implements JsonIndexCreator {
         CleanerUtil.BufferCleaner cleaner = CleanerUtil.getCleaner();
         cleaner.freeBuffer(docIdMappingBuffer);
       }
+
+      // Write the flags after the doc id mapping
+      ByteBuffer flagsBuffer = ByteBuffer.allocate(Integer.BYTES);
+      flagsBuffer.putInt(identityDocIdMapping ? FLAG_IDENTITY_DOC_ID_MAPPING : 0);
+      flagsBuffer.position(0);
+      indexFileChannel.write(flagsBuffer, indexFileChannel.position() + docIdMappingFileLength);
     }
   }
 
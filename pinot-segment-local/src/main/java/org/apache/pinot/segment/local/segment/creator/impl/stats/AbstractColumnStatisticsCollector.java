@@ -105,6 +105,17 @@ public abstract class AbstractColumnStatisticsCollector implements ColumnStatist
    */
   public abstract void collect(Object entry);
 
+  /**
+   * Collects statistics for the first {@code numValues} entries of the given column values (one entry per document).
+   * The values are stored in an {@code Object[]}, or a primitive array for single-valued numeric columns.
+   */
+  public void collect(Object values, int numValues) {
+    Object[] entries = (Object[]) values;
+    for (int i = 0; i < numValues; i++) {
+      collect(entries[i]);
+    }
+  }
+
   public abstract Object getMinValue();
 
   public abstract Object getMaxValue();
@@ -57,6 +57,23 @@ public class DoubleColumnPreIndexStatsCollector extends AbstractColumnStatistics
     }
   }
 
+  @Override
+  public void collect(Object values, int numValues) {
+    if (values instanceof double[]) {
+      double[] doubleValues = (double[]) values;
+      for (int i = 0; i < numValues; i++) {
+        double value = doubleValues[i];
+        addressSorted(value);
+        if (_values.add(value)) {
+          updatePartition(value);
+        }
+      }
+      _totalNumberOfEntries += numValues;
+    } else {
+      super.collect(values, numValues);
+    }
+  }
+
   void addressSorted(double entry) {
     if (_isSorted) {
       if (entry < _prevValue) {
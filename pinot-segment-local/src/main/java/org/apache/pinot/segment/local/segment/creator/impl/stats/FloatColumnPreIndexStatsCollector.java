@@ -57,6 +57,23 @@ public class FloatColumnPreIndexStatsCollector extends AbstractColumnStatisticsC
     }
   }
 
+  @Override
+  public void collect(Object values, int numValues) {
+    if (values instanceof float[]) {
+      float[] floatValues = (float[]) values;
+      for (int i = 0; i < numValues; i++) {
+        float value = floatValues[i];
+        addressSorted(value);
+        if (_values.add(value)) {
+          updatePartition(value);
+        }
+      }
+      _totalNumberOfEntries += numValues;
+    } else {
+      super.collect(values, numValues);
+    }
+  }
+
   void addressSorted(float entry) {
     if (_isSorted) {
       if (entry < _prevValue) {
@@ -57,6 +57,23 @@ public class IntColumnPreIndexStatsCollector extends AbstractColumnStatisticsCol
     }
   }
 
+  @Override
+  public void collect(Object values, int numValues) {
+    if (values instanceof int[]) {
+      int[] intValues = (int[]) values;
+      for (int i = 0; i < numValues; i++) {
+        int value = intValues[i];
+        addressSorted(value);
+        if (_values.add(value)) {
+          updatePartition(value);
+        }
+      }
+      _totalNumberOfEntries += numValues;
+    } else {
+      super.collect(values, numValues);
+    }
+  }
+
   void addressSorted(int entry) {
     if (_isSorted) {
       if (entry < _prevValue) {
@@ -57,6 +57,23 @@ public class LongColumnPreIndexStatsCollector extends AbstractColumnStatisticsCo
     }
   }
 
+  @Override
+  public void collect(Object values, int numValues) {
+    if (values instanceof long[]) {
+      long[] longValues = (long[]) values;
+      for (int i = 0; i < numValues; i++) {
+        long value = longValues[i];
+        addressSorted(value);
+        if (_values.add(value)) {
+          updatePartition(value);
+        }
+      }
+      _totalNumberOfEntries += numValues;
+    } else {
+      super.collect(values, numValues);
+    }
+  }
+
   void addressSorted(long entry) {
     if (_isSorted) {
       if (entry < _prevValue) {
@@ -108,6 +108,22 @@ public class SegmentPreIndexStatsCollectorImpl implements SegmentPreIndexStatsCo
     _totalDocCount++;
   }
 
+  /**
+   * Collects the statistics for the first {@code numValues} values of the given column. The total document count should
+   * be updated separately via {@link #incrementTotalDocCount(int)}.
+   * <p>NOTE: Different columns can be collected concurrently because each column has its own statistics collector.
+   */
+  public void collectColumn(String column, Object values, int numValues) {
+    AbstractColumnStatisticsCollector statisticsCollector = _columnStatsCollectorMap.get(column);
+    if (statisticsCollector != null) {
+      statisticsCollector.collect(values, numValues);
+    }
+  }
+
+  public void incrementTotalDocCount(int numDocs) {
+    _totalDocCount += numDocs;
+  }
+
   @Override
   public int getTotalDocCount() {
     return _totalDocCount;
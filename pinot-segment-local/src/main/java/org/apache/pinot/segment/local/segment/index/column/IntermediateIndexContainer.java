@@ -22,6 +22,7 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.util.Set;
 import javax.annotation.Nullable;
+import org.apache.pinot.segment.local.realtime.impl.nullvalue.MutableNullValueVector;
 import org.apache.pinot.segment.local.segment.index.datasource.MutableDataSource;
 import org.apache.pinot.segment.spi.datasource.DataSource;
 import org.apache.pinot.segment.spi.index.mutable.MutableDictionary;
@@ -41,6 +42,7 @@ public class IntermediateIndexContainer implements Closeable {
   final NumValuesInfo _numValuesInfo;
   final MutableForwardIndex _forwardIndex;
   final MutableDictionary _dictionary;
+  final MutableNullValueVector _nullValueVector;
 
   volatile Comparable _minValue;
   volatile Comparable _maxValue;
@@ -51,19 +53,20 @@ public class IntermediateIndexContainer implements Closeable {
 
   public IntermediateIndexContainer(FieldSpec fieldSpec, @Nullable PartitionFunction partitionFunction,
       @Nullable Set<Integer> partitions, NumValuesInfo numValuesInfo, MutableForwardIndex forwardIndex,
-      MutableDictionary dictionary) {
+      MutableDictionary dictionary, @Nullable MutableNullValueVector nullValueVector) {
     _fieldSpec = fieldSpec;
     _partitionFunction = partitionFunction;
     _partitions = partitions;
     _numValuesInfo = numValuesInfo;
     _forwardIndex = forwardIndex;
     _dictionary = dictionary;
+    _nullValueVector = nullValueVector;
   }
 
   public DataSource toDataSource(int numDocsIndexed) {
     return new MutableDataSource(_fieldSpec, numDocsIndexed, _numValuesInfo._numValues,
         _numValuesInfo._maxNumValuesPerMVEntry, _partitionFunction, _partitions, _minValue, _maxValue, _forwardIndex,
-        _dictionary, null, null, null, null, null, null, null);
+        _dictionary, null, null, null, null, null, null, _nullValueVector);
   }
 
   @Override
@@ -100,6 +103,11 @@ public class IntermediateIndexContainer implements Closeable {
     return _dictionary;
   }
 
+  @Nullable
+  public MutableNullValueVector getNullValueVector() {
+    return _nullValueVector;
+  }
+
   public int getDictId() {
     return _dictId;
   }
@@ -0,0 +1,278 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.column;
+
+import java.io.File;
+import java.io.IOException;
+import javax.annotation.Nullable;
+import org.apache.pinot.segment.local.segment.index.loader.IndexLoadingConfig;
+import org.apache.pinot.segment.local.segment.index.readers.BaseImmutableDictionary;
+import org.apache.pinot.segment.spi.ColumnMetadata;
+import org.apache.pinot.segment.spi.index.column.ColumnIndexContainer;
+import org.apache.pinot.segment.spi.index.reader.BloomFilterReader;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReader;
+import org.apache.pinot.segment.spi.index.reader.H3IndexReader;
+import org.apache.pinot.segment.spi.index.reader.InvertedIndexReader;
+import org.apache.pinot.segment.spi.index.reader.JsonIndexReader;
+import org.apache.pinot.segment.spi.index.reader.NullValueVectorReader;
+import org.apache.pinot.segment.spi.index.reader.RangeIndexReader;
+import org.apache.pinot.segment.spi.index.reader.TextIndexReader;
+import org.apache.pinot.segment.spi.index.reader.provider.IndexReaderProvider;
+import org.apache.pinot.segment.spi.store.ColumnIndexType;
+import org.apache.pinot.segment.spi.store.SegmentDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Column index container that defers opening the readers of a column until the first access, then delegates to a
+ * {@link PhysicalColumnIndexContainer}. Loading is thread-safe, and the segment reader is locked while loading so that
+ * concurrent loads of different columns of the same segment do not race on it.
+ *
+ * For columns with on-heap dictionary, the on-heap dictionary is managed separately from the other readers, and can be
+ * evicted by {@link #evictDictionaryIfIdle(long, long)} once it is not acquired by any query and has not been accessed
+ * for a while, then reloaded on the next access. The other readers are backed by the segment buffers and are never
+ * evicted. Eviction only applies to the dictionaries that are always accessed within {@link #acquire()} and
+ * {@link #release()}: once the dictionary is accessed without being acquired (e.g. by segment pruning or by queries
+ * without prefetch), it is pinned and never evicted because there is no way to tell when the access ends.
+ */
+public final class LazyColumnIndexContainer implements ColumnIndexContainer {
+  private static final Logger LOGGER = LoggerFactory.getLogger(LazyColumnIndexContainer.class);
+
+  private final SegmentDirectory.Reader _segmentReader;
+  private final ColumnMetadata _metadata;
+  private final IndexLoadingConfig _indexLoadingConfig;
+  private final File _segmentIndexDir;
+  private final IndexReaderProvider _indexReaderProvider;
+  private final boolean _evictable;
+
+  private volatile PhysicalColumnIndexContainer _delegate;
+  private boolean _closed;
+
+  // The following fields for the evictable on-heap dictionary are guarded by this container
+  // Number of queries currently holding the column through the acquire/release hooks
+  private int _refCount;
+  private boolean _pinned;
+  private BaseImmutableDictionary _onHeapDictionary;
+  private long _lastAccessTimeMs;
+
+  public LazyColumnIndexContainer(SegmentDirectory.Reader segmentReader, ColumnMetadata metadata,
+      IndexLoadingConfig indexLoadingConfig, @Nullable File segmentIndexDir, IndexReaderProvider indexReaderProvider) {
+    _segmentReader = segmentReader;
+    _metadata = metadata;
+    _indexLoadingConfig = indexLoadingConfig;
+    _segmentIndexDir = segmentIndexDir;
+    _indexReaderProvider = indexReaderProvider;
+    _evictable = metadata.hasDictionary() && indexLoadingConfig.getOnHeapDictionaryColumns()
+        .contains(metadata.getColumnName());
+  }
+
+  /**
+   * Returns {@code true} if the readers of the column have been loaded.
+   */
+  public boolean isLoaded() {
+    return _delegate != null;
+  }
+
+  /**
+   * Returns {@code true} if the column has an evictable on-heap dictionary.
+   */
+  public boolean isEvictable() {
+    return _evictable;
+  }
+
+  /**
+   * Returns {@code true} if the evictable on-heap dictionary has been loaded and not evicted.
+   */
+  public synchronized boolean isDictionaryLoaded() {
+    return _onHeapDictionary != null;
+  }
+
+  /**
+   * Marks the column as being used by a query, which prevents the dictionary from being evicted until
+   * {@link #release()}.
+   */
+  public synchronized void acquire() {
+    _refCount++;
+  }
+
+  /**
+   * Marks the column as no longer being used by a query.
+   */
+  public synchronized void release() {
+    _lastAccessTimeMs = System.currentTimeMillis();
+    _refCount--;
+  }
+
+  /**
+   * Evicts the on-heap dictionary if it is not pinned, not acquired by any query and has not been accessed for at
+   * least the given idle time. Returns {@code true} if the dictionary is evicted.
+   */
+  public boolean evictDictionaryIfIdle(long currentTimeMs, long idleTimeMs) {
+    BaseImmutableDictionary dictionary;
+    synchronized (this) {
+      dictionary = _onHeapDictionary;
+      if (dictionary == null || _pinned || _refCount > 0 || currentTimeMs - _lastAccessTimeMs < idleTimeMs) {
+        return false;
+      }
+      _onHeapDictionary = null;
+    }
+    try {
+      dictionary.close();
+    } catch (IOException e) {
+      LOGGER.error("Failed to close evicted dictionary for column: {}. Continuing with error.",
+          _metadata.getColumnName(), e);
+    }
+    return true;
+  }
+
+  /**
+   * Returns {@code true} if the on-heap dictionary can still be evicted in the future, i.e. it is loaded and not
+   * pinned.
+   */
+  public synchronized boolean isDictionaryEvictionCandidate() {
+    return _onHeapDictionary != null && !_pinned;
+  }
+
+  private PhysicalColumnIndexContainer getDelegate() {
+    PhysicalColumnIndexContainer delegate = _delegate;
+    if (delegate != null) {
+      return delegate;
+    }
+    synchronized (this) {
+      delegate = _delegate;
+      if (delegate == null) {
+        checkNotClosed();
+        try {
+          synchronized (_segmentReader) {
+            // The evictable on-heap dictionary is loaded separately, so keep the dictionary in the delegate off-heap
+            delegate = new PhysicalColumnIndexContainer(_segmentReader, _metadata, _indexLoadingConfig,
+                _segmentIndexDir, _indexReaderProvider, !_evictable && _indexLoadingConfig.getOnHeapDictionaryColumns()
+                .contains(_metadata.getColumnName()));
+          }
+        } catch (IOException e) {
+          throw new RuntimeException("Caught exception while loading indexes for column: " + _metadata.getColumnName(),
+              e);
+        }
+        _delegate = delegate;
+      }
+      return delegate;
+    }
+  }
+
+  private void checkNotClosed() {
+    if (_closed) {
+      throw new IllegalStateException("Indexes for column: " + _metadata.getColumnName() + " are closed");
+    }
+  }
+
+  private BaseImmutableDictionary getOnHeapDictionary() {
+    synchronized (this) {
+      // NOTE: Pin the dictionary when it is accessed without being acquired because the access is not tracked
+      if (_refCount == 0) {
+        _pinned = true;
+      }
+      _lastAccessTimeMs = System.currentTimeMillis();
+      if (_onHeapDictionary == null) {
+        checkNotClosed();
+        synchronized (_segmentReader) {
+          try {
+            _onHeapDictionary = PhysicalColumnIndexContainer.loadDictionary(
+                _segmentReader.getIndexFor(_metadata.getColumnName(), ColumnIndexType.DICTIONARY), _metadata, true);
+          } catch (IOException e) {
+            throw new RuntimeException(
+                "Caught exception while loading dictionary for column: " + _metadata.getColumnName(), e);
+          }
+        }
+      }
+      return _onHeapDictionary;
+    }
+  }
+
+  @Override
+  public ForwardIndexReader<?> getForwardIndex() {
+    return getDelegate().getForwardIndex();
+  }
+
+  @Override
+  public InvertedIndexReader<?> getInvertedIndex() {
+    return getDelegate().getInvertedIndex();
+  }
+
+  @Override
+  public RangeIndexReader<?> getRangeIndex() {
+    return getDelegate().getRangeIndex();
+  }
+
+  @Override
+  public TextIndexReader getTextIndex() {
+    return getDelegate().getTextIndex();
+  }
+
+  @Override
+  public TextIndexReader getFSTIndex() {
+    return getDelegate().getFSTIndex();
+  }
+
+  @Override
+  public JsonIndexReader getJsonIndex() {
+    return getDelegate().getJsonIndex();
+  }
+
+  @Override
+  public H3IndexReader getH3Index() {
+    return getDelegate().getH3Index();
+  }
+
+  @Override
+  public Dictionary getDictionary() {
+    return _evictable ? getOnHeapDictionary() : getDelegate().getDictionary();
+  }
+
+  @Override
+  public BloomFilterReader getBloomFilter() {
+    return getDelegate().getBloomFilter();
+  }
+
+  @Override
+  public NullValueVectorReader getNullValueVector() {
+    return getDelegate().getNullValueVector();
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    PhysicalColumnIndexContainer delegate;
+    BaseImmutableDictionary onHeapDictionary;
+    synchronized (this) {
+      _closed = true;
+      delegate = _delegate;
+      _delegate = null;
+      onHeapDictionary = _onHeapDictionary;
+      _onHeapDictionary = null;
+    }
+    if (onHeapDictionary != null) {
+      onHeapDictionary.close();
+    }
+    if (delegate != null) {
+      delegate.close();
+    }
+  }
+}
@@ -76,6 +76,18 @@ public final class PhysicalColumnIndexContainer implements ColumnIndexContainer
   public PhysicalColumnIndexContainer(SegmentDirectory.Reader segmentReader, ColumnMetadata metadata,
       IndexLoadingConfig indexLoadingConfig, File segmentIndexDir, IndexReaderProvider indexReaderProvider)
       throws IOException {
+    this(segmentReader, metadata, indexLoadingConfig, segmentIndexDir, indexReaderProvider,
+        indexLoadingConfig.getOnHeapDictionaryColumns().contains(metadata.getColumnName()));
+  }
+
+  /**
+   * Constructor that overrides whether to load the dictionary on-heap, e.g. when the on-heap dictionary is managed
+   * separately by the caller.
+   */
+  public PhysicalColumnIndexContainer(SegmentDirectory.Reader segmentReader, ColumnMetadata metadata,
+      IndexLoadingConfig indexLoadingConfig, File segmentIndexDir, IndexReaderProvider indexReaderProvider,
+      boolean loadOnHeapDictionary)
+      throws IOException {
     String columnName = metadata.getColumnName();
     boolean loadInvertedIndex = indexLoadingConfig.getInvertedIndexColumns().contains(columnName);
     boolean loadRangeIndex = indexLoadingConfig.getRangeIndexColumns().contains(columnName);
@@ -83,7 +95,6 @@ public final class PhysicalColumnIndexContainer implements ColumnIndexContainer
     boolean loadFSTIndex = indexLoadingConfig.getFSTIndexColumns().contains(columnName);
     boolean loadJsonIndex = indexLoadingConfig.getJsonIndexColumns().contains(columnName);
     boolean loadH3Index = indexLoadingConfig.getH3IndexConfigs().containsKey(columnName);
-    boolean loadOnHeapDictionary = indexLoadingConfig.getOnHeapDictionaryColumns().contains(columnName);
     BloomFilterConfig bloomFilterConfig = indexLoadingConfig.getBloomFilterConfigs().get(columnName);
 
     if (segmentReader.hasIndexFor(columnName, ColumnIndexType.NULLVALUE_VECTOR)) {
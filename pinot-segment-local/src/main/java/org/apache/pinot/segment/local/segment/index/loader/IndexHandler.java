@@ -18,6 +18,7 @@
  */
 package org.apache.pinot.segment.local.segment.index.loader;
 
+import java.util.List;
 import org.apache.pinot.segment.spi.creator.IndexCreatorProvider;
 import org.apache.pinot.segment.spi.store.SegmentDirectory;
 
@@ -30,7 +31,25 @@ public interface IndexHandler {
   /**
    * Adds new indices and removes obsolete indices.
    */
-  void updateIndices(SegmentDirectory.Writer segmentWriter, IndexCreatorProvider indexCreatorProvider)
+  default void updateIndices(SegmentDirectory.Writer segmentWriter, IndexCreatorProvider indexCreatorProvider)
+      throws Exception {
+    for (String column : removeObsoleteIndices(segmentWriter)) {
+      createIndex(segmentWriter, column, indexCreatorProvider);
+    }
+  }
+
+  /**
+   * Removes obsolete indices, and returns the columns to add new indices for.
+   */
+  List<String> removeObsoleteIndices(SegmentDirectory.Writer segmentWriter)
+      throws Exception;
+
+  /**
+   * Adds new index for the given column.
+   * <p>NOTE: This method can be invoked concurrently for different columns, so the accesses to the segment writer
+   * should be synchronized on the segment writer (see {@link LoaderUtils}).
+   */
+  void createIndex(SegmentDirectory.Writer segmentWriter, String column, IndexCreatorProvider indexCreatorProvider)
       throws Exception;
 
   /**
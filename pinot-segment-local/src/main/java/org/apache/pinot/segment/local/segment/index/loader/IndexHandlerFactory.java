@@ -18,6 +18,8 @@
  */
 package org.apache.pinot.segment.local.segment.index.loader;
 
+import java.util.Collections;
+import java.util.List;
 import org.apache.pinot.segment.local.segment.index.loader.bloomfilter.BloomFilterHandler;
 import org.apache.pinot.segment.local.segment.index.loader.invertedindex.FSTIndexHandler;
 import org.apache.pinot.segment.local.segment.index.loader.invertedindex.H3IndexHandler;
@@ -37,7 +39,13 @@ public class IndexHandlerFactory {
 
   private static final IndexHandler NO_OP_HANDLER = new IndexHandler() {
     @Override
-    public void updateIndices(SegmentDirectory.Writer segmentWriter, IndexCreatorProvider indexCreatorProvider) {
+    public List<String> removeObsoleteIndices(SegmentDirectory.Writer segmentWriter) {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public void createIndex(SegmentDirectory.Writer segmentWriter, String column,
+        IndexCreatorProvider indexCreatorProvider) {
     }
 
     @Override
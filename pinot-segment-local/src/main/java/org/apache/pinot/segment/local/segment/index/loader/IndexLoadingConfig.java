@@ -56,6 +56,8 @@ import org.apache.pinot.spi.utils.ReadMode;
 public class IndexLoadingConfig {
   private static final int DEFAULT_REALTIME_AVG_MULTI_VALUE_COUNT = 2;
   public static final String READ_MODE_KEY = "readMode";
+  // Prefix of the instance configs passed to the segment directory loader, e.g. the configs of the tiered loader
+  public static final String SEGMENT_DIRECTORY_LOADER_CONFIG_PREFIX = "segment.directory.loader.config";
 
   private ReadMode _readMode = ReadMode.DEFAULT_MODE;
   private List<String> _sortedColumns = Collections.emptyList();
@@ -84,12 +86,15 @@ public class IndexLoadingConfig {
   private boolean _isDirectRealtimeOffHeapAllocation;
   private boolean _enableSplitCommitEndWithMetadata;
   private String _segmentStoreURI;
+  private boolean _lazyLoadColumns;
+  private long _lazyColumnIdleEvictionMs = -1L;
 
   // constructed from FieldConfig
   private Map<String, Map<String, String>> _columnProperties = new HashMap<>();
 
   private TableConfig _tableConfig;
   private String _segmentDirectoryLoader;
+  private Map<String, Object> _segmentDirectoryLoaderConfigs = new HashMap<>();
 
   private String _instanceId;
 
@@ -292,6 +297,10 @@ public class IndexLoadingConfig {
     _segmentStoreURI =
         instanceDataManagerConfig.getConfig().getProperty(CommonConstants.Server.CONFIG_OF_SEGMENT_STORE_URI);
     _segmentDirectoryLoader = instanceDataManagerConfig.getSegmentDirectoryLoader();
+    _segmentDirectoryLoaderConfigs =
+        instanceDataManagerConfig.getConfig().subset(SEGMENT_DIRECTORY_LOADER_CONFIG_PREFIX).toMap();
+    _lazyLoadColumns = instanceDataManagerConfig.isLazyLoadColumns();
+    _lazyColumnIdleEvictionMs = instanceDataManagerConfig.getLazyColumnIdleEvictionMs();
   }
 
   /**
@@ -489,6 +498,28 @@ public class IndexLoadingConfig {
     return _segmentStoreURI;
   }
 
+  public boolean isLazyLoadColumns() {
+    return _lazyLoadColumns;
+  }
+
+  /**
+   * For tests only.
+   */
+  public void setLazyLoadColumns(boolean lazyLoadColumns) {
+    _lazyLoadColumns = lazyLoadColumns;
+  }
+
+  public long getLazyColumnIdleEvictionMs() {
+    return _lazyColumnIdleEvictionMs;
+  }
+
+  /**
+   * For tests only.
+   */
+  public void setLazyColumnIdleEvictionMs(long lazyColumnIdleEvictionMs) {
+    _lazyColumnIdleEvictionMs = lazyColumnIdleEvictionMs;
+  }
+
   /**
    * For tests only.
    */
@@ -515,7 +546,7 @@ public class IndexLoadingConfig {
   }
 
   public PinotConfiguration getSegmentDirectoryConfigs() {
-    Map<String, Object> props = new HashMap<>();
+    Map<String, Object> props = new HashMap<>(_segmentDirectoryLoaderConfigs);
     props.put(READ_MODE_KEY, _readMode);
     return new PinotConfiguration(props);
   }
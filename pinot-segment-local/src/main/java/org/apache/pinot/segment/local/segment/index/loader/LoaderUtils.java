@@ -46,12 +46,16 @@ public class LoaderUtils {
 
   /**
    * Returns the forward index reader for the given column.
+   * <p>NOTE: Access to the segment reader is synchronized on the reader so that indices for different columns can be
+   * created concurrently during segment preprocessing.
    */
   public static ForwardIndexReader<?> getForwardIndexReader(SegmentDirectory.Reader segmentReader,
       ColumnMetadata columnMetadata)
       throws IOException {
-    PinotDataBuffer dataBuffer =
-        segmentReader.getIndexFor(columnMetadata.getColumnName(), ColumnIndexType.FORWARD_INDEX);
+    PinotDataBuffer dataBuffer;
+    synchronized (segmentReader) {
+      dataBuffer = segmentReader.getIndexFor(columnMetadata.getColumnName(), ColumnIndexType.FORWARD_INDEX);
+    }
     return IndexingOverrides.getIndexReaderProvider().newForwardIndexReader(dataBuffer, columnMetadata);
   }
 
@@ -61,7 +65,10 @@ public class LoaderUtils {
   public static BaseImmutableDictionary getDictionary(SegmentDirectory.Reader segmentReader,
       ColumnMetadata columnMetadata)
       throws IOException {
-    PinotDataBuffer dataBuffer = segmentReader.getIndexFor(columnMetadata.getColumnName(), ColumnIndexType.DICTIONARY);
+    PinotDataBuffer dataBuffer;
+    synchronized (segmentReader) {
+      dataBuffer = segmentReader.getIndexFor(columnMetadata.getColumnName(), ColumnIndexType.DICTIONARY);
+    }
     return PhysicalColumnIndexContainer.loadDictionary(dataBuffer, columnMetadata, false);
   }
 
@@ -78,9 +85,11 @@ public class LoaderUtils {
       ColumnIndexType indexType)
       throws IOException {
     long fileLength = indexFile.length();
-    // NOTE: DO NOT close buffer here as it is managed in the SegmentDirectory.
-    PinotDataBuffer buffer = segmentWriter.newIndexFor(column, indexType, fileLength);
-    buffer.readFrom(0, indexFile, 0, fileLength);
+    synchronized (segmentWriter) {
+      // NOTE: DO NOT close buffer here as it is managed in the SegmentDirectory.
+      PinotDataBuffer buffer = segmentWriter.newIndexFor(column, indexType, fileLength);
+      buffer.readFrom(0, indexFile, 0, fileLength);
+    }
     FileUtils.forceDelete(indexFile);
   }
 
@@ -20,9 +20,17 @@ package org.apache.pinot.segment.local.segment.index.loader;
 
 import java.io.File;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.annotation.Nullable;
 import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.utils.NamedThreadFactory;
 import org.apache.pinot.segment.local.segment.index.loader.columnminmaxvalue.ColumnMinMaxValueGenerator;
 import org.apache.pinot.segment.local.segment.index.loader.columnminmaxvalue.ColumnMinMaxValueGeneratorMode;
 import org.apache.pinot.segment.local.segment.index.loader.defaultcolumn.DefaultColumnHandler;
@@ -55,6 +63,9 @@ import org.slf4j.LoggerFactory;
 public class SegmentPreProcessor implements AutoCloseable {
   private static final Logger LOGGER = LoggerFactory.getLogger(SegmentPreProcessor.class);
 
+  // Server-wide executor to create indices for multiple columns in parallel, null if indices are created sequentially
+  private static volatile ExecutorService _executor;
+
   private final URI _indexDirURI;
   private final IndexLoadingConfig _indexLoadingConfig;
   private final Schema _schema;
@@ -70,6 +81,24 @@ public class SegmentPreProcessor implements AutoCloseable {
     _segmentMetadata = segmentDirectory.getSegmentMetadata();
   }
 
+  /**
+   * Initializes the server-wide executor to create indices for multiple columns in parallel. Indices are created
+   * sequentially if the number of threads is no more than 1.
+   */
+  public static synchronized void initExecutor(int numThreads) {
+    if (numThreads > 1 && _executor == null) {
+      _executor = Executors.newFixedThreadPool(numThreads, new NamedThreadFactory("segment-preprocessor"));
+      LOGGER.info("Initialized segment preprocessor executor with {} threads", numThreads);
+    }
+  }
+
+  public static synchronized void shutdownExecutor() {
+    if (_executor != null) {
+      _executor.shutdownNow();
+      _executor = null;
+    }
+  }
+
   @Override
   public void close()
       throws Exception {
@@ -102,11 +131,7 @@ public class SegmentPreProcessor implements AutoCloseable {
       }
 
       // Update single-column indices, like inverted index, json index etc.
-      IndexCreatorProvider indexCreatorProvider = IndexingOverrides.getIndexCreatorProvider();
-      for (ColumnIndexType type : ColumnIndexType.values()) {
-        IndexHandlerFactory.getIndexHandler(type, _segmentMetadata, _indexLoadingConfig)
-            .updateIndices(segmentWriter, indexCreatorProvider);
-      }
+      updateIndices(segmentWriter);
 
       // Create/modify/remove star-trees if required.
       processStarTrees(indexDir);
@@ -127,6 +152,72 @@ public class SegmentPreProcessor implements AutoCloseable {
     }
   }
 
+  /**
+   * Removes the obsolete single-column indices, then creates the new ones. The new indices are grouped by column so
+   * that all the indices of a column are created together while the forward index and dictionary of the column are
+   * hot. Columns are processed in parallel when the preprocessing executor is initialized.
+   */
+  private void updateIndices(SegmentDirectory.Writer segmentWriter)
+      throws Exception {
+    Map<String, List<IndexHandler>> columnToIndexHandlers = new TreeMap<>();
+    for (ColumnIndexType type : ColumnIndexType.values()) {
+      IndexHandler indexHandler = IndexHandlerFactory.getIndexHandler(type, _segmentMetadata, _indexLoadingConfig);
+      for (String column : indexHandler.removeObsoleteIndices(segmentWriter)) {
+        columnToIndexHandlers.computeIfAbsent(column, k -> new ArrayList<>()).add(indexHandler);
+      }
+    }
+    if (columnToIndexHandlers.isEmpty()) {
+      return;
+    }
+
+    IndexCreatorProvider indexCreatorProvider = IndexingOverrides.getIndexCreatorProvider();
+    ExecutorService executor = _executor;
+    if (executor == null || columnToIndexHandlers.size() == 1) {
+      for (Map.Entry<String, List<IndexHandler>> entry : columnToIndexHandlers.entrySet()) {
+        createIndices(segmentWriter, entry.getKey(), entry.getValue(), indexCreatorProvider);
+      }
+      return;
+    }
+
+    LOGGER.info("Creating indices for {} columns in parallel for segment: {}", columnToIndexHandlers.size(),
+        _segmentMetadata.getName());
+    List<Future<?>> futures = new ArrayList<>(columnToIndexHandlers.size());
+    for (Map.Entry<String, List<IndexHandler>> entry : columnToIndexHandlers.entrySet()) {
+      futures.add(executor.submit(() -> {
+        createIndices(segmentWriter, entry.getKey(), entry.getValue(), indexCreatorProvider);
+        return null;
+      }));
+    }
+    // NOTE: Wait for all the tasks to finish before returning, even if some of them failed, because the segment writer
+    //       is closed afterwards.
+    Throwable failure = null;
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = e.getCause();
+        } else {
+          failure.addSuppressed(e.getCause());
+        }
+      }
+    }
+    if (failure != null) {
+      if (failure instanceof Exception) {
+        throw (Exception) failure;
+      }
+      throw new RuntimeException(failure);
+    }
+  }
+
+  private static void createIndices(SegmentDirectory.Writer segmentWriter, String column,
+      List<IndexHandler> indexHandlers, IndexCreatorProvider indexCreatorProvider)
+      throws Exception {
+    for (IndexHandler indexHandler : indexHandlers) {
+      indexHandler.createIndex(segmentWriter, column, indexCreatorProvider);
+    }
+  }
+
   /**
    * This method checks if there is any discrepancy between the segment and current table config and schema.
    * If so, it returns true indicating the segment needs to be reprocessed. Right now, the default columns,
@@ -20,7 +20,9 @@ package org.apache.pinot.segment.local.segment.index.loader.bloomfilter;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.apache.commons.io.FileUtils;
@@ -87,8 +89,7 @@ public class BloomFilterHandler implements IndexHandler {
   }
 
   @Override
-  public void updateIndices(SegmentDirectory.Writer segmentWriter, IndexCreatorProvider indexCreatorProvider)
-      throws Exception {
+  public List<String> removeObsoleteIndices(SegmentDirectory.Writer segmentWriter) {
     Set<String> columnsToAddBF = new HashSet<>(_bloomFilterConfigs.keySet());
     // Remove indices not set in table config any more.
     String segmentName = _segmentMetadata.getName();
@@ -100,12 +101,20 @@ public class BloomFilterHandler implements IndexHandler {
         LOGGER.info("Removed existing bloom filter from segment: {}, column: {}", segmentName, column);
       }
     }
+    List<String> columnsToCreateIdx = new ArrayList<>();
     for (String column : columnsToAddBF) {
-      ColumnMetadata columnMetadata = _segmentMetadata.getColumnMetadataFor(column);
-      if (shouldCreateBloomFilter(columnMetadata)) {
-        createBloomFilterForColumn(segmentWriter, columnMetadata, indexCreatorProvider);
+      if (shouldCreateBloomFilter(_segmentMetadata.getColumnMetadataFor(column))) {
+        columnsToCreateIdx.add(column);
       }
     }
+    return columnsToCreateIdx;
+  }
+
+  @Override
+  public void createIndex(SegmentDirectory.Writer segmentWriter, String column,
+      IndexCreatorProvider indexCreatorProvider)
+      throws Exception {
+    createBloomFilterForColumn(segmentWriter, _segmentMetadata.getColumnMetadataFor(column), indexCreatorProvider);
   }
 
   private boolean shouldCreateBloomFilter(ColumnMetadata columnMetadata) {
@@ -160,8 +169,10 @@ public class BloomFilterHandler implements IndexHandler {
   private BaseImmutableDictionary getDictionaryReader(ColumnMetadata columnMetadata,
       SegmentDirectory.Writer segmentWriter)
       throws IOException {
-    PinotDataBuffer dictionaryBuffer =
-        segmentWriter.getIndexFor(columnMetadata.getColumnName(), ColumnIndexType.DICTIONARY);
+    PinotDataBuffer dictionaryBuffer;
+    synchronized (segmentWriter) {
+      dictionaryBuffer = segmentWriter.getIndexFor(columnMetadata.getColumnName(), ColumnIndexType.DICTIONARY);
+    }
     int cardinality = columnMetadata.getCardinality();
     DataType dataType = columnMetadata.getDataType();
     switch (dataType) {
@@ -21,7 +21,9 @@ package org.apache.pinot.segment.local.segment.index.loader.invertedindex;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import org.apache.commons.io.FileUtils;
 import org.apache.pinot.segment.local.segment.index.loader.IndexHandler;
@@ -100,8 +102,7 @@ public class FSTIndexHandler implements IndexHandler {
   }
 
   @Override
-  public void updateIndices(SegmentDirectory.Writer segmentWriter, IndexCreatorProvider indexCreatorProvider)
-      throws Exception {
+  public List<String> removeObsoleteIndices(SegmentDirectory.Writer segmentWriter) {
     // Remove indices not set in table config any more
     String segmentName = _segmentMetadata.getName();
     Set<String> existingColumns = segmentWriter.toSegmentDirectory().getColumnsWithIndex(ColumnIndexType.FST_INDEX);
@@ -112,12 +113,20 @@ public class FSTIndexHandler implements IndexHandler {
         LOGGER.info("Removed existing FST index from segment: {}, column: {}", segmentName, column);
       }
     }
+    List<String> columnsToCreateIdx = new ArrayList<>();
     for (String column : _columnsToAddIdx) {
-      ColumnMetadata columnMetadata = _segmentMetadata.getColumnMetadataFor(column);
-      if (shouldCreateFSTIndex(columnMetadata)) {
-        createFSTIndexForColumn(segmentWriter, columnMetadata, indexCreatorProvider);
+      if (shouldCreateFSTIndex(_segmentMetadata.getColumnMetadataFor(column))) {
+        columnsToCreateIdx.add(column);
       }
     }
+    return columnsToCreateIdx;
+  }
+
+  @Override
+  public void createIndex(SegmentDirectory.Writer segmentWriter, String column,
+      IndexCreatorProvider indexCreatorProvider)
+      throws Exception {
+    createFSTIndexForColumn(segmentWriter, _segmentMetadata.getColumnMetadataFor(column), indexCreatorProvider);
   }
 
   private boolean shouldCreateFSTIndex(ColumnMetadata columnMetadata) {
@@ -21,7 +21,9 @@ package org.apache.pinot.segment.local.segment.index.loader.invertedindex;
 import com.google.common.base.Preconditions;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.apache.commons.io.FileUtils;
@@ -84,8 +86,7 @@ public class H3IndexHandler implements IndexHandler {
   }
 
   @Override
-  public void updateIndices(SegmentDirectory.Writer segmentWriter, IndexCreatorProvider indexCreatorProvider)
-      throws Exception {
+  public List<String> removeObsoleteIndices(SegmentDirectory.Writer segmentWriter) {
     Set<String> columnsToAddIdx = new HashSet<>(_h3Configs.keySet());
     // Remove indices not set in table config any more
     String segmentName = _segmentMetadata.getName();
@@ -97,12 +98,20 @@ public class H3IndexHandler implements IndexHandler {
         LOGGER.info("Removed existing H3 index from segment: {}, column: {}", segmentName, column);
       }
     }
+    List<String> columnsToCreateIdx = new ArrayList<>();
     for (String column : columnsToAddIdx) {
-      ColumnMetadata columnMetadata = _segmentMetadata.getColumnMetadataFor(column);
-      if (shouldCreateH3Index(columnMetadata)) {
-        createH3IndexForColumn(segmentWriter, columnMetadata, indexCreatorProvider);
+      if (shouldCreateH3Index(_segmentMetadata.getColumnMetadataFor(column))) {
+        columnsToCreateIdx.add(column);
       }
     }
+    return columnsToCreateIdx;
+  }
+
+  @Override
+  public void createIndex(SegmentDirectory.Writer segmentWriter, String column,
+      IndexCreatorProvider indexCreatorProvider)
+      throws Exception {
+    createH3IndexForColumn(segmentWriter, _segmentMetadata.getColumnMetadataFor(column), indexCreatorProvider);
   }
 
   private boolean shouldCreateH3Index(ColumnMetadata columnMetadata) {
@@ -20,7 +20,9 @@ package org.apache.pinot.segment.local.segment.index.loader.invertedindex;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import org.apache.commons.io.FileUtils;
 import org.apache.pinot.segment.local.segment.index.loader.IndexHandler;
@@ -78,8 +80,7 @@ public class InvertedIndexHandler implements IndexHandler {
   }
 
   @Override
-  public void updateIndices(SegmentDirectory.Writer segmentWriter, IndexCreatorProvider indexCreatorProvider)
-      throws IOException {
+  public List<String> removeObsoleteIndices(SegmentDirectory.Writer segmentWriter) {
     // Remove indices not set in table config any more.
     String segmentName = _segmentMetadata.getName();
     Set<String> existingColumns =
@@ -91,12 +92,20 @@ public class InvertedIndexHandler implements IndexHandler {
         LOGGER.info("Removed existing inverted index from segment: {}, column: {}", segmentName, column);
       }
     }
+    List<String> columnsToCreateIdx = new ArrayList<>();
     for (String column : _columnsToAddIdx) {
-      ColumnMetadata columnMetadata = _segmentMetadata.getColumnMetadataFor(column);
-      if (shouldCreateInvertedIndex(columnMetadata)) {
-        createInvertedIndexForColumn(segmentWriter, columnMetadata, indexCreatorProvider);
+      if (shouldCreateInvertedIndex(_segmentMetadata.getColumnMetadataFor(column))) {
+        columnsToCreateIdx.add(column);
       }
     }
+    return columnsToCreateIdx;
+  }
+
+  @Override
+  public void createIndex(SegmentDirectory.Writer segmentWriter, String column,
+      IndexCreatorProvider indexCreatorProvider)
+      throws IOException {
+    createInvertedIndexForColumn(segmentWriter, _segmentMetadata.getColumnMetadataFor(column), indexCreatorProvider);
   }
 
   private boolean shouldCreateInvertedIndex(ColumnMetadata columnMetadata) {
@@ -21,7 +21,9 @@ package org.apache.pinot.segment.local.segment.index.loader.invertedindex;
 import com.google.common.base.Preconditions;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import org.apache.commons.io.FileUtils;
 import org.apache.pinot.segment.local.segment.index.loader.IndexHandler;
@@ -80,8 +82,7 @@ public class JsonIndexHandler implements IndexHandler {
   }
 
   @Override
-  public void updateIndices(SegmentDirectory.Writer segmentWriter, IndexCreatorProvider indexCreatorProvider)
-      throws Exception {
+  public List<String> removeObsoleteIndices(SegmentDirectory.Writer segmentWriter) {
     // Remove indices not set in table config any more
     String segmentName = _segmentMetadata.getName();
     Set<String> existingColumns = segmentWriter.toSegmentDirectory().getColumnsWithIndex(ColumnIndexType.JSON_INDEX);
@@ -92,12 +93,20 @@ public class JsonIndexHandler implements IndexHandler {
         LOGGER.info("Removed existing json index from segment: {}, column: {}", segmentName, column);
       }
     }
+    List<String> columnsToCreateIdx = new ArrayList<>();
     for (String column : _columnsToAddIdx) {
-      ColumnMetadata columnMetadata = _segmentMetadata.getColumnMetadataFor(column);
-      if (shouldCreateJsonIndex(columnMetadata)) {
-        createJsonIndexForColumn(segmentWriter, columnMetadata, indexCreatorProvider);
+      if (shouldCreateJsonIndex(_segmentMetadata.getColumnMetadataFor(column))) {
+        columnsToCreateIdx.add(column);
       }
     }
+    return columnsToCreateIdx;
+  }
+
+  @Override
+  public void createIndex(SegmentDirectory.Writer segmentWriter, String column,
+      IndexCreatorProvider indexCreatorProvider)
+      throws Exception {
+    createJsonIndexForColumn(segmentWriter, _segmentMetadata.getColumnMetadataFor(column), indexCreatorProvider);
   }
 
   private boolean shouldCreateJsonIndex(ColumnMetadata columnMetadata) {
@@ -22,6 +22,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Map;
 import javax.annotation.Nullable;
+import org.apache.pinot.segment.local.io.writer.impl.FrameOfReferenceChunkSVForwardIndexWriter;
 import org.apache.pinot.segment.local.io.writer.impl.VarByteChunkSVForwardIndexWriterV4;
 import org.apache.pinot.segment.local.segment.creator.impl.inv.BitSlicedRangeIndexCreator;
 import org.apache.pinot.segment.local.segment.creator.impl.inv.RangeIndexCreator;
@@ -31,6 +32,7 @@ import org.apache.pinot.segment.local.segment.index.readers.forward.FixedBitSVFo
 import org.apache.pinot.segment.local.segment.index.readers.forward.FixedByteChunkMVForwardIndexReader;
 import org.apache.pinot.segment.local.segment.index.readers.forward.FixedByteChunkSVForwardIndexReader;
 import org.apache.pinot.segment.local.segment.index.readers.forward.FixedBytePower2ChunkSVForwardIndexReader;
+import org.apache.pinot.segment.local.segment.index.readers.forward.FrameOfReferenceChunkSVForwardIndexReader;
 import org.apache.pinot.segment.local.segment.index.readers.forward.VarByteChunkMVForwardIndexReader;
 import org.apache.pinot.segment.local.segment.index.readers.forward.VarByteChunkSVForwardIndexReader;
 import org.apache.pinot.segment.local.segment.index.readers.forward.VarByteChunkSVForwardIndexReaderV4;
@@ -95,6 +97,9 @@ public class DefaultIndexReaderProvider implements IndexReaderProvider {
       if (columnMetadata.isSingleValue()) {
         int version = dataBuffer.getInt(0);
         if (storedType.isFixedWidth()) {
+          if (version == FrameOfReferenceChunkSVForwardIndexWriter.VERSION) {
+            return new FrameOfReferenceChunkSVForwardIndexReader(dataBuffer, storedType);
+          }
           return version >= FixedBytePower2ChunkSVForwardIndexReader.VERSION
               ? new FixedBytePower2ChunkSVForwardIndexReader(dataBuffer, storedType)
               : new FixedByteChunkSVForwardIndexReader(dataBuffer, storedType);
@@ -20,6 +20,7 @@ package org.apache.pinot.segment.local.segment.index.readers.bloom;
 
 import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hashing;
+import com.google.common.primitives.Longs;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -39,6 +40,19 @@ public class GuavaBloomFilterReaderUtils {
     return HASH_FUNCTION.hashBytes(value.getBytes(UTF_8)).asBytes();
   }
 
+  /**
+   * Returns the hash of the given value as 2 long values, which can be passed to
+   * {@link org.apache.pinot.segment.spi.index.reader.BloomFilterReader#mightContain(long, long)} to avoid hashing the
+   * same value multiple times.
+   */
+  public static long[] hashAsLongs(String value) {
+    byte[] hash = hash(value);
+    return new long[]{
+        Longs.fromBytes(hash[7], hash[6], hash[5], hash[4], hash[3], hash[2], hash[1], hash[0]),
+        Longs.fromBytes(hash[15], hash[14], hash[13], hash[12], hash[11], hash[10], hash[9], hash[8])
+    };
+  }
+
   /* Cheat sheet:
 
      m: total bits
@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.readers.bloom;
+
+import org.apache.pinot.segment.spi.index.reader.BloomFilterReader;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+
+
+/**
+ * Reader for the split block bloom filter (see {@link SplitBlockBloomFilterUtils} for details), which reads the blocks
+ * directly from the data buffer. Each lookup accesses a single block, so there is no need to load the bloom filter on
+ * heap.
+ */
+public class SplitBlockBloomFilterReader implements BloomFilterReader {
+  // Format of the data buffer header:
+  //   - Number of blocks: 4 bytes
+  private static final int NUM_BLOCKS_OFFSET = 0;
+  private static final int HEADER_SIZE = 4;
+
+  private final int _numBlocks;
+  private final PinotDataBuffer _valueBuffer;
+
+  public SplitBlockBloomFilterReader(PinotDataBuffer dataBuffer) {
+    _numBlocks = dataBuffer.getInt(NUM_BLOCKS_OFFSET);
+    _valueBuffer = dataBuffer.view(HEADER_SIZE, dataBuffer.size());
+  }
+
+  @Override
+  public boolean mightContain(String value) {
+    return mightContain(GuavaBloomFilterReaderUtils.hashAsLongs(value)[0], 0);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>Only the first hash is used to look up the split block bloom filter.
+   */
+  @Override
+  public boolean mightContain(long hash1, long hash2) {
+    long blockOffset =
+        (long) SplitBlockBloomFilterUtils.getBlockIndex(hash1, _numBlocks) * SplitBlockBloomFilterUtils.BYTES_PER_BLOCK;
+    for (int i = 0; i < SplitBlockBloomFilterUtils.NUM_WORDS_PER_BLOCK; i++) {
+      int mask = SplitBlockBloomFilterUtils.getMask(hash1, i);
+      if ((_valueBuffer.getInt(blockOffset + (long) i * Integer.BYTES) & mask) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void close() {
+    // NOTE: DO NOT close the PinotDataBuffer here because it is tracked by the caller and might be reused later. The
+    // caller is responsible of closing the PinotDataBuffer.
+  }
+}
@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.readers.bloom;
+
+/**
+ * Utils for the split block bloom filter, shared by the creator and the reader.
+ *
+ * The split block bloom filter is made of blocks of 256 bits (8 int words). Each value is mapped to a single block, and
+ * sets 1 bit in each word of the block. A lookup only accesses one block (half of a cache line) instead of one random
+ * memory location per hash function as the guava bloom filter does, which makes it fast enough to be read directly from
+ * the memory mapped file. See the Parquet bloom filter specification for more details.
+ *
+ * The 64-bit hash of the value is the first long of the murmur3_128 hash (same as hash1 passed to
+ * {@link org.apache.pinot.segment.spi.index.reader.BloomFilterReader#mightContain(long, long)}). The upper 32 bits of
+ * the hash select the block, and the lower 32 bits select the bits within the block.
+ */
+public class SplitBlockBloomFilterUtils {
+  private SplitBlockBloomFilterUtils() {
+  }
+
+  public static final int NUM_WORDS_PER_BLOCK = 8;
+  public static final int BYTES_PER_BLOCK = NUM_WORDS_PER_BLOCK * Integer.BYTES;
+
+  // DO NOT change the salt values. They have to be aligned between the creator and the reader.
+  private static final int[] SALT = {
+      0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d, 0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31
+  };
+
+  /**
+   * Returns the number of blocks required to store the given number of values with the given fpp (false positive
+   * probability), capped by the given max size (non-positive max size means no limit).
+   */
+  public static int computeNumBlocks(int numValues, double fpp, int maxSizeInBytes) {
+    // m = -k * n / ln(1 - p ^ (1 / k)) with k = 8 bits set per value
+    double numBits =
+        -(double) NUM_WORDS_PER_BLOCK * Math.max(numValues, 1) / Math.log(1 - Math.pow(fpp, 1.0 / NUM_WORDS_PER_BLOCK));
+    long numBlocks = (long) Math.ceil(numBits / (BYTES_PER_BLOCK * Byte.SIZE));
+    if (maxSizeInBytes > 0) {
+      numBlocks = Math.min(numBlocks, maxSizeInBytes / BYTES_PER_BLOCK);
+    }
+    return (int) Math.max(Math.min(numBlocks, Integer.MAX_VALUE / BYTES_PER_BLOCK), 1);
+  }
+
+  /**
+   * Returns the index of the block for the given hash.
+   */
+  public static int getBlockIndex(long hash, int numBlocks) {
+    return (int) (((hash >>> 32) * numBlocks) >>> 32);
+  }
+
+  /**
+   * Returns the mask of the bit to set/check in the given word of the block for the given hash.
+   */
+  public static int getMask(long hash, int wordIndex) {
+    return 1 << (((int) hash * SALT[wordIndex]) >>> 27);
+  }
+}
@@ -25,6 +25,7 @@ import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.nio.LongBuffer;
+import javax.annotation.Nullable;
 import org.apache.pinot.segment.local.io.compression.ChunkCompressorFactory;
 import org.apache.pinot.segment.local.io.writer.impl.BaseChunkSVForwardIndexWriter;
 import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
@@ -52,6 +53,9 @@ public abstract class BaseChunkSVForwardIndexReader implements ForwardIndexReade
   protected final PinotDataBuffer _dataHeader;
   protected final int _headerEntryChunkOffsetSize;
   protected final PinotDataBuffer _rawData;
+  @Nullable
+  protected final DecompressedChunkCache _chunkCache;
+  protected final int _readerId;
 
   public BaseChunkSVForwardIndexReader(PinotDataBuffer dataBuffer, DataType valueType) {
     _dataBuffer = dataBuffer;
@@ -98,6 +102,10 @@ public abstract class BaseChunkSVForwardIndexReader implements ForwardIndexReade
 
     // Useful for uncompressed data.
     _rawData = _dataBuffer.view(rawDataStart, _dataBuffer.size());
+
+    // Only the compressed chunks are worth caching
+    _chunkCache = _isCompressed ? DecompressedChunkCache.getInstance() : null;
+    _readerId = DecompressedChunkCache.nextReaderId();
   }
 
   /**
@@ -113,12 +121,34 @@ public abstract class BaseChunkSVForwardIndexReader implements ForwardIndexReade
   protected ByteBuffer getChunkBuffer(int docId, ChunkReaderContext context) {
     int chunkId = docId / _numDocsPerChunk;
     if (context.getChunkId() == chunkId) {
-      return context.getChunkBuffer();
+      return context.getCurrentChunkBuffer();
     }
     return decompressChunk(chunkId, context);
   }
 
+  /**
+   * Helper method to load the given chunk into the reader context. When the {@link DecompressedChunkCache} is enabled,
+   * the chunk is looked up in the cache first, and cached after being decompressed unless it is read by a sequential
+   * scan (the previous chunk was read with the same context). Chunks read by a sequential scan are unlikely to be read
+   * again by the same query, and caching them would evict the hot chunks.
+   */
   protected ByteBuffer decompressChunk(int chunkId, ChunkReaderContext context) {
+    if (_chunkCache != null) {
+      ByteBuffer cachedChunk = _chunkCache.get(_readerId, chunkId);
+      if (cachedChunk == null && (chunkId == 0 || context.getChunkId() != chunkId - 1)) {
+        cachedChunk = _chunkCache.put(_readerId, chunkId, decompressChunkIntoContext(chunkId, context));
+      }
+      if (cachedChunk != null) {
+        context.setCachedChunk(chunkId, cachedChunk);
+        return cachedChunk;
+      }
+    }
+    ByteBuffer decompressedBuffer = decompressChunkIntoContext(chunkId, context);
+    context.setChunkId(chunkId);
+    return decompressedBuffer;
+  }
+
+  private ByteBuffer decompressChunkIntoContext(int chunkId, ChunkReaderContext context) {
     int chunkSize;
     long chunkPosition = getChunkPosition(chunkId);
 
@@ -139,7 +169,6 @@ public abstract class BaseChunkSVForwardIndexReader implements ForwardIndexReade
       LOGGER.error("Exception caught while decompressing data chunk", e);
       throw new RuntimeException(e);
     }
-    context.setChunkId(chunkId);
     return decompressedBuffer;
   }
 
@@ -344,6 +373,9 @@ public abstract class BaseChunkSVForwardIndexReader implements ForwardIndexReade
   public void close() {
     // NOTE: DO NOT close the PinotDataBuffer here because it is tracked by the caller and might be reused later. The
     // caller is responsible of closing the PinotDataBuffer.
+    if (_chunkCache != null) {
+      _chunkCache.invalidate(_readerId);
+    }
   }
 
   private boolean isContiguousRange(int[] docIds, int length) {
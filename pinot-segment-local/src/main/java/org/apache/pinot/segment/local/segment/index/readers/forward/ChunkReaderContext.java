@@ -32,28 +32,54 @@ import org.apache.pinot.segment.spi.memory.CleanerUtil;
  *     Chunk Buffer from the previous read. Useful if the subsequent read is from the same buffer, as it avoids extra
  *     chunk decompression.
  *   </li>
+ *   <li>Chunk shared through the {@link DecompressedChunkCache} from the previous read, if enabled</li>
  *   <li>Id for the chunk</li>
  * </ul>
  */
 public class ChunkReaderContext implements ForwardIndexReaderContext {
   private final ByteBuffer _chunkBuffer;
+  private ByteBuffer _currentChunkBuffer;
   private int _chunkId;
 
   public ChunkReaderContext(int maxChunkSize) {
     _chunkBuffer = ByteBuffer.allocateDirect(maxChunkSize);
+    _currentChunkBuffer = _chunkBuffer;
     _chunkId = -1;
   }
 
+  /**
+   * Returns the buffer owned by this context, into which the chunks are decompressed.
+   */
   public ByteBuffer getChunkBuffer() {
     return _chunkBuffer;
   }
 
+  /**
+   * Returns the buffer of the current chunk, which is either the buffer owned by this context or a chunk shared through
+   * the {@link DecompressedChunkCache}.
+   */
+  public ByteBuffer getCurrentChunkBuffer() {
+    return _currentChunkBuffer;
+  }
+
   public int getChunkId() {
     return _chunkId;
   }
 
+  /**
+   * Sets the id of the chunk decompressed into the buffer owned by this context.
+   */
   public void setChunkId(int chunkId) {
     _chunkId = chunkId;
+    _currentChunkBuffer = _chunkBuffer;
+  }
+
+  /**
+   * Sets the id and the buffer of the current chunk when it is shared through the {@link DecompressedChunkCache}.
+   */
+  public void setCachedChunk(int chunkId, ByteBuffer chunkBuffer) {
+    _chunkId = chunkId;
+    _currentChunkBuffer = chunkBuffer;
   }
 
   @Override
@@ -0,0 +1,163 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.readers.forward;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Server-wide cache of the decompressed chunks of the raw forward indexes, shared by all the queries so that the hot
+ * chunks are decompressed once instead of once per query.
+ *
+ * Chunks are keyed by the id of the forward index reader (one reader per segment column) and the chunk id. The cached
+ * chunks are stored off-heap, and the total size of the cached chunks is bounded by the configured max size. Evicted
+ * chunks are not freed explicitly because they might still be read by the queries, and are released once they are
+ * garbage collected. The ids of the cached chunks are also tracked per reader, so that the chunks of a reader can be
+ * removed without scanning the whole cache when the reader is closed.
+ *
+ * The cache is disabled by default, and can be enabled through {@link #init(long)} when the server starts.
+ */
+public class DecompressedChunkCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DecompressedChunkCache.class);
+  private static final AtomicInteger NEXT_READER_ID = new AtomicInteger();
+
+  private static volatile DecompressedChunkCache _instance;
+
+  private final long _maxSizeBytes;
+  private final Cache<Long, ByteBuffer> _cache;
+  // Reader id -> ids of the cached chunks of the reader
+  private final ConcurrentHashMap<Integer, Set<Integer>> _cachedChunkIds = new ConcurrentHashMap<>();
+
+  @VisibleForTesting
+  DecompressedChunkCache(long maxSizeBytes) {
+    _maxSizeBytes = maxSizeBytes;
+    _cache = CacheBuilder.newBuilder().maximumWeight(maxSizeBytes)
+        .weigher((Long key, ByteBuffer chunk) -> chunk.capacity())
+        .removalListener((RemovalNotification<Long, ByteBuffer> notification) -> {
+          // NOTE: Replaced chunk is still cached with the new value
+          if (notification.getCause() != RemovalCause.REPLACED) {
+            long key = notification.getKey();
+            int chunkId = (int) key;
+            _cachedChunkIds.computeIfPresent((int) (key >>> 32), (readerId, chunkIds) -> {
+              chunkIds.remove(chunkId);
+              return chunkIds.isEmpty() ? null : chunkIds;
+            });
+          }
+        }).recordStats().build();
+  }
+
+  /**
+   * Initializes the server-wide cache with the given max size, or disables it when the max size is not positive. Only
+   * the forward index readers created afterwards are affected.
+   */
+  public static void init(long maxSizeBytes) {
+    if (maxSizeBytes > 0) {
+      LOGGER.info("Initializing decompressed chunk cache with max size: {} bytes", maxSizeBytes);
+      _instance = new DecompressedChunkCache(maxSizeBytes);
+    } else {
+      _instance = null;
+    }
+  }
+
+  /**
+   * Returns the server-wide cache, or {@code null} if it is disabled.
+   */
+  @Nullable
+  public static DecompressedChunkCache getInstance() {
+    return _instance;
+  }
+
+  /**
+   * Returns a new id for a forward index reader. Ids are never reused so that the chunks of a closed reader cannot be
+   * returned for another one.
+   */
+  public static int nextReaderId() {
+    return NEXT_READER_ID.getAndIncrement();
+  }
+
+  public long getMaxSizeBytes() {
+    return _maxSizeBytes;
+  }
+
+  public long getNumEntries() {
+    return _cache.size();
+  }
+
+  public CacheStats getStats() {
+    return _cache.stats();
+  }
+
+  /**
+   * Returns the cached chunk, or {@code null} if it is not cached. The returned buffer is a read-only view owned by the
+   * caller, with position 0 and big-endian byte order.
+   */
+  @Nullable
+  public ByteBuffer get(int readerId, int chunkId) {
+    ByteBuffer chunk = _cache.getIfPresent(getKey(readerId, chunkId));
+    return chunk != null ? chunk.asReadOnlyBuffer() : null;
+  }
+
+  /**
+   * Caches a copy of the given decompressed chunk (from position to limit), and returns a read-only view of the copy
+   * (see {@link #get(int, int)}). The given buffer is left untouched and can be reused by the caller.
+   */
+  public ByteBuffer put(int readerId, int chunkId, ByteBuffer decompressedChunk) {
+    ByteBuffer chunk = ByteBuffer.allocateDirect(decompressedChunk.remaining());
+    chunk.put(decompressedChunk.duplicate());
+    chunk.flip();
+    // Track the chunk id before caching the chunk so that it is always removed from the tracked ids on eviction
+    _cachedChunkIds.compute(readerId, (key, chunkIds) -> {
+      if (chunkIds == null) {
+        chunkIds = ConcurrentHashMap.newKeySet();
+      }
+      chunkIds.add(chunkId);
+      return chunkIds;
+    });
+    _cache.put(getKey(readerId, chunkId), chunk);
+    return chunk.asReadOnlyBuffer();
+  }
+
+  /**
+   * Removes all the cached chunks of the given reader, called when the reader is closed.
+   */
+  public void invalidate(int readerId) {
+    Set<Integer> chunkIds = _cachedChunkIds.remove(readerId);
+    if (chunkIds != null) {
+      for (int chunkId : chunkIds) {
+        _cache.invalidate(getKey(readerId, chunkId));
+      }
+    }
+  }
+
+  private static long getKey(int readerId, int chunkId) {
+    return ((long) readerId << 32) | (chunkId & 0xFFFFFFFFL);
+  }
+}
@@ -30,6 +30,10 @@ import org.apache.pinot.spi.data.FieldSpec.DataType;
  * ids.
  */
 public final class FixedBitSVForwardIndexReaderV2 implements ForwardIndexReader<ForwardIndexReaderContext> {
+  // Use bulk read for non-sequential doc ids when they cover at least half of the docs within their range, i.e. each
+  // 32 values decoded with bulk read are used for at least 16 docs on average
+  private static final int MAX_DENSE_RANGE_FACTOR = 2;
+
   private final FixedBitIntReader _reader;
   private final int _numDocs;
 
@@ -63,9 +67,16 @@ public final class FixedBitSVForwardIndexReaderV2 implements ForwardIndexReader<
     int firstDocId = docIds[0];
     int lastDocId = docIds[length - 1];
     int index = 0;
+    int docIdRange = lastDocId - firstDocId + 1;
+
+    // Use bulk read and pick the values if the doc ids are dense
+    if (docIdRange > length && docIdRange <= length * MAX_DENSE_RANGE_FACTOR && length >= 64) {
+      readDictIdsDense(docIds, length, dictIdBuffer);
+      return;
+    }
 
     // Use bulk read if the doc ids are sequential
-    if (lastDocId - firstDocId + 1 == length && length >= 64) {
+    if (docIdRange == length && length >= 64) {
       int bulkStartIndex = (firstDocId + 31) & 0xffffffe0;
       int bulkEndIndex = lastDocId & 0xffffffe0;
 
@@ -95,6 +106,29 @@ public final class FixedBitSVForwardIndexReaderV2 implements ForwardIndexReader<
     }
   }
 
+  /**
+   * Reads the dictionary ids for the dense doc ids by bulk reading 32 values at a time, and picking the values for the
+   * given doc ids. The values within the last incomplete 32-value block are read individually.
+   */
+  private void readDictIdsDense(int[] docIds, int length, int[] dictIdBuffer) {
+    int[] buffer = new int[32];
+    int bufferStartDocId = -1;
+    int bulkEndDocId = _numDocs & 0xffffffe0;
+    for (int i = 0; i < length; i++) {
+      int docId = docIds[i];
+      int startDocId = docId & 0xffffffe0;
+      if (startDocId < bulkEndDocId) {
+        if (startDocId != bufferStartDocId) {
+          _reader.read32(startDocId, buffer, 0);
+          bufferStartDocId = startDocId;
+        }
+        dictIdBuffer[i] = buffer[docId & 0x1f];
+      } else {
+        dictIdBuffer[i] = _reader.read(docId);
+      }
+    }
+  }
+
   @Override
   public void close() {
   }
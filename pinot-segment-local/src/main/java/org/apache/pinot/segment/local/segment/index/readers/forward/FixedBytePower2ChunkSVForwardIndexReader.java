@@ -107,7 +107,7 @@ public final class FixedBytePower2ChunkSVForwardIndexReader extends BaseChunkSVF
   protected ByteBuffer getChunkBuffer(int docId, ChunkReaderContext context) {
     int chunkId = docId >>> _shift;
     if (context.getChunkId() == chunkId) {
-      return context.getChunkBuffer();
+      return context.getCurrentChunkBuffer();
     }
     return decompressChunk(chunkId, context);
   }
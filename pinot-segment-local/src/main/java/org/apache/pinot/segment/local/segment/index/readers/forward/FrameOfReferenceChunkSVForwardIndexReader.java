@@ -0,0 +1,160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.readers.forward;
+
+import com.google.common.base.Preconditions;
+import org.apache.pinot.segment.local.io.writer.impl.FrameOfReferenceChunkSVForwardIndexWriter;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReader;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReaderContext;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+
+
+/**
+ * Chunk-based single-value raw (non-dictionary-encoded) forward index reader for frame-of-reference encoded INT and
+ * LONG values. Each value can be read directly from the bit-packed chunk, without decompressing the whole chunk.
+ * <p>For data layout, please refer to the documentation for {@link FrameOfReferenceChunkSVForwardIndexWriter}
+ */
+public final class FrameOfReferenceChunkSVForwardIndexReader implements ForwardIndexReader<ForwardIndexReaderContext> {
+  private static final int STEP_OFFSET = Long.BYTES;
+  private static final int NUM_BITS_OFFSET = 2 * Long.BYTES;
+
+  private final PinotDataBuffer _dataBuffer;
+  private final DataType _valueType;
+  private final int _chunkShift;
+  private final int _chunkMask;
+
+  public FrameOfReferenceChunkSVForwardIndexReader(PinotDataBuffer dataBuffer, DataType valueType) {
+    int version = dataBuffer.getInt(0);
+    Preconditions.checkState(version == FrameOfReferenceChunkSVForwardIndexWriter.VERSION,
+        "Unsupported frame-of-reference forward index version: %s", version);
+    int numDocsPerChunk = dataBuffer.getInt(2 * Integer.BYTES);
+    Preconditions.checkState(dataBuffer.getInt(3 * Integer.BYTES) == valueType.size());
+    _dataBuffer = dataBuffer;
+    _valueType = valueType;
+    _chunkShift = Integer.numberOfTrailingZeros(numDocsPerChunk);
+    _chunkMask = numDocsPerChunk - 1;
+  }
+
+  @Override
+  public boolean isDictionaryEncoded() {
+    return false;
+  }
+
+  @Override
+  public boolean isSingleValue() {
+    return true;
+  }
+
+  @Override
+  public DataType getValueType() {
+    return _valueType;
+  }
+
+  @Override
+  public int getInt(int docId, ForwardIndexReaderContext context) {
+    return (int) getLong(docId, context);
+  }
+
+  @Override
+  public long getLong(int docId, ForwardIndexReaderContext context) {
+    long chunkOffset = getChunkOffset(docId >>> _chunkShift);
+    int index = docId & _chunkMask;
+    return _dataBuffer.getLong(chunkOffset) + index * _dataBuffer.getLong(chunkOffset + STEP_OFFSET) + unpack(
+        chunkOffset + FrameOfReferenceChunkSVForwardIndexWriter.CHUNK_HEADER_SIZE, index,
+        _dataBuffer.getByte(chunkOffset + NUM_BITS_OFFSET));
+  }
+
+  @Override
+  public void readValuesSV(int[] docIds, int length, int[] values, ForwardIndexReaderContext context) {
+    if (_valueType == DataType.INT) {
+      ChunkCursor cursor = new ChunkCursor();
+      for (int i = 0; i < length; i++) {
+        values[i] = (int) cursor.read(docIds[i]);
+      }
+    } else {
+      ForwardIndexReader.super.readValuesSV(docIds, length, values, context);
+    }
+  }
+
+  @Override
+  public void readValuesSV(int[] docIds, int length, long[] values, ForwardIndexReaderContext context) {
+    ChunkCursor cursor = new ChunkCursor();
+    for (int i = 0; i < length; i++) {
+      values[i] = cursor.read(docIds[i]);
+    }
+  }
+
+  @Override
+  public void readValuesSV(int[] docIds, int length, double[] values, ForwardIndexReaderContext context) {
+    // NOTE: INT values are encoded as LONG values, so they can be read as LONG values directly
+    ChunkCursor cursor = new ChunkCursor();
+    for (int i = 0; i < length; i++) {
+      values[i] = cursor.read(docIds[i]);
+    }
+  }
+
+  private long getChunkOffset(int chunkId) {
+    return _dataBuffer.getLong(FrameOfReferenceChunkSVForwardIndexWriter.HEADER_SIZE + (long) chunkId * Long.BYTES);
+  }
+
+  private long unpack(long dataOffset, int index, int numBits) {
+    if (numBits == 0) {
+      return 0;
+    }
+    if (numBits == Long.SIZE) {
+      return _dataBuffer.getLong(dataOffset + ((long) index << 3));
+    }
+    long bitOffset = (long) index * numBits;
+    long word = _dataBuffer.getLong(dataOffset + (bitOffset >>> 3));
+    return (word >>> (Long.SIZE - ((int) bitOffset & 7) - numBits)) & ((1L << numBits) - 1);
+  }
+
+  /**
+   * Keeps the header of the current chunk, so that reading values from the same chunk only requires one read of the
+   * packed value.
+   */
+  private class ChunkCursor {
+    int _chunkId = -1;
+    long _base;
+    long _step;
+    int _numBits;
+    long _dataOffset;
+
+    long read(int docId) {
+      int chunkId = docId >>> _chunkShift;
+      if (chunkId != _chunkId) {
+        long chunkOffset = getChunkOffset(chunkId);
+        _base = _dataBuffer.getLong(chunkOffset);
+        _step = _dataBuffer.getLong(chunkOffset + STEP_OFFSET);
+        _numBits = _dataBuffer.getByte(chunkOffset + NUM_BITS_OFFSET);
+        _dataOffset = chunkOffset + FrameOfReferenceChunkSVForwardIndexWriter.CHUNK_HEADER_SIZE;
+        _chunkId = chunkId;
+      }
+      int index = docId & _chunkMask;
+      return _base + index * _step + unpack(_dataOffset, index, _numBits);
+    }
+  }
+
+  @Override
+  public void close() {
+    // NOTE: DO NOT close the PinotDataBuffer here because it is tracked by the caller and might be reused later. The
+    // caller is responsible of closing the PinotDataBuffer.
+  }
+}
@@ -52,6 +52,9 @@ public class VarByteChunkSVForwardIndexReaderV4
 
   private final PinotDataBuffer _metadata;
   private final PinotDataBuffer _chunks;
+  @Nullable
+  private final DecompressedChunkCache _chunkCache;
+  private final int _readerId;
 
   public VarByteChunkSVForwardIndexReaderV4(PinotDataBuffer dataBuffer, FieldSpec.DataType valueType) {
     if (dataBuffer.getInt(0) < VarByteChunkSVForwardIndexWriterV4.VERSION) {
@@ -66,6 +69,9 @@ public class VarByteChunkSVForwardIndexReaderV4
     // the file has a BE header for compatability reasons (version selection) but the content is LE
     _metadata = dataBuffer.view(16, chunksOffset, ByteOrder.LITTLE_ENDIAN);
     _chunks = dataBuffer.view(chunksOffset, dataBuffer.size(), ByteOrder.LITTLE_ENDIAN);
+    _chunkCache =
+        _chunkCompressionType != ChunkCompressionType.PASS_THROUGH ? DecompressedChunkCache.getInstance() : null;
+    _readerId = DecompressedChunkCache.nextReaderId();
   }
 
   @Override
@@ -104,12 +110,15 @@ public class VarByteChunkSVForwardIndexReaderV4
     return _chunkCompressionType == ChunkCompressionType.PASS_THROUGH
         ? new UncompressedReaderContext(_chunks, _metadata)
         : new CompressedReaderContext(_metadata, _chunks, _chunkDecompressor, _chunkCompressionType,
-            _targetDecompressedChunkSize);
+            _targetDecompressedChunkSize, _chunkCache, _readerId);
   }
 
   @Override
   public void close()
       throws IOException {
+    if (_chunkCache != null) {
+      _chunkCache.invalidate(_readerId);
+    }
   }
 
   public static abstract class ReaderContext implements ForwardIndexReaderContext {
@@ -230,40 +239,77 @@ public class VarByteChunkSVForwardIndexReaderV4
     private final ByteBuffer _decompressedBuffer;
     private final ChunkDecompressor _chunkDecompressor;
     private final ChunkCompressionType _chunkCompressionType;
+    private final DecompressedChunkCache _chunkCache;
+    private final int _readerId;
+    // Either the decompressed buffer or a chunk shared through the chunk cache
+    private ByteBuffer _chunkBuffer;
+    // End offset of the previous chunk, used to detect the sequential scan
+    private long _previousChunkLimit = -1;
 
     CompressedReaderContext(PinotDataBuffer metadata, PinotDataBuffer chunks, ChunkDecompressor chunkDecompressor,
-        ChunkCompressionType chunkCompressionType, int targetChunkSize) {
+        ChunkCompressionType chunkCompressionType, int targetChunkSize, @Nullable DecompressedChunkCache chunkCache,
+        int readerId) {
       super(metadata, chunks);
       _chunkDecompressor = chunkDecompressor;
       _chunkCompressionType = chunkCompressionType;
       _decompressedBuffer = ByteBuffer.allocateDirect(targetChunkSize).order(ByteOrder.LITTLE_ENDIAN);
+      _chunkCache = chunkCache;
+      _readerId = readerId;
+      _chunkBuffer = _decompressedBuffer;
     }
 
     @Override
     protected byte[] processChunkAndReadFirstValue(int docId, long offset, long limit)
         throws IOException {
-      _decompressedBuffer.clear();
       ByteBuffer compressed = _chunks.toDirectByteBuffer(offset, (int) (limit - offset));
       if (_regularChunk) {
-        _chunkDecompressor.decompress(compressed, _decompressedBuffer);
-        _numDocsInCurrentChunk = _decompressedBuffer.getInt(0);
+        boolean sequentialScan = offset == _previousChunkLimit;
+        _previousChunkLimit = limit;
+        _chunkBuffer =
+            _chunkCache != null ? getCachedChunk(compressed, offset, sequentialScan) : decompress(compressed);
+        _numDocsInCurrentChunk = _chunkBuffer.getInt(0);
         return readSmallUncompressedValue(docId);
       }
       // huge value, no benefit from buffering, return the whole thing
       return readHugeCompressedValue(compressed, _chunkDecompressor.decompressedLength(compressed));
     }
 
+    private ByteBuffer decompress(ByteBuffer compressed)
+        throws IOException {
+      _decompressedBuffer.clear();
+      _chunkDecompressor.decompress(compressed, _decompressedBuffer);
+      return _decompressedBuffer;
+    }
+
+    /**
+     * Returns the chunk from the chunk cache, keyed by the offset of the chunk which is unique within the index. Chunk
+     * offsets are stored as unsigned ints, so the cast is lossless. Chunks read by a sequential scan are decompressed
+     * without being cached so that they don't evict the hot chunks.
+     */
+    private ByteBuffer getCachedChunk(ByteBuffer compressed, long offset, boolean sequentialScan)
+        throws IOException {
+      int chunkId = (int) offset;
+      ByteBuffer chunk = _chunkCache.get(_readerId, chunkId);
+      if (chunk != null) {
+        return chunk.order(ByteOrder.LITTLE_ENDIAN);
+      }
+      if (sequentialScan) {
+        return decompress(compressed);
+      }
+      return _chunkCache.put(_readerId, chunkId, decompress(compressed)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
     @Override
     protected byte[] readSmallUncompressedValue(int docId) {
       int index = docId - _docIdOffset;
-      int offset = _decompressedBuffer.getInt((index + 1) * Integer.BYTES);
+      int offset = _chunkBuffer.getInt((index + 1) * Integer.BYTES);
       int nextOffset = index == _numDocsInCurrentChunk - 1
-          ? _decompressedBuffer.limit()
-          : _decompressedBuffer.getInt((index + 2) * Integer.BYTES);
+          ? _chunkBuffer.limit()
+          : _chunkBuffer.getInt((index + 2) * Integer.BYTES);
       byte[] bytes = new byte[nextOffset - offset];
-      _decompressedBuffer.position(offset);
-      _decompressedBuffer.get(bytes);
-      _decompressedBuffer.position(0);
+      _chunkBuffer.position(offset);
+      _chunkBuffer.get(bytes);
+      _chunkBuffer.position(0);
       return bytes;
     }
 
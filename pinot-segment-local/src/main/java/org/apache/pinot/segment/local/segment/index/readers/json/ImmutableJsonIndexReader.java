@@ -18,9 +18,12 @@
  */
 package org.apache.pinot.segment.local.segment.index.readers.json;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.pinot.common.request.context.ExpressionContext;
 import org.apache.pinot.common.request.context.FilterContext;
 import org.apache.pinot.common.request.context.RequestContextUtils;
@@ -29,29 +32,51 @@ import org.apache.pinot.common.request.context.predicate.InPredicate;
 import org.apache.pinot.common.request.context.predicate.NotEqPredicate;
 import org.apache.pinot.common.request.context.predicate.NotInPredicate;
 import org.apache.pinot.common.request.context.predicate.Predicate;
+import org.apache.pinot.common.request.context.predicate.RangePredicate;
 import org.apache.pinot.segment.local.segment.creator.impl.inv.json.BaseJsonIndexCreator;
 import org.apache.pinot.segment.local.segment.index.readers.BitmapInvertedIndexReader;
 import org.apache.pinot.segment.local.segment.index.readers.StringDictionary;
+import org.apache.pinot.segment.spi.index.creator.JsonIndexCreator;
 import org.apache.pinot.segment.spi.index.reader.JsonIndexReader;
 import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
 import org.apache.pinot.spi.exception.BadQueryRequestException;
 import org.apache.pinot.spi.utils.JsonUtils;
 import org.apache.pinot.sql.parsers.CalciteSqlParser;
-import org.roaringbitmap.IntConsumer;
+import org.roaringbitmap.BatchIterator;
+import org.roaringbitmap.RoaringBitmapWriter;
+import org.roaringbitmap.buffer.BufferFastAggregation;
 import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 import org.roaringbitmap.buffer.MutableRoaringBitmap;
 
 
 /**
  * Reader for json index.
+ * <p>To speed up the json_match queries, the reader:
+ * <ul>
+ *   <li>Skips the flattened doc id to doc id mapping when it is identity (each document is flattened into exactly one
+ *   record), as recorded by the index creator. Otherwise the flattened doc ids are mapped in batches, relying on the
+ *   mapping being monotonic.</li>
+ *   <li>Builds a sorted numeric value index for each key used in a range predicate, so that the range can be resolved
+ *   with binary search instead of a scan over all the values of the key.</li>
+ *   <li>Caches the matching flattened doc ids of the predicates and the numeric value indexes in the server-wide
+ *   {@link JsonIndexCache} when it is enabled.</li>
+ * </ul>
  */
 public class ImmutableJsonIndexReader implements JsonIndexReader {
+  private static final String NUMERIC_VALUE_INDEX_CACHE_KEY_PREFIX = "NUMERIC_VALUE_INDEX:";
+  private static final int DOC_ID_BATCH_SIZE = 256;
+
   // NOTE: Use long type for _numDocs to comply with the RoaringBitmap APIs.
   private final long _numDocs;
   private final int _version;
   private final StringDictionary _dictionary;
   private final BitmapInvertedIndexReader _invertedIndex;
   private final PinotDataBuffer _docIdMapping;
+  private final boolean _identityDocIdMapping;
+  // Server-wide cache captured when the reader is created, null if disabled
+  private final JsonIndexCache _cache = JsonIndexCache.getInstance();
+  private final int _readerId = JsonIndexCache.nextReaderId();
+  private final AtomicLong _numPredicateCacheHits = new AtomicLong();
 
   public ImmutableJsonIndexReader(PinotDataBuffer dataBuffer, int numDocs) {
     _numDocs = numDocs;
@@ -74,6 +99,10 @@ public class ImmutableJsonIndexReader implements JsonIndexReader {
         dataBuffer.view(dictionaryEndOffset, invertedIndexEndOffset, ByteOrder.BIG_ENDIAN), _dictionary.length());
     long docIdMappingEndOffset = invertedIndexEndOffset + docIdMappingLength;
     _docIdMapping = dataBuffer.view(invertedIndexEndOffset, docIdMappingEndOffset, ByteOrder.LITTLE_ENDIAN);
+    // Flags are not available for the index created before they were added
+    int flags =
+        dataBuffer.size() >= docIdMappingEndOffset + Integer.BYTES ? dataBuffer.getInt(docIdMappingEndOffset) : 0;
+    _identityDocIdMapping = (flags & BaseJsonIndexCreator.FLAG_IDENTITY_DOC_ID_MAPPING) != 0;
   }
 
   @Override
@@ -88,19 +117,45 @@ public class ImmutableJsonIndexReader implements JsonIndexReader {
     if (filter.getType() == FilterContext.Type.PREDICATE && isExclusive(filter.getPredicate().getType())) {
       // Handle exclusive predicate separately because the flip can only be applied to the unflattened doc ids in order
       // to get the correct result, and it cannot be nested
-      MutableRoaringBitmap matchingFlattenedDocIds = getMatchingFlattenedDocIds(filter.getPredicate());
-      MutableRoaringBitmap matchingDocIds = new MutableRoaringBitmap();
-      matchingFlattenedDocIds.forEach((IntConsumer) flattenedDocId -> matchingDocIds.add(getDocId(flattenedDocId)));
+      MutableRoaringBitmap matchingDocIds = convertToDocIds(getCachedMatchingFlattenedDocIds(filter.getPredicate()));
       matchingDocIds.flip(0, _numDocs);
       return matchingDocIds;
     } else {
-      MutableRoaringBitmap matchingFlattenedDocIds = getMatchingFlattenedDocIds(filter);
-      MutableRoaringBitmap matchingDocIds = new MutableRoaringBitmap();
-      matchingFlattenedDocIds.forEach((IntConsumer) flattenedDocId -> matchingDocIds.add(getDocId(flattenedDocId)));
-      return matchingDocIds;
+      return convertToDocIds(getMatchingFlattenedDocIds(filter));
     }
   }
 
+  /**
+   * Converts the given flattened doc ids into doc ids. The given bitmap might be returned (and modified by the caller)
+   * when the doc id mapping is identity.
+   */
+  private MutableRoaringBitmap convertToDocIds(MutableRoaringBitmap matchingFlattenedDocIds) {
+    if (_identityDocIdMapping) {
+      return matchingFlattenedDocIds;
+    }
+    if (matchingFlattenedDocIds.isEmpty()) {
+      return new MutableRoaringBitmap();
+    }
+    // NOTE: The doc id mapping is monotonic, so the doc ids are generated in sorted order and the duplicates are
+    //       always adjacent
+    RoaringBitmapWriter<MutableRoaringBitmap> bitmapWriter =
+        RoaringBitmapWriter.bufferWriter().expectedRange(0, _numDocs).runCompress(false).get();
+    BatchIterator flattenedDocIdIterator = matchingFlattenedDocIds.getBatchIterator();
+    int[] buffer = new int[DOC_ID_BATCH_SIZE];
+    int lastDocId = -1;
+    while (flattenedDocIdIterator.hasNext()) {
+      int limit = flattenedDocIdIterator.nextBatch(buffer);
+      for (int i = 0; i < limit; i++) {
+        int docId = getDocId(buffer[i]);
+        if (docId != lastDocId) {
+          bitmapWriter.add(docId);
+          lastDocId = docId;
+        }
+      }
+    }
+    return bitmapWriter.get();
+  }
+
   /**
    * Returns {@code true} if the given predicate type is exclusive for json_match calculation, {@code false} otherwise.
    */
@@ -136,13 +191,32 @@ public class ImmutableJsonIndexReader implements JsonIndexReader {
         Predicate predicate = filter.getPredicate();
         Preconditions
             .checkArgument(!isExclusive(predicate.getType()), "Exclusive predicate: %s cannot be nested", predicate);
-        return getMatchingFlattenedDocIds(predicate);
+        return getCachedMatchingFlattenedDocIds(predicate);
       }
       default:
         throw new IllegalStateException();
     }
   }
 
+  /**
+   * Returns the matching flattened doc ids for the given predicate, served from the json index cache if possible. The
+   * returned bitmap can be modified by the caller.
+   */
+  private MutableRoaringBitmap getCachedMatchingFlattenedDocIds(Predicate predicate) {
+    if (_cache == null) {
+      return getMatchingFlattenedDocIds(predicate);
+    }
+    String cacheKey = predicate.getType() + ":" + predicate;
+    MutableRoaringBitmap cachedDocIds = (MutableRoaringBitmap) _cache.get(_readerId, cacheKey);
+    if (cachedDocIds != null) {
+      _numPredicateCacheHits.incrementAndGet();
+      return cachedDocIds.clone();
+    }
+    MutableRoaringBitmap matchingDocIds = getMatchingFlattenedDocIds(predicate);
+    _cache.put(_readerId, cacheKey, matchingDocIds.clone(), matchingDocIds.getLongSizeInBytes());
+    return matchingDocIds;
+  }
+
   /**
    * Returns the matching flattened doc ids for the given predicate.
    * <p>Exclusive predicate is handled as the inclusive predicate, and the caller should flip the unflattened doc ids in
@@ -291,11 +365,43 @@ public class ImmutableJsonIndexReader implements JsonIndexReader {
       } else {
         return new MutableRoaringBitmap();
       }
+    } else if (predicateType == Predicate.Type.RANGE) {
+      MutableRoaringBitmap matchingDocIdsForRange =
+          getNumericValueIndex(key).getMatchingDocIds(_invertedIndex, (RangePredicate) predicate);
+      if (matchingDocIds == null) {
+        matchingDocIds = matchingDocIdsForRange;
+      } else {
+        matchingDocIds.and(matchingDocIdsForRange);
+      }
+      return matchingDocIds;
     } else {
       throw new IllegalStateException("Unsupported json_match predicate type: " + predicate);
     }
   }
 
+  private NumericValueIndex getNumericValueIndex(String key) {
+    if (_cache == null) {
+      return new NumericValueIndex(_dictionary, key);
+    }
+    String cacheKey = NUMERIC_VALUE_INDEX_CACHE_KEY_PREFIX + key;
+    NumericValueIndex numericValueIndex = (NumericValueIndex) _cache.get(_readerId, cacheKey);
+    if (numericValueIndex == null) {
+      numericValueIndex = new NumericValueIndex(_dictionary, key);
+      _cache.put(_readerId, cacheKey, numericValueIndex, numericValueIndex.getSizeInBytes());
+    }
+    return numericValueIndex;
+  }
+
+  @VisibleForTesting
+  public long getNumPredicateCacheHits() {
+    return _numPredicateCacheHits.get();
+  }
+
+  @VisibleForTesting
+  public boolean isIdentityDocIdMapping() {
+    return _identityDocIdMapping;
+  }
+
   private int getDocId(int flattenedDocId) {
     return _docIdMapping.getInt((long) flattenedDocId << 2);
   }
@@ -305,4 +411,100 @@ public class ImmutableJsonIndexReader implements JsonIndexReader {
     // NOTE: DO NOT close the PinotDataBuffer here because it is tracked by the caller and might be reused later. The
     // caller is responsible of closing the PinotDataBuffer.
   }
+
+  /**
+   * Numeric values of a key sorted in ascending order, along with their dictionary ids. Values that cannot be parsed as
+   * number are ignored, so they never match a range predicate.
+   */
+  private static class NumericValueIndex {
+    final double[] _values;
+    final int[] _dictIds;
+
+    NumericValueIndex(StringDictionary dictionary, String key) {
+      // All the key-value pairs of the key are stored contiguously in the sorted dictionary, starting with
+      // "<key>\0" and ending before "<key>\1"
+      String prefix = key + JsonIndexCreator.KEY_VALUE_SEPARATOR;
+      int startDictId = getInsertionIndex(dictionary, prefix);
+      int endDictId = getInsertionIndex(dictionary, key + (char) (JsonIndexCreator.KEY_VALUE_SEPARATOR + 1));
+      int prefixLength = prefix.length();
+      double[] values = new double[endDictId - startDictId];
+      int[] dictIds = new int[endDictId - startDictId];
+      int numValues = 0;
+      for (int dictId = startDictId; dictId < endDictId; dictId++) {
+        try {
+          values[numValues] = Double.parseDouble(dictionary.getStringValue(dictId).substring(prefixLength));
+          dictIds[numValues++] = dictId;
+        } catch (NumberFormatException e) {
+          // Skip non-numeric value
+        }
+      }
+      it.unimi.dsi.fastutil.Arrays.quickSort(0, numValues, (i1, i2) -> Double.compare(values[i1], values[i2]),
+          (i1, i2) -> {
+            double tempValue = values[i1];
+            values[i1] = values[i2];
+            values[i2] = tempValue;
+            int tempDictId = dictIds[i1];
+            dictIds[i1] = dictIds[i2];
+            dictIds[i2] = tempDictId;
+          });
+      _values = Arrays.copyOf(values, numValues);
+      _dictIds = Arrays.copyOf(dictIds, numValues);
+    }
+
+    long getSizeInBytes() {
+      return (long) _values.length * (Double.BYTES + Integer.BYTES);
+    }
+
+    MutableRoaringBitmap getMatchingDocIds(BitmapInvertedIndexReader invertedIndex, RangePredicate predicate) {
+      int startIndex = 0;
+      String lowerBound = predicate.getLowerBound();
+      if (!lowerBound.equals(RangePredicate.UNBOUNDED)) {
+        startIndex = getFirstIndexAbove(parseBound(lowerBound), predicate.isLowerInclusive());
+      }
+      int endIndex = _values.length;
+      String upperBound = predicate.getUpperBound();
+      if (!upperBound.equals(RangePredicate.UNBOUNDED)) {
+        endIndex = getFirstIndexAbove(parseBound(upperBound), !predicate.isUpperInclusive());
+      }
+      if (startIndex >= endIndex) {
+        return new MutableRoaringBitmap();
+      }
+      ImmutableRoaringBitmap[] postingLists = new ImmutableRoaringBitmap[endIndex - startIndex];
+      for (int i = startIndex; i < endIndex; i++) {
+        postingLists[i - startIndex] = invertedIndex.getDocIds(_dictIds[i]);
+      }
+      return BufferFastAggregation.or(postingLists);
+    }
+
+    /**
+     * Returns the index of the first value greater than (or equal to if {@code inclusive}) the given value.
+     */
+    int getFirstIndexAbove(double value, boolean inclusive) {
+      int low = 0;
+      int high = _values.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        int compareResult = Double.compare(_values[mid], value);
+        if (compareResult < 0 || (compareResult == 0 && !inclusive)) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+  }
+
+  private static int getInsertionIndex(StringDictionary dictionary, String value) {
+    int index = dictionary.insertionIndexOf(value);
+    return index >= 0 ? index : -(index + 1);
+  }
+
+  private static double parseBound(String bound) {
+    try {
+      return Double.parseDouble(bound);
+    } catch (NumberFormatException e) {
+      throw new BadQueryRequestException("Range predicate in json_match only supports numeric bounds, got: " + bound);
+    }
+  }
 }
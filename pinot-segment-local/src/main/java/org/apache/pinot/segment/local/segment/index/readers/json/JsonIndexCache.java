@@ -0,0 +1,155 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.readers.json;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Server-wide cache of the json index lookups (matching flattened doc ids of the json_match predicates and the numeric
+ * value indexes for the range predicates), shared by all the json index readers so that the repeated json_match
+ * queries don't need to look up the index again.
+ *
+ * Entries are keyed by the id of the json index reader (one reader per segment column) and the lookup key, and the
+ * total size of the cached entries is bounded by the configured max size. Reader ids are never reused, so the entries
+ * of a closed reader can no longer be accessed, and are evicted as the least recently used entries.
+ *
+ * The cache is disabled by default, and can be enabled through {@link #init(long)} when the server starts.
+ */
+public class JsonIndexCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(JsonIndexCache.class);
+  private static final AtomicInteger NEXT_READER_ID = new AtomicInteger();
+
+  private static volatile JsonIndexCache _instance;
+
+  private final long _maxSizeBytes;
+  private final Cache<Key, Entry> _cache;
+
+  @VisibleForTesting
+  JsonIndexCache(long maxSizeBytes) {
+    _maxSizeBytes = maxSizeBytes;
+    _cache = CacheBuilder.newBuilder().maximumWeight(maxSizeBytes).weigher((Key key, Entry entry) -> entry._weight)
+        .recordStats().build();
+  }
+
+  /**
+   * Initializes the server-wide cache with the given max size, or disables it when the max size is not positive. Only
+   * the json index readers created afterwards are affected.
+   */
+  public static void init(long maxSizeBytes) {
+    if (maxSizeBytes > 0) {
+      LOGGER.info("Initializing json index cache with max size: {} bytes", maxSizeBytes);
+      _instance = new JsonIndexCache(maxSizeBytes);
+    } else {
+      _instance = null;
+    }
+  }
+
+  /**
+   * Returns the server-wide cache, or {@code null} if it is disabled.
+   */
+  @Nullable
+  public static JsonIndexCache getInstance() {
+    return _instance;
+  }
+
+  /**
+   * Returns a new id for a json index reader.
+   */
+  public static int nextReaderId() {
+    return NEXT_READER_ID.getAndIncrement();
+  }
+
+  public long getMaxSizeBytes() {
+    return _maxSizeBytes;
+  }
+
+  public long getNumEntries() {
+    return _cache.size();
+  }
+
+  public CacheStats getStats() {
+    return _cache.stats();
+  }
+
+  /**
+   * Returns the cached value, or {@code null} if it is not cached.
+   */
+  @Nullable
+  public Object get(int readerId, String key) {
+    Entry entry = _cache.getIfPresent(new Key(readerId, key));
+    return entry != null ? entry._value : null;
+  }
+
+  /**
+   * Caches the given value with its (estimated) size in bytes. Values larger than the max size are not cached.
+   */
+  public void put(int readerId, String key, Object value, long sizeInBytes) {
+    if (sizeInBytes <= _maxSizeBytes) {
+      // Count the key as part of the entry size
+      long weight = sizeInBytes + 2L * key.length();
+      _cache.put(new Key(readerId, key), new Entry(value, (int) Math.min(weight, Integer.MAX_VALUE)));
+    }
+  }
+
+  private static class Key {
+    final int _readerId;
+    final String _key;
+
+    Key(int readerId, String key) {
+      _readerId = readerId;
+      _key = key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return _readerId == that._readerId && _key.equals(that._key);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(_readerId, _key);
+    }
+  }
+
+  private static class Entry {
+    final Object _value;
+    final int _weight;
+
+    Entry(Object value, int weight) {
+      _value = value;
+      _weight = weight;
+    }
+  }
+}
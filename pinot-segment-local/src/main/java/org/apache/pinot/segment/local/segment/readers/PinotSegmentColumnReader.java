@@ -21,6 +21,7 @@ package org.apache.pinot.segment.local.segment.readers;
 import com.google.common.base.Preconditions;
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.Arrays;
 import javax.annotation.Nullable;
 import org.apache.pinot.segment.spi.IndexSegment;
 import org.apache.pinot.segment.spi.datasource.DataSource;
@@ -81,6 +82,14 @@ public class PinotSegmentColumnReader implements Closeable {
     return _forwardIndexReader.getDictId(docId, _forwardIndexReaderContext);
   }
 
+  /**
+   * Returns a copy of the dictionary ids for the given document of a dictionary encoded multi-value column.
+   */
+  public int[] getDictIdMV(int docId) {
+    int numValues = _forwardIndexReader.getDictIdMV(docId, _dictIdBuffer, _forwardIndexReaderContext);
+    return Arrays.copyOf(_dictIdBuffer, numValues);
+  }
+
   public Object getValue(int docId) {
     if (_dictionary != null) {
       if (_forwardIndexReader.isSingleValue()) {
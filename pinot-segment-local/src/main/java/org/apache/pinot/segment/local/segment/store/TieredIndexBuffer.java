@@ -0,0 +1,270 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.store;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+
+
+/**
+ * Read-only buffer of a range of an index in the {@link TieredSegmentDirectory}, which resolves the cached index buffer
+ * on each access instead of holding it, so that the cached range can be evicted while the index is not in use and
+ * fetched again on the next access.
+ *
+ * The direct {@link ByteBuffer} returned by {@link #toDirectByteBuffer(long, int, ByteOrder)} is backed by the cached
+ * range and cannot be tracked, so the range is pinned when it is exposed outside of a query.
+ */
+@ThreadSafe
+class TieredIndexBuffer extends PinotDataBuffer {
+  private final TieredSegmentDirectory.CachedIndex _index;
+  private final long _start;
+  private final long _size;
+  private final ByteOrder _byteOrder;
+
+  // View of the cached index buffer for the range, re-created when the index is fetched again
+  private volatile ResolvedView _resolvedView;
+
+  TieredIndexBuffer(TieredSegmentDirectory.CachedIndex index, long start, long size, ByteOrder byteOrder) {
+    super(false);
+    _index = index;
+    _start = start;
+    _size = size;
+    _byteOrder = byteOrder;
+  }
+
+  private PinotDataBuffer resolve(boolean expose) {
+    PinotDataBuffer indexBuffer = _index.getBuffer(expose);
+    ResolvedView resolvedView = _resolvedView;
+    if (resolvedView == null || resolvedView._indexBuffer != indexBuffer) {
+      resolvedView = new ResolvedView(indexBuffer, indexBuffer.view(_start, _start + _size, _byteOrder));
+      _resolvedView = resolvedView;
+    }
+    return resolvedView._view;
+  }
+
+  private PinotDataBuffer resolve() {
+    return resolve(false);
+  }
+
+  @Override
+  public byte getByte(int offset) {
+    return resolve().getByte(offset);
+  }
+
+  @Override
+  public byte getByte(long offset) {
+    return resolve().getByte(offset);
+  }
+
+  @Override
+  public void putByte(int offset, byte value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void putByte(long offset, byte value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public char getChar(int offset) {
+    return resolve().getChar(offset);
+  }
+
+  @Override
+  public char getChar(long offset) {
+    return resolve().getChar(offset);
+  }
+
+  @Override
+  public void putChar(int offset, char value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void putChar(long offset, char value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public short getShort(int offset) {
+    return resolve().getShort(offset);
+  }
+
+  @Override
+  public short getShort(long offset) {
+    return resolve().getShort(offset);
+  }
+
+  @Override
+  public void putShort(int offset, short value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void putShort(long offset, short value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public int getInt(int offset) {
+    return resolve().getInt(offset);
+  }
+
+  @Override
+  public int getInt(long offset) {
+    return resolve().getInt(offset);
+  }
+
+  @Override
+  public void putInt(int offset, int value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void putInt(long offset, int value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public long getLong(int offset) {
+    return resolve().getLong(offset);
+  }
+
+  @Override
+  public long getLong(long offset) {
+    return resolve().getLong(offset);
+  }
+
+  @Override
+  public void putLong(int offset, long value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void putLong(long offset, long value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public float getFloat(int offset) {
+    return resolve().getFloat(offset);
+  }
+
+  @Override
+  public float getFloat(long offset) {
+    return resolve().getFloat(offset);
+  }
+
+  @Override
+  public void putFloat(int offset, float value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void putFloat(long offset, float value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public double getDouble(int offset) {
+    return resolve().getDouble(offset);
+  }
+
+  @Override
+  public double getDouble(long offset) {
+    return resolve().getDouble(offset);
+  }
+
+  @Override
+  public void putDouble(int offset, double value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void putDouble(long offset, double value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void copyTo(long offset, byte[] buffer, int destOffset, int size) {
+    resolve().copyTo(offset, buffer, destOffset, size);
+  }
+
+  @Override
+  public void copyTo(long offset, PinotDataBuffer buffer, long destOffset, long size) {
+    resolve().copyTo(offset, buffer, destOffset, size);
+  }
+
+  @Override
+  public void readFrom(long offset, byte[] buffer, int srcOffset, int size) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void readFrom(long offset, ByteBuffer buffer) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void readFrom(long offset, File file, long srcOffset, long size) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public long size() {
+    return _size;
+  }
+
+  @Override
+  public ByteOrder order() {
+    return _byteOrder;
+  }
+
+  @Override
+  public PinotDataBuffer view(long start, long end, ByteOrder byteOrder) {
+    return new TieredIndexBuffer(_index, _start + start, end - start, byteOrder);
+  }
+
+  @Override
+  public ByteBuffer toDirectByteBuffer(long offset, int size, ByteOrder byteOrder) {
+    return resolve(true).toDirectByteBuffer(offset, size, byteOrder);
+  }
+
+  @Override
+  public void flush() {
+  }
+
+  @Override
+  public void release() {
+  }
+
+  private static class ResolvedView {
+    final PinotDataBuffer _indexBuffer;
+    final PinotDataBuffer _view;
+
+    ResolvedView(PinotDataBuffer indexBuffer, PinotDataBuffer view) {
+      _indexBuffer = indexBuffer;
+      _view = view;
+    }
+  }
+}
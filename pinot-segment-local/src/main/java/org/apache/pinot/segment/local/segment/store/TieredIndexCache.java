@@ -0,0 +1,267 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.store;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.spi.filesystem.PinotFS;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Local disk cache of index byte ranges fetched from a remote {@link PinotFS}, shared by all the
+ * {@link TieredSegmentDirectory} instances of a server.
+ *
+ * Each cached range is stored as a separate local file and memory mapped. Entries are reference counted by the segment
+ * directories while the ranges are in use (see {@link TieredSegmentDirectory} for when a range is referenced), and the
+ * least recently used entries that are not referenced are evicted to make room for new entries, and fetched again on
+ * the next access. Referenced entries cannot be evicted because their buffers are still in use, so a new entry is
+ * rejected with {@link CacheFullException} if it does not fit into the size budget after evicting all the unreferenced
+ * entries. This keeps the local disk usage within the budget, and the caller can fall back to loading the segment
+ * locally.
+ */
+public class TieredIndexCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TieredIndexCache.class);
+
+  private final File _cacheDir;
+  private final long _maxSizeBytes;
+
+  // Cache entries in LRU order, guarded by the cache lock
+  private final LinkedHashMap<File, CacheEntry> _entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long _sizeBytes;
+
+  private final AtomicLong _numHits = new AtomicLong();
+  private final AtomicLong _numMisses = new AtomicLong();
+  private final AtomicLong _numEvictions = new AtomicLong();
+  private final AtomicLong _numBytesFetched = new AtomicLong();
+
+  /**
+   * Creates the cache under the given directory. Existing content of the directory is removed because entries are not
+   * tracked across restarts.
+   */
+  public TieredIndexCache(File cacheDir, long maxSizeBytes)
+      throws IOException {
+    FileUtils.deleteQuietly(cacheDir);
+    FileUtils.forceMkdir(cacheDir);
+    _cacheDir = cacheDir;
+    _maxSizeBytes = maxSizeBytes;
+    LOGGER.info("Initialized tiered index cache under: {} with max size: {} bytes", cacheDir, maxSizeBytes);
+  }
+
+  public File getCacheDir() {
+    return _cacheDir;
+  }
+
+  public long getMaxSizeBytes() {
+    return _maxSizeBytes;
+  }
+
+  /**
+   * Returns the total size of the cached entries, including the ones being fetched.
+   */
+  public synchronized long getSizeBytes() {
+    return _sizeBytes;
+  }
+
+  public synchronized int getNumEntries() {
+    return _entries.size();
+  }
+
+  /**
+   * Returns the number of cached entries that are referenced and cannot be evicted.
+   */
+  public synchronized int getNumReferencedEntries() {
+    int numReferencedEntries = 0;
+    for (CacheEntry entry : _entries.values()) {
+      if (entry._refCount > 0) {
+        numReferencedEntries++;
+      }
+    }
+    return numReferencedEntries;
+  }
+
+  public long getNumHits() {
+    return _numHits.get();
+  }
+
+  public long getNumMisses() {
+    return _numMisses.get();
+  }
+
+  public long getNumEvictions() {
+    return _numEvictions.get();
+  }
+
+  public long getNumBytesFetched() {
+    return _numBytesFetched.get();
+  }
+
+  /**
+   * Acquires the buffer for the given byte range of the remote file, which is cached in the given local file. The range
+   * is fetched from the remote file if it is not cached yet. {@link #release(File)} must be called for the local file
+   * once the buffer is no longer used, after which the buffer should not be accessed.
+   */
+  public PinotDataBuffer acquire(File localFile, PinotFS pinotFS, URI remoteFile, long offset, long size)
+      throws IOException {
+    CacheEntry entry;
+    synchronized (this) {
+      entry = _entries.get(localFile);
+      if (entry == null) {
+        evictUnreferenced(_maxSizeBytes - size);
+        if (_sizeBytes + size > _maxSizeBytes) {
+          throw new CacheFullException(
+              String.format("Cannot cache %d bytes for file: %s, %d/%d bytes are referenced", size, localFile,
+                  _sizeBytes, _maxSizeBytes));
+        }
+        entry = new CacheEntry(localFile, size);
+        _entries.put(localFile, entry);
+        _sizeBytes += size;
+      }
+      entry._refCount++;
+    }
+    boolean fetched;
+    try {
+      fetched = entry.load(pinotFS, remoteFile, offset);
+    } catch (Exception e) {
+      release(localFile);
+      throw e;
+    }
+    if (fetched) {
+      _numMisses.incrementAndGet();
+      _numBytesFetched.addAndGet(size);
+    } else {
+      _numHits.incrementAndGet();
+    }
+    return entry._buffer;
+  }
+
+  /**
+   * Releases a reference to the given local file acquired with {@link #acquire(File, PinotFS, URI, long, long)}.
+   */
+  public void release(File localFile) {
+    synchronized (this) {
+      CacheEntry entry = _entries.get(localFile);
+      if (entry == null) {
+        return;
+      }
+      entry._refCount--;
+      if (entry._refCount == 0 && entry._buffer == null) {
+        // Failed to fetch the entry, remove it so that the next access retries
+        _entries.remove(localFile);
+        _sizeBytes -= entry._size;
+      }
+    }
+  }
+
+  /**
+   * Evicts the least recently used unreferenced entries until the total size is no more than the given size.
+   */
+  private synchronized void evictUnreferenced(long maxSizeBytes) {
+    Iterator<CacheEntry> iterator = _entries.values().iterator();
+    while (_sizeBytes > maxSizeBytes && iterator.hasNext()) {
+      CacheEntry entry = iterator.next();
+      if (entry._refCount == 0) {
+        iterator.remove();
+        _sizeBytes -= entry._size;
+        entry.evict();
+        _numEvictions.incrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Thrown when a new entry cannot fit into the size budget because the cached entries are referenced.
+   */
+  public static class CacheFullException extends IOException {
+    public CacheFullException(String message) {
+      super(message);
+    }
+  }
+
+  private static class CacheEntry {
+    final File _file;
+    final long _size;
+    // Guarded by the cache lock
+    int _refCount;
+    volatile PinotDataBuffer _buffer;
+
+    CacheEntry(File file, long size) {
+      _file = file;
+      _size = size;
+    }
+
+    /**
+     * Fetches the byte range into the local file and maps it if it is not loaded yet. Returns {@code true} if the
+     * range is fetched, {@code false} if it is already loaded.
+     */
+    synchronized boolean load(PinotFS pinotFS, URI remoteFile, long offset)
+        throws IOException {
+      if (_buffer != null) {
+        return false;
+      }
+      File tempFile = new File(_file.getPath() + ".tmp");
+      FileUtils.forceMkdirParent(_file);
+      try {
+        try (InputStream inputStream = pinotFS.open(remoteFile, offset, _size);
+            OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(tempFile.toPath()))) {
+          long numBytesCopied = IOUtils.copyLarge(inputStream, outputStream, 0, _size);
+          if (numBytesCopied != _size) {
+            throw new IOException(
+                String.format("Fetched %d bytes from: %s at offset: %d, expected: %d", numBytesCopied, remoteFile,
+                    offset, _size));
+          }
+        }
+        Files.move(tempFile.toPath(), _file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        FileUtils.deleteQuietly(tempFile);
+      }
+      // Backward-compatible: index file is always big-endian
+      _buffer = PinotDataBuffer.mapFile(_file, true, 0, _size, ByteOrder.BIG_ENDIAN,
+          "TieredIndexCache." + _file + ".range." + offset + "." + _size);
+      return true;
+    }
+
+    void evict() {
+      PinotDataBuffer buffer = _buffer;
+      _buffer = null;
+      if (buffer != null) {
+        try {
+          buffer.close();
+        } catch (IOException e) {
+          LOGGER.error("Failed to close buffer for cached file: {}. Continuing with error.", _file, e);
+        }
+      }
+      FileUtils.deleteQuietly(_file);
+    }
+  }
+}
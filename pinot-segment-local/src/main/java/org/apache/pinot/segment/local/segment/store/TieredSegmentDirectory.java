@@ -0,0 +1,409 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.store;
+
+import com.google.common.base.Preconditions;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.configuration.ConfigurationException;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.spi.FetchContext;
+import org.apache.pinot.segment.spi.V1Constants;
+import org.apache.pinot.segment.spi.index.metadata.SegmentMetadataImpl;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.segment.spi.store.ColumnIndexType;
+import org.apache.pinot.segment.spi.store.SegmentDirectory;
+import org.apache.pinot.segment.spi.store.SegmentDirectoryPaths;
+import org.apache.pinot.spi.filesystem.PinotFS;
+import org.apache.pinot.spi.filesystem.PinotFSFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Read-only segment directory for a V3 segment stored (untarred) on a {@link PinotFS}, typically the deep store.
+ *
+ * The segment metadata and the index map are copied to a local directory when the segment directory is created. The
+ * index buffers are fetched lazily by byte range from the remote index file on access, and cached on local disk by the
+ * shared {@link TieredIndexCache}. The buffers returned by the reader resolve the cached range on each access, and a
+ * range is only referenced from the cache while it is in use:
+ * <ul>
+ *   <li>Between {@link #acquire(FetchContext)} and {@link #release(FetchContext)} of the queries using the index</li>
+ *   <li>While loading the segment, until {@link #releaseLoadingReferences()} is called</li>
+ *   <li>Until the segment directory is closed, once the index is accessed outside of the above (e.g. by queries without
+ *   prefetch) or its direct byte buffer is exposed outside of a query, because such accesses cannot be tracked</li>
+ * </ul>
+ * Unreferenced ranges can be evicted from the cache and are fetched again on the next access. Fetching a range fails
+ * with {@link TieredIndexCache.CacheFullException} when the referenced ranges already use up the cache budget, in which
+ * case the segment should be loaded locally instead if it happens while loading the segment.
+ * {@link #prefetch(FetchContext)} can be used to warm up the local cache for the columns about to be queried.
+ *
+ * Text index (stored in separate files) is not supported.
+ */
+public class TieredSegmentDirectory extends SegmentDirectory {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TieredSegmentDirectory.class);
+  private static final String INDEX_CACHE_DIR_NAME = "indexes";
+
+  private final URI _indexDir;
+  private final URI _remoteIndexFile;
+  private final File _localDir;
+  private final PinotFS _pinotFS;
+  private final TieredIndexCache _cache;
+  private final Map<IndexKey, IndexEntry> _indexEntries = new HashMap<>();
+  private final Map<IndexKey, CachedIndex> _cachedIndexes = new HashMap<>();
+  private final long _sizeBytes;
+  private SegmentMetadataImpl _segmentMetadata;
+
+  // Guarded by this
+  private boolean _loading = true;
+  private boolean _closed;
+
+  /**
+   * @param indexDir URI of the segment directory on the remote file system
+   * @param localDir local directory to store the segment metadata and cached index buffers
+   * @param cache shared local cache for the index buffers
+   */
+  public TieredSegmentDirectory(URI indexDir, File localDir, TieredIndexCache cache)
+      throws IOException, ConfigurationException {
+    _indexDir = indexDir;
+    _localDir = localDir;
+    _cache = cache;
+    _pinotFS = PinotFSFactory.create(indexDir.getScheme());
+
+    URI remoteSegmentDir = getRemoteSegmentDir(_pinotFS, indexDir);
+    _remoteIndexFile = getChildURI(remoteSegmentDir, V1Constants.INDEX_FILE_NAME);
+    Preconditions.checkState(_pinotFS.exists(_remoteIndexFile),
+        "Failed to find index file: %s, only V3 segment format is supported", _remoteIndexFile);
+
+    // NOTE: Do not clean up the local directory because the cached index buffers of the same segment can be reused
+    FileUtils.forceMkdir(localDir);
+    copyToLocal(remoteSegmentDir, V1Constants.MetadataKeys.METADATA_FILE_NAME, true);
+    copyToLocal(remoteSegmentDir, V1Constants.SEGMENT_CREATION_META, false);
+    copyToLocal(remoteSegmentDir, V1Constants.INDEX_MAP_FILE_NAME, true);
+    SingleFileIndexDirectory.loadIndexMap(localDir, _indexEntries);
+    for (IndexEntry indexEntry : _indexEntries.values()) {
+      _cachedIndexes.put(indexEntry._key, new CachedIndex(indexEntry));
+    }
+    _segmentMetadata = new SegmentMetadataImpl(localDir);
+    _sizeBytes = _pinotFS.length(_remoteIndexFile);
+  }
+
+  /**
+   * Returns the V3 sub-directory if exists, or the segment directory itself.
+   */
+  private static URI getRemoteSegmentDir(PinotFS pinotFS, URI indexDir)
+      throws IOException {
+    URI v3Dir = getChildURI(indexDir, SegmentDirectoryPaths.V3_SUBDIRECTORY_NAME);
+    if (pinotFS.exists(getChildURI(v3Dir, V1Constants.MetadataKeys.METADATA_FILE_NAME))) {
+      return v3Dir;
+    }
+    return indexDir;
+  }
+
+  private static URI getChildURI(URI dir, String child) {
+    String path = dir.getPath();
+    try {
+      return new URI(dir.getScheme(), dir.getAuthority(), path.endsWith("/") ? path + child : path + "/" + child,
+          null, null);
+    } catch (URISyntaxException e) {
+      throw new IllegalStateException("Failed to get URI for: " + child + " under: " + dir, e);
+    }
+  }
+
+  private void copyToLocal(URI remoteSegmentDir, String fileName, boolean required)
+      throws IOException {
+    URI remoteFile = getChildURI(remoteSegmentDir, fileName);
+    if (_pinotFS.exists(remoteFile)) {
+      File localFile = new File(_localDir, fileName);
+      FileUtils.deleteQuietly(localFile);
+      _pinotFS.copyToLocalFile(remoteFile, localFile);
+    } else {
+      Preconditions.checkState(!required, "Failed to find required file: %s", remoteFile);
+    }
+  }
+
+  @Override
+  public URI getIndexDir() {
+    return _indexDir;
+  }
+
+  @Override
+  public SegmentMetadataImpl getSegmentMetadata() {
+    return _segmentMetadata;
+  }
+
+  @Override
+  public void reloadMetadata()
+      throws Exception {
+    _segmentMetadata = new SegmentMetadataImpl(_localDir);
+  }
+
+  @Override
+  public Path getPath() {
+    return _localDir.toPath();
+  }
+
+  /**
+   * Returns the size of the remote index file. Use {@link TieredIndexCache#getSizeBytes()} for the local disk usage.
+   */
+  @Override
+  public long getDiskSizeBytes() {
+    return _sizeBytes;
+  }
+
+  @Override
+  public Set<String> getColumnsWithIndex(ColumnIndexType type) {
+    Set<String> columns = new HashSet<>();
+    for (IndexKey indexKey : _indexEntries.keySet()) {
+      if (indexKey._type == type) {
+        columns.add(indexKey._name);
+      }
+    }
+    return columns;
+  }
+
+  /**
+   * Fetches the indexes of the columns in the fetch context into the local cache if not cached yet.
+   */
+  @Override
+  public void prefetch(FetchContext fetchContext) {
+    for (CachedIndex cachedIndex : getCachedIndexes(fetchContext)) {
+      IndexEntry indexEntry = cachedIndex._entry;
+      try {
+        _cache.acquire(cachedIndex._cacheFile, _pinotFS, _remoteIndexFile, indexEntry._startOffset, indexEntry._size);
+        _cache.release(cachedIndex._cacheFile);
+      } catch (IOException e) {
+        LOGGER.warn("Failed to prefetch index: {} for segment: {}", indexEntry._key, _indexDir, e);
+      }
+    }
+  }
+
+  /**
+   * Marks the indexes of the columns in the fetch context as being used by a query, which keeps the accessed ranges
+   * referenced from the cache until {@link #release(FetchContext)}.
+   */
+  @Override
+  public synchronized void acquire(FetchContext fetchContext) {
+    for (CachedIndex cachedIndex : getCachedIndexes(fetchContext)) {
+      cachedIndex._refCount++;
+    }
+  }
+
+  /**
+   * Marks the indexes of the columns in the fetch context as no longer being used by a query, and releases the ranges
+   * not used by any query anymore so that they can be evicted from the cache.
+   */
+  @Override
+  public synchronized void release(FetchContext fetchContext) {
+    for (CachedIndex cachedIndex : getCachedIndexes(fetchContext)) {
+      if (--cachedIndex._refCount == 0 && !cachedIndex._pinned) {
+        releaseBuffer(cachedIndex);
+      }
+    }
+  }
+
+  /**
+   * Releases the ranges accessed while loading the segment that are not exposed, so that they can be evicted from the
+   * cache once not used by any query. This should be called once after the segment is loaded and before it serves
+   * queries, after which the accesses outside of the queries pin the accessed ranges.
+   */
+  public synchronized void releaseLoadingReferences() {
+    _loading = false;
+    for (CachedIndex cachedIndex : _cachedIndexes.values()) {
+      if (cachedIndex._pinned && !cachedIndex._pinnedUntilClose && cachedIndex._refCount == 0) {
+        cachedIndex._pinned = false;
+        releaseBuffer(cachedIndex);
+      }
+    }
+  }
+
+  private List<CachedIndex> getCachedIndexes(FetchContext fetchContext) {
+    List<CachedIndex> cachedIndexes = new ArrayList<>();
+    for (Map.Entry<String, List<ColumnIndexType>> entry : fetchContext.getColumnToIndexList().entrySet()) {
+      String column = entry.getKey();
+      List<ColumnIndexType> indexTypes = entry.getValue();
+      for (CachedIndex cachedIndex : _cachedIndexes.values()) {
+        IndexKey indexKey = cachedIndex._entry._key;
+        if (indexKey._name.equals(column) && (indexTypes == null || indexTypes.contains(indexKey._type))) {
+          cachedIndexes.add(cachedIndex);
+        }
+      }
+    }
+    return cachedIndexes;
+  }
+
+  private File getCacheFile(IndexKey indexKey) {
+    return new File(new File(_localDir, INDEX_CACHE_DIR_NAME), indexKey._name + "." + indexKey._type.getIndexName());
+  }
+
+  /**
+   * Returns the buffer of the cached range of the index, and fetches the range if it is not referenced from the cache.
+   */
+  private synchronized PinotDataBuffer getOrFetchBuffer(CachedIndex cachedIndex, boolean expose)
+      throws IOException {
+    Preconditions.checkState(!_closed, "Segment directory: %s is closed", _indexDir);
+    PinotDataBuffer buffer = cachedIndex._buffer;
+    if (buffer == null) {
+      IndexEntry indexEntry = cachedIndex._entry;
+      PinotDataBuffer cachedBuffer =
+          _cache.acquire(cachedIndex._cacheFile, _pinotFS, _remoteIndexFile, indexEntry._startOffset, indexEntry._size);
+      if (cachedBuffer.getLong(0) != SingleFileIndexDirectory.MAGIC_MARKER) {
+        _cache.release(cachedIndex._cacheFile);
+        throw new RuntimeException(
+            "Inconsistent data read. Index data file " + _remoteIndexFile + " is possibly corrupted");
+      }
+      buffer = cachedBuffer.view(SingleFileIndexDirectory.MAGIC_MARKER_SIZE_BYTES, indexEntry._size);
+      cachedIndex._buffer = buffer;
+    }
+    // NOTE: Pin the range when it is accessed without being acquired because the access is not tracked. The ranges
+    //       accessed while loading the segment are released by releaseLoadingReferences() unless exposed.
+    if (cachedIndex._refCount == 0) {
+      cachedIndex._pinned = true;
+      if (expose || !_loading) {
+        cachedIndex._pinnedUntilClose = true;
+      }
+    }
+    return buffer;
+  }
+
+  private void releaseBuffer(CachedIndex cachedIndex) {
+    if (cachedIndex._buffer != null) {
+      cachedIndex._buffer = null;
+      _cache.release(cachedIndex._cacheFile);
+    }
+  }
+
+  private synchronized PinotDataBuffer getIndexBuffer(String column, ColumnIndexType type)
+      throws IOException {
+    CachedIndex cachedIndex = _cachedIndexes.get(new IndexKey(column, type));
+    if (cachedIndex == null) {
+      throw new RuntimeException(
+          "Could not find index for column: " + column + ", type: " + type + ", segment: " + _indexDir);
+    }
+    // Fetch the range so that the failure can be handled by the caller
+    getOrFetchBuffer(cachedIndex, false);
+    long size = cachedIndex._entry._size - SingleFileIndexDirectory.MAGIC_MARKER_SIZE_BYTES;
+    return new TieredIndexBuffer(cachedIndex, 0, size, ByteOrder.BIG_ENDIAN);
+  }
+
+  @Override
+  public synchronized void close()
+      throws IOException {
+    _closed = true;
+    for (CachedIndex cachedIndex : _cachedIndexes.values()) {
+      releaseBuffer(cachedIndex);
+    }
+  }
+
+  @Override
+  public Reader createReader()
+      throws IOException, ConfigurationException {
+    return new Reader();
+  }
+
+  /**
+   * The tiered segment directory is read-only. Segments that need to be preprocessed (e.g. to add indexes) should be
+   * downloaded and loaded locally instead, where the preprocessing can be applied.
+   */
+  @Override
+  public Writer createWriter()
+      throws IOException {
+    throw new UnsupportedOperationException("Cannot write to tiered segment directory: " + _indexDir);
+  }
+
+  @Override
+  public String toString() {
+    return _indexDir.toString();
+  }
+
+  public class Reader extends SegmentDirectory.Reader {
+
+    @Override
+    public PinotDataBuffer getIndexFor(String column, ColumnIndexType type)
+        throws IOException {
+      return getIndexBuffer(column, type);
+    }
+
+    @Override
+    public boolean hasIndexFor(String column, ColumnIndexType type) {
+      return _indexEntries.containsKey(new IndexKey(column, type));
+    }
+
+    @Override
+    public void close() {
+      // Buffers are resolved and released by the segment directory
+    }
+
+    @Override
+    public String toString() {
+      return _indexDir.toString();
+    }
+  }
+
+  /**
+   * Index of the segment, whose range is fetched into the local cache on access.
+   */
+  class CachedIndex {
+    final IndexEntry _entry;
+    final File _cacheFile;
+
+    // The following fields are modified while holding the segment directory lock
+    // Buffer of the cached range without the magic marker, or null if the range is not referenced from the cache
+    volatile PinotDataBuffer _buffer;
+    // Number of queries currently holding the index through the acquire/release hooks
+    volatile int _refCount;
+    // Whether the range is referenced because of the accesses outside of the queries
+    volatile boolean _pinned;
+    // Whether the range is pinned until the segment directory is closed
+    boolean _pinnedUntilClose;
+
+    CachedIndex(IndexEntry entry) {
+      _entry = entry;
+      _cacheFile = getCacheFile(entry._key);
+    }
+
+    /**
+     * Returns the buffer of the cached range, which can be accessed until the index is released. When {@code expose}
+     * is set, the caller holds on to the buffer content (e.g. as a direct byte buffer) and the range is pinned if it is
+     * not acquired by a query.
+     */
+    PinotDataBuffer getBuffer(boolean expose) {
+      PinotDataBuffer buffer = _buffer;
+      if (buffer != null && (_refCount > 0 || (_pinned && (_pinnedUntilClose || !expose)))) {
+        return buffer;
+      }
+      try {
+        return getOrFetchBuffer(this, expose);
+      } catch (IOException e) {
+        throw new RuntimeException("Caught exception while fetching index: " + _entry._key + " for segment: "
+            + _indexDir, e);
+      }
+    }
+  }
+}
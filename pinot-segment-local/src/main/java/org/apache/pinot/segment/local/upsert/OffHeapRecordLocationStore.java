@@ -0,0 +1,584 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.upsert;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Preconditions;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.spi.ImmutableSegment;
+import org.apache.pinot.segment.spi.IndexSegment;
+import org.apache.pinot.segment.spi.SegmentMetadata;
+import org.apache.pinot.segment.spi.datasource.DataSource;
+import org.apache.pinot.segment.spi.index.mutable.ThreadSafeMutableRoaringBitmap;
+import org.apache.pinot.segment.spi.index.startree.StarTreeV2;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.utils.ByteArray;
+import org.apache.pinot.spi.utils.JsonUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Record location store backed by an open addressing hash table in a memory mapped file, which is persisted when the
+ * store is closed and recovered when the store is re-opened from the same directory.
+ * <p>The primary keys must be hashed into 16 bytes (MD5 or MURMUR3 hash function), and the comparison values must be
+ * of a fixed width stored type (INT, LONG, FLOAT or DOUBLE). Each slot of the hash table stores the primary key, the
+ * id of the segment, the doc id and the comparison value of the record.
+ * <p>When closing the store, the name and CRC of the immutable segments are written along with the hash table. When
+ * re-opening the store, the persisted segments are passed to the segment validator, which should verify that all of
+ * them are still served with the same CRC. If any segment is missing or changed (e.g. a newer segment is deleted while
+ * the server is down), the persisted record locations are discarded, and all the segments should be added by reading
+ * their records. Otherwise, the recovered segments can be added with the valid doc ids returned from
+ * {@link #getRecoveredValidDocIds(String, String)} without reading their records. The record locations pointing to the
+ * consuming segment are not recovered, and will be re-created when the records are consumed again.
+ */
+@ThreadSafe
+public class OffHeapRecordLocationStore implements RecordLocationStore {
+  private static final Logger LOGGER = LoggerFactory.getLogger(OffHeapRecordLocationStore.class);
+
+  public static final String LOCATIONS_FILE_NAME = "locations.buffer";
+  public static final String SEGMENTS_FILE_NAME = "segments.metadata";
+
+  private static final int KEY_SIZE = 16;
+  // Slot layout: key (16 bytes), segment id (4 bytes), doc id (4 bytes), comparison value (8 bytes)
+  private static final int SLOT_SIZE = 32;
+  private static final int SEGMENT_ID_OFFSET = 16;
+  private static final int DOC_ID_OFFSET = 20;
+  private static final int COMPARISON_VALUE_OFFSET = 24;
+  private static final int EMPTY_SEGMENT_ID = 0;
+  private static final int DELETED_SEGMENT_ID = -1;
+  private static final int DEFAULT_INITIAL_CAPACITY = 1 << 16;
+  private static final double LOAD_FACTOR = 0.75;
+
+  private static final String SEGMENTS_KEY = "segments";
+  private static final String SEGMENT_ID_KEY = "id";
+  private static final String SEGMENT_NAME_KEY = "name";
+  private static final String SEGMENT_CRC_KEY = "crc";
+
+  private final File _dir;
+  private final File _locationsFile;
+  private final File _segmentsFile;
+  private final DataType _comparisonStoredType;
+
+  private final Map<Integer, SegmentEntry> _idToSegmentEntryMap = new HashMap<>();
+  private final Map<IndexSegment, SegmentEntry> _segmentToSegmentEntryMap = new IdentityHashMap<>();
+  private final Map<String, SegmentEntry> _recoveredSegmentEntryMap = new HashMap<>();
+
+  private PinotDataBuffer _buffer;
+  private int _capacity;
+  private int _size;
+  private int _numDeleted;
+  private int _nextSegmentId = 1;
+  private boolean _closed;
+
+  public OffHeapRecordLocationStore(File dir, DataType comparisonStoredType,
+      Predicate<Map<String, String>> segmentValidator)
+      throws IOException {
+    Preconditions.checkArgument(comparisonStoredType == DataType.INT || comparisonStoredType == DataType.LONG
+            || comparisonStoredType == DataType.FLOAT || comparisonStoredType == DataType.DOUBLE,
+        "Unsupported comparison value type: %s", comparisonStoredType);
+    _dir = dir;
+    _locationsFile = new File(dir, LOCATIONS_FILE_NAME);
+    _segmentsFile = new File(dir, SEGMENTS_FILE_NAME);
+    _comparisonStoredType = comparisonStoredType;
+    FileUtils.forceMkdir(dir);
+
+    Map<Integer, SegmentEntry> persistedSegmentEntryMap = readPersistedSegments(segmentValidator);
+    // Delete the segments file before modifying the record locations so that the modified record locations won't be
+    // recovered if the server crashes before the store is closed
+    FileUtils.deleteQuietly(_segmentsFile);
+    if (persistedSegmentEntryMap != null) {
+      recover(persistedSegmentEntryMap);
+    } else {
+      FileUtils.deleteQuietly(_locationsFile);
+      _capacity = DEFAULT_INITIAL_CAPACITY;
+      _buffer = createBuffer(_locationsFile, _capacity);
+    }
+  }
+
+  /**
+   * Reads the persisted segments, or returns {@code null} if there is no valid persisted record locations.
+   */
+  @Nullable
+  private Map<Integer, SegmentEntry> readPersistedSegments(Predicate<Map<String, String>> segmentValidator) {
+    if (!_segmentsFile.exists() || !_locationsFile.exists()) {
+      return null;
+    }
+    try {
+      long locationsFileLength = _locationsFile.length();
+      long capacity = locationsFileLength / SLOT_SIZE;
+      if (locationsFileLength % SLOT_SIZE != 0 || capacity > Integer.MAX_VALUE || Long.bitCount(capacity) != 1) {
+        LOGGER.warn("Invalid record locations file: {} of length: {}, discarding it", _locationsFile,
+            locationsFileLength);
+        return null;
+      }
+      Map<Integer, SegmentEntry> segmentEntryMap = new HashMap<>();
+      Map<String, String> segmentCrcMap = new HashMap<>();
+      for (JsonNode segmentNode : JsonUtils.fileToJsonNode(_segmentsFile).get(SEGMENTS_KEY)) {
+        int segmentId = segmentNode.get(SEGMENT_ID_KEY).asInt();
+        String segmentName = segmentNode.get(SEGMENT_NAME_KEY).asText();
+        String segmentCrc = segmentNode.get(SEGMENT_CRC_KEY).asText();
+        if (segmentId <= EMPTY_SEGMENT_ID || segmentCrcMap.put(segmentName, segmentCrc) != null) {
+          LOGGER.warn("Invalid segments file: {}, discarding the persisted record locations", _segmentsFile);
+          return null;
+        }
+        segmentEntryMap.put(segmentId, new SegmentEntry(segmentId,
+            new RecoveredSegment(segmentName, segmentCrc, new ThreadSafeMutableRoaringBitmap())));
+      }
+      if (!segmentValidator.test(segmentCrcMap)) {
+        LOGGER.info("Persisted segments: {} in: {} do not match the served segments, discarding the persisted record "
+            + "locations", segmentCrcMap.keySet(), _dir);
+        return null;
+      }
+      return segmentEntryMap;
+    } catch (Exception e) {
+      LOGGER.warn("Caught exception while reading the persisted segments from: {}, discarding the persisted record "
+          + "locations", _segmentsFile, e);
+      return null;
+    }
+  }
+
+  private void recover(Map<Integer, SegmentEntry> persistedSegmentEntryMap)
+      throws IOException {
+    _capacity = (int) (_locationsFile.length() / SLOT_SIZE);
+    _buffer = PinotDataBuffer.mapFile(_locationsFile, false, 0, (long) _capacity * SLOT_SIZE,
+        PinotDataBuffer.NATIVE_ORDER, "OffHeapRecordLocationStore: " + _locationsFile);
+    for (int slot = 0; slot < _capacity; slot++) {
+      long offset = (long) slot * SLOT_SIZE;
+      int segmentId = _buffer.getInt(offset + SEGMENT_ID_OFFSET);
+      if (segmentId == EMPTY_SEGMENT_ID) {
+        continue;
+      }
+      SegmentEntry segmentEntry = persistedSegmentEntryMap.get(segmentId);
+      if (segmentEntry != null) {
+        Preconditions.checkState(segmentEntry._segment.getValidDocIds() != null);
+        segmentEntry._segment.getValidDocIds().add(_buffer.getInt(offset + DOC_ID_OFFSET));
+        segmentEntry._numLocations++;
+        _size++;
+      } else {
+        // Drop the record locations pointing to the segments not persisted (e.g. the consuming segment)
+        _buffer.putInt(offset + SEGMENT_ID_OFFSET, DELETED_SEGMENT_ID);
+        _numDeleted++;
+      }
+    }
+    for (SegmentEntry segmentEntry : persistedSegmentEntryMap.values()) {
+      _idToSegmentEntryMap.put(segmentEntry._id, segmentEntry);
+      _segmentToSegmentEntryMap.put(segmentEntry._segment, segmentEntry);
+      _recoveredSegmentEntryMap.put(segmentEntry._segment.getSegmentName(), segmentEntry);
+      _nextSegmentId = Math.max(_nextSegmentId, segmentEntry._id + 1);
+    }
+    if (_size + _numDeleted > _capacity * LOAD_FACTOR) {
+      resize();
+    }
+    LOGGER.info("Recovered {} record locations for {} segments from: {}", _size, persistedSegmentEntryMap.size(),
+        _dir);
+  }
+
+  @Nullable
+  @Override
+  public synchronized RecordLocation get(Object primaryKey) {
+    if (_closed) {
+      return null;
+    }
+    ByteBuffer key = getKey(primaryKey);
+    long offset = findSlotOffset(key.getLong(0), key.getLong(8));
+    if (_buffer.getInt(offset + SEGMENT_ID_OFFSET) <= EMPTY_SEGMENT_ID) {
+      return null;
+    }
+    return readRecordLocation(offset);
+  }
+
+  @Override
+  public synchronized RecordLocation compute(Object primaryKey,
+      BiFunction<Object, RecordLocation, RecordLocation> remappingFunction) {
+    if (_closed) {
+      // Do not modify the persisted record locations after the store is closed
+      return null;
+    }
+    ByteBuffer key = getKey(primaryKey);
+    long key0 = key.getLong(0);
+    long key1 = key.getLong(8);
+    long offset = findSlotOffset(key0, key1);
+    int currentSegmentId = _buffer.getInt(offset + SEGMENT_ID_OFFSET);
+    RecordLocation currentRecordLocation = null;
+    if (currentSegmentId > EMPTY_SEGMENT_ID) {
+      currentRecordLocation = readRecordLocation(offset);
+    }
+    RecordLocation newRecordLocation = remappingFunction.apply(primaryKey, currentRecordLocation);
+    if (newRecordLocation == currentRecordLocation) {
+      return newRecordLocation;
+    }
+    if (newRecordLocation == null) {
+      releaseSegmentEntry(_idToSegmentEntryMap.get(currentSegmentId));
+      _buffer.putInt(offset + SEGMENT_ID_OFFSET, DELETED_SEGMENT_ID);
+      _size--;
+      _numDeleted++;
+      return null;
+    }
+    SegmentEntry segmentEntry = getOrCreateSegmentEntry(newRecordLocation.getSegment());
+    segmentEntry._numLocations++;
+    if (currentRecordLocation != null) {
+      releaseSegmentEntry(_idToSegmentEntryMap.get(currentSegmentId));
+    }
+    _buffer.putLong(offset, key0);
+    _buffer.putLong(offset + 8, key1);
+    _buffer.putInt(offset + SEGMENT_ID_OFFSET, segmentEntry._id);
+    _buffer.putInt(offset + DOC_ID_OFFSET, newRecordLocation.getDocId());
+    _buffer.putLong(offset + COMPARISON_VALUE_OFFSET, encodeComparisonValue(newRecordLocation.getComparisonValue()));
+    if (currentRecordLocation == null) {
+      _size++;
+      if (currentSegmentId == DELETED_SEGMENT_ID) {
+        _numDeleted--;
+      } else if (_size + _numDeleted > _capacity * LOAD_FACTOR) {
+        resize();
+      }
+    }
+    return newRecordLocation;
+  }
+
+  @Override
+  public synchronized void removeSegment(IndexSegment segment) {
+    if (_closed) {
+      return;
+    }
+    SegmentEntry segmentEntry = _segmentToSegmentEntryMap.get(segment);
+    if (segmentEntry != null) {
+      removeSegmentEntry(segmentEntry);
+    }
+  }
+
+  @Override
+  public synchronized int size() {
+    return _size;
+  }
+
+  @Nullable
+  @Override
+  public synchronized ThreadSafeMutableRoaringBitmap getRecoveredValidDocIds(String segmentName, String segmentCrc) {
+    SegmentEntry segmentEntry = _recoveredSegmentEntryMap.get(segmentName);
+    if (segmentEntry == null || _closed) {
+      return null;
+    }
+    if (!((RecoveredSegment) segmentEntry._segment)._crc.equals(segmentCrc)) {
+      LOGGER.info("CRC of segment: {} changed from: {} to: {}, dropping the recovered record locations", segmentName,
+          ((RecoveredSegment) segmentEntry._segment)._crc, segmentCrc);
+      removeSegmentEntry(segmentEntry);
+      return null;
+    }
+    return segmentEntry._segment.getValidDocIds();
+  }
+
+  @Override
+  public synchronized void addRecoveredSegment(IndexSegment segment) {
+    if (_closed) {
+      return;
+    }
+    SegmentEntry segmentEntry = _recoveredSegmentEntryMap.remove(segment.getSegmentName());
+    Preconditions.checkState(segmentEntry != null, "Failed to find recovered segment: %s", segment.getSegmentName());
+    Preconditions.checkState(segment.getValidDocIds() == segmentEntry._segment.getValidDocIds(),
+        "Segment: %s is not enabled with the recovered valid doc ids", segment.getSegmentName());
+    _segmentToSegmentEntryMap.remove(segmentEntry._segment);
+    segmentEntry._segment = segment;
+    _segmentToSegmentEntryMap.put(segment, segmentEntry);
+  }
+
+  /**
+   * Persists the record locations along with the name and CRC of the immutable segments.
+   */
+  @Override
+  public synchronized void close()
+      throws IOException {
+    if (_closed) {
+      return;
+    }
+    _closed = true;
+    try {
+      _buffer.flush();
+      ArrayNode segmentsNode = JsonUtils.newArrayNode();
+      for (SegmentEntry segmentEntry : _idToSegmentEntryMap.values()) {
+        String segmentCrc = getSegmentCrc(segmentEntry._segment);
+        if (segmentCrc != null) {
+          ObjectNode segmentNode = JsonUtils.newObjectNode();
+          segmentNode.put(SEGMENT_ID_KEY, segmentEntry._id);
+          segmentNode.put(SEGMENT_NAME_KEY, segmentEntry._segment.getSegmentName());
+          segmentNode.put(SEGMENT_CRC_KEY, segmentCrc);
+          segmentsNode.add(segmentNode);
+        }
+      }
+      ObjectNode rootNode = JsonUtils.newObjectNode();
+      rootNode.set(SEGMENTS_KEY, segmentsNode);
+      File tempFile = new File(_dir, SEGMENTS_FILE_NAME + ".tmp");
+      FileUtils.writeStringToFile(tempFile, JsonUtils.objectToString(rootNode), StandardCharsets.UTF_8);
+      Files.move(tempFile.toPath(), _segmentsFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+      LOGGER.info("Persisted {} record locations for {} segments into: {}", _size, segmentsNode.size(), _dir);
+    } finally {
+      _buffer.close();
+    }
+  }
+
+  /**
+   * Returns the CRC of the segment whose record locations can be persisted, or {@code null} for the consuming segment.
+   */
+  @Nullable
+  private static String getSegmentCrc(IndexSegment segment) {
+    if (segment instanceof RecoveredSegment) {
+      return ((RecoveredSegment) segment)._crc;
+    }
+    if (segment instanceof ImmutableSegment) {
+      return segment.getSegmentMetadata().getCrc();
+    }
+    return null;
+  }
+
+  private static ByteBuffer getKey(Object primaryKey) {
+    Preconditions.checkArgument(primaryKey instanceof ByteArray && ((ByteArray) primaryKey).length() == KEY_SIZE,
+        "Primary key must be hashed into %s bytes", KEY_SIZE);
+    return ByteBuffer.wrap(((ByteArray) primaryKey).getBytes());
+  }
+
+  /**
+   * Returns the offset of the slot with the given key, or the offset of the slot to put the key if it does not exist
+   * (the first deleted slot on the probe path, or the empty slot terminating the probe path).
+   */
+  private long findSlotOffset(long key0, long key1) {
+    int mask = _capacity - 1;
+    int slot = (int) (key0 ^ (key0 >>> 32)) & mask;
+    long firstDeletedOffset = -1;
+    while (true) {
+      long offset = (long) slot * SLOT_SIZE;
+      int segmentId = _buffer.getInt(offset + SEGMENT_ID_OFFSET);
+      if (segmentId == EMPTY_SEGMENT_ID) {
+        return firstDeletedOffset >= 0 ? firstDeletedOffset : offset;
+      }
+      if (segmentId == DELETED_SEGMENT_ID) {
+        if (firstDeletedOffset < 0) {
+          firstDeletedOffset = offset;
+        }
+      } else if (_buffer.getLong(offset) == key0 && _buffer.getLong(offset + 8) == key1) {
+        return offset;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  private RecordLocation readRecordLocation(long offset) {
+    SegmentEntry segmentEntry = _idToSegmentEntryMap.get(_buffer.getInt(offset + SEGMENT_ID_OFFSET));
+    return new RecordLocation(segmentEntry._segment, _buffer.getInt(offset + DOC_ID_OFFSET),
+        decodeComparisonValue(_buffer.getLong(offset + COMPARISON_VALUE_OFFSET)));
+  }
+
+  private SegmentEntry getOrCreateSegmentEntry(IndexSegment segment) {
+    SegmentEntry segmentEntry = _segmentToSegmentEntryMap.get(segment);
+    if (segmentEntry == null) {
+      segmentEntry = new SegmentEntry(_nextSegmentId++, segment);
+      _idToSegmentEntryMap.put(segmentEntry._id, segmentEntry);
+      _segmentToSegmentEntryMap.put(segment, segmentEntry);
+    }
+    return segmentEntry;
+  }
+
+  /**
+   * Releases a record location of the segment. The consuming segment is not removed from the store explicitly, so its
+   * entry is removed when it no longer has any record location to avoid holding the reference to it.
+   */
+  private void releaseSegmentEntry(SegmentEntry segmentEntry) {
+    if (--segmentEntry._numLocations == 0 && getSegmentCrc(segmentEntry._segment) == null) {
+      _idToSegmentEntryMap.remove(segmentEntry._id);
+      _segmentToSegmentEntryMap.remove(segmentEntry._segment);
+    }
+  }
+
+  private void removeSegmentEntry(SegmentEntry segmentEntry) {
+    if (segmentEntry._numLocations > 0) {
+      for (int slot = 0; slot < _capacity; slot++) {
+        long offset = (long) slot * SLOT_SIZE;
+        if (_buffer.getInt(offset + SEGMENT_ID_OFFSET) == segmentEntry._id) {
+          _buffer.putInt(offset + SEGMENT_ID_OFFSET, DELETED_SEGMENT_ID);
+          _size--;
+          _numDeleted++;
+        }
+      }
+    }
+    _idToSegmentEntryMap.remove(segmentEntry._id);
+    _segmentToSegmentEntryMap.remove(segmentEntry._segment);
+    if (segmentEntry._segment instanceof RecoveredSegment) {
+      _recoveredSegmentEntryMap.remove(segmentEntry._segment.getSegmentName());
+    }
+  }
+
+  /**
+   * Re-hashes the record locations into a new file, and doubles the capacity if more than half of the slots are used.
+   */
+  private void resize() {
+    int newCapacity = _size > _capacity / 2 ? _capacity << 1 : _capacity;
+    Preconditions.checkState(newCapacity > 0, "Too many record locations in: %s", _dir);
+    File tempFile = new File(_dir, LOCATIONS_FILE_NAME + ".tmp");
+    FileUtils.deleteQuietly(tempFile);
+    PinotDataBuffer oldBuffer = _buffer;
+    int oldCapacity = _capacity;
+    try {
+      _buffer = createBuffer(tempFile, newCapacity);
+      _capacity = newCapacity;
+      for (int slot = 0; slot < oldCapacity; slot++) {
+        long oldOffset = (long) slot * SLOT_SIZE;
+        if (oldBuffer.getInt(oldOffset + SEGMENT_ID_OFFSET) > EMPTY_SEGMENT_ID) {
+          long newOffset = findSlotOffset(oldBuffer.getLong(oldOffset), oldBuffer.getLong(oldOffset + 8));
+          oldBuffer.copyTo(oldOffset, _buffer, newOffset, SLOT_SIZE);
+        }
+      }
+      _numDeleted = 0;
+      oldBuffer.close();
+      Files.move(tempFile.toPath(), _locationsFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      throw new RuntimeException("Caught exception while resizing the record locations in: " + _dir, e);
+    }
+  }
+
+  private static PinotDataBuffer createBuffer(File file, int capacity)
+      throws IOException {
+    long size = (long) capacity * SLOT_SIZE;
+    PinotDataBuffer buffer = PinotDataBuffer.mapFile(file, false, 0, size, PinotDataBuffer.NATIVE_ORDER,
+        "OffHeapRecordLocationStore: " + file);
+    // The content of the extended file is not defined, so explicitly mark all the slots empty
+    for (long offset = SEGMENT_ID_OFFSET; offset < size; offset += SLOT_SIZE) {
+      buffer.putInt(offset, EMPTY_SEGMENT_ID);
+    }
+    return buffer;
+  }
+
+  private long encodeComparisonValue(Comparable comparisonValue) {
+    switch (_comparisonStoredType) {
+      case INT:
+        return (Integer) comparisonValue;
+      case LONG:
+        return (Long) comparisonValue;
+      case FLOAT:
+        return Float.floatToRawIntBits((Float) comparisonValue);
+      case DOUBLE:
+        return Double.doubleToRawLongBits((Double) comparisonValue);
+      default:
+        throw new IllegalStateException();
+    }
+  }
+
+  private Comparable decodeComparisonValue(long value) {
+    switch (_comparisonStoredType) {
+      case INT:
+        return (int) value;
+      case LONG:
+        return value;
+      case FLOAT:
+        return Float.intBitsToFloat((int) value);
+      case DOUBLE:
+        return Double.longBitsToDouble(value);
+      default:
+        throw new IllegalStateException();
+    }
+  }
+
+  private static class SegmentEntry {
+    final int _id;
+    IndexSegment _segment;
+    int _numLocations;
+
+    SegmentEntry(int id, IndexSegment segment) {
+      _id = id;
+      _segment = segment;
+    }
+  }
+
+  /**
+   * Placeholder of a recovered segment before the segment is added, which only provides the name and the recovered
+   * valid doc ids of the segment.
+   */
+  private static class RecoveredSegment implements IndexSegment {
+    final String _segmentName;
+    final String _crc;
+    final ThreadSafeMutableRoaringBitmap _validDocIds;
+
+    RecoveredSegment(String segmentName, String crc, ThreadSafeMutableRoaringBitmap validDocIds) {
+      _segmentName = segmentName;
+      _crc = crc;
+      _validDocIds = validDocIds;
+    }
+
+    @Override
+    public String getSegmentName() {
+      return _segmentName;
+    }
+
+    @Override
+    public SegmentMetadata getSegmentMetadata() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Set<String> getColumnNames() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Set<String> getPhysicalColumnNames() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public DataSource getDataSource(String columnName) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<StarTreeV2> getStarTrees() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ThreadSafeMutableRoaringBitmap getValidDocIds() {
+      return _validDocIds;
+    }
+
+    @Override
+    public GenericRow getRecord(int docId, GenericRow reuse) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void destroy() {
+    }
+  }
+}
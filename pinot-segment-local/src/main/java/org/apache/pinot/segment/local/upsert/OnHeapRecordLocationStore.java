@@ -0,0 +1,69 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.upsert;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.pinot.segment.spi.IndexSegment;
+
+
+/**
+ * Record location store backed by an on-heap {@link ConcurrentHashMap}, which is not persisted.
+ */
+@ThreadSafe
+public class OnHeapRecordLocationStore implements RecordLocationStore {
+  private final ConcurrentHashMap<Object, RecordLocation> _primaryKeyToRecordLocationMap = new ConcurrentHashMap<>();
+
+  @Nullable
+  @Override
+  public RecordLocation get(Object primaryKey) {
+    return _primaryKeyToRecordLocationMap.get(primaryKey);
+  }
+
+  @Override
+  public RecordLocation compute(Object primaryKey,
+      BiFunction<Object, RecordLocation, RecordLocation> remappingFunction) {
+    return _primaryKeyToRecordLocationMap.compute(primaryKey, remappingFunction);
+  }
+
+  @Override
+  public void removeSegment(IndexSegment segment) {
+    if (Objects.requireNonNull(segment.getValidDocIds()).getMutableRoaringBitmap().isEmpty()) {
+      return;
+    }
+    _primaryKeyToRecordLocationMap.forEach((primaryKey, recordLocation) -> {
+      if (recordLocation.getSegment() == segment) {
+        // Check and remove to prevent removing the key that is just updated
+        _primaryKeyToRecordLocationMap.remove(primaryKey, recordLocation);
+      }
+    });
+  }
+
+  @Override
+  public int size() {
+    return _primaryKeyToRecordLocationMap.size();
+  }
+
+  @Override
+  public void close() {
+  }
+}
@@ -19,9 +19,9 @@
 package org.apache.pinot.segment.local.upsert;
 
 import com.google.common.annotations.VisibleForTesting;
+import java.io.IOException;
 import java.util.Iterator;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.pinot.common.metrics.ServerGauge;
@@ -61,6 +61,10 @@ import org.slf4j.LoggerFactory;
  *     updates applied to the new segment's valid doc ids won't be reflected to the replaced segment's valid doc ids.
  *   </li>
  * </ul>
+ *
+ * <p>The record locations are kept in a {@link RecordLocationStore}. When the store is persisted (e.g.
+ * {@link OffHeapRecordLocationStore}), the immutable segments can be added with the recovered valid doc ids after the
+ * server restarts without reading their records.
  */
 @SuppressWarnings({"rawtypes", "unchecked"})
 @ThreadSafe
@@ -73,33 +77,69 @@ public class PartitionUpsertMetadataManager {
   private final PartialUpsertHandler _partialUpsertHandler;
   private final UpsertConfig.HashFunction _hashFunction;
 
-  // TODO(upsert): consider an off-heap KV store to persist this mapping to improve the recovery speed.
   @VisibleForTesting
-  final ConcurrentHashMap<Object, RecordLocation> _primaryKeyToRecordLocationMap = new ConcurrentHashMap<>();
+  final RecordLocationStore _recordLocationStore;
+
+  // Set when the manager is closed, after which the record locations are no longer updated so that the persisted store
+  // reflects the segments served before the shutdown
+  private volatile boolean _closed;
 
   // Reused for reading previous record during partial upsert
   private final GenericRow _reuse = new GenericRow();
 
   public PartitionUpsertMetadataManager(String tableNameWithType, int partitionId, ServerMetrics serverMetrics,
       @Nullable PartialUpsertHandler partialUpsertHandler, UpsertConfig.HashFunction hashFunction) {
+    this(tableNameWithType, partitionId, serverMetrics, partialUpsertHandler, hashFunction,
+        new OnHeapRecordLocationStore());
+  }
+
+  public PartitionUpsertMetadataManager(String tableNameWithType, int partitionId, ServerMetrics serverMetrics,
+      @Nullable PartialUpsertHandler partialUpsertHandler, UpsertConfig.HashFunction hashFunction,
+      RecordLocationStore recordLocationStore) {
     _tableNameWithType = tableNameWithType;
     _partitionId = partitionId;
     _serverMetrics = serverMetrics;
     _partialUpsertHandler = partialUpsertHandler;
     _hashFunction = hashFunction;
+    _recordLocationStore = recordLocationStore;
+  }
+
+  /**
+   * Returns the valid doc ids of the given immutable segment recovered from the persisted record location store, or
+   * {@code null} if the segment cannot be recovered and should be added with
+   * {@link #addSegment(IndexSegment, Iterator)}.
+   */
+  @Nullable
+  public ThreadSafeMutableRoaringBitmap getRecoveredValidDocIds(String segmentName, String segmentCrc) {
+    return _recordLocationStore.getRecoveredValidDocIds(segmentName, segmentCrc);
+  }
+
+  /**
+   * Initializes the upsert metadata for the given immutable segment with the valid doc ids returned from
+   * {@link #getRecoveredValidDocIds(String, String)}, without reading the records of the segment.
+   */
+  public void addRecoveredSegment(IndexSegment segment) {
+    LOGGER.info("Adding recovered upsert metadata for segment: {}", segment.getSegmentName());
+    _recordLocationStore.addRecoveredSegment(segment);
+    // Update metrics
+    _serverMetrics.setValueOfPartitionGauge(_tableNameWithType, _partitionId, ServerGauge.UPSERT_PRIMARY_KEYS_COUNT,
+        _recordLocationStore.size());
   }
 
   /**
    * Initializes the upsert metadata for the given immutable segment.
    */
   public void addSegment(IndexSegment segment, Iterator<RecordInfo> recordInfoIterator) {
+    if (_closed) {
+      return;
+    }
     String segmentName = segment.getSegmentName();
     LOGGER.info("Adding upsert metadata for segment: {}", segmentName);
 
     ThreadSafeMutableRoaringBitmap validDocIds = Objects.requireNonNull(segment.getValidDocIds());
     while (recordInfoIterator.hasNext()) {
       RecordInfo recordInfo = recordInfoIterator.next();
-      _primaryKeyToRecordLocationMap.compute(hashPrimaryKey(recordInfo._primaryKey, _hashFunction),
+      _recordLocationStore.compute(hashPrimaryKey(recordInfo._primaryKey, _hashFunction),
           (primaryKey, currentRecordLocation) -> {
             if (currentRecordLocation != null) {
               // Existing primary key
@@ -156,15 +196,18 @@ public class PartitionUpsertMetadataManager {
     }
     // Update metrics
     _serverMetrics.setValueOfPartitionGauge(_tableNameWithType, _partitionId, ServerGauge.UPSERT_PRIMARY_KEYS_COUNT,
-        _primaryKeyToRecordLocationMap.size());
+        _recordLocationStore.size());
   }
 
   /**
    * Updates the upsert metadata for a new consumed record in the given consuming segment.
    */
   public void addRecord(IndexSegment segment, RecordInfo recordInfo) {
+    if (_closed) {
+      return;
+    }
     ThreadSafeMutableRoaringBitmap validDocIds = Objects.requireNonNull(segment.getValidDocIds());
-    _primaryKeyToRecordLocationMap.compute(hashPrimaryKey(recordInfo._primaryKey, _hashFunction),
+    _recordLocationStore.compute(hashPrimaryKey(recordInfo._primaryKey, _hashFunction),
         (primaryKey, currentRecordLocation) -> {
           if (currentRecordLocation != null) {
             // Existing primary key
@@ -192,7 +235,7 @@ public class PartitionUpsertMetadataManager {
         });
     // Update metrics
     _serverMetrics.setValueOfPartitionGauge(_tableNameWithType, _partitionId, ServerGauge.UPSERT_PRIMARY_KEYS_COUNT,
-        _primaryKeyToRecordLocationMap.size());
+        _recordLocationStore.size());
   }
 
   /**
@@ -216,7 +259,7 @@ public class PartitionUpsertMetadataManager {
     }
 
     RecordLocation currentRecordLocation =
-        _primaryKeyToRecordLocationMap.get(hashPrimaryKey(recordInfo._primaryKey, _hashFunction));
+        _recordLocationStore.get(hashPrimaryKey(recordInfo._primaryKey, _hashFunction));
     if (currentRecordLocation != null) {
       // Existing primary key
       if (recordInfo._comparisonValue.compareTo(currentRecordLocation.getComparisonValue()) >= 0) {
@@ -242,21 +285,27 @@ public class PartitionUpsertMetadataManager {
    * consuming segment because it should be replaced by the committed segment.
    */
   public void removeSegment(IndexSegment segment) {
+    if (_closed) {
+      return;
+    }
     String segmentName = segment.getSegmentName();
     LOGGER.info("Removing upsert metadata for segment: {}", segmentName);
 
-    if (!Objects.requireNonNull(segment.getValidDocIds()).getMutableRoaringBitmap().isEmpty()) {
-      // Remove all the record locations that point to the removed segment
-      _primaryKeyToRecordLocationMap.forEach((primaryKey, recordLocation) -> {
-        if (recordLocation.getSegment() == segment) {
-          // Check and remove to prevent removing the key that is just updated
-          _primaryKeyToRecordLocationMap.remove(primaryKey, recordLocation);
-        }
-      });
-    }
+    // Remove all the record locations that point to the removed segment
+    _recordLocationStore.removeSegment(segment);
     // Update metrics
     _serverMetrics.setValueOfPartitionGauge(_tableNameWithType, _partitionId, ServerGauge.UPSERT_PRIMARY_KEYS_COUNT,
-        _primaryKeyToRecordLocationMap.size());
+        _recordLocationStore.size());
+  }
+
+  /**
+   * Closes the manager and the record location store. The upsert metadata is no longer updated after the manager is
+   * closed.
+   */
+  public void close()
+      throws IOException {
+    _closed = true;
+    _recordLocationStore.close();
   }
 
   protected static Object hashPrimaryKey(PrimaryKey primaryKey, UpsertConfig.HashFunction hashFunction) {
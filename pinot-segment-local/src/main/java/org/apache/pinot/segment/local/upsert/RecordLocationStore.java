@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.upsert;
+
+import java.io.Closeable;
+import java.util.function.BiFunction;
+import javax.annotation.Nullable;
+import org.apache.pinot.segment.spi.IndexSegment;
+import org.apache.pinot.segment.spi.index.mutable.ThreadSafeMutableRoaringBitmap;
+
+
+/**
+ * Store of the primary key to record location map of a partition of an upsert table.
+ */
+public interface RecordLocationStore extends Closeable {
+
+  /**
+   * Returns the record location of the given primary key, or {@code null} if the primary key does not exist.
+   */
+  @Nullable
+  RecordLocation get(Object primaryKey);
+
+  /**
+   * Atomically computes the record location of the given primary key with the remapping function, which takes the
+   * primary key and the current record location (or {@code null} if the primary key does not exist), and returns the
+   * new record location. Returns the new record location.
+   */
+  RecordLocation compute(Object primaryKey, BiFunction<Object, RecordLocation, RecordLocation> remappingFunction);
+
+  /**
+   * Removes all the record locations pointing to the given segment.
+   */
+  void removeSegment(IndexSegment segment);
+
+  /**
+   * Returns the number of primary keys in the store.
+   */
+  int size();
+
+  /**
+   * Returns the valid doc ids of the given segment recovered from the store persisted before the server restart, or
+   * {@code null} if the segment is not recovered, in which case the segment should be added by reading all its records.
+   * The recovered segment should be added with {@link #addRecoveredSegment(IndexSegment)} after the valid doc ids are
+   * attached to it.
+   */
+  @Nullable
+  default ThreadSafeMutableRoaringBitmap getRecoveredValidDocIds(String segmentName, String segmentCrc) {
+    return null;
+  }
+
+  /**
+   * Points the recovered record locations of the segment to the given segment.
+   */
+  default void addRecoveredSegment(IndexSegment segment) {
+    throw new UnsupportedOperationException();
+  }
+}
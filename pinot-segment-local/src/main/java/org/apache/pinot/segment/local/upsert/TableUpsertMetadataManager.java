@@ -18,8 +18,10 @@
  */
 package org.apache.pinot.segment.local.upsert;
 
+import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.pinot.common.metrics.ServerMetrics;
@@ -36,18 +38,42 @@ public class TableUpsertMetadataManager {
   private final ServerMetrics _serverMetrics;
   private final PartialUpsertHandler _partialUpsertHandler;
   private final UpsertConfig.HashFunction _hashFunction;
+  private final IntFunction<RecordLocationStore> _recordLocationStoreFactory;
 
   public TableUpsertMetadataManager(String tableNameWithType, ServerMetrics serverMetrics,
       @Nullable PartialUpsertHandler partialUpsertHandler, UpsertConfig.HashFunction hashFunction) {
+    this(tableNameWithType, serverMetrics, partialUpsertHandler, hashFunction, null);
+  }
+
+  /**
+   * The record location store factory creates the store for the given partition id, and the on-heap store is used when
+   * it is not provided.
+   */
+  public TableUpsertMetadataManager(String tableNameWithType, ServerMetrics serverMetrics,
+      @Nullable PartialUpsertHandler partialUpsertHandler, UpsertConfig.HashFunction hashFunction,
+      @Nullable IntFunction<RecordLocationStore> recordLocationStoreFactory) {
     _tableNameWithType = tableNameWithType;
     _serverMetrics = serverMetrics;
     _partialUpsertHandler = partialUpsertHandler;
     _hashFunction = hashFunction;
+    _recordLocationStoreFactory =
+        recordLocationStoreFactory != null ? recordLocationStoreFactory : k -> new OnHeapRecordLocationStore();
   }
 
   public PartitionUpsertMetadataManager getOrCreatePartitionManager(int partitionId) {
     return _partitionMetadataManagerMap.computeIfAbsent(partitionId,
         k -> new PartitionUpsertMetadataManager(_tableNameWithType, k, _serverMetrics, _partialUpsertHandler,
-            _hashFunction));
+            _hashFunction, _recordLocationStoreFactory.apply(k)));
+  }
+
+  /**
+   * Closes the upsert metadata of all the partitions, which persists the record location stores if supported. Should be
+   * invoked before the segments are destroyed so that the persisted record locations still point to them.
+   */
+  public void close()
+      throws IOException {
+    for (PartitionUpsertMetadataManager partitionUpsertMetadataManager : _partitionMetadataManagerMap.values()) {
+      partitionUpsertMetadataManager.close();
+    }
   }
 }
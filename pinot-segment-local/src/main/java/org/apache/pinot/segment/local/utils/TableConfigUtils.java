@@ -38,6 +38,7 @@ import org.apache.pinot.common.tier.TierFactory;
 import org.apache.pinot.common.utils.config.TagNameUtils;
 import org.apache.pinot.segment.local.function.FunctionEvaluator;
 import org.apache.pinot.segment.local.function.FunctionEvaluatorFactory;
+import org.apache.pinot.segment.local.io.writer.impl.FrameOfReferenceChunkSVForwardIndexWriter;
 import org.apache.pinot.segment.spi.index.startree.AggregationFunctionColumnPair;
 import org.apache.pinot.spi.config.table.FieldConfig;
 import org.apache.pinot.spi.config.table.IndexingConfig;
@@ -728,6 +729,16 @@ public final class TableConfigUtils {
         }
       }
 
+      Map<String, String> properties = fieldConfig.getProperties();
+      if (properties != null && String.valueOf(FrameOfReferenceChunkSVForwardIndexWriter.VERSION)
+          .equals(properties.get(FieldConfig.RAW_INDEX_WRITER_VERSION))) {
+        DataType storedType = fieldConfigColSpec.getDataType().getStoredType();
+        Preconditions.checkState(fieldConfigColSpec.isSingleValueField() && (storedType == DataType.INT
+                || storedType == DataType.LONG),
+            "Frame-of-reference raw index writer version is only supported for single value INT and LONG columns, got "
+                + "column: " + columnName);
+      }
+
       if (CollectionUtils.isNotEmpty(fieldConfig.getIndexTypes())) {
         for (FieldConfig.IndexType indexType : fieldConfig.getIndexTypes()) {
           switch (indexType) {
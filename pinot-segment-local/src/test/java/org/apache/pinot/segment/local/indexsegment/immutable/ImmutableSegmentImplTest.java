@@ -0,0 +1,131 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.indexsegment.immutable;
+
+import com.google.common.io.Files;
+import java.io.File;
+import java.util.Collections;
+import java.util.UUID;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.segment.index.column.LazyColumnIndexContainer;
+import org.apache.pinot.segment.local.segment.index.loader.IndexLoadingConfig;
+import org.apache.pinot.segment.local.segment.readers.GenericRowRecordReader;
+import org.apache.pinot.segment.local.segment.readers.PinotSegmentUtil;
+import org.apache.pinot.segment.spi.FetchContext;
+import org.apache.pinot.segment.spi.datasource.DataSource;
+import org.apache.pinot.segment.spi.index.column.ColumnIndexContainer;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.config.table.TableType;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.utils.ReadMode;
+import org.apache.pinot.spi.utils.builder.TableConfigBuilder;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+
+public class ImmutableSegmentImplTest {
+  private static final int NUM_ROWS = 100;
+  private static final String PK_COLUMN = "pk";
+  private static final String TIME_COLUMN = "t";
+
+  private File _segmentOutputDir;
+  private File _indexDir;
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    Schema schema = new Schema.SchemaBuilder().setSchemaName("testTable")
+        .addSingleValueDimension(PK_COLUMN, DataType.INT).addDateTime(TIME_COLUMN, DataType.LONG,
+            "1:MILLISECONDS:EPOCH", "1:MILLISECONDS").build();
+    TableConfig tableConfig =
+        new TableConfigBuilder(TableType.REALTIME).setTableName("testTable").setTimeColumnName(TIME_COLUMN).build();
+    _segmentOutputDir = Files.createTempDir();
+    _indexDir = PinotSegmentUtil.createSegment(tableConfig, schema, "testSegment", _segmentOutputDir.getPath(),
+        new GenericRowRecordReader(PinotSegmentUtil.createTestData(schema, NUM_ROWS)));
+  }
+
+  @Test
+  public void testLazyLoadColumns()
+      throws Exception {
+    IndexLoadingConfig indexLoadingConfig = new IndexLoadingConfig();
+    indexLoadingConfig.setReadMode(ReadMode.mmap);
+    indexLoadingConfig.setOnHeapDictionaryColumns(Collections.singleton(PK_COLUMN));
+    indexLoadingConfig.setLazyLoadColumns(true);
+    indexLoadingConfig.setLazyColumnIdleEvictionMs(1000L);
+    ImmutableSegmentImpl segment = (ImmutableSegmentImpl) ImmutableSegmentLoader.load(_indexDir, indexLoadingConfig);
+    LazyColumnIndexContainer pkContainer = getLazyContainer(segment, PK_COLUMN);
+    LazyColumnIndexContainer timeContainer = getLazyContainer(segment, TIME_COLUMN);
+    assertFalse(pkContainer.isLoaded());
+    assertFalse(timeContainer.isLoaded());
+
+    // Columns should be loaded on first access
+    FetchContext fetchContext =
+        new FetchContext(UUID.randomUUID(), segment.getSegmentName(), Collections.singleton(PK_COLUMN));
+    segment.acquire(fetchContext);
+    DataSource dataSource = segment.getDataSource(PK_COLUMN);
+    assertNotNull(dataSource.getDictionary());
+    assertTrue(pkContainer.isLoaded());
+    assertTrue(pkContainer.isDictionaryLoaded());
+    assertFalse(timeContainer.isLoaded());
+
+    // Acquired dictionary should not be evicted
+    long evictionTimeMs = System.currentTimeMillis() + 2000L;
+    assertEquals(segment.evictIdleDictionaries(evictionTimeMs), 0);
+    segment.release(fetchContext);
+
+    // Idle on-heap dictionary should be evicted (without closing the other readers), and reloaded on the next access
+    assertEquals(segment.evictIdleDictionaries(System.currentTimeMillis()), 0);
+    assertEquals(segment.evictIdleDictionaries(evictionTimeMs), 1);
+    assertTrue(pkContainer.isLoaded());
+    assertFalse(pkContainer.isDictionaryLoaded());
+    segment.acquire(fetchContext);
+    assertEquals(segment.getDataSource(PK_COLUMN).getDictionary().length(), dataSource.getDictionary().length());
+    assertTrue(pkContainer.isDictionaryLoaded());
+    segment.release(fetchContext);
+
+    // Dictionary accessed without being acquired should be pinned
+    assertNotNull(segment.getDataSource(PK_COLUMN).getDictionary());
+    assertEquals(segment.evictIdleDictionaries(evictionTimeMs + 2000L), 0);
+    assertTrue(pkContainer.isDictionaryLoaded());
+
+    // Column without on-heap dictionary should never be evicted
+    segment.getDataSource(TIME_COLUMN);
+    assertTrue(timeContainer.isLoaded());
+    assertFalse(timeContainer.isEvictable());
+    segment.destroy();
+  }
+
+  private static LazyColumnIndexContainer getLazyContainer(ImmutableSegmentImpl segment, String column) {
+    ColumnIndexContainer container = segment.getIndexContainerMap().get(column);
+    assertTrue(container instanceof LazyColumnIndexContainer);
+    return (LazyColumnIndexContainer) container;
+  }
+
+  @AfterClass
+  public void tearDown() {
+    FileUtils.deleteQuietly(_segmentOutputDir);
+  }
+}
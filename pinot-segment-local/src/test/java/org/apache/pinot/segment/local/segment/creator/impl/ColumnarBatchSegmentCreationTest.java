@@ -0,0 +1,218 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.creator.impl;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.pinot.segment.local.segment.readers.GenericRowRecordReader;
+import org.apache.pinot.segment.local.segment.readers.PinotSegmentRecordReader;
+import org.apache.pinot.segment.spi.creator.SegmentGeneratorConfig;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.config.table.TableType;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.ColumnarRecordReader;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.data.readers.RecordBatch;
+import org.apache.pinot.spi.utils.builder.TableConfigBuilder;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Tests that the segment created from the record batches of a {@link ColumnarRecordReader} is identical to the segment
+ * created row by row.
+ */
+public class ColumnarBatchSegmentCreationTest {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "ColumnarBatchSegmentCreationTest");
+  private static final String RAW_TABLE_NAME = "testTable";
+  private static final int NUM_ROWS = 1000;
+  private static final int NUM_ROWS_PER_BATCH = 77;
+
+  private static final String INT_COLUMN = "intColumn";
+  private static final String LONG_COLUMN = "longColumn";
+  private static final String FLOAT_COLUMN = "floatColumn";
+  private static final String DOUBLE_COLUMN = "doubleColumn";
+  private static final String STRING_COLUMN = "stringColumn";
+  private static final String MV_INT_COLUMN = "mvIntColumn";
+  private static final String JSON_COLUMN = "jsonColumn";
+  private static final String MISSING_COLUMN = "missingColumn";
+
+  private static final Schema SCHEMA = new Schema.SchemaBuilder().setSchemaName(RAW_TABLE_NAME)
+      .addSingleValueDimension(INT_COLUMN, DataType.INT).addSingleValueDimension(LONG_COLUMN, DataType.LONG)
+      .addSingleValueDimension(STRING_COLUMN, DataType.STRING).addMultiValueDimension(MV_INT_COLUMN, DataType.INT)
+      .addSingleValueDimension(MISSING_COLUMN, DataType.STRING).addSingleValueDimension(JSON_COLUMN, DataType.JSON)
+      .addMetric(FLOAT_COLUMN, DataType.FLOAT)
+      .addMetric(DOUBLE_COLUMN, DataType.DOUBLE).build();
+
+  private final List<GenericRow> _rows = new ArrayList<>();
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteDirectory(TEMP_DIR);
+    Random random = new Random();
+    for (int i = 0; i < NUM_ROWS; i++) {
+      GenericRow row = new GenericRow();
+      // Put some nulls in the int column
+      row.putValue(INT_COLUMN, i % 10 == 0 ? null : random.nextInt(100));
+      // Long column is read as int, which requires data type conversion
+      row.putValue(LONG_COLUMN, random.nextInt());
+      row.putValue(FLOAT_COLUMN, random.nextFloat());
+      row.putValue(DOUBLE_COLUMN, random.nextDouble());
+      row.putValue(STRING_COLUMN, "value_" + random.nextInt(50));
+      row.putValue(MV_INT_COLUMN, new Object[]{random.nextInt(10), random.nextInt(10)});
+      // JSON value longer than the default max length should not be truncated
+      row.putValue(JSON_COLUMN, "{\"key\":\"" + StringUtils.repeat('a', 1000) + "\",\"id\":" + i + "}");
+      _rows.add(row);
+    }
+  }
+
+  @Test
+  public void testColumnarBatchSegmentCreation()
+      throws Exception {
+    File rowBasedSegmentDir = buildSegment("rowBased", false);
+    File batchBasedSegmentDir = buildSegment("batchBased", true);
+
+    try (PinotSegmentRecordReader rowBasedReader = new PinotSegmentRecordReader(rowBasedSegmentDir);
+        PinotSegmentRecordReader batchBasedReader = new PinotSegmentRecordReader(batchBasedSegmentDir)) {
+      int numRows = 0;
+      while (rowBasedReader.hasNext()) {
+        assertTrue(batchBasedReader.hasNext());
+        GenericRow expectedRow = rowBasedReader.next();
+        GenericRow actualRow = batchBasedReader.next();
+        assertEquals(actualRow, expectedRow);
+        assertEquals(actualRow.isNullValue(INT_COLUMN), numRows % 10 == 0);
+        assertTrue(actualRow.isNullValue(MISSING_COLUMN));
+        assertEquals(actualRow.getValue(JSON_COLUMN), _rows.get(numRows).getValue(JSON_COLUMN));
+        numRows++;
+      }
+      assertFalse(batchBasedReader.hasNext());
+      assertEquals(numRows, NUM_ROWS);
+    }
+  }
+
+  private File buildSegment(String segmentName, boolean columnarBuild)
+      throws Exception {
+    TableConfig tableConfig = new TableConfigBuilder(TableType.OFFLINE).setTableName(RAW_TABLE_NAME)
+        .setInvertedIndexColumns(Arrays.asList(INT_COLUMN, STRING_COLUMN))
+        .setNoDictionaryColumns(Arrays.asList(DOUBLE_COLUMN, LONG_COLUMN)).setNullHandlingEnabled(true).build();
+    tableConfig.getIndexingConfig().setColumnMajorSegmentBuilderEnabled(columnarBuild);
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(tableConfig, SCHEMA);
+    config.setOutDir(TEMP_DIR.getAbsolutePath());
+    config.setSegmentName(segmentName);
+
+    InMemoryColumnarRecordReader recordReader = new InMemoryColumnarRecordReader(_rows);
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(config, recordReader);
+    driver.build();
+    assertEquals(recordReader._numBatchesRead > 0, columnarBuild);
+    return new File(TEMP_DIR, segmentName);
+  }
+
+  /**
+   * Columnar record reader on top of a list of rows, which reads INT/LONG/FLOAT/DOUBLE values into primitive arrays.
+   */
+  private static class InMemoryColumnarRecordReader extends GenericRowRecordReader implements ColumnarRecordReader {
+    private static final String[] COLUMNS =
+        {INT_COLUMN, LONG_COLUMN, FLOAT_COLUMN, DOUBLE_COLUMN, STRING_COLUMN, MV_INT_COLUMN, JSON_COLUMN};
+
+    private final List<GenericRow> _rows;
+    private int _nextRowId;
+    private int _numBatchesRead;
+
+    InMemoryColumnarRecordReader(List<GenericRow> rows) {
+      super(rows);
+      _rows = rows;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return super.hasNext() && _nextRowId < _rows.size();
+    }
+
+    @Override
+    public void rewind() {
+      super.rewind();
+      _nextRowId = 0;
+    }
+
+    @Override
+    public boolean isBatchReadSupported() {
+      return true;
+    }
+
+    @Override
+    public RecordBatch nextBatch(RecordBatch reuse) {
+      reuse.clear();
+      int numRows = Math.min(NUM_ROWS_PER_BATCH, _rows.size() - _nextRowId);
+      for (String column : COLUMNS) {
+        Object values;
+        if (column.equals(INT_COLUMN) || column.equals(LONG_COLUMN)) {
+          values = new int[numRows];
+        } else if (column.equals(FLOAT_COLUMN)) {
+          values = new float[numRows];
+        } else if (column.equals(DOUBLE_COLUMN)) {
+          values = new double[numRows];
+        } else {
+          values = new Object[numRows];
+        }
+        boolean[] nullFlags = null;
+        for (int i = 0; i < numRows; i++) {
+          Object value = _rows.get(_nextRowId + i).getValue(column);
+          if (value == null) {
+            if (nullFlags == null) {
+              nullFlags = new boolean[numRows];
+            }
+            nullFlags[i] = true;
+          } else if (values instanceof int[]) {
+            ((int[]) values)[i] = (int) value;
+          } else if (values instanceof float[]) {
+            ((float[]) values)[i] = (float) value;
+          } else if (values instanceof double[]) {
+            ((double[]) values)[i] = (double) value;
+          } else {
+            ((Object[]) values)[i] = value;
+          }
+        }
+        reuse.putColumn(column, values, nullFlags);
+      }
+      reuse.setNumRows(numRows);
+      _nextRowId += numRows;
+      _numBatchesRead++;
+      return reuse;
+    }
+  }
+
+  @AfterClass
+  public void tearDown()
+      throws Exception {
+    FileUtils.deleteDirectory(TEMP_DIR);
+  }
+}
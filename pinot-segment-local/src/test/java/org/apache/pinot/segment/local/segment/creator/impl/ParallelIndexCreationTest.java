@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.creator.impl;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.segment.readers.GenericRowRecordReader;
+import org.apache.pinot.segment.local.segment.readers.PinotSegmentRecordReader;
+import org.apache.pinot.segment.spi.ColumnMetadata;
+import org.apache.pinot.segment.spi.creator.SegmentGeneratorConfig;
+import org.apache.pinot.segment.spi.index.metadata.SegmentMetadataImpl;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.config.table.TableType;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.utils.builder.TableConfigBuilder;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Tests that the segment created with the indexes of different columns built in parallel is identical to the segment
+ * created with the indexes built sequentially.
+ */
+public class ParallelIndexCreationTest {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "ParallelIndexCreationTest");
+  private static final String RAW_TABLE_NAME = "testTable";
+  // Use more rows than a single indexing task to cover the buffering across tasks
+  private static final int NUM_ROWS = 5000;
+
+  private static final String INT_COLUMN = "intColumn";
+  private static final String LONG_COLUMN = "longColumn";
+  private static final String DOUBLE_COLUMN = "doubleColumn";
+  private static final String STRING_COLUMN = "stringColumn";
+  private static final String JSON_COLUMN = "jsonColumn";
+  private static final String MV_STRING_COLUMN = "mvStringColumn";
+  private static final String TIME_COLUMN = "daysSinceEpoch";
+
+  private static final Schema SCHEMA = new Schema.SchemaBuilder().setSchemaName(RAW_TABLE_NAME)
+      .addSingleValueDimension(INT_COLUMN, DataType.INT).addSingleValueDimension(STRING_COLUMN, DataType.STRING)
+      .addSingleValueDimension(JSON_COLUMN, DataType.STRING)
+      .addMultiValueDimension(MV_STRING_COLUMN, DataType.STRING).addMetric(LONG_COLUMN, DataType.LONG)
+      .addMetric(DOUBLE_COLUMN, DataType.DOUBLE)
+      .addDateTime(TIME_COLUMN, DataType.INT, "1:DAYS:EPOCH", "1:DAYS").build();
+
+  private final List<GenericRow> _rows = new ArrayList<>();
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteDirectory(TEMP_DIR);
+    Random random = new Random();
+    for (int i = 0; i < NUM_ROWS; i++) {
+      GenericRow row = new GenericRow();
+      // Put some nulls in the int and string column
+      row.putValue(INT_COLUMN, i % 10 == 0 ? null : random.nextInt(100));
+      row.putValue(STRING_COLUMN, i % 7 == 0 ? null : "value_" + random.nextInt(50));
+      row.putValue(JSON_COLUMN, "{\"key\":" + random.nextInt(20) + "}");
+      row.putValue(LONG_COLUMN, random.nextLong());
+      row.putValue(DOUBLE_COLUMN, random.nextDouble());
+      row.putValue(MV_STRING_COLUMN, Arrays.asList("a" + random.nextInt(10), "b" + random.nextInt(10)));
+      row.putValue(TIME_COLUMN, 18000 + i);
+      _rows.add(row);
+    }
+  }
+
+  @Test
+  public void testParallelIndexCreation()
+      throws Exception {
+    File sequentialSegmentDir = buildSegment("sequential", 1, false);
+    checkSegment(sequentialSegmentDir, buildSegment("parallel", 4, false));
+    // Single pass segment creation indexes the segment column by column
+    checkSegment(sequentialSegmentDir, buildSegment("parallelSinglePass", 4, true));
+  }
+
+  private void checkSegment(File expectedSegmentDir, File actualSegmentDir)
+      throws Exception {
+    SegmentMetadataImpl expectedSegmentMetadata = new SegmentMetadataImpl(expectedSegmentDir);
+    SegmentMetadataImpl actualSegmentMetadata = new SegmentMetadataImpl(actualSegmentDir);
+    assertEquals(actualSegmentMetadata.getTotalDocs(), NUM_ROWS);
+    for (String column : SCHEMA.getColumnNames()) {
+      ColumnMetadata expectedColumnMetadata = expectedSegmentMetadata.getColumnMetadataFor(column);
+      ColumnMetadata actualColumnMetadata = actualSegmentMetadata.getColumnMetadataFor(column);
+      assertEquals(actualColumnMetadata.getCardinality(), expectedColumnMetadata.getCardinality());
+      assertEquals(actualColumnMetadata.getMinValue(), expectedColumnMetadata.getMinValue());
+      assertEquals(actualColumnMetadata.getMaxValue(), expectedColumnMetadata.getMaxValue());
+      assertEquals(actualColumnMetadata.getTotalNumberOfEntries(), expectedColumnMetadata.getTotalNumberOfEntries());
+    }
+
+    try (PinotSegmentRecordReader expectedReader = new PinotSegmentRecordReader(expectedSegmentDir);
+        PinotSegmentRecordReader actualReader = new PinotSegmentRecordReader(actualSegmentDir)) {
+      int numRows = 0;
+      while (expectedReader.hasNext()) {
+        assertTrue(actualReader.hasNext());
+        GenericRow expectedRow = expectedReader.next();
+        GenericRow actualRow = actualReader.next();
+        assertEquals(actualRow, expectedRow);
+        assertEquals(actualRow.isNullValue(INT_COLUMN), numRows % 10 == 0);
+        assertEquals(actualRow.isNullValue(STRING_COLUMN), numRows % 7 == 0);
+        numRows++;
+      }
+      assertFalse(actualReader.hasNext());
+      assertEquals(numRows, NUM_ROWS);
+    }
+  }
+
+  private File buildSegment(String segmentName, int indexCreationParallelism, boolean singlePass)
+      throws Exception {
+    TableConfig tableConfig = new TableConfigBuilder(TableType.OFFLINE).setTableName(RAW_TABLE_NAME)
+        .setTimeColumnName(TIME_COLUMN).setInvertedIndexColumns(Arrays.asList(INT_COLUMN, MV_STRING_COLUMN))
+        .setJsonIndexColumns(Arrays.asList(JSON_COLUMN))
+        .setNoDictionaryColumns(Arrays.asList(DOUBLE_COLUMN, STRING_COLUMN)).setNullHandlingEnabled(true).build();
+    tableConfig.getIndexingConfig().setIndexCreationParallelism(indexCreationParallelism);
+    tableConfig.getIndexingConfig().setSinglePassSegmentCreation(singlePass);
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(tableConfig, SCHEMA);
+    config.setOutDir(TEMP_DIR.getAbsolutePath());
+    config.setSegmentName(segmentName);
+
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(config, new GenericRowRecordReader(_rows));
+    driver.build();
+    return new File(TEMP_DIR, segmentName);
+  }
+
+  @AfterClass
+  public void tearDown()
+      throws Exception {
+    FileUtils.deleteDirectory(TEMP_DIR);
+  }
+}
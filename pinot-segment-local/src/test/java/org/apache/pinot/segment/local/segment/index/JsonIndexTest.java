@@ -20,11 +20,14 @@ package org.apache.pinot.segment.local.segment.index;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.commons.io.FileUtils;
 import org.apache.pinot.segment.local.realtime.impl.json.MutableJsonIndexImpl;
 import org.apache.pinot.segment.local.segment.creator.impl.inv.json.OffHeapJsonIndexCreator;
 import org.apache.pinot.segment.local.segment.creator.impl.inv.json.OnHeapJsonIndexCreator;
 import org.apache.pinot.segment.local.segment.index.readers.json.ImmutableJsonIndexReader;
+import org.apache.pinot.segment.local.segment.index.readers.json.JsonIndexCache;
 import org.apache.pinot.segment.spi.V1Constants;
 import org.apache.pinot.segment.spi.index.creator.JsonIndexCreator;
 import org.apache.pinot.segment.spi.index.reader.JsonIndexReader;
@@ -219,6 +222,125 @@ public class JsonIndexTest {
     }
   }
 
+  @Test
+  public void testRangePredicateAndPredicateCache()
+      throws Exception {
+    String[] records = new String[]{
+        "{\"name\":\"adam\",\"age\":20,\"scores\":[1,5]}", "{\"name\":\"bob\",\"age\":25.5,\"scores\":[10]}",
+        "{\"name\":\"charles\",\"age\":\"unknown\"}", "{\"name\":\"david\",\"age\":-3}"
+    };
+    String columnName = "range";
+    try (JsonIndexCreator indexCreator = new OnHeapJsonIndexCreator(INDEX_DIR, columnName)) {
+      for (String record : records) {
+        indexCreator.add(record);
+      }
+      indexCreator.seal();
+    }
+    File indexFile = new File(INDEX_DIR, columnName + V1Constants.Indexes.JSON_INDEX_FILE_EXTENSION);
+
+    // Cache is disabled by default
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(indexFile);
+        ImmutableJsonIndexReader indexReader = new ImmutableJsonIndexReader(dataBuffer, records.length)) {
+      Assert.assertEquals(getMatchingDocIds(indexReader, "age > 20").toArray(), new int[]{1});
+      Assert.assertEquals(getMatchingDocIds(indexReader, "age > 20").toArray(), new int[]{1});
+      Assert.assertEquals(indexReader.getNumPredicateCacheHits(), 0);
+    }
+
+    JsonIndexCache.init(1024 * 1024);
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(indexFile);
+        ImmutableJsonIndexReader immutableIndexReader = new ImmutableJsonIndexReader(dataBuffer, records.length);
+        MutableJsonIndexImpl mutableJsonIndex = new MutableJsonIndexImpl()) {
+      for (String record : records) {
+        mutableJsonIndex.add(record);
+      }
+      Assert.assertFalse(immutableIndexReader.isIdentityDocIdMapping());
+      for (JsonIndexReader indexReader : new JsonIndexReader[]{immutableIndexReader, mutableJsonIndex}) {
+        Assert.assertEquals(getMatchingDocIds(indexReader, "age > 20").toArray(), new int[]{1});
+        Assert.assertEquals(getMatchingDocIds(indexReader, "age >= 20").toArray(), new int[]{0, 1});
+        Assert.assertEquals(getMatchingDocIds(indexReader, "age BETWEEN -5 AND 20").toArray(), new int[]{0, 3});
+        Assert.assertEquals(getMatchingDocIds(indexReader, "age < 0").toArray(), new int[]{3});
+        Assert.assertEquals(getMatchingDocIds(indexReader, "age > 100").toArray(), new int[0]);
+        Assert.assertEquals(getMatchingDocIds(indexReader, "\"scores[*]\" > 7").toArray(), new int[]{1});
+        Assert.assertEquals(getMatchingDocIds(indexReader, "\"scores[*]\" BETWEEN 2 AND 6").toArray(), new int[]{0});
+        Assert.assertEquals(getMatchingDocIds(indexReader, "\"scores[1]\" >= 5").toArray(), new int[]{0});
+        Assert.assertEquals(getMatchingDocIds(indexReader, "name = 'adam' AND \"scores[*]\" < 3").toArray(),
+            new int[]{0});
+        Assert.assertEquals(getMatchingDocIds(indexReader, "name = 'bob' AND \"scores[*]\" < 3").toArray(),
+            new int[0]);
+      }
+
+      // Cached results should not be affected by the modification on the returned bitmap
+      long numPredicateCacheHits = immutableIndexReader.getNumPredicateCacheHits();
+      MutableRoaringBitmap matchingDocIds = getMatchingDocIds(immutableIndexReader, "name IN ('adam', 'bob')");
+      Assert.assertEquals(matchingDocIds.toArray(), new int[]{0, 1});
+      matchingDocIds.add(2);
+      Assert.assertEquals(getMatchingDocIds(immutableIndexReader, "name IN ('adam', 'bob')").toArray(),
+          new int[]{0, 1});
+      Assert.assertEquals(getMatchingDocIds(immutableIndexReader, "name NOT IN ('adam', 'bob')").toArray(),
+          new int[]{2, 3});
+      Assert.assertEquals(immutableIndexReader.getNumPredicateCacheHits(), numPredicateCacheHits + 1);
+      Assert.assertTrue(JsonIndexCache.getInstance().getNumEntries() > 0);
+    } finally {
+      JsonIndexCache.init(0);
+    }
+
+    // Each document is flattened into exactly one record
+    String[] flatRecords = new String[]{"{\"a\":1}", "{\"a\":2}", "{\"a\":3}"};
+    String flatColumnName = "flat";
+    try (JsonIndexCreator indexCreator = new OnHeapJsonIndexCreator(INDEX_DIR, flatColumnName)) {
+      for (String record : flatRecords) {
+        indexCreator.add(record);
+      }
+      indexCreator.seal();
+    }
+    File flatIndexFile = new File(INDEX_DIR, flatColumnName + V1Constants.Indexes.JSON_INDEX_FILE_EXTENSION);
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(flatIndexFile);
+        ImmutableJsonIndexReader indexReader = new ImmutableJsonIndexReader(dataBuffer, flatRecords.length)) {
+      Assert.assertTrue(indexReader.isIdentityDocIdMapping());
+      Assert.assertEquals(getMatchingDocIds(indexReader, "a >= 2").toArray(), new int[]{1, 2});
+      Assert.assertEquals(getMatchingDocIds(indexReader, "a != 2").toArray(), new int[]{0, 2});
+    }
+  }
+
+  @Test
+  public void testMutableIndexConcurrentReadWrite()
+      throws Exception {
+    int numRecords = 50_000;
+    try (MutableJsonIndexImpl mutableJsonIndex = new MutableJsonIndexImpl()) {
+      AtomicBoolean done = new AtomicBoolean();
+      AtomicReference<Throwable> readerError = new AtomicReference<>();
+      Thread reader = new Thread(() -> {
+        try {
+          while (!done.get()) {
+            // Each document should be either fully visible or not visible at all
+            MutableRoaringBitmap evenDocIds = getMatchingDocIds(mutableJsonIndex, "a = 'x' AND b = 'y'");
+            MutableRoaringBitmap oddDocIds = getMatchingDocIds(mutableJsonIndex, "b != 'y'");
+            for (int docId : evenDocIds.toArray()) {
+              Assert.assertEquals(docId % 2, 0);
+            }
+            for (int docId : oddDocIds.toArray()) {
+              Assert.assertEquals(docId % 2, 1);
+            }
+          }
+        } catch (Throwable t) {
+          readerError.set(t);
+        }
+      });
+      reader.start();
+      try {
+        for (int i = 0; i < numRecords; i++) {
+          mutableJsonIndex.add(i % 2 == 0 ? "{\"a\":\"x\",\"b\":\"y\"}" : "{\"a\":\"x\"}");
+        }
+      } finally {
+        done.set(true);
+        reader.join();
+      }
+      Assert.assertNull(readerError.get());
+      Assert.assertEquals(getMatchingDocIds(mutableJsonIndex, "a = 'x' AND b = 'y'").getCardinality(), numRecords / 2);
+      Assert.assertEquals(getMatchingDocIds(mutableJsonIndex, "b != 'y'").getCardinality(), numRecords / 2);
+    }
+  }
+
   private MutableRoaringBitmap getMatchingDocIds(JsonIndexReader indexReader, String filter) {
     return indexReader.getMatchingDocIds(filter);
   }
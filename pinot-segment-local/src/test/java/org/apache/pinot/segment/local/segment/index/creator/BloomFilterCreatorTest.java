@@ -21,7 +21,10 @@ package org.apache.pinot.segment.local.segment.index.creator;
 import java.io.File;
 import org.apache.commons.io.FileUtils;
 import org.apache.pinot.segment.local.segment.creator.impl.bloom.OnHeapGuavaBloomFilterCreator;
+import org.apache.pinot.segment.local.segment.creator.impl.bloom.SplitBlockBloomFilterCreator;
 import org.apache.pinot.segment.local.segment.index.readers.bloom.BloomFilterReaderFactory;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.GuavaBloomFilterReaderUtils;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.SplitBlockBloomFilterReader;
 import org.apache.pinot.segment.spi.V1Constants;
 import org.apache.pinot.segment.spi.index.creator.BloomFilterCreator;
 import org.apache.pinot.segment.spi.index.reader.BloomFilterReader;
@@ -73,6 +76,54 @@ public class BloomFilterCreatorTest {
     }
   }
 
+  @Test
+  public void testSplitBlockBloomFilterCreator()
+      throws Exception {
+    // Create the bloom filter
+    int cardinality = 10000;
+    String columnName = "testSplitBlockColumn";
+    BloomFilterConfig bloomFilterConfig =
+        new BloomFilterConfig(BloomFilterConfig.DEFAULT_FPP, 0, false, BloomFilterConfig.Type.SPLIT_BLOCK);
+    try (BloomFilterCreator bloomFilterCreator = new SplitBlockBloomFilterCreator(TEMP_DIR, columnName, cardinality,
+        bloomFilterConfig)) {
+      for (int i = 0; i < cardinality; i++) {
+        bloomFilterCreator.add(Integer.toString(i));
+      }
+      bloomFilterCreator.seal();
+    }
+
+    // Read the bloom filter
+    File bloomFilterFile = new File(TEMP_DIR, columnName + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(bloomFilterFile);
+        BloomFilterReader bloomFilter = BloomFilterReaderFactory.getBloomFilterReader(dataBuffer, false)) {
+      Assert.assertTrue(bloomFilter instanceof SplitBlockBloomFilterReader);
+      for (int i = 0; i < cardinality; i++) {
+        String value = Integer.toString(i);
+        Assert.assertTrue(bloomFilter.mightContain(value));
+        long[] hashes = GuavaBloomFilterReaderUtils.hashAsLongs(value);
+        Assert.assertTrue(bloomFilter.mightContain(hashes[0], hashes[1]));
+      }
+      int numFalsePositives = 0;
+      for (int i = cardinality; i < 2 * cardinality; i++) {
+        if (bloomFilter.mightContain(Integer.toString(i))) {
+          numFalsePositives++;
+        }
+      }
+      Assert.assertTrue(numFalsePositives < 2 * BloomFilterConfig.DEFAULT_FPP * cardinality,
+          "Too many false positives: " + numFalsePositives);
+    }
+
+    // Max size should be honored
+    int maxSizeInBytes = 1024;
+    try (BloomFilterCreator bloomFilterCreator = new SplitBlockBloomFilterCreator(TEMP_DIR, columnName, cardinality,
+        new BloomFilterConfig(BloomFilterConfig.DEFAULT_FPP, maxSizeInBytes, false,
+            BloomFilterConfig.Type.SPLIT_BLOCK))) {
+      bloomFilterCreator.add("0");
+      bloomFilterCreator.seal();
+    }
+    Assert.assertEquals(bloomFilterFile.length(), 3 * Integer.BYTES + maxSizeInBytes);
+  }
+
   @AfterClass
   public void tearDown()
       throws Exception {
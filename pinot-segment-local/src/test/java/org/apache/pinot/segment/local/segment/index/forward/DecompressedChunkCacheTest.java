@@ -0,0 +1,208 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.forward;
+
+import com.google.common.cache.CacheStats;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.pinot.segment.local.io.writer.impl.FixedByteChunkSVForwardIndexWriter;
+import org.apache.pinot.segment.local.io.writer.impl.VarByteChunkSVForwardIndexWriterV4;
+import org.apache.pinot.segment.local.segment.index.readers.forward.ChunkReaderContext;
+import org.apache.pinot.segment.local.segment.index.readers.forward.DecompressedChunkCache;
+import org.apache.pinot.segment.local.segment.index.readers.forward.FixedByteChunkSVForwardIndexReader;
+import org.apache.pinot.segment.local.segment.index.readers.forward.VarByteChunkSVForwardIndexReaderV4;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Unit test for {@link DecompressedChunkCache} shared by the chunk-based raw forward index readers.
+ */
+public class DecompressedChunkCacheTest {
+  private static final File TEST_FILE =
+      new File(FileUtils.getTempDirectory(), DecompressedChunkCacheTest.class.getSimpleName());
+  private static final int NUM_VALUES = 10009;
+  private static final int NUM_DOCS_PER_CHUNK = 1000;
+  private static final Random RANDOM = new Random();
+
+  @BeforeMethod
+  public void setUpMethod() {
+    // Reset the cache (and its stats) for each test
+    DecompressedChunkCache.init(64 * 1024 * 1024);
+    FileUtils.deleteQuietly(TEST_FILE);
+  }
+
+  @AfterClass
+  public void tearDown() {
+    DecompressedChunkCache.init(0);
+    FileUtils.deleteQuietly(TEST_FILE);
+  }
+
+  @Test
+  public void testFixedByte()
+      throws Exception {
+    long[] expected = new long[NUM_VALUES];
+    for (int i = 0; i < NUM_VALUES; i++) {
+      expected[i] = RANDOM.nextLong();
+    }
+    try (FixedByteChunkSVForwardIndexWriter writer = new FixedByteChunkSVForwardIndexWriter(TEST_FILE,
+        ChunkCompressionType.LZ4, NUM_VALUES, NUM_DOCS_PER_CHUNK, Long.BYTES, 3)) {
+      for (long value : expected) {
+        writer.putLong(value);
+      }
+    }
+
+    DecompressedChunkCache chunkCache = DecompressedChunkCache.getInstance();
+    assertNotNull(chunkCache);
+    int numChunks = (NUM_VALUES + NUM_DOCS_PER_CHUNK - 1) / NUM_DOCS_PER_CHUNK;
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(TEST_FILE)) {
+      try (FixedByteChunkSVForwardIndexReader reader = new FixedByteChunkSVForwardIndexReader(dataBuffer,
+          DataType.LONG)) {
+        // Sequential scan only caches the first chunk
+        try (ChunkReaderContext context = reader.createContext()) {
+          for (int i = 0; i < NUM_VALUES; i++) {
+            assertEquals(reader.getLong(i, context), expected[i]);
+          }
+        }
+        CacheStats stats = chunkCache.getStats();
+        assertEquals(stats.missCount(), numChunks);
+        assertEquals(stats.hitCount(), 0);
+        assertEquals(chunkCache.getNumEntries(), 1);
+
+        // Non-sequential read decompresses and caches the remaining chunks
+        try (ChunkReaderContext context = reader.createContext()) {
+          for (int i = NUM_VALUES - 1; i >= 0; i--) {
+            assertEquals(reader.getLong(i, context), expected[i]);
+          }
+        }
+        stats = chunkCache.getStats();
+        assertEquals(stats.missCount(), 2 * numChunks - 1);
+        assertEquals(stats.hitCount(), 1);
+        assertEquals(chunkCache.getNumEntries(), numChunks);
+
+        // Concurrent queries read the cached chunks
+        try (ChunkReaderContext context1 = reader.createContext();
+            ChunkReaderContext context2 = reader.createContext()) {
+          for (int i = 0; i < NUM_VALUES; i++) {
+            int docId = RANDOM.nextInt(NUM_VALUES);
+            assertEquals(reader.getLong(docId, context1), expected[docId]);
+            assertEquals(reader.getLong(NUM_VALUES - 1 - i, context2), expected[NUM_VALUES - 1 - i]);
+          }
+        }
+        stats = chunkCache.getStats();
+        assertEquals(stats.missCount(), 2 * numChunks - 1);
+        assertTrue(stats.hitCount() > numChunks);
+      }
+      // Closing the reader removes its chunks
+      assertEquals(chunkCache.getNumEntries(), 0);
+    }
+  }
+
+  @Test
+  public void testVarByteV4()
+      throws Exception {
+    String[] expected = new String[NUM_VALUES];
+    for (int i = 0; i < NUM_VALUES; i++) {
+      expected[i] = RandomStringUtils.randomAlphanumeric(RANDOM.nextInt(100));
+    }
+    try (VarByteChunkSVForwardIndexWriterV4 writer = new VarByteChunkSVForwardIndexWriterV4(TEST_FILE,
+        ChunkCompressionType.ZSTANDARD, 4096)) {
+      for (String value : expected) {
+        writer.putBytes(value.getBytes(StandardCharsets.UTF_8));
+      }
+    }
+
+    DecompressedChunkCache chunkCache = DecompressedChunkCache.getInstance();
+    assertNotNull(chunkCache);
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(TEST_FILE)) {
+      try (VarByteChunkSVForwardIndexReaderV4 reader = new VarByteChunkSVForwardIndexReaderV4(dataBuffer,
+          DataType.STRING)) {
+        // Sequential scan only caches the first chunk
+        try (VarByteChunkSVForwardIndexReaderV4.ReaderContext context = reader.createContext()) {
+          for (int i = 0; i < NUM_VALUES; i++) {
+            assertEquals(reader.getString(i, context), expected[i]);
+          }
+        }
+        long numChunks = chunkCache.getStats().missCount();
+        assertTrue(numChunks > 1);
+        assertEquals(chunkCache.getStats().hitCount(), 0);
+        assertEquals(chunkCache.getNumEntries(), 1);
+
+        // Non-sequential read decompresses and caches the remaining chunks
+        try (VarByteChunkSVForwardIndexReaderV4.ReaderContext context = reader.createContext()) {
+          for (int i = NUM_VALUES - 1; i >= 0; i--) {
+            assertEquals(reader.getString(i, context), expected[i]);
+          }
+        }
+        CacheStats stats = chunkCache.getStats();
+        assertEquals(stats.missCount(), 2 * numChunks - 1);
+        assertEquals(stats.hitCount(), 1);
+        assertEquals(chunkCache.getNumEntries(), numChunks);
+
+        // All the chunks are read from the cache
+        try (VarByteChunkSVForwardIndexReaderV4.ReaderContext context = reader.createContext()) {
+          for (int i = 0; i < NUM_VALUES; i++) {
+            assertEquals(reader.getString(i, context), expected[i]);
+          }
+        }
+        stats = chunkCache.getStats();
+        assertEquals(stats.missCount(), 2 * numChunks - 1);
+        assertEquals(stats.hitCount(), numChunks + 1);
+      }
+      assertEquals(chunkCache.getNumEntries(), 0);
+    }
+  }
+
+  @Test
+  public void testMaxSize()
+      throws Exception {
+    // Each decompressed chunk takes 8000 bytes, so at most 2 chunks can be cached
+    DecompressedChunkCache.init(20_000);
+    try (FixedByteChunkSVForwardIndexWriter writer = new FixedByteChunkSVForwardIndexWriter(TEST_FILE,
+        ChunkCompressionType.SNAPPY, NUM_VALUES, NUM_DOCS_PER_CHUNK, Long.BYTES, 3)) {
+      for (int i = 0; i < NUM_VALUES; i++) {
+        writer.putLong(i);
+      }
+    }
+
+    DecompressedChunkCache chunkCache = DecompressedChunkCache.getInstance();
+    assertNotNull(chunkCache);
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(TEST_FILE);
+        FixedByteChunkSVForwardIndexReader reader = new FixedByteChunkSVForwardIndexReader(dataBuffer, DataType.LONG);
+        ChunkReaderContext context = reader.createContext()) {
+      // Read in reverse order so that the chunks are cached
+      for (int i = NUM_VALUES - 1; i >= 0; i--) {
+        assertEquals(reader.getLong(i, context), i);
+      }
+      assertTrue(chunkCache.getNumEntries() <= 2);
+      assertTrue(chunkCache.getStats().evictionCount() > 0);
+    }
+  }
+}
@@ -0,0 +1,174 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.forward;
+
+import java.io.File;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.io.writer.impl.FrameOfReferenceChunkSVForwardIndexWriter;
+import org.apache.pinot.segment.local.segment.creator.impl.DefaultIndexCreatorProvider;
+import org.apache.pinot.segment.local.segment.creator.impl.fwd.SingleValueFrameOfReferenceRawIndexCreator;
+import org.apache.pinot.segment.local.segment.index.readers.forward.FrameOfReferenceChunkSVForwardIndexReader;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
+import org.apache.pinot.segment.spi.index.creator.ForwardIndexCreator;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+
+/**
+ * Unit test for {@link FrameOfReferenceChunkSVForwardIndexWriter} and
+ * {@link FrameOfReferenceChunkSVForwardIndexReader}.
+ * Number of docs and docs per chunk are chosen to generate complete as well partial chunks.
+ */
+public class FrameOfReferenceChunkSVForwardIndexTest {
+  private static final File TEMP_DIR =
+      new File(FileUtils.getTempDirectory(), "FrameOfReferenceChunkSVForwardIndexTest");
+  private static final int NUM_VALUES = 10009;
+  private static final int NUM_DOCS_PER_CHUNK = 1024;
+  private static final Random RANDOM = new Random();
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.forceMkdir(TEMP_DIR);
+  }
+
+  @AfterClass
+  public void tearDown()
+      throws Exception {
+    FileUtils.deleteDirectory(TEMP_DIR);
+  }
+
+  @Test
+  public void testInt()
+      throws Exception {
+    int[] randomValues = new int[NUM_VALUES];
+    int[] smallValues = new int[NUM_VALUES];
+    int[] constantValues = new int[NUM_VALUES];
+    int constantValue = RANDOM.nextInt();
+    for (int i = 0; i < NUM_VALUES; i++) {
+      randomValues[i] = RANDOM.nextInt();
+      smallValues[i] = 1000 + RANDOM.nextInt(100);
+      constantValues[i] = constantValue;
+    }
+    for (int[] values : new int[][]{randomValues, smallValues, constantValues}) {
+      File indexFile = new File(TEMP_DIR, "int");
+      FileUtils.deleteQuietly(indexFile);
+      try (FrameOfReferenceChunkSVForwardIndexWriter writer = new FrameOfReferenceChunkSVForwardIndexWriter(indexFile,
+          NUM_VALUES, NUM_DOCS_PER_CHUNK, DataType.INT)) {
+        for (int value : values) {
+          writer.putInt(value);
+        }
+      }
+      try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(indexFile);
+          FrameOfReferenceChunkSVForwardIndexReader reader = new FrameOfReferenceChunkSVForwardIndexReader(dataBuffer,
+              DataType.INT)) {
+        for (int i = 0; i < NUM_VALUES; i++) {
+          Assert.assertEquals(reader.getInt(i, null), values[i]);
+        }
+        int[] docIds = new int[NUM_VALUES / 2];
+        for (int i = 0; i < docIds.length; i++) {
+          docIds[i] = i * 2;
+        }
+        int[] intValues = new int[docIds.length];
+        reader.readValuesSV(docIds, docIds.length, intValues, null);
+        double[] doubleValues = new double[docIds.length];
+        reader.readValuesSV(docIds, docIds.length, doubleValues, null);
+        for (int i = 0; i < docIds.length; i++) {
+          Assert.assertEquals(intValues[i], values[docIds[i]]);
+          Assert.assertEquals(doubleValues[i], (double) values[docIds[i]]);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testLong()
+      throws Exception {
+    long[] randomValues = new long[NUM_VALUES];
+    long[] timestamps = new long[NUM_VALUES];
+    long[] descendingValues = new long[NUM_VALUES];
+    long timestamp = System.currentTimeMillis();
+    for (int i = 0; i < NUM_VALUES; i++) {
+      randomValues[i] = RANDOM.nextLong();
+      // Near-sorted timestamps with small jitter
+      timestamps[i] = timestamp + i * 1000L + RANDOM.nextInt(10);
+      descendingValues[i] = Long.MAX_VALUE - i * 7L;
+    }
+    long[] fileSizes = new long[3];
+    long[][] testValues = new long[][]{randomValues, timestamps, descendingValues};
+    for (int j = 0; j < testValues.length; j++) {
+      long[] values = testValues[j];
+      File indexFile = new File(TEMP_DIR, "long");
+      FileUtils.deleteQuietly(indexFile);
+      try (FrameOfReferenceChunkSVForwardIndexWriter writer = new FrameOfReferenceChunkSVForwardIndexWriter(indexFile,
+          NUM_VALUES, NUM_DOCS_PER_CHUNK, DataType.LONG)) {
+        for (long value : values) {
+          writer.putLong(value);
+        }
+      }
+      fileSizes[j] = indexFile.length();
+      try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(indexFile);
+          FrameOfReferenceChunkSVForwardIndexReader reader = new FrameOfReferenceChunkSVForwardIndexReader(dataBuffer,
+              DataType.LONG)) {
+        for (int i = 0; i < NUM_VALUES; i++) {
+          Assert.assertEquals(reader.getLong(i, null), values[i]);
+        }
+        int[] docIds = new int[NUM_VALUES];
+        for (int i = 0; i < NUM_VALUES; i++) {
+          docIds[i] = i;
+        }
+        long[] longValues = new long[NUM_VALUES];
+        reader.readValuesSV(docIds, NUM_VALUES, longValues, null);
+        Assert.assertEquals(longValues, values);
+      }
+    }
+
+    // Near-sorted timestamps should be delta encoded with a few bits per value, and values with constant step should be
+    // delta encoded with 0 bit per value
+    Assert.assertTrue(fileSizes[1] < NUM_VALUES);
+    Assert.assertTrue(fileSizes[2] < NUM_VALUES / 10);
+    // Random values should not take much more space than raw values
+    Assert.assertTrue(fileSizes[0] < (long) NUM_VALUES * Long.BYTES * 11 / 10);
+  }
+
+  @Test
+  public void testRawIndexWriterVersion()
+      throws Exception {
+    File indexDir = new File(TEMP_DIR, "indexDir");
+    FileUtils.forceMkdir(indexDir);
+    try (ForwardIndexCreator indexCreator = DefaultIndexCreatorProvider.getRawIndexCreatorForSVColumn(indexDir,
+        ChunkCompressionType.LZ4, "longCol", DataType.LONG, NUM_VALUES, Long.BYTES, false,
+        FrameOfReferenceChunkSVForwardIndexWriter.VERSION)) {
+      Assert.assertTrue(indexCreator instanceof SingleValueFrameOfReferenceRawIndexCreator);
+    }
+    Assert.assertThrows(IllegalStateException.class,
+        () -> DefaultIndexCreatorProvider.getRawIndexCreatorForSVColumn(indexDir, ChunkCompressionType.LZ4,
+            "doubleCol", DataType.DOUBLE, NUM_VALUES, Double.BYTES, false,
+            FrameOfReferenceChunkSVForwardIndexWriter.VERSION));
+    Assert.assertThrows(IllegalStateException.class,
+        () -> DefaultIndexCreatorProvider.getRawIndexCreatorForMVColumn(indexDir, ChunkCompressionType.LZ4,
+            "longMVCol", DataType.LONG, NUM_VALUES, 10, false, FrameOfReferenceChunkSVForwardIndexWriter.VERSION,
+            10 * Long.BYTES));
+  }
+}
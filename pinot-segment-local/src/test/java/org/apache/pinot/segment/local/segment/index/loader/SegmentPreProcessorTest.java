@@ -549,6 +549,37 @@ public class SegmentPreProcessorTest {
     assertEquals(singleFileIndex.length(), newFileSize);
   }
 
+  @Test
+  public void testV3CreateIndicesInParallel()
+      throws Exception {
+    constructV3Segment();
+    _indexLoadingConfig.setRangeIndexColumns(new HashSet<>(Arrays.asList(COLUMN1_NAME, COLUMN13_NAME)));
+
+    SegmentPreProcessor.initExecutor(4);
+    try {
+      try (SegmentDirectory segmentDirectory = SegmentDirectoryLoaderRegistry.getDefaultSegmentDirectoryLoader()
+          .load(_indexDir.toURI(),
+              new SegmentDirectoryLoaderContext.Builder().setSegmentDirectoryConfigs(_configuration).build());
+          SegmentPreProcessor processor = new SegmentPreProcessor(segmentDirectory, _indexLoadingConfig, null)) {
+        processor.process();
+      }
+    } finally {
+      SegmentPreProcessor.shutdownExecutor();
+    }
+
+    try (SegmentDirectory segmentDirectory = SegmentDirectoryLoaderRegistry.getDefaultSegmentDirectoryLoader()
+        .load(_indexDir.toURI(),
+            new SegmentDirectoryLoaderContext.Builder().setSegmentDirectoryConfigs(_configuration).build());
+        SegmentDirectory.Reader reader = segmentDirectory.createReader()) {
+      assertTrue(reader.hasIndexFor(COLUMN1_NAME, ColumnIndexType.INVERTED_INDEX));
+      assertTrue(reader.hasIndexFor(COLUMN7_NAME, ColumnIndexType.INVERTED_INDEX));
+      assertTrue(reader.hasIndexFor(COLUMN13_NAME, ColumnIndexType.INVERTED_INDEX));
+      assertTrue(reader.hasIndexFor(COLUMN1_NAME, ColumnIndexType.RANGE_INDEX));
+      assertTrue(reader.hasIndexFor(COLUMN13_NAME, ColumnIndexType.RANGE_INDEX));
+      assertFalse(reader.hasIndexFor(COLUMN7_NAME, ColumnIndexType.RANGE_INDEX));
+    }
+  }
+
   private void checkInvertedIndexCreation(boolean reCreate)
       throws Exception {
     try (SegmentDirectory segmentDirectory = SegmentDirectoryLoaderRegistry.getDefaultSegmentDirectoryLoader()
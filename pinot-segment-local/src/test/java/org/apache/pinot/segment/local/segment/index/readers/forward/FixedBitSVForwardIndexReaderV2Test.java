@@ -40,6 +40,8 @@ public class FixedBitSVForwardIndexReaderV2Test {
   private static final Random RANDOM = new Random();
 
   private final int[][] _sequentialDocIds = new int[32][NUM_DOC_IDS];
+  private final int[] _denseDocIds = new int[NUM_DOC_IDS];
+  private final int[] _lastDenseDocIds = new int[NUM_DOC_IDS];
   private final int[] _sparseDocIds = new int[NUM_DOC_IDS];
   private final int[] _lastSequentialDocIds = new int[NUM_DOC_IDS];
 
@@ -56,8 +58,14 @@ public class FixedBitSVForwardIndexReaderV2Test {
       }
     }
 
+    int denseDocId = RANDOM.nextInt(10);
+    int lastDenseDocId = NUM_VALUES - 1 - RANDOM.nextInt(2);
     int sparseDocId = RANDOM.nextInt(10);
     for (int i = 0; i < NUM_DOC_IDS; i++) {
+      _denseDocIds[i] = denseDocId;
+      denseDocId += 1 + RANDOM.nextInt(2);
+      _lastDenseDocIds[NUM_DOC_IDS - 1 - i] = lastDenseDocId;
+      lastDenseDocId -= 1 + RANDOM.nextInt(2);
       _sparseDocIds[i] = sparseDocId;
       sparseDocId += 5 + RANDOM.nextInt(6);
       _lastSequentialDocIds[i] = NUM_VALUES - NUM_DOC_IDS + i;
@@ -98,6 +106,14 @@ public class FixedBitSVForwardIndexReaderV2Test {
             Assert.assertEquals(dictIdBuffer[j], values[sequentialDocIds[j]]);
           }
         }
+        reader.readDictIds(_denseDocIds, NUM_DOC_IDS, dictIdBuffer, null);
+        for (int i = 0; i < NUM_DOC_IDS; i++) {
+          Assert.assertEquals(dictIdBuffer[i], values[_denseDocIds[i]]);
+        }
+        reader.readDictIds(_lastDenseDocIds, NUM_DOC_IDS, dictIdBuffer, null);
+        for (int i = 0; i < NUM_DOC_IDS; i++) {
+          Assert.assertEquals(dictIdBuffer[i], values[_lastDenseDocIds[i]]);
+        }
         reader.readDictIds(_sparseDocIds, NUM_DOC_IDS, dictIdBuffer, null);
         for (int i = 0; i < NUM_DOC_IDS; i++) {
           Assert.assertEquals(dictIdBuffer[i], values[_sparseDocIds[i]]);
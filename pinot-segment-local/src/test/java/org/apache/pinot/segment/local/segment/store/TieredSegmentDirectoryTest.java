@@ -0,0 +1,224 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.store;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.indexsegment.immutable.ImmutableSegmentLoader;
+import org.apache.pinot.segment.local.loader.TieredSegmentDirectoryLoader;
+import org.apache.pinot.segment.local.segment.index.loader.IndexLoadingConfig;
+import org.apache.pinot.segment.local.segment.readers.GenericRowRecordReader;
+import org.apache.pinot.segment.local.segment.readers.PinotSegmentUtil;
+import org.apache.pinot.segment.spi.FetchContext;
+import org.apache.pinot.segment.spi.ImmutableSegment;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
+import org.apache.pinot.segment.spi.loader.SegmentDirectoryLoaderContext;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.segment.spi.store.ColumnIndexType;
+import org.apache.pinot.segment.spi.store.SegmentDirectory;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.config.table.TableType;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.env.PinotConfiguration;
+import org.apache.pinot.spi.filesystem.LocalPinotFS;
+import org.apache.pinot.spi.utils.ReadMode;
+import org.apache.pinot.spi.utils.builder.TableConfigBuilder;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+
+public class TieredSegmentDirectoryTest {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "TieredSegmentDirectoryTest");
+  private static final File REMOTE_DIR = new File(TEMP_DIR, "remote");
+  private static final File CACHE_DIR = new File(TEMP_DIR, "cache");
+  private static final String SEGMENT_NAME = "testSegment";
+  private static final String INT_COLUMN = "intCol";
+  private static final String STRING_COLUMN = "stringCol";
+  private static final int NUM_ROWS = 1000;
+
+  private File _indexDir;
+  private TableConfig _tableConfig;
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(TEMP_DIR);
+    Schema schema = new Schema.SchemaBuilder().setSchemaName("testTable")
+        .addSingleValueDimension(INT_COLUMN, DataType.INT).addSingleValueDimension(STRING_COLUMN, DataType.STRING)
+        .build();
+    _tableConfig = new TableConfigBuilder(TableType.OFFLINE).setTableName("testTable").build();
+    _indexDir = PinotSegmentUtil.createSegment(_tableConfig, schema, SEGMENT_NAME, REMOTE_DIR.getPath(),
+        new GenericRowRecordReader(PinotSegmentUtil.createTestData(schema, NUM_ROWS)));
+  }
+
+  private SegmentDirectory loadTiered(TieredSegmentDirectoryLoader loader, String maxSize)
+      throws Exception {
+    Map<String, Object> configs = new HashMap<>();
+    configs.put(TieredSegmentDirectoryLoader.CACHE_DIR_KEY, CACHE_DIR.getAbsolutePath());
+    configs.put(TieredSegmentDirectoryLoader.CACHE_MAX_SIZE_KEY, maxSize);
+    configs.put(IndexLoadingConfig.READ_MODE_KEY, ReadMode.mmap);
+    SegmentDirectoryLoaderContext context =
+        new SegmentDirectoryLoaderContext.Builder().setTableConfig(_tableConfig).setSegmentName(SEGMENT_NAME)
+            .setSegmentCrc("123").setSegmentDirectoryConfigs(new PinotConfiguration(configs)).build();
+    return loader.load(_indexDir.toURI(), context);
+  }
+
+  @Test
+  public void testLoadFromRemote()
+      throws Exception {
+    TieredSegmentDirectoryLoader loader = new TieredSegmentDirectoryLoader();
+    SegmentDirectory segmentDirectory = loadTiered(loader, "1G");
+    TieredIndexCache cache = loader.getCache();
+    assertEquals(segmentDirectory.getSegmentMetadata().getTotalDocs(), NUM_ROWS);
+    assertTrue(segmentDirectory.getColumnsWithIndex(ColumnIndexType.DICTIONARY).contains(INT_COLUMN));
+    // Nothing should be fetched before accessing the indexes
+    assertEquals(cache.getNumEntries(), 0);
+
+    ImmutableSegment tieredSegment = ImmutableSegmentLoader.load(segmentDirectory, new IndexLoadingConfig(), null);
+    ImmutableSegment localSegment = ImmutableSegmentLoader.load(_indexDir, ReadMode.mmap);
+    for (String column : new String[]{INT_COLUMN, STRING_COLUMN}) {
+      Dictionary tieredDictionary = tieredSegment.getDictionary(column);
+      Dictionary localDictionary = localSegment.getDictionary(column);
+      assertEquals(tieredDictionary.length(), localDictionary.length());
+      for (int dictId = 0; dictId < localDictionary.length(); dictId++) {
+        assertEquals(tieredDictionary.get(dictId), localDictionary.get(dictId));
+      }
+    }
+    long numMisses = cache.getNumMisses();
+    assertTrue(numMisses > 0);
+    assertEquals(cache.getNumBytesFetched(), cache.getSizeBytes());
+    localSegment.destroy();
+    tieredSegment.destroy();
+
+    // Cached indexes should be reused after reloading the segment
+    segmentDirectory = loadTiered(loader, "1G");
+    tieredSegment = ImmutableSegmentLoader.load(segmentDirectory, new IndexLoadingConfig(), null);
+    assertEquals(cache.getNumMisses(), numMisses);
+    assertTrue(cache.getNumHits() > 0);
+    tieredSegment.destroy();
+    assertEquals(cache.getNumEvictions(), 0);
+  }
+
+  @Test
+  public void testQueryScopedReferences()
+      throws Exception {
+    TieredSegmentDirectoryLoader loader = new TieredSegmentDirectoryLoader();
+    TieredSegmentDirectory segmentDirectory = (TieredSegmentDirectory) loadTiered(loader, "1G");
+    TieredIndexCache cache = loader.getCache();
+    SegmentDirectory.Reader reader = segmentDirectory.createReader();
+    PinotDataBuffer buffer = reader.getIndexFor(INT_COLUMN, ColumnIndexType.FORWARD_INDEX);
+    int value = buffer.getInt(0);
+    assertEquals(cache.getNumReferencedEntries(), 1);
+
+    // Ranges accessed while loading the segment should be released after loading
+    segmentDirectory.releaseLoadingReferences();
+    assertEquals(cache.getNumReferencedEntries(), 0);
+
+    // Ranges accessed by a query should only be referenced until the query releases them
+    FetchContext fetchContext = new FetchContext(UUID.randomUUID(), SEGMENT_NAME, Collections.singleton(INT_COLUMN));
+    segmentDirectory.acquire(fetchContext);
+    assertEquals(buffer.getInt(0), value);
+    assertEquals(buffer.view(0, Integer.BYTES).getInt(0), value);
+    assertEquals(cache.getNumReferencedEntries(), 1);
+    segmentDirectory.release(fetchContext);
+    assertEquals(cache.getNumReferencedEntries(), 0);
+
+    // Ranges accessed outside of the queries should be pinned until the segment directory is closed
+    assertEquals(buffer.getInt(0), value);
+    segmentDirectory.acquire(fetchContext);
+    segmentDirectory.release(fetchContext);
+    assertEquals(cache.getNumReferencedEntries(), 1);
+    segmentDirectory.close();
+    assertEquals(cache.getNumReferencedEntries(), 0);
+    assertEquals(cache.getNumMisses(), 1);
+  }
+
+  @Test
+  public void testEviction()
+      throws Exception {
+    File remoteFile = new File(TEMP_DIR, "remoteFile");
+    FileUtils.writeByteArrayToFile(remoteFile, new byte[100]);
+    LocalPinotFS pinotFS = new LocalPinotFS();
+    TieredIndexCache cache = new TieredIndexCache(new File(TEMP_DIR, "evictionCache"), 64);
+    File file1 = new File(cache.getCacheDir(), "file1");
+    File file2 = new File(cache.getCacheDir(), "file2");
+    File file3 = new File(cache.getCacheDir(), "file3");
+
+    cache.acquire(file1, pinotFS, remoteFile.toURI(), 0, 32);
+    cache.acquire(file2, pinotFS, remoteFile.toURI(), 32, 32);
+    assertEquals(cache.getSizeBytes(), 64);
+
+    // Referenced entries cannot be evicted, so new entries exceeding the budget are rejected
+    assertThrows(TieredIndexCache.CacheFullException.class,
+        () -> cache.acquire(file3, pinotFS, remoteFile.toURI(), 64, 32));
+    assertEquals(cache.getNumEntries(), 2);
+    assertEquals(cache.getSizeBytes(), 64);
+
+    // Released entries are kept until the space is needed
+    cache.release(file1);
+    assertEquals(cache.getNumEntries(), 2);
+    assertTrue(file1.exists());
+    cache.acquire(file3, pinotFS, remoteFile.toURI(), 64, 32);
+    assertEquals(cache.getNumEntries(), 2);
+    assertEquals(cache.getSizeBytes(), 64);
+    assertEquals(cache.getNumEvictions(), 1);
+    assertFalse(file1.exists());
+    cache.release(file2);
+    cache.release(file3);
+  }
+
+  @Test
+  public void testCacheFull()
+      throws Exception {
+    TieredSegmentDirectoryLoader loader = new TieredSegmentDirectoryLoader();
+    // Cache size smaller than any index, so that no index can be cached
+    SegmentDirectory segmentDirectory = loadTiered(loader, "1");
+    TieredIndexCache cache = loader.getCache();
+
+    // Prefetch failures are ignored
+    segmentDirectory.prefetch(
+        new FetchContext(UUID.randomUUID(), SEGMENT_NAME, Collections.singleton(INT_COLUMN)));
+    assertEquals(cache.getNumMisses(), 0);
+    assertEquals(cache.getNumEntries(), 0);
+
+    SegmentDirectory.Reader reader = segmentDirectory.createReader();
+    assertTrue(reader.hasIndexFor(INT_COLUMN, ColumnIndexType.FORWARD_INDEX));
+    assertFalse(reader.hasIndexFor(INT_COLUMN, ColumnIndexType.INVERTED_INDEX));
+    assertThrows(TieredIndexCache.CacheFullException.class,
+        () -> reader.getIndexFor(INT_COLUMN, ColumnIndexType.FORWARD_INDEX));
+    segmentDirectory.close();
+    assertEquals(cache.getSizeBytes(), 0);
+  }
+
+  @AfterClass
+  public void tearDown() {
+    FileUtils.deleteQuietly(TEMP_DIR);
+  }
+}
@@ -0,0 +1,215 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.upsert;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.spi.ImmutableSegment;
+import org.apache.pinot.segment.spi.IndexSegment;
+import org.apache.pinot.segment.spi.MutableSegment;
+import org.apache.pinot.segment.spi.SegmentMetadata;
+import org.apache.pinot.segment.spi.index.mutable.ThreadSafeMutableRoaringBitmap;
+import org.apache.pinot.spi.config.table.UpsertConfig;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.readers.PrimaryKey;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+
+public class OffHeapRecordLocationStoreTest {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "OffHeapRecordLocationStoreTest");
+
+  @BeforeMethod
+  public void setUp()
+      throws IOException {
+    FileUtils.deleteDirectory(TEMP_DIR);
+  }
+
+  @AfterMethod
+  public void tearDown()
+      throws IOException {
+    FileUtils.deleteDirectory(TEMP_DIR);
+  }
+
+  @Test
+  public void testComputeAndRemoveSegment()
+      throws IOException {
+    try (OffHeapRecordLocationStore store = new OffHeapRecordLocationStore(TEMP_DIR, DataType.LONG,
+        segmentCrcMap -> true)) {
+      IndexSegment segment1 = mockImmutableSegment("segment1", "1");
+      IndexSegment segment2 = mockImmutableSegment("segment2", "2");
+
+      // Add enough keys to resize the hash table
+      int numKeys = 100_000;
+      for (int i = 0; i < numKeys; i++) {
+        IndexSegment segment = i % 2 == 0 ? segment1 : segment2;
+        long comparisonValue = i;
+        int docId = i;
+        RecordLocation recordLocation = store.compute(getKey(i), (primaryKey, currentRecordLocation) -> {
+          assertNull(currentRecordLocation);
+          return new RecordLocation(segment, docId, comparisonValue);
+        });
+        assertSame(recordLocation.getSegment(), segment);
+      }
+      assertEquals(store.size(), numKeys);
+      for (int i = 0; i < numKeys; i++) {
+        checkRecordLocation(store, i, i % 2 == 0 ? segment1 : segment2, i, (long) i);
+      }
+
+      // Move the key to another segment, and keep the current record location
+      store.compute(getKey(0), (primaryKey, currentRecordLocation) -> new RecordLocation(segment2, 0, 10L));
+      store.compute(getKey(1), (primaryKey, currentRecordLocation) -> currentRecordLocation);
+      checkRecordLocation(store, 0, segment2, 0, 10L);
+      checkRecordLocation(store, 1, segment2, 1, 1L);
+
+      // Remove the first segment
+      store.removeSegment(segment1);
+      assertEquals(store.size(), numKeys / 2 + 1);
+      checkRecordLocation(store, 0, segment2, 0, 10L);
+      assertNull(store.get(getKey(2)));
+
+      // Re-add a removed key into the deleted slot
+      store.compute(getKey(2), (primaryKey, currentRecordLocation) -> {
+        assertNull(currentRecordLocation);
+        return new RecordLocation(segment1, 2, 20L);
+      });
+      checkRecordLocation(store, 2, segment1, 2, 20L);
+      assertEquals(store.size(), numKeys / 2 + 2);
+    }
+  }
+
+  @Test
+  public void testPersistAndRecover()
+      throws IOException {
+    IndexSegment segment1 = mockImmutableSegment("segment1", "1");
+    IndexSegment segment2 = mockImmutableSegment("segment2", "2");
+    MutableSegment consumingSegment = mock(MutableSegment.class);
+    when(consumingSegment.getSegmentName()).thenReturn("segment3");
+    try (OffHeapRecordLocationStore store = new OffHeapRecordLocationStore(TEMP_DIR, DataType.INT,
+        segmentCrcMap -> true)) {
+      store.compute(getKey(0), (primaryKey, currentRecordLocation) -> new RecordLocation(segment1, 0, 100));
+      store.compute(getKey(1), (primaryKey, currentRecordLocation) -> new RecordLocation(segment1, 1, 100));
+      store.compute(getKey(2), (primaryKey, currentRecordLocation) -> new RecordLocation(segment2, 0, 120));
+      store.compute(getKey(3), (primaryKey, currentRecordLocation) -> new RecordLocation(consumingSegment, 0, 150));
+    }
+
+    AtomicReference<Map<String, String>> persistedSegments = new AtomicReference<>();
+    try (OffHeapRecordLocationStore store = new OffHeapRecordLocationStore(TEMP_DIR, DataType.INT,
+        segmentCrcMap -> {
+          persistedSegments.set(segmentCrcMap);
+          return true;
+        })) {
+      Map<String, String> expectedSegments = new HashMap<>();
+      expectedSegments.put("segment1", "1");
+      expectedSegments.put("segment2", "2");
+      assertEquals(persistedSegments.get(), expectedSegments);
+
+      // The record locations pointing to the consuming segment are not recovered
+      assertEquals(store.size(), 3);
+      assertNull(store.get(getKey(3)));
+
+      // The record locations can be updated before the recovered segment is added
+      ThreadSafeMutableRoaringBitmap validDocIds1 = store.getRecoveredValidDocIds("segment1", "1");
+      assertNotNull(validDocIds1);
+      assertEquals(validDocIds1.getMutableRoaringBitmap().toArray(), new int[]{0, 1});
+      RecordLocation recoveredRecordLocation = store.get(getKey(0));
+      assertNotNull(recoveredRecordLocation);
+      assertEquals(recoveredRecordLocation.getSegment().getSegmentName(), "segment1");
+      assertEquals(recoveredRecordLocation.getComparisonValue(), 100);
+
+      IndexSegment newSegment1 = mockImmutableSegment("segment1", "1");
+      when(newSegment1.getValidDocIds()).thenReturn(validDocIds1);
+      store.addRecoveredSegment(newSegment1);
+      checkRecordLocation(store, 0, newSegment1, 0, 100);
+      checkRecordLocation(store, 1, newSegment1, 1, 100);
+      assertNull(store.getRecoveredValidDocIds("segment1", "1"));
+
+      // The recovered record locations are dropped when the segment is changed
+      assertNull(store.getRecoveredValidDocIds("segment2", "20"));
+      assertNull(store.get(getKey(2)));
+      assertEquals(store.size(), 2);
+    }
+
+    // The persisted record locations are discarded when the segments are not served
+    try (OffHeapRecordLocationStore store = new OffHeapRecordLocationStore(TEMP_DIR, DataType.INT,
+        segmentCrcMap -> false)) {
+      assertEquals(store.size(), 0);
+      assertNull(store.get(getKey(0)));
+      assertNull(store.getRecoveredValidDocIds("segment1", "1"));
+    }
+  }
+
+  @Test
+  public void testNotPersistedWithoutClose()
+      throws IOException {
+    IndexSegment segment1 = mockImmutableSegment("segment1", "1");
+    OffHeapRecordLocationStore store = new OffHeapRecordLocationStore(TEMP_DIR, DataType.DOUBLE,
+        segmentCrcMap -> true);
+    store.compute(getKey(0), (primaryKey, currentRecordLocation) -> new RecordLocation(segment1, 0, 1.5));
+    assertTrue(new File(TEMP_DIR, OffHeapRecordLocationStore.LOCATIONS_FILE_NAME).exists());
+    assertTrue(!new File(TEMP_DIR, OffHeapRecordLocationStore.SEGMENTS_FILE_NAME).exists());
+    store.close();
+    assertTrue(new File(TEMP_DIR, OffHeapRecordLocationStore.SEGMENTS_FILE_NAME).exists());
+
+    // Re-opening the store removes the segments file so that a crash before the next close won't recover the modified
+    // record locations
+    store = new OffHeapRecordLocationStore(TEMP_DIR, DataType.DOUBLE, segmentCrcMap -> true);
+    assertTrue(!new File(TEMP_DIR, OffHeapRecordLocationStore.SEGMENTS_FILE_NAME).exists());
+    RecordLocation recordLocation = store.get(getKey(0));
+    assertNotNull(recordLocation);
+    assertEquals(recordLocation.getComparisonValue(), 1.5);
+    store.close();
+  }
+
+  private static IndexSegment mockImmutableSegment(String segmentName, String crc) {
+    ImmutableSegment segment = mock(ImmutableSegment.class);
+    when(segment.getSegmentName()).thenReturn(segmentName);
+    SegmentMetadata segmentMetadata = mock(SegmentMetadata.class);
+    when(segmentMetadata.getCrc()).thenReturn(crc);
+    when(segment.getSegmentMetadata()).thenReturn(segmentMetadata);
+    return segment;
+  }
+
+  private static Object getKey(int value) {
+    return PartitionUpsertMetadataManager.hashPrimaryKey(new PrimaryKey(new Object[]{value}),
+        UpsertConfig.HashFunction.MD5);
+  }
+
+  private static void checkRecordLocation(RecordLocationStore store, int keyValue, IndexSegment segment, int docId,
+      Comparable comparisonValue) {
+    RecordLocation recordLocation = store.get(getKey(keyValue));
+    assertNotNull(recordLocation);
+    assertSame(recordLocation.getSegment(), segment);
+    assertEquals(recordLocation.getDocId(), docId);
+    assertEquals(recordLocation.getComparisonValue(), comparisonValue);
+  }
+}
@@ -20,7 +20,6 @@ package org.apache.pinot.segment.local.upsert;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import org.apache.pinot.common.metrics.ServerMetrics;
 import org.apache.pinot.common.utils.LLCSegmentName;
 import org.apache.pinot.segment.local.indexsegment.immutable.ImmutableSegmentImpl;
@@ -56,7 +55,7 @@ public class PartitionUpsertMetadataManagerTest {
   private void verifyAddSegment(UpsertConfig.HashFunction hashFunction) {
     PartitionUpsertMetadataManager upsertMetadataManager =
         new PartitionUpsertMetadataManager(REALTIME_TABLE_NAME, 0, mock(ServerMetrics.class), null, hashFunction);
-    Map<Object, RecordLocation> recordLocationMap = upsertMetadataManager._primaryKeyToRecordLocationMap;
+    RecordLocationStore recordLocationStore = upsertMetadataManager._recordLocationStore;
 
     // Add the first segment
     List<PartitionUpsertMetadataManager.RecordInfo> recordInfoList1 = new ArrayList<>();
@@ -70,9 +69,9 @@ public class PartitionUpsertMetadataManagerTest {
     ImmutableSegmentImpl segment1 = mockSegment(1, validDocIds1);
     upsertMetadataManager.addSegment(segment1, recordInfoList1.iterator());
     // segment1: 0 -> {5, 100}, 1 -> {4, 120}, 2 -> {2, 100}
-    checkRecordLocation(recordLocationMap, 0, segment1, 5, 100, hashFunction);
-    checkRecordLocation(recordLocationMap, 1, segment1, 4, 120, hashFunction);
-    checkRecordLocation(recordLocationMap, 2, segment1, 2, 100, hashFunction);
+    checkRecordLocation(recordLocationStore, 0, segment1, 5, 100, hashFunction);
+    checkRecordLocation(recordLocationStore, 1, segment1, 4, 120, hashFunction);
+    checkRecordLocation(recordLocationStore, 2, segment1, 2, 100, hashFunction);
     assertEquals(validDocIds1.getMutableRoaringBitmap().toArray(), new int[]{2, 4, 5});
 
     // Add the second segment
@@ -87,10 +86,10 @@ public class PartitionUpsertMetadataManagerTest {
     upsertMetadataManager.addSegment(segment2, recordInfoList2.iterator());
     // segment1: 1 -> {4, 120}
     // segment2: 0 -> {0, 100}, 2 -> {2, 120}, 3 -> {3, 80}
-    checkRecordLocation(recordLocationMap, 0, segment2, 0, 100, hashFunction);
-    checkRecordLocation(recordLocationMap, 1, segment1, 4, 120, hashFunction);
-    checkRecordLocation(recordLocationMap, 2, segment2, 2, 120, hashFunction);
-    checkRecordLocation(recordLocationMap, 3, segment2, 3, 80, hashFunction);
+    checkRecordLocation(recordLocationStore, 0, segment2, 0, 100, hashFunction);
+    checkRecordLocation(recordLocationStore, 1, segment1, 4, 120, hashFunction);
+    checkRecordLocation(recordLocationStore, 2, segment2, 2, 120, hashFunction);
+    checkRecordLocation(recordLocationStore, 3, segment2, 3, 80, hashFunction);
     assertEquals(validDocIds1.getMutableRoaringBitmap().toArray(), new int[]{4});
     assertEquals(validDocIds2.getMutableRoaringBitmap().toArray(), new int[]{0, 2, 3});
 
@@ -101,27 +100,27 @@ public class PartitionUpsertMetadataManagerTest {
     // original segment1: 1 -> {4, 120}
     // segment2: 0 -> {0, 100}, 2 -> {2, 120}, 3 -> {3, 80}
     // new segment1: 1 -> {4, 120}
-    checkRecordLocation(recordLocationMap, 0, segment2, 0, 100, hashFunction);
-    checkRecordLocation(recordLocationMap, 1, newSegment1, 4, 120, hashFunction);
-    checkRecordLocation(recordLocationMap, 2, segment2, 2, 120, hashFunction);
-    checkRecordLocation(recordLocationMap, 3, segment2, 3, 80, hashFunction);
+    checkRecordLocation(recordLocationStore, 0, segment2, 0, 100, hashFunction);
+    checkRecordLocation(recordLocationStore, 1, newSegment1, 4, 120, hashFunction);
+    checkRecordLocation(recordLocationStore, 2, segment2, 2, 120, hashFunction);
+    checkRecordLocation(recordLocationStore, 3, segment2, 3, 80, hashFunction);
     assertEquals(validDocIds1.getMutableRoaringBitmap().toArray(), new int[]{4});
     assertEquals(validDocIds2.getMutableRoaringBitmap().toArray(), new int[]{0, 2, 3});
     assertEquals(newValidDocIds1.getMutableRoaringBitmap().toArray(), new int[]{4});
-    assertSame(recordLocationMap.get(PartitionUpsertMetadataManager.hashPrimaryKey(getPrimaryKey(1), hashFunction))
+    assertSame(recordLocationStore.get(PartitionUpsertMetadataManager.hashPrimaryKey(getPrimaryKey(1), hashFunction))
         .getSegment(), newSegment1);
 
     // Remove the original segment1
     upsertMetadataManager.removeSegment(segment1);
     // segment2: 0 -> {0, 100}, 2 -> {2, 120}, 3 -> {3, 80}
     // new segment1: 1 -> {4, 120}
-    checkRecordLocation(recordLocationMap, 0, segment2, 0, 100, hashFunction);
-    checkRecordLocation(recordLocationMap, 1, newSegment1, 4, 120, hashFunction);
-    checkRecordLocation(recordLocationMap, 2, segment2, 2, 120, hashFunction);
-    checkRecordLocation(recordLocationMap, 3, segment2, 3, 80, hashFunction);
+    checkRecordLocation(recordLocationStore, 0, segment2, 0, 100, hashFunction);
+    checkRecordLocation(recordLocationStore, 1, newSegment1, 4, 120, hashFunction);
+    checkRecordLocation(recordLocationStore, 2, segment2, 2, 120, hashFunction);
+    checkRecordLocation(recordLocationStore, 3, segment2, 3, 80, hashFunction);
     assertEquals(validDocIds2.getMutableRoaringBitmap().toArray(), new int[]{0, 2, 3});
     assertEquals(newValidDocIds1.getMutableRoaringBitmap().toArray(), new int[]{4});
-    assertSame(recordLocationMap.get(PartitionUpsertMetadataManager.hashPrimaryKey(getPrimaryKey(1), hashFunction))
+    assertSame(recordLocationStore.get(PartitionUpsertMetadataManager.hashPrimaryKey(getPrimaryKey(1), hashFunction))
         .getSegment(), newSegment1);
   }
 
@@ -141,10 +140,10 @@ public class PartitionUpsertMetadataManagerTest {
     return new PrimaryKey(new Object[]{value});
   }
 
-  private static void checkRecordLocation(Map<Object, RecordLocation> recordLocationMap, int keyValue,
+  private static void checkRecordLocation(RecordLocationStore recordLocationStore, int keyValue,
       IndexSegment segment, int docId, int comparisonValue, UpsertConfig.HashFunction hashFunction) {
     RecordLocation recordLocation =
-        recordLocationMap.get(PartitionUpsertMetadataManager.hashPrimaryKey(getPrimaryKey(keyValue), hashFunction));
+        recordLocationStore.get(PartitionUpsertMetadataManager.hashPrimaryKey(getPrimaryKey(keyValue), hashFunction));
     assertNotNull(recordLocation);
     assertSame(recordLocation.getSegment(), segment);
     assertEquals(recordLocation.getDocId(), docId);
@@ -161,7 +160,7 @@ public class PartitionUpsertMetadataManagerTest {
   private void verifyAddRecord(UpsertConfig.HashFunction hashFunction) {
     PartitionUpsertMetadataManager upsertMetadataManager =
         new PartitionUpsertMetadataManager(REALTIME_TABLE_NAME, 0, mock(ServerMetrics.class), null, hashFunction);
-    Map<Object, RecordLocation> recordLocationMap = upsertMetadataManager._primaryKeyToRecordLocationMap;
+    RecordLocationStore recordLocationStore = upsertMetadataManager._recordLocationStore;
 
     // Add the first segment
     // segment1: 0 -> {0, 100}, 1 -> {1, 120}, 2 -> {2, 100}
@@ -181,10 +180,10 @@ public class PartitionUpsertMetadataManagerTest {
         new PartitionUpsertMetadataManager.RecordInfo(getPrimaryKey(3), 0, new IntWrapper(100)));
     // segment1: 0 -> {0, 100}, 1 -> {1, 120}, 2 -> {2, 100}
     // segment2: 3 -> {0, 100}
-    checkRecordLocation(recordLocationMap, 0, segment1, 0, 100, hashFunction);
-    checkRecordLocation(recordLocationMap, 1, segment1, 1, 120, hashFunction);
-    checkRecordLocation(recordLocationMap, 2, segment1, 2, 100, hashFunction);
-    checkRecordLocation(recordLocationMap, 3, segment2, 0, 100, hashFunction);
+    checkRecordLocation(recordLocationStore, 0, segment1, 0, 100, hashFunction);
+    checkRecordLocation(recordLocationStore, 1, segment1, 1, 120, hashFunction);
+    checkRecordLocation(recordLocationStore, 2, segment1, 2, 100, hashFunction);
+    checkRecordLocation(recordLocationStore, 3, segment2, 0, 100, hashFunction);
     assertEquals(validDocIds1.getMutableRoaringBitmap().toArray(), new int[]{0, 1, 2});
     assertEquals(validDocIds2.getMutableRoaringBitmap().toArray(), new int[]{0});
 
@@ -192,10 +191,10 @@ public class PartitionUpsertMetadataManagerTest {
         new PartitionUpsertMetadataManager.RecordInfo(getPrimaryKey(2), 1, new IntWrapper(120)));
     // segment1: 0 -> {0, 100}, 1 -> {1, 120}
     // segment2: 2 -> {1, 120}, 3 -> {0, 100}
-    checkRecordLocation(recordLocationMap, 0, segment1, 0, 100, hashFunction);
-    checkRecordLocation(recordLocationMap, 1, segment1, 1, 120, hashFunction);
-    checkRecordLocation(recordLocationMap, 2, segment2, 1, 120, hashFunction);
-    checkRecordLocation(recordLocationMap, 3, segment2, 0, 100, hashFunction);
+    checkRecordLocation(recordLocationStore, 0, segment1, 0, 100, hashFunction);
+    checkRecordLocation(recordLocationStore, 1, segment1, 1, 120, hashFunction);
+    checkRecordLocation(recordLocationStore, 2, segment2, 1, 120, hashFunction);
+    checkRecordLocation(recordLocationStore, 3, segment2, 0, 100, hashFunction);
     assertEquals(validDocIds1.getMutableRoaringBitmap().toArray(), new int[]{0, 1});
     assertEquals(validDocIds2.getMutableRoaringBitmap().toArray(), new int[]{0, 1});
 
@@ -203,10 +202,10 @@ public class PartitionUpsertMetadataManagerTest {
         new PartitionUpsertMetadataManager.RecordInfo(getPrimaryKey(1), 2, new IntWrapper(100)));
     // segment1: 0 -> {0, 100}, 1 -> {1, 120}
     // segment2: 2 -> {1, 120}, 3 -> {0, 100}
-    checkRecordLocation(recordLocationMap, 0, segment1, 0, 100, hashFunction);
-    checkRecordLocation(recordLocationMap, 1, segment1, 1, 120, hashFunction);
-    checkRecordLocation(recordLocationMap, 2, segment2, 1, 120, hashFunction);
-    checkRecordLocation(recordLocationMap, 3, segment2, 0, 100, hashFunction);
+    checkRecordLocation(recordLocationStore, 0, segment1, 0, 100, hashFunction);
+    checkRecordLocation(recordLocationStore, 1, segment1, 1, 120, hashFunction);
+    checkRecordLocation(recordLocationStore, 2, segment2, 1, 120, hashFunction);
+    checkRecordLocation(recordLocationStore, 3, segment2, 0, 100, hashFunction);
     assertEquals(validDocIds1.getMutableRoaringBitmap().toArray(), new int[]{0, 1});
     assertEquals(validDocIds2.getMutableRoaringBitmap().toArray(), new int[]{0, 1});
 
@@ -214,10 +213,10 @@ public class PartitionUpsertMetadataManagerTest {
         new PartitionUpsertMetadataManager.RecordInfo(getPrimaryKey(0), 3, new IntWrapper(100)));
     // segment1: 1 -> {1, 120}
     // segment2: 0 -> {3, 100}, 2 -> {1, 120}, 3 -> {0, 100}
-    checkRecordLocation(recordLocationMap, 0, segment2, 3, 100, hashFunction);
-    checkRecordLocation(recordLocationMap, 1, segment1, 1, 120, hashFunction);
-    checkRecordLocation(recordLocationMap, 2, segment2, 1, 120, hashFunction);
-    checkRecordLocation(recordLocationMap, 3, segment2, 0, 100, hashFunction);
+    checkRecordLocation(recordLocationStore, 0, segment2, 3, 100, hashFunction);
+    checkRecordLocation(recordLocationStore, 1, segment1, 1, 120, hashFunction);
+    checkRecordLocation(recordLocationStore, 2, segment2, 1, 120, hashFunction);
+    checkRecordLocation(recordLocationStore, 3, segment2, 0, 100, hashFunction);
     assertEquals(validDocIds1.getMutableRoaringBitmap().toArray(), new int[]{1});
     assertEquals(validDocIds2.getMutableRoaringBitmap().toArray(), new int[]{0, 1, 3});
   }
@@ -232,7 +231,7 @@ public class PartitionUpsertMetadataManagerTest {
   private void verifyRemoveSegment(UpsertConfig.HashFunction hashFunction) {
     PartitionUpsertMetadataManager upsertMetadataManager =
         new PartitionUpsertMetadataManager(REALTIME_TABLE_NAME, 0, mock(ServerMetrics.class), null, hashFunction);
-    Map<Object, RecordLocation> recordLocationMap = upsertMetadataManager._primaryKeyToRecordLocationMap;
+    RecordLocationStore recordLocationStore = upsertMetadataManager._recordLocationStore;
 
     // Add 2 segments
     // segment1: 0 -> {0, 100}, 1 -> {1, 100}
@@ -253,10 +252,10 @@ public class PartitionUpsertMetadataManagerTest {
     // Remove the first segment
     upsertMetadataManager.removeSegment(segment1);
     // segment2: 2 -> {0, 100}, 3 -> {0, 100}
-    assertNull(recordLocationMap.get(getPrimaryKey(0)));
-    assertNull(recordLocationMap.get(getPrimaryKey(1)));
-    checkRecordLocation(recordLocationMap, 2, segment2, 0, 100, hashFunction);
-    checkRecordLocation(recordLocationMap, 3, segment2, 1, 100, hashFunction);
+    assertNull(recordLocationStore.get(getPrimaryKey(0)));
+    assertNull(recordLocationStore.get(getPrimaryKey(1)));
+    checkRecordLocation(recordLocationStore, 2, segment2, 0, 100, hashFunction);
+    checkRecordLocation(recordLocationStore, 3, segment2, 1, 100, hashFunction);
     assertEquals(validDocIds2.getMutableRoaringBitmap().toArray(), new int[]{0, 1});
   }
 
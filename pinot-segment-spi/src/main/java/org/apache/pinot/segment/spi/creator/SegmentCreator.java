@@ -23,7 +23,9 @@ import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.apache.commons.configuration.ConfigurationException;
+import org.apache.pinot.segment.spi.IndexSegment;
 import org.apache.pinot.segment.spi.index.creator.SegmentIndexCreationInfo;
 import org.apache.pinot.spi.data.Schema;
 import org.apache.pinot.spi.data.readers.GenericRow;
@@ -55,6 +57,33 @@ public interface SegmentCreator extends Closeable, Serializable {
   void indexRow(GenericRow row)
       throws IOException;
 
+  /**
+   * Adds the values of the given column for all the documents of the given segment, in the order of the given sorted
+   * document ids (or in the document id order if not provided). This allows building the segment column by column
+   * instead of row by row, and should be called once for each column in the schema.
+   *
+   * @param columnName The name of the column to index
+   * @param sortedDocIds The sorted document ids, or null for the document id order
+   * @param segment The segment to read the column values from
+   */
+  void indexColumn(String columnName, @Nullable int[] sortedDocIds, IndexSegment segment)
+      throws IOException;
+
+  /**
+   * Adds the values of the given column for a batch of consecutive documents starting from the given document id. This
+   * allows building the segment column by column from batches of records, where different columns can be indexed
+   * concurrently. The values are stored in a primitive array for single-valued INT/LONG/FLOAT/DOUBLE columns, or in an
+   * {@code Object[]} otherwise, and must not contain {@code null} (default null value should be filled in).
+   *
+   * @param columnName The name of the column to index
+   * @param startDocId The document id of the first value
+   * @param numDocs The number of documents in the batch
+   * @param values The values of the column (one entry per document)
+   * @param nullFlags The flags of whether the value is null (filled with default null value), or null if no null value
+   */
+  void indexColumnBatch(String columnName, int startDocId, int numDocs, Object values, @Nullable boolean[] nullFlags)
+      throws IOException;
+
   /**
    * Sets the name of the segment.
    *
@@ -113,6 +113,10 @@ public class SegmentGeneratorConfig implements Serializable {
   private boolean _nullHandlingEnabled = false;
   private boolean _failOnEmptySegment = false;
   private boolean _optimizeDictionaryForMetrics = false;
+  // Read and transform the input data only once, and buffer the transformed records in off-heap memory
+  private boolean _singlePassSegmentCreation = false;
+  // Create the indexes of different columns in parallel with the given number of threads
+  private int _indexCreationParallelism = 1;
   private double _noDictionarySizeRatioThreshold = DEFAULT_NO_DICTIONARY_SIZE_RATIO_THRESHOLD;
 
   // constructed from FieldConfig
@@ -210,6 +214,10 @@ public class SegmentGeneratorConfig implements Serializable {
 
       _nullHandlingEnabled = indexingConfig.isNullHandlingEnabled();
       _optimizeDictionaryForMetrics = indexingConfig.isOptimizeDictionaryForMetrics();
+      _singlePassSegmentCreation = indexingConfig.isSinglePassSegmentCreation();
+      if (indexingConfig.getIndexCreationParallelism() > 0) {
+        _indexCreationParallelism = indexingConfig.getIndexCreationParallelism();
+      }
       _noDictionarySizeRatioThreshold = indexingConfig.getNoDictionarySizeRatioThreshold();
     }
   }
@@ -778,6 +786,22 @@ public class SegmentGeneratorConfig implements Serializable {
     _noDictionarySizeRatioThreshold = noDictionarySizeRatioThreshold;
   }
 
+  public boolean isSinglePassSegmentCreation() {
+    return _singlePassSegmentCreation;
+  }
+
+  public void setSinglePassSegmentCreation(boolean singlePassSegmentCreation) {
+    _singlePassSegmentCreation = singlePassSegmentCreation;
+  }
+
+  public int getIndexCreationParallelism() {
+    return _indexCreationParallelism;
+  }
+
+  public void setIndexCreationParallelism(int indexCreationParallelism) {
+    _indexCreationParallelism = indexCreationParallelism;
+  }
+
   public boolean isFailOnEmptySegment() {
     return _failOnEmptySegment;
   }
@@ -67,6 +67,8 @@ import org.apache.pinot.core.query.request.context.ThreadTimer;
 import org.apache.pinot.core.transport.ListenerConfig;
 import org.apache.pinot.core.util.ListenerConfigUtil;
 import org.apache.pinot.segment.local.realtime.impl.invertedindex.RealtimeLuceneIndexRefreshState;
+import org.apache.pinot.segment.local.segment.index.readers.forward.DecompressedChunkCache;
+import org.apache.pinot.segment.local.segment.index.readers.json.JsonIndexCache;
 import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
 import org.apache.pinot.server.access.AccessControlFactory;
 import org.apache.pinot.server.conf.ServerConf;
@@ -88,6 +90,7 @@ import org.apache.pinot.spi.utils.CommonConstants.Helix.Instance;
 import org.apache.pinot.spi.utils.CommonConstants.Helix.StateModel;
 import org.apache.pinot.spi.utils.CommonConstants.Server;
 import org.apache.pinot.spi.utils.CommonConstants.Server.SegmentCompletionProtocol;
+import org.apache.pinot.spi.utils.DataSizeUtils;
 import org.apache.pinot.spi.utils.NetUtils;
 import org.apache.pinot.spi.utils.builder.TableNameBuilder;
 import org.apache.pinot.sql.parsers.rewriter.QueryRewriterFactory;
@@ -179,6 +182,15 @@ public abstract class BaseServerStarter implements ServiceStartable {
     DataTableBuilder.setCurrentDataTableVersion(_serverConf.getProperty(Server.CONFIG_OF_CURRENT_DATA_TABLE_VERSION,
         Server.DEFAULT_CURRENT_DATA_TABLE_VERSION));
 
+    // Initialize the decompressed chunk cache shared by the raw forward index readers.
+    DecompressedChunkCache.init(DataSizeUtils.toBytes(
+        _serverConf.getProperty(Server.CONFIG_OF_DECOMPRESSED_CHUNK_CACHE_MAX_SIZE,
+            Server.DEFAULT_DECOMPRESSED_CHUNK_CACHE_MAX_SIZE)));
+
+    // Initialize the json index cache shared by the json index readers.
+    JsonIndexCache.init(DataSizeUtils.toBytes(
+        _serverConf.getProperty(Server.CONFIG_OF_JSON_INDEX_CACHE_MAX_SIZE, Server.DEFAULT_JSON_INDEX_CACHE_MAX_SIZE)));
+
     LOGGER.info("Initializing Helix manager with zkAddress: {}, clusterName: {}, instanceId: {}", _zkAddress,
         _helixClusterName, _instanceId);
     _helixManager =
@@ -57,6 +57,7 @@ import org.apache.pinot.segment.local.data.manager.TableDataManager;
 import org.apache.pinot.segment.local.data.manager.TableDataManagerConfig;
 import org.apache.pinot.segment.local.indexsegment.mutable.MutableSegmentImpl;
 import org.apache.pinot.segment.local.segment.index.loader.IndexLoadingConfig;
+import org.apache.pinot.segment.local.segment.index.loader.SegmentPreProcessor;
 import org.apache.pinot.segment.spi.ImmutableSegment;
 import org.apache.pinot.segment.spi.IndexSegment;
 import org.apache.pinot.segment.spi.SegmentMetadata;
@@ -119,6 +120,9 @@ public class HelixInstanceDataManager implements InstanceDataManager {
     // Initialize segment build time lease extender executor
     SegmentBuildTimeLeaseExtender.initExecutor();
 
+    // Initialize segment preprocessor executor
+    SegmentPreProcessor.initExecutor(_instanceDataManagerConfig.getSegmentPreprocessParallelism());
+
     // Initialize the table data manager provider
     TableDataManagerProvider.init(_instanceDataManagerConfig);
     LOGGER.info("Initialized Helix instance data manager");
@@ -151,6 +155,7 @@ public class HelixInstanceDataManager implements InstanceDataManager {
       tableDataManager.shutDown();
     }
     SegmentBuildTimeLeaseExtender.shutdownExecutor();
+    SegmentPreProcessor.shutdownExecutor();
     LOGGER.info("Helix instance data manager shut down");
   }
 
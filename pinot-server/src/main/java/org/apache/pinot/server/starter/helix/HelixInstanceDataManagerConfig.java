@@ -100,6 +100,36 @@ public class HelixInstanceDataManagerConfig implements InstanceDataManagerConfig
   //
   private static final String MAX_PARALLEL_REFRESH_THREADS = "max.parallel.refresh.threads";
 
+  // Key of whether to download and untar segments in a streamed way, i.e. untar the segment on the fly while fetching
+  // it from the deep store instead of persisting the tar file on local disk first. Encrypted segments are always
+  // downloaded to local disk before untarring.
+  private static final String STREAM_SEGMENT_DOWNLOAD_UNTAR = "segment.stream.download.untar";
+  private static final boolean DEFAULT_STREAM_SEGMENT_DOWNLOAD_UNTAR = false;
+
+  // Key of how many segments can be downloaded from the deep store in parallel on one server.
+  // A value of <= 0 indicates unlimited.
+  // Segment download is disk and network bandwidth bound, and too many parallel downloads can slow down all of them.
+  private static final String MAX_PARALLEL_SEGMENT_DOWNLOADS = "max.parallel.segment.downloads";
+  private static final int DEFAULT_MAX_PARALLEL_SEGMENT_DOWNLOADS = -1;
+
+  // Number of threads of the server-wide pool used to create indices for multiple columns in parallel when
+  // preprocessing segments on load or reload. A value of <= 1 indicates creating indices sequentially.
+  private static final String SEGMENT_PREPROCESS_PARALLELISM = "segment.preprocess.parallelism";
+  private static final int DEFAULT_SEGMENT_PREPROCESS_PARALLELISM = 1;
+
+  // Key of whether to open the readers of the columns of immutable segments on first access instead of when loading
+  // the segment. This reduces the segment loading time and the heap usage for wide tables where queries only access a
+  // small subset of the columns.
+  private static final String LAZY_LOAD_COLUMNS = "segment.lazy.load.columns";
+  private static final boolean DEFAULT_LAZY_LOAD_COLUMNS = false;
+
+  // Time in milliseconds after which the on-heap dictionaries of the lazily loaded columns are evicted if not accessed.
+  // Eviction happens when queries release the segment, so it requires query prefetch to be enabled. Dictionaries
+  // accessed outside of the prefetch acquire/release hooks are never evicted.
+  // A value of <= 0 indicates no eviction.
+  private static final String LAZY_COLUMN_IDLE_EVICTION_MS = "segment.lazy.column.idle.eviction.ms";
+  private static final long DEFAULT_LAZY_COLUMN_IDLE_EVICTION_MS = -1L;
+
   // Size of cache that holds errors.
   private static final String ERROR_CACHE_SIZE = "error.cache.size";
 
@@ -206,6 +236,11 @@ public class HelixInstanceDataManagerConfig implements InstanceDataManagerConfig
     return _instanceDataManagerConfiguration.getProperty(MAX_PARALLEL_REFRESH_THREADS, 1);
   }
 
+  public int getSegmentPreprocessParallelism() {
+    return _instanceDataManagerConfiguration
+        .getProperty(SEGMENT_PREPROCESS_PARALLELISM, DEFAULT_SEGMENT_PREPROCESS_PARALLELISM);
+  }
+
   public int getMaxParallelSegmentBuilds() {
     return _instanceDataManagerConfiguration
         .getProperty(MAX_PARALLEL_SEGMENT_BUILDS, DEFAULT_MAX_PARALLEL_SEGMENT_BUILDS);
@@ -227,6 +262,29 @@ public class HelixInstanceDataManagerConfig implements InstanceDataManagerConfig
     return _instanceDataManagerConfiguration.getProperty(ERROR_CACHE_SIZE, DEFAULT_ERROR_CACHE_SIZE);
   }
 
+  @Override
+  public boolean isStreamSegmentDownloadUntar() {
+    return _instanceDataManagerConfiguration
+        .getProperty(STREAM_SEGMENT_DOWNLOAD_UNTAR, DEFAULT_STREAM_SEGMENT_DOWNLOAD_UNTAR);
+  }
+
+  @Override
+  public int getMaxParallelSegmentDownloads() {
+    return _instanceDataManagerConfiguration
+        .getProperty(MAX_PARALLEL_SEGMENT_DOWNLOADS, DEFAULT_MAX_PARALLEL_SEGMENT_DOWNLOADS);
+  }
+
+  @Override
+  public boolean isLazyLoadColumns() {
+    return _instanceDataManagerConfiguration.getProperty(LAZY_LOAD_COLUMNS, DEFAULT_LAZY_LOAD_COLUMNS);
+  }
+
+  @Override
+  public long getLazyColumnIdleEvictionMs() {
+    return _instanceDataManagerConfiguration
+        .getProperty(LAZY_COLUMN_IDLE_EVICTION_MS, DEFAULT_LAZY_COLUMN_IDLE_EVICTION_MS);
+  }
+
   @Override
   public String toString() {
     String configString = "";
@@ -58,4 +58,20 @@ public interface InstanceDataManagerConfig {
   String getSegmentDirectoryLoader();
 
   long getErrorCacheSize();
+
+  default boolean isStreamSegmentDownloadUntar() {
+    return false;
+  }
+
+  default int getMaxParallelSegmentDownloads() {
+    return -1;
+  }
+
+  default boolean isLazyLoadColumns() {
+    return false;
+  }
+
+  default long getLazyColumnIdleEvictionMs() {
+    return -1L;
+  }
 }
@@ -21,20 +21,33 @@ package org.apache.pinot.spi.config.table;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Preconditions;
+import javax.annotation.Nullable;
 import org.apache.pinot.spi.config.BaseJsonConfig;
 
 
 public class BloomFilterConfig extends BaseJsonConfig {
   public static final double DEFAULT_FPP = 0.05;
 
+  public enum Type {
+    // Guava bloom filter layout, where each hash function accesses a random bit
+    GUAVA,
+    // Split block bloom filter layout, where all the bits of a value are within a 32-byte block
+    SPLIT_BLOCK
+  }
+
   private final double _fpp;
   private final int _maxSizeInBytes;
   private final boolean _loadOnHeap;
+  private final Type _type;
+
+  public BloomFilterConfig(double fpp, int maxSizeInBytes, boolean loadOnHeap) {
+    this(fpp, maxSizeInBytes, loadOnHeap, null);
+  }
 
   @JsonCreator
   public BloomFilterConfig(@JsonProperty(value = "fpp") double fpp,
       @JsonProperty(value = "maxSizeInBytes") int maxSizeInBytes,
-      @JsonProperty(value = "loadOnHeap") boolean loadOnHeap) {
+      @JsonProperty(value = "loadOnHeap") boolean loadOnHeap, @JsonProperty(value = "type") @Nullable Type type) {
     if (fpp != 0.0) {
       Preconditions.checkArgument(fpp > 0.0 && fpp < 1.0, "Invalid fpp (false positive probability): %s", fpp);
       _fpp = fpp;
@@ -43,6 +56,7 @@ public class BloomFilterConfig extends BaseJsonConfig {
     }
     _maxSizeInBytes = maxSizeInBytes;
     _loadOnHeap = loadOnHeap;
+    _type = type != null ? type : Type.GUAVA;
   }
 
   public double getFpp() {
@@ -53,7 +67,15 @@ public class BloomFilterConfig extends BaseJsonConfig {
     return _maxSizeInBytes;
   }
 
+  /**
+   * Only applies to the {@link Type#GUAVA} bloom filter. The {@link Type#SPLIT_BLOCK} bloom filter is always read from
+   * the data buffer.
+   */
   public boolean isLoadOnHeap() {
     return _loadOnHeap;
   }
+
+  public Type getType() {
+    return _type;
+  }
 }
@@ -33,6 +33,7 @@ public class FieldConfig extends BaseJsonConfig {
   public static final String ON_HEAP_DICTIONARY_COLUMN_KEY = "useOnHeapDictionary";
   public static final String VAR_LENGTH_DICTIONARY_COLUMN_KEY = "useVarLengthDictionary";
   public static final String DERIVE_NUM_DOCS_PER_CHUNK_RAW_INDEX_KEY = "deriveNumDocsPerChunkForRawIndex";
+  // NOTE: Raw index writer version 5 stores single-value INT and LONG columns with frame-of-reference encoding
   public static final String RAW_INDEX_WRITER_VERSION = "rawIndexWriterVersion";
   public static final String IS_SEGMENT_PARTITIONED_COLUMN_KEY = "isSegmentPartitioned";
 
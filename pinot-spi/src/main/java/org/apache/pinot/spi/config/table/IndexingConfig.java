@@ -66,6 +66,22 @@ public class IndexingConfig extends BaseJsonConfig {
   private boolean _createInvertedIndexDuringSegmentGeneration;
   private String _segmentNameGeneratorType;
 
+  // Whether to build the immutable segment column by column (instead of row by row) when committing a consuming
+  // segment, or when creating a segment from a record reader that supports batch read (e.g. ORC, Parquet)
+  private boolean _columnMajorSegmentBuilderEnabled;
+
+  // Whether to create the offline segment in a single pass over the input data, where the transformed records are
+  // buffered in off-heap memory (instead of reading and transforming the input data twice)
+  private boolean _singlePassSegmentCreation;
+
+  // Number of threads to create the indexes of different columns in parallel during the segment creation (by default
+  // the indexes are created sequentially in the segment creation thread).
+  // NOTE: The threads are dedicated to each segment build (capped by the number of columns and available processors),
+  //       and are not shared across the builds. When multiple segments are built concurrently on the same host (e.g.
+  //       minion tasks, realtime segment commits of multiple partitions), each build starts its own threads, so this
+  //       should be configured together with the concurrency of the segment builds.
+  private int _indexCreationParallelism;
+
   /**
    * The list of columns for which the variable length dictionary needs to be enabled in offline
    * segments. This is only valid for string and bytes columns and has no impact for columns of
@@ -306,4 +322,28 @@ public class IndexingConfig extends BaseJsonConfig {
   public void setSegmentNameGeneratorType(String segmentNameGeneratorType) {
     _segmentNameGeneratorType = segmentNameGeneratorType;
   }
+
+  public boolean isColumnMajorSegmentBuilderEnabled() {
+    return _columnMajorSegmentBuilderEnabled;
+  }
+
+  public void setColumnMajorSegmentBuilderEnabled(boolean columnMajorSegmentBuilderEnabled) {
+    _columnMajorSegmentBuilderEnabled = columnMajorSegmentBuilderEnabled;
+  }
+
+  public boolean isSinglePassSegmentCreation() {
+    return _singlePassSegmentCreation;
+  }
+
+  public void setSinglePassSegmentCreation(boolean singlePassSegmentCreation) {
+    _singlePassSegmentCreation = singlePassSegmentCreation;
+  }
+
+  public int getIndexCreationParallelism() {
+    return _indexCreationParallelism;
+  }
+
+  public void setIndexCreationParallelism(int indexCreationParallelism) {
+    _indexCreationParallelism = indexCreationParallelism;
+  }
 }
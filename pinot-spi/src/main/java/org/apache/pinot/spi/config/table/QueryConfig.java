@@ -46,14 +46,25 @@ public class QueryConfig extends BaseJsonConfig {
   // the expressions within the query to the desired ones (e.g. override transform function to derived column).
   private final Map<String, String> _expressionOverrideMap;
 
+  // Whether to cache the query results on the broker side. Cached results are reused for the identical queries as long
+  // as the queried segments are not changed. Only applied to the queries not hitting the consuming segments.
+  private final Boolean _enableResultCache;
+
   @JsonCreator
   public QueryConfig(@JsonProperty("timeoutMs") @Nullable Long timeoutMs,
       @JsonProperty("disableGroovy") @Nullable Boolean disableGroovy,
-      @JsonProperty("expressionOverrideMap") @Nullable Map<String, String> expressionOverrideMap) {
+      @JsonProperty("expressionOverrideMap") @Nullable Map<String, String> expressionOverrideMap,
+      @JsonProperty("enableResultCache") @Nullable Boolean enableResultCache) {
     Preconditions.checkArgument(timeoutMs == null || timeoutMs > 0, "Invalid 'timeoutMs': %s", timeoutMs);
     _timeoutMs = timeoutMs;
     _disableGroovy = disableGroovy;
     _expressionOverrideMap = expressionOverrideMap;
+    _enableResultCache = enableResultCache;
+  }
+
+  public QueryConfig(@Nullable Long timeoutMs, @Nullable Boolean disableGroovy,
+      @Nullable Map<String, String> expressionOverrideMap) {
+    this(timeoutMs, disableGroovy, expressionOverrideMap, null);
   }
 
   public QueryConfig(long timeoutMs) {
@@ -85,4 +96,10 @@ public class QueryConfig extends BaseJsonConfig {
   public Map<String, String> getExpressionOverrideMap() {
     return _expressionOverrideMap;
   }
+
+  @Nullable
+  @JsonProperty("enableResultCache")
+  public Boolean getEnableResultCache() {
+    return _enableResultCache;
+  }
 }
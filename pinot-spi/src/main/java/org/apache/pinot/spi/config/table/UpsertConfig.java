@@ -44,6 +44,10 @@ public class UpsertConfig extends BaseJsonConfig {
     NONE, MD5, MURMUR3
   }
 
+  public enum MetadataStore {
+    ON_HEAP, OFF_HEAP
+  }
+
   @JsonPropertyDescription("Upsert mode.")
   private final Mode _mode;
 
@@ -59,12 +63,24 @@ public class UpsertConfig extends BaseJsonConfig {
   @JsonPropertyDescription("Column for upsert comparison, default to time column")
   private final String _comparisonColumn;
 
+  @JsonPropertyDescription("Store of the primary key to record location map. OFF_HEAP stores it in memory mapped files "
+      + "persisted per partition to reduce the heap usage and speed up the server restart, only applies to full upsert "
+      + "with MD5 or MURMUR3 hash function and numeric comparison column")
+  private final MetadataStore _metadataStore;
+
+  public UpsertConfig(Mode mode, @Nullable Map<String, Strategy> partialUpsertStrategies,
+      @Nullable Strategy defaultPartialUpsertStrategy, @Nullable String comparisonColumn,
+      @Nullable HashFunction hashFunction) {
+    this(mode, partialUpsertStrategies, defaultPartialUpsertStrategy, comparisonColumn, hashFunction, null);
+  }
+
   @JsonCreator
   public UpsertConfig(@JsonProperty(value = "mode", required = true) Mode mode,
       @JsonProperty("partialUpsertStrategies") @Nullable Map<String, Strategy> partialUpsertStrategies,
       @JsonProperty("defaultPartialUpsertStrategy") @Nullable Strategy defaultPartialUpsertStrategy,
       @JsonProperty("comparisonColumn") @Nullable String comparisonColumn,
-      @JsonProperty("hashFunction") @Nullable HashFunction hashFunction) {
+      @JsonProperty("hashFunction") @Nullable HashFunction hashFunction,
+      @JsonProperty("metadataStore") @Nullable MetadataStore metadataStore) {
     Preconditions.checkArgument(mode != null, "Upsert mode must be configured");
     _mode = mode;
 
@@ -79,6 +95,7 @@ public class UpsertConfig extends BaseJsonConfig {
 
     _comparisonColumn = comparisonColumn;
     _hashFunction = hashFunction == null ? HashFunction.NONE : hashFunction;
+    _metadataStore = metadataStore == null ? MetadataStore.ON_HEAP : metadataStore;
   }
 
   public Mode getMode() {
@@ -101,4 +118,8 @@ public class UpsertConfig extends BaseJsonConfig {
   public String getComparisonColumn() {
     return _comparisonColumn;
   }
+
+  public MetadataStore getMetadataStore() {
+    return _metadataStore;
+  }
 }
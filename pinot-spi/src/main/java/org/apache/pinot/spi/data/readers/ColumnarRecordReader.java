@@ -0,0 +1,45 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.spi.data.readers;
+
+import java.io.IOException;
+
+
+/**
+ * The <code>ColumnarRecordReader</code> is a {@link RecordReader} which can also read the records in batches stored
+ * column by column ({@link RecordBatch}), so that the segment can be created without converting every record into a
+ * {@link GenericRow}.
+ * <p>{@link #hasNext()} and {@link #rewind()} apply to both the row based and the batch based read. Switching between
+ * {@link #next(GenericRow)} and {@link #nextBatch(RecordBatch)} without rewinding the reader is not supported.
+ */
+public interface ColumnarRecordReader extends RecordReader {
+
+  /**
+   * Returns whether the reader can read the records in batches (e.g. some readers can only read flat fields in
+   * batches).
+   */
+  boolean isBatchReadSupported();
+
+  /**
+   * Get the next batch of records, which contains at least one record when {@link #hasNext()} returns {@code true}.
+   * Re-use the given batch to reduce garbage.
+   */
+  RecordBatch nextBatch(RecordBatch reuse)
+      throws IOException;
+}
@@ -0,0 +1,113 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.spi.data.readers;
+
+import java.lang.reflect.Array;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+
+/**
+ * A batch of records stored column by column, read from a {@link ColumnarRecordReader}.
+ * <p>The values of each column are stored in an array with at least {@link #getNumRows()} entries:
+ * <ul>
+ *   <li>int[], long[], float[] or double[] for single-value primitive columns</li>
+ *   <li>Object[] (e.g. String[], byte[][]) for the other columns, where each entry is the value that would be put into
+ *   the {@link GenericRow} by the row based reader (e.g. Object[] for multi-value, Map for map)</li>
+ * </ul>
+ * <p>The null flags of a column are optional, and are only present when the column contains {@code null} values. The
+ * value of a {@code null} entry is undefined. Columns missing from the batch are treated as all {@code null}.
+ */
+public class RecordBatch {
+  private final Map<String, Object> _valuesMap = new HashMap<>();
+  private final Map<String, boolean[]> _nullFlagsMap = new HashMap<>();
+  private int _numRows;
+
+  public int getNumRows() {
+    return _numRows;
+  }
+
+  public void setNumRows(int numRows) {
+    _numRows = numRows;
+  }
+
+  /**
+   * Puts the values (and optional null flags) of a column into the batch.
+   */
+  public void putColumn(String column, Object values, @Nullable boolean[] nullFlags) {
+    _valuesMap.put(column, values);
+    if (nullFlags != null) {
+      _nullFlagsMap.put(column, nullFlags);
+    } else {
+      _nullFlagsMap.remove(column);
+    }
+  }
+
+  public Set<String> getColumnNames() {
+    return _valuesMap.keySet();
+  }
+
+  /**
+   * Returns the values of the given column, or {@code null} if the column does not exist in the batch.
+   */
+  @Nullable
+  public Object getValues(String column) {
+    return _valuesMap.get(column);
+  }
+
+  /**
+   * Returns the null flags of the given column, or {@code null} if the column does not contain {@code null} values.
+   */
+  @Nullable
+  public boolean[] getNullFlags(String column) {
+    return _nullFlagsMap.get(column);
+  }
+
+  /**
+   * Returns the (boxed) value of the given column for the given row, or {@code null} if the value is {@code null}.
+   * <p>NOTE: This method is for the non-performance-critical code path only because it boxes the primitive values.
+   */
+  @Nullable
+  public Object getValue(String column, int rowId) {
+    Object values = _valuesMap.get(column);
+    if (values == null) {
+      return null;
+    }
+    boolean[] nullFlags = _nullFlagsMap.get(column);
+    if (nullFlags != null && nullFlags[rowId]) {
+      return null;
+    }
+    if (values instanceof Object[]) {
+      return ((Object[]) values)[rowId];
+    } else {
+      return Array.get(values, rowId);
+    }
+  }
+
+  /**
+   * Removes all the columns from the batch.
+   */
+  public void clear() {
+    _valuesMap.clear();
+    _nullFlagsMap.clear();
+    _numRows = 0;
+  }
+}
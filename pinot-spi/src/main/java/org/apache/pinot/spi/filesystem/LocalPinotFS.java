@@ -31,6 +31,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.pinot.spi.env.PinotConfiguration;
 
 
@@ -162,6 +163,19 @@ public class LocalPinotFS extends BasePinotFS {
     return new BufferedInputStream(new FileInputStream(toFile(uri)));
   }
 
+  @Override
+  public InputStream open(URI uri, long offset, long length)
+      throws IOException {
+    FileInputStream inputStream = new FileInputStream(toFile(uri));
+    try {
+      inputStream.getChannel().position(offset);
+    } catch (IOException e) {
+      inputStream.close();
+      throw e;
+    }
+    return new BoundedInputStream(new BufferedInputStream(inputStream), length);
+  }
+
   private static File toFile(URI uri) {
     // NOTE: Do not use new File(uri) because scheme might not exist and it does not decode '+' to ' '
     //       Do not use uri.getPath() because it does not decode '+' to ' '
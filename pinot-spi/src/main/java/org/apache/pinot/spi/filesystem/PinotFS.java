@@ -24,6 +24,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
 import java.net.URI;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.pinot.spi.annotations.InterfaceAudience;
 import org.apache.pinot.spi.annotations.InterfaceStability;
 import org.apache.pinot.spi.env.PinotConfiguration;
@@ -228,6 +230,29 @@ public interface PinotFS extends Closeable, Serializable {
   InputStream open(URI uri)
       throws IOException;
 
+  /**
+   * Opens a file in the underlying filesystem and returns an InputStream to read the given byte range of it. This is
+   * used to fetch a byte range of a file without reading the whole file.
+   * By default, this method opens the file, skips the bytes before the offset and stops after the given length.
+   * Filesystems that support ranged reads should override this method to only read the requested range.
+   * @param uri location of the file to open
+   * @param offset byte offset to start reading from
+   * @param length number of bytes to read
+   * @return a new InputStream positioned at the offset, which ends after the given length or at the end of file
+   * @throws IOException on any IO error - missing file, not a file, offset beyond the end of file etc
+   */
+  default InputStream open(URI uri, long offset, long length)
+      throws IOException {
+    InputStream inputStream = open(uri);
+    try {
+      IOUtils.skipFully(inputStream, offset);
+    } catch (IOException e) {
+      inputStream.close();
+      throw e;
+    }
+    return new BoundedInputStream(inputStream, length);
+  }
+
   /**
    * For certain filesystems, we may need to close the filesystem and do relevant operations to prevent leaks.
    * By default, this method does nothing.
@@ -61,6 +61,8 @@ public class StreamConfig {
 
   private static final double CONSUMPTION_RATE_LIMIT_NOT_SPECIFIED = -1;
 
+  public static final int DEFAULT_DECODE_PARALLELISM = 1;
+
   private final String _type;
   private final String _topicName;
   private final String _tableNameWithType;
@@ -81,6 +83,8 @@ public class StreamConfig {
 
   private final double _topicConsumptionRateLimit;
 
+  private final int _decodeParallelism;
+
   private final Map<String, String> _streamConfigMap = new HashMap<>();
 
   // Allow overriding it to use different offset criteria
@@ -194,6 +198,11 @@ public class StreamConfig {
     String rate = streamConfigMap.get(StreamConfigProperties.TOPIC_CONSUMPTION_RATE_LIMIT);
     _topicConsumptionRateLimit = rate != null ? Double.parseDouble(rate) : CONSUMPTION_RATE_LIMIT_NOT_SPECIFIED;
 
+    String decodeParallelism = streamConfigMap.get(StreamConfigProperties.DECODE_PARALLELISM);
+    _decodeParallelism =
+        decodeParallelism != null ? Integer.parseInt(decodeParallelism) : DEFAULT_DECODE_PARALLELISM;
+    Preconditions.checkArgument(_decodeParallelism > 0, "Invalid decode parallelism: %s", _decodeParallelism);
+
     _streamConfigMap.putAll(streamConfigMap);
   }
 
@@ -339,6 +348,10 @@ public class StreamConfig {
         : Optional.of(_topicConsumptionRateLimit);
   }
 
+  public int getDecodeParallelism() {
+    return _decodeParallelism;
+  }
+
   public String getTableNameWithType() {
     return _tableNameWithType;
   }
@@ -356,7 +369,8 @@ public class StreamConfig {
         + _flushThresholdTimeMillis + ", _flushSegmentDesiredSizeBytes=" + _flushThresholdSegmentSizeBytes
         + ", _flushAutotuneInitialRows=" + _flushAutotuneInitialRows + ", _decoderClass='" + _decoderClass + '\''
         + ", _decoderProperties=" + _decoderProperties + ", _groupId='" + _groupId + "', _topicConsumptionRateLimit="
-        + _topicConsumptionRateLimit + ", _tableNameWithType='" + _tableNameWithType + '}';
+        + _topicConsumptionRateLimit + ", _decodeParallelism=" + _decodeParallelism + ", _tableNameWithType='"
+        + _tableNameWithType + '}';
   }
 
   @Override
@@ -384,6 +398,7 @@ public class StreamConfig {
         && EqualityUtils.isEqual(_decoderProperties, that._decoderProperties) && EqualityUtils
         .isEqual(_groupId, that._groupId) && EqualityUtils.isEqual(_tableNameWithType, that._tableNameWithType)
         && EqualityUtils.isEqual(_topicConsumptionRateLimit, that._topicConsumptionRateLimit)
+        && EqualityUtils.isEqual(_decodeParallelism, that._decodeParallelism)
         && EqualityUtils.isEqual(_streamConfigMap, that._streamConfigMap);
   }
 
@@ -404,6 +419,7 @@ public class StreamConfig {
     result = EqualityUtils.hashCodeOf(result, _decoderProperties);
     result = EqualityUtils.hashCodeOf(result, _groupId);
     result = EqualityUtils.hashCodeOf(result, _topicConsumptionRateLimit);
+    result = EqualityUtils.hashCodeOf(result, _decodeParallelism);
     result = EqualityUtils.hashCodeOf(result, _streamConfigMap);
     result = EqualityUtils.hashCodeOf(result, _tableNameWithType);
     return result;
@@ -49,6 +49,12 @@ public class StreamConfigProperties {
   public static final String PARTITION_MSG_OFFSET_FACTORY_CLASS = "partition.offset.factory.class.name";
   public static final String TOPIC_CONSUMPTION_RATE_LIMIT = "topic.consumption.rate.limit";
 
+  /**
+   * Number of threads used to decode and transform the messages of a partition while consuming. When larger than 1,
+   * the messages of each batch are decoded and transformed in parallel, and only indexed on the consumer thread.
+   */
+  public static final String DECODE_PARALLELISM = "realtime.decode.parallelism";
+
   /**
    * Time threshold that will keep the realtime segment open for before we complete the segment
    */
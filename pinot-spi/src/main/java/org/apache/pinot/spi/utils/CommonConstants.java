@@ -231,6 +231,18 @@ public class CommonConstants {
 
     public static final String DISABLE_GROOVY = "pinot.broker.disable.query.groovy";
 
+    // Broker result cache, which is only applied to the tables with 'enableResultCache' set in the query config.
+    // Set the max size to 0 to disable the result cache on the broker.
+    public static final String CONFIG_OF_BROKER_RESULT_CACHE_MAX_SIZE_BYTES = "pinot.broker.result.cache.maxSizeBytes";
+    public static final long DEFAULT_BROKER_RESULT_CACHE_MAX_SIZE_BYTES = 64 * 1024 * 1024L;
+    public static final String CONFIG_OF_BROKER_RESULT_CACHE_EXPIRE_TIME_MS = "pinot.broker.result.cache.expireTimeMs";
+    public static final long DEFAULT_BROKER_RESULT_CACHE_EXPIRE_TIME_MS = 3_600_000L;
+    // Results are not cached for the queries on the segments refreshed within the grace period because servers might
+    // still serve the old segments
+    public static final String CONFIG_OF_BROKER_RESULT_CACHE_REFRESH_GRACE_PERIOD_MS =
+        "pinot.broker.result.cache.refreshGracePeriodMs";
+    public static final long DEFAULT_BROKER_RESULT_CACHE_REFRESH_GRACE_PERIOD_MS = 600_000L;
+
     public static final String CONTROLLER_URL = "pinot.broker.controller.url";
 
     public static class Request {
@@ -326,6 +338,11 @@ public class CommonConstants {
     public static final String CONFIG_OF_VALUE_PRUNER_IN_PREDICATE_THRESHOLD =
         "pinot.server.query.executor.pruner.columnvaluesegmentpruner.inpredicate.threshold";
     public static final int DEFAULT_VALUE_PRUNER_IN_PREDICATE_THRESHOLD = 10;
+    // IN predicates with more values than the threshold above but no more than this threshold are pruned with the bloom
+    // filter only
+    public static final String CONFIG_OF_VALUE_PRUNER_IN_PREDICATE_BLOOM_FILTER_THRESHOLD =
+        "pinot.server.query.executor.pruner.columnvaluesegmentpruner.inpredicate.bloomfilter.threshold";
+    public static final int DEFAULT_VALUE_PRUNER_IN_PREDICATE_BLOOM_FILTER_THRESHOLD = 1000;
 
     /**
      * Service token for accessing protected controller APIs.
@@ -455,6 +472,18 @@ public class CommonConstants {
     public static final String CONFIG_OF_CURRENT_DATA_TABLE_VERSION = "pinot.server.instance.currentDataTableVersion";
     public static final int DEFAULT_CURRENT_DATA_TABLE_VERSION = 3;
 
+    // Max size (e.g. 512M) of the server-wide cache of the decompressed chunks of the raw forward indexes, shared across
+    // queries. The cache is disabled by default.
+    public static final String CONFIG_OF_DECOMPRESSED_CHUNK_CACHE_MAX_SIZE =
+        "pinot.server.instance.decompressedChunkCache.maxSize";
+    public static final String DEFAULT_DECOMPRESSED_CHUNK_CACHE_MAX_SIZE = "0";
+
+    // Max size (e.g. 256M) of the server-wide cache of the json index lookups (matching doc ids of the json_match
+    // predicates and numeric value indexes for the range predicates), shared across queries. The cache is disabled by
+    // default.
+    public static final String CONFIG_OF_JSON_INDEX_CACHE_MAX_SIZE = "pinot.server.instance.jsonIndexCache.maxSize";
+    public static final String DEFAULT_JSON_INDEX_CACHE_MAX_SIZE = "0";
+
     // Environment Provider Configs
     public static final String PREFIX_OF_CONFIG_OF_ENVIRONMENT_PROVIDER_FACTORY =
         "pinot.server.environmentProvider.factory";
@@ -38,6 +38,11 @@ public class UpsertConfigTest {
     upsertConfig1 =
         new UpsertConfig(UpsertConfig.Mode.FULL, null, null, "comparison", UpsertConfig.HashFunction.MURMUR3);
     assertEquals(upsertConfig1.getHashFunction(), UpsertConfig.HashFunction.MURMUR3);
+    assertEquals(upsertConfig1.getMetadataStore(), UpsertConfig.MetadataStore.ON_HEAP);
+
+    upsertConfig1 = new UpsertConfig(UpsertConfig.Mode.FULL, null, null, "comparison", UpsertConfig.HashFunction.MD5,
+        UpsertConfig.MetadataStore.OFF_HEAP);
+    assertEquals(upsertConfig1.getMetadataStore(), UpsertConfig.MetadataStore.OFF_HEAP);
 
     Map<String, UpsertConfig.Strategy> partialUpsertStratgies = new HashMap<>();
     partialUpsertStratgies.put("myCol", UpsertConfig.Strategy.INCREMENT);
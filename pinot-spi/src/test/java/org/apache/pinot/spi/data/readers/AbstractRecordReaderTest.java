@@ -21,6 +21,7 @@ package org.apache.pinot.spi.data.readers;
 import com.google.common.collect.Sets;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -129,6 +130,37 @@ public abstract class AbstractRecordReaderTest {
     Assert.assertFalse(recordReader.hasNext());
   }
 
+  protected void checkBatchValue(ColumnarRecordReader recordReader, List<Map<String, Object>> expectedRecordsMap,
+      Collection<FieldSpec> fieldSpecs)
+      throws Exception {
+    RecordBatch recordBatch = new RecordBatch();
+    int numRecords = 0;
+    while (recordReader.hasNext()) {
+      recordReader.nextBatch(recordBatch);
+      int numRows = recordBatch.getNumRows();
+      Assert.assertTrue(numRows > 0);
+      for (int i = 0; i < numRows; i++) {
+        Map<String, Object> expectedRecord = expectedRecordsMap.get(numRecords + i);
+        for (FieldSpec fieldSpec : fieldSpecs) {
+          String fieldSpecName = fieldSpec.getName();
+          Object actualValue = recordBatch.getValue(fieldSpecName, i);
+          if (fieldSpec.isSingleValueField()) {
+            Assert.assertEquals(actualValue, expectedRecord.get(fieldSpecName));
+          } else {
+            Object[] actualValues = (Object[]) actualValue;
+            List expectedValues = (List) expectedRecord.get(fieldSpecName);
+            Assert.assertEquals(actualValues.length, expectedValues.size());
+            for (int j = 0; j < actualValues.length; j++) {
+              Assert.assertEquals(actualValues[j], expectedValues.get(j));
+            }
+          }
+        }
+      }
+      numRecords += numRows;
+    }
+    Assert.assertEquals(numRecords, expectedRecordsMap.size());
+  }
+
   protected org.apache.pinot.spi.data.Schema getPinotSchema() {
     return new org.apache.pinot.spi.data.Schema.SchemaBuilder()
         .addSingleValueDimension("dim_sv_int", FieldSpec.DataType.INT)